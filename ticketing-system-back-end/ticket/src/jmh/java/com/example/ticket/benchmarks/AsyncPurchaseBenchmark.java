@@ -0,0 +1,87 @@
+package com.example.ticket.benchmarks;
+
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.TicketPools;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to serve a crowd of buyers that arrived before the tickets did.
+ * {@code mvc} models the synchronous endpoint: each waiting request holds
+ * one of Tomcat's 200 request threads in {@link TicketPoolService#takeTicket},
+ * and the rest queue for a thread. {@code async} parks every buyer in the
+ * pool's purchase queue with no thread at all. Each invocation queues the
+ * buyers, then a vendor releases tickets in blocks until all are served.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AsyncPurchaseBenchmark {
+    private static final int REQUEST_THREADS = 200;
+
+    @Param({"mvc", "async"})
+    public String path;
+
+    @Param({"20000"})
+    public int buyers;
+
+    private SaleEventBus events;
+    private TicketPoolService service;
+    private ExecutorService requestThreads;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        service = new TicketPoolService(TicketPools.create("ring-buffer"), events);
+        service.setMaxEventTickets(buyers);
+        service.setMaxPoolTickets(1_000);
+        service.setMaxPendingPurchases(buyers);
+        requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        requestThreads.shutdownNow();
+        events.close();
+    }
+
+    @Benchmark
+    public int serveWaitingBuyers() {
+        List<CompletableFuture<?>> purchases = new ArrayList<>(buyers);
+        for (int customerId = 1; customerId <= buyers; customerId++) {
+            purchases.add(buy(customerId));
+        }
+        while (service.getTicketsSold() < buyers) {
+            if (service.addTickets(1, 1_000, false) == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        CompletableFuture.allOf(purchases.toArray(CompletableFuture[]::new)).join();
+        return service.getTicketsSold();
+    }
+
+    private CompletableFuture<?> buy(int customerId) {
+        if ("async".equals(path)) {
+            return service.purchaseAsync(customerId, 1, true);
+        }
+        return CompletableFuture.runAsync(() -> {
+            try {
+                while (service.takeTicket(customerId, 1, TimeUnit.SECONDS) == null) {
+                    Thread.onSpinWait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, requestThreads);
+    }
+}
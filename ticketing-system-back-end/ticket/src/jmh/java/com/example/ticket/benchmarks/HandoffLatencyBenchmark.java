@@ -0,0 +1,58 @@
+package com.example.ticket.benchmarks;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.TicketPool;
+import com.example.ticket.services.pool.TicketPools;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end vendor to customer latency. With a pool limit of one ticket
+ * the vendor and customer loops hand each ticket over in lockstep, so the
+ * sampled time of each blocking call is the time from release to purchase
+ * (and back) through the wait/signal path the actor loops use.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandoffLatencyBenchmark {
+    @Param({"synchronized", "ring-buffer"})
+    public String engine;
+
+    private final Ticket ticket = new Ticket(1L);
+    private SaleEventBus events;
+    private TicketPoolService service;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        service = new TicketPoolService(TicketPools.create(engine), events);
+        service.setMaxPoolTickets(1);
+        service.setMaxEventTickets(Integer.MAX_VALUE);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        events.close();
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public TicketPool.AddResult vendor() throws InterruptedException {
+        return service.offerTicket(1, ticket, 100, TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    @Group("handoff")
+    @GroupThreads(1)
+    public Ticket customer() throws InterruptedException {
+        return service.takeTicket(1, 100, TimeUnit.MILLISECONDS);
+    }
+}
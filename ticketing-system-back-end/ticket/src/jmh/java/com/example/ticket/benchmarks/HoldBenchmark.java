@@ -0,0 +1,60 @@
+package com.example.ticket.benchmarks;
+
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.holds.Hold;
+import com.example.ticket.services.holds.HoldTimer;
+import com.example.ticket.services.pool.TicketPools;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout holds placed and released while many other holds are
+ * outstanding. With a timing wheel the cost of a hold should not depend
+ * on how many others are waiting to expire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class HoldBenchmark {
+    private static final int BROWSING_TICKETS = 1 << 10;
+
+    @Param({"0", "1000000"})
+    public int outstandingHolds;
+
+    private SaleEventBus events;
+    private HoldTimer timer;
+    private TicketPoolService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        timer = new HoldTimer(HoldTimer.DEFAULT_TICK_MILLIS);
+        int capacity = outstandingHolds + BROWSING_TICKETS;
+        service = new TicketPoolService(TicketPools.create("ring-buffer", capacity), events);
+        service.setHoldTimer(timer);
+        service.setMaxPoolTickets(capacity);
+        service.setMaxEventTickets(capacity);
+        service.addTickets(1, capacity, true);
+        for (int i = 0; i < outstandingHolds; i++) {
+            service.holdTickets(i + 1, 1, 1, TimeUnit.HOURS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        timer.close();
+        events.close();
+    }
+
+    @Benchmark
+    public boolean holdAndRelease() {
+        Hold hold = service.holdTickets(1, 1, 15, TimeUnit.MINUTES);
+        return hold != null && service.releaseHold(1, hold.getHoldId());
+    }
+}
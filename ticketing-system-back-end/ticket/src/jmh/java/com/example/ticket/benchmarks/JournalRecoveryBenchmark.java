@@ -0,0 +1,69 @@
+package com.example.ticket.benchmarks;
+
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.journal.SaleJournal;
+import com.example.ticket.services.pool.TicketPools;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to rebuild a pool from a journal of millions of records. Each
+ * journal holds a release stream where two of every three tickets were
+ * later sold, mirroring a sale in progress.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JournalRecoveryBenchmark {
+    @Param({"1000000", "5000000"})
+    public int records;
+
+    @Param({"ring-buffer"})
+    public String engine;
+
+    private Path directory;
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        path = directory.resolve("pool.journal");
+        try (SaleJournal journal = new SaleJournal(path, SaleJournal.FsyncPolicy.NONE, 10, 1 << 20)) {
+            journal.recover();
+            long released = 0;
+            long sold = 0;
+            for (int i = 0; i < records; i++) {
+                if (i % 5 < 3) {
+                    journal.append(SaleJournal.RecordType.ADD, 1, 0, ++released);
+                } else {
+                    journal.append(SaleJournal.RecordType.SALE, 2, 0, ++sold);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public int recover() throws IOException {
+        try (SaleEventBus events = new SaleEventBus(1024);
+             SaleJournal journal = new SaleJournal(path, SaleJournal.FsyncPolicy.NONE, 10, 1 << 20)) {
+            TicketPoolService service = new TicketPoolService(
+                    TicketPools.create(engine, 1 << 22), events);
+            service.attachJournal(journal);
+            return service.getAvailableTickets();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ticket.benchmarks;
+
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.TicketPools;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of registering customers from several threads. Ids cycle
+ * through a fixed range so the registration set stops growing once it is
+ * full; after that the benchmark measures the duplicate check as well.
+ * Membership checks run against a registry preloaded with the whole range.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class RegistrationBenchmark {
+    private static final int ID_RANGE = 1 << 20;
+
+    @Param({"synchronized", "ring-buffer"})
+    public String engine;
+
+    private final AtomicInteger nextCustomerId = new AtomicInteger();
+    private SaleEventBus events;
+    private TicketPoolService service;
+    private TicketPoolService preloaded;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        service = new TicketPoolService(TicketPools.create(engine), events);
+        preloaded = new TicketPoolService(TicketPools.create(engine), events);
+        int[] customerIds = new int[ID_RANGE];
+        for (int i = 0; i < ID_RANGE; i++) {
+            customerIds[i] = i;
+        }
+        preloaded.registerCustomers(customerIds);
+        nextCustomerId.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        events.close();
+    }
+
+    @Benchmark
+    public boolean registerCustomer() {
+        return service.registerCustomer(nextCustomerId.incrementAndGet() & (ID_RANGE - 1));
+    }
+
+    @Benchmark
+    public boolean isCustomerRegistered() {
+        return preloaded.isCustomerRegistered(nextCustomerId.incrementAndGet() & (2 * ID_RANGE - 1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.ticket.benchmarks;
+
+import com.example.ticket.models.Seat;
+import com.example.ticket.services.seating.SeatMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Best-available claims on a 100,000 seat venue of ten 100x100 sections,
+ * by many pickers at once. Each operation claims a run of seats and gives
+ * it back, so occupancy stays at the configured level. Scale pickers with
+ * {@code -t}, e.g. {@code -Djmh.args="SeatMapBenchmark -t 64"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class SeatMapBenchmark {
+    @Param({"0", "90"})
+    public int occupancyPercent;
+
+    @Param({"4"})
+    public int quantity;
+
+    private SeatMap seatMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<SeatMap.SectionLayout> layouts = new ArrayList<>();
+        for (int section = 1; section <= 10; section++) {
+            layouts.add(new SeatMap.SectionLayout("S" + section, 100, 100));
+        }
+        seatMap = new SeatMap(layouts);
+        int target = seatMap.getCapacity() * occupancyPercent / 100;
+        while (seatMap.getCapacity() - seatMap.getAvailable() < target) {
+            seatMap.claimBestAvailable(1, null);
+        }
+    }
+
+    @Benchmark
+    public int claimAndRelease() {
+        List<Seat> seats = seatMap.claimBestAvailable(quantity, null);
+        int[] seatIds = new int[seats.size()];
+        for (int i = 0; i < seatIds.length; i++) {
+            seatIds[i] = seats.get(i).seatId();
+        }
+        return seatMap.release(seatIds);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.ticket.benchmarks;
+
+import com.example.ticket.services.ids.FileIdBlockSource;
+import com.example.ticket.services.ids.TicketIdAllocator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of {@link TicketIdAllocator#next} from many threads against a
+ * single shared counter, the per-event sequence it replaced. The
+ * allocator leases from a lease file in a temporary directory, so the cost
+ * of recording leases is included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class TicketIdBenchmark {
+    private final AtomicLong sharedCounter = new AtomicLong();
+    private Path directory;
+    private TicketIdAllocator allocator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ticket-ids");
+        allocator = new TicketIdAllocator(new FileIdBlockSource(directory.resolve("ticket-ids.lease")),
+                TicketIdAllocator.DEFAULT_BLOCK_SIZE, TicketIdAllocator.DEFAULT_LEASE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        allocator.close();
+        Files.deleteIfExists(directory.resolve("ticket-ids.lease"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public long allocator() {
+        return allocator.next();
+    }
+
+    @Benchmark
+    public long sharedCounter() {
+        return sharedCounter.incrementAndGet();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.ticket.benchmarks;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.CapacityChange;
+import com.example.ticket.services.pool.PoolCounts;
+import com.example.ticket.services.pool.TicketPool;
+import com.example.ticket.services.pool.TicketPools;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link TicketPoolService#addTicket} and
+ * {@link TicketPoolService#removeTicket} with vendors and customers
+ * hammering the same pool at different producer/consumer ratios. In
+ * {@code resized} one thread keeps halving and restoring the pool limit
+ * while the others trade, to show what live resizes cost the sale path.
+ *
+ * <p>{@code engine} accepts the built-in names or the class name of any
+ * {@link TicketPool} implementation. Thread counts can be scaled from the
+ * command line, e.g. {@code -Djmh.args="TicketPoolBenchmark.balanced -tg 32,32"}.</p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketPoolBenchmark {
+    @Param({"synchronized", "ring-buffer"})
+    public String engine;
+
+    @Param({"1000"})
+    public int maxPoolTickets;
+
+    private final Ticket ticket = new Ticket(1L);
+    private SaleEventBus events;
+    private TicketPoolService service;
+    /** Only touched by the single resizing thread. */
+    private boolean shrunk;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        service = new TicketPoolService(TicketPools.create(engine, TicketPools.DEFAULT_RING_CAPACITY), events);
+        service.setMaxPoolTickets(maxPoolTickets);
+        service.setMaxEventTickets(Integer.MAX_VALUE);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        events.close();
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(4)
+    public TicketPool.AddResult balancedAdd() {
+        return service.addTicket(1, ticket);
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(4)
+    public Ticket balancedRemove() {
+        return service.removeTicket();
+    }
+
+    @Benchmark
+    @Group("producerHeavy")
+    @GroupThreads(6)
+    public TicketPool.AddResult producerHeavyAdd() {
+        return service.addTicket(1, ticket);
+    }
+
+    @Benchmark
+    @Group("producerHeavy")
+    @GroupThreads(2)
+    public Ticket producerHeavyRemove() {
+        return service.removeTicket();
+    }
+
+    @Benchmark
+    @Group("consumerHeavy")
+    @GroupThreads(2)
+    public TicketPool.AddResult consumerHeavyAdd() {
+        return service.addTicket(1, ticket);
+    }
+
+    @Benchmark
+    @Group("consumerHeavy")
+    @GroupThreads(6)
+    public Ticket consumerHeavyRemove() {
+        return service.removeTicket();
+    }
+
+    @Benchmark
+    @Group("statusPolled")
+    @GroupThreads(3)
+    public TicketPool.AddResult statusPolledAdd() {
+        return service.addTicket(1, ticket);
+    }
+
+    @Benchmark
+    @Group("statusPolled")
+    @GroupThreads(3)
+    public Ticket statusPolledRemove() {
+        return service.removeTicket();
+    }
+
+    @Benchmark
+    @Group("statusPolled")
+    @GroupThreads(2)
+    public PoolCounts statusPolledRead() {
+        return service.getCounts();
+    }
+
+    @Benchmark
+    @Group("resized")
+    @GroupThreads(3)
+    public TicketPool.AddResult resizedAdd() {
+        return service.addTicket(1, ticket);
+    }
+
+    @Benchmark
+    @Group("resized")
+    @GroupThreads(3)
+    public Ticket resizedRemove() {
+        return service.removeTicket();
+    }
+
+    @Benchmark
+    @Group("resized")
+    @GroupThreads(1)
+    public CapacityChange resizedResize() {
+        shrunk = !shrunk;
+        return service.resize(shrunk ? maxPoolTickets / 2 : maxPoolTickets, Integer.MAX_VALUE);
+    }
+}
@@ -1,22 +1,30 @@
 package com.example.ticket;
-import com.example.ticket.config.AppConfig;
-import com.example.ticket.controllers.TicketingController;
-import com.example.ticket.services.TicketPoolService;
-import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import com.example.ticket.cli.CommandScript;
+import com.example.ticket.cli.HeadlessRuntime;
+import com.example.ticket.controllers.ActorController;
+import com.example.ticket.models.Ticket;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.InputMismatchException;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+/**
+ * Command line front end. Runs on a {@link HeadlessRuntime} rather than a
+ * Spring context, so it starts quickly. Without arguments it shows an
+ * interactive menu; {@code --batch <file>} (or {@code --batch -} for
+ * standard input) runs a {@link CommandScript} instead and exits with its
+ * exit code.
+ */
 public class TicketingCLI {
-    public static void main(String[] args) {
-        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(AppConfig.class);
-        TicketPoolService ticketPoolService = context.getBean(TicketPoolService.class);
-        TicketingController ticketingController = new TicketingController(ticketPoolService);
-        Scanner scanner = new Scanner(System.in);
-        boolean running = true;
-
+    public static void main(String[] args) throws IOException {
         Logger rootLogger = Logger.getLogger("");
         rootLogger.setLevel(Level.OFF);
 
@@ -24,54 +32,96 @@ public class TicketingCLI {
             rootLogger.removeHandler(handler);
         }
 
+        if (args.length > 0) {
+            if (args.length != 2 || !args[0].equals("--batch")) {
+                System.err.println("Usage: TicketingCLI [--batch <script file> | --batch -]");
+                System.exit(CommandScript.MALFORMED);
+            }
+            int exitCode;
+            try (HeadlessRuntime runtime = HeadlessRuntime.load();
+                 BufferedReader script = args[1].equals("-")
+                         ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                         : Files.newBufferedReader(Path.of(args[1]))) {
+                exitCode = new CommandScript(runtime, System.out).run(script);
+            }
+            System.exit(exitCode);
+        }
+
+        // Services are created by the first command that needs them.
+        HeadlessRuntime runtime = HeadlessRuntime.load();
+        Scanner scanner = new Scanner(System.in);
+        boolean running = true;
+        int eventId = Ticket.DEFAULT_EVENT_ID;
 
         System.out.println("Welcome to the Ticketing System CLI!");
 
         while (running) {
-            System.out.println("\nSelect an option:");
+            System.out.println("\nEvent " + eventId + " - select an option:");
             System.out.println("1. Set Max Event Tickets");
             System.out.println("2. Set Max Pool Tickets");
             System.out.println("3. Start Vendor");
             System.out.println("4. Start Customer");
             System.out.println("5. Stop All");
             System.out.println("6. Show Status");
-            System.out.println("7. Exit");
+            System.out.println("7. Select Event");
+            System.out.println("8. Run Simulation");
+            System.out.println("9. Manage Actors");
+            System.out.println("10. Exit");
             System.out.print("Enter your choice: ");
 
-            int choice = getValidIntegerInput(scanner, "Invalid choice. Please enter a number between 1 and 7.");
+            int choice = getValidIntegerInput(scanner, "Invalid choice. Please enter a number between 1 and 10.");
 
             switch (choice) {
                 case 1:
                     System.out.print("Enter max event tickets: ");
                     int maxEventTickets = getValidIntegerInput(scanner, "Enter max event tickets (greater than 0): ", true);
-                    System.out.println(ticketingController.setMaxEventTickets(maxEventTickets).getBody());
+                    System.out.println(runtime.ticketingController().setMaxEventTickets(eventId, maxEventTickets).getBody());
                     break;
                 case 2:
                     System.out.print("Enter max pool tickets: ");
                     int maxPoolTickets = getValidIntegerInput(scanner, "Enter max pool tickets (greater than 0): ", true);
-                    System.out.println(ticketingController.setMaxPoolTickets(maxPoolTickets).getBody());
+                    System.out.println(runtime.ticketingController().setMaxPoolTickets(eventId, maxPoolTickets).getBody());
                     break;
                 case 3:
                     System.out.print("Enter Vendor ID: ");
                     int vendorId = getValidIntegerInput(scanner, "Enter Vendor ID (greater than 0): ", true);
                     System.out.print("Enter Ticket Release Rate: ");
                     int ticketReleaseRate = getValidIntegerInput(scanner, "Enter Ticket Release Rate (greater than 0): ", true);
-                    System.out.println(ticketingController.startVendor(vendorId, ticketReleaseRate).getBody());
+                    System.out.println(runtime.ticketingController().startVendor(eventId, vendorId, ticketReleaseRate).getBody());
                     break;
                 case 4:
                     System.out.print("Enter Customer ID: ");
                     int customerId = getValidIntegerInput(scanner, "Enter Customer ID (greater than 0): ", true);
                     System.out.print("Enter Customer Retrieval Rate: ");
                     int customerRetrievalRate = getValidIntegerInput(scanner, "Enter Customer Retrieval Rate (greater than 0): ", true);
-                    System.out.println(ticketingController.startCustomer(customerId, customerRetrievalRate).getBody());
+                    System.out.println(runtime.ticketingController().startCustomer(eventId, customerId, customerRetrievalRate).getBody());
                     break;
                 case 5:
-                    System.out.println(ticketingController.stopAll().getBody());
+                    System.out.println(runtime.ticketingController().stopAll().getBody());
                     break;
                 case 6:
-                    System.out.println(ticketingController.status().getBody());
+                    System.out.println(runtime.ticketingController().status(eventId).getBody());
                     break;
                 case 7:
+                    System.out.print("Enter Event ID: ");
+                    int selectedEventId = getValidIntegerInput(scanner, "Enter Event ID (greater than 0): ", true);
+                    if (runtime.eventRegistry().getEvent(selectedEventId) == null) {
+                        System.out.println(runtime.ticketingController().createEvent(selectedEventId, null, null).getBody());
+                    }
+                    eventId = selectedEventId;
+                    break;
+                case 8:
+                    System.out.print("Enter Seed: ");
+                    int seed = getValidIntegerInput(scanner, "Enter Seed (greater than 0): ", true);
+                    System.out.print("Enter On-Sale Buyers: ");
+                    int onSaleBuyers = getValidIntegerInput(scanner, "Enter On-Sale Buyers (greater than 0): ", true);
+                    Map<String, String> settings = Map.of("seed", "" + seed, "onSaleBuyers", "" + onSaleBuyers);
+                    System.out.println(runtime.simulationController().simulate("virtual", eventId, 1, settings).getBody());
+                    break;
+                case 9:
+                    System.out.println(manageActors(scanner, runtime.actorController(), eventId));
+                    break;
+                case 10:
                     running = false;
                     System.out.println("Thank you for using Ticketing System, Exiting.....");
                     break;
@@ -80,10 +130,46 @@ public class TicketingCLI {
             }
         }
 
-        context.close();
+        runtime.close();
         scanner.close();
     }
 
+    /**
+     * Prompts for an actor operation and applies it to the selected event's actors.
+     *
+     * @param scanner         the Scanner object for input
+     * @param actorController the controller managing the actors
+     * @param eventId         the selected event
+     * @return the outcome of the operation
+     */
+    private static Object manageActors(Scanner scanner, ActorController actorController, int eventId) {
+        System.out.print("Action (1 List, 2 Pause, 3 Resume, 4 Stop, 5 Drain, 6 Change Rate): ");
+        int action = getValidIntegerInput(scanner, "Enter an action between 1 and 6: ", true);
+        System.out.print("Role (1 Vendors, 2 Customers, 3 Both): ");
+        int roleChoice = getValidIntegerInput(scanner, "Enter a role between 1 and 3: ", true);
+        String role = roleChoice == 1 ? "vendor" : roleChoice == 2 ? "customer" : null;
+        System.out.print("Actor ID (0 for all): ");
+        int actorId = getValidIntegerInput(scanner, "Enter an Actor ID (0 for all): ");
+        switch (action) {
+            case 1:
+                return actorController.actors(eventId, role, actorId).getBody();
+            case 2:
+                return actorController.pause(eventId, role, actorId).getBody();
+            case 3:
+                return actorController.resume(eventId, role, actorId).getBody();
+            case 4:
+                return actorController.stop(eventId, role, actorId).getBody();
+            case 5:
+                return actorController.drain(eventId, role, actorId, 5000).getBody();
+            case 6:
+                System.out.print("Enter new rate: ");
+                int rate = getValidIntegerInput(scanner, "Enter new rate (greater than 0): ", true);
+                return actorController.rate(eventId, role, actorId, rate).getBody();
+            default:
+                return "Invalid action.";
+        }
+    }
+
     /**
      * Helper method to get a valid integer input.
      *
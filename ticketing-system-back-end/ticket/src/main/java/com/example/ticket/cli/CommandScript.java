@@ -0,0 +1,245 @@
+package com.example.ticket.cli;
+
+import com.example.ticket.models.Ticket;
+import org.springframework.http.ResponseEntity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Map;
+
+/**
+ * Runs the CLI non-interactively from a script with one command per line,
+ * for scripted setups and short load runs. Blank lines and lines starting
+ * with {@code #} are skipped. Each command prints the response of the
+ * endpoint it calls, and the script stops at the first command that is
+ * malformed or rejected. Commands apply to the selected event, initially
+ * the default event:
+ *
+ * <pre>
+ * event &lt;eventId&gt;                          select an event, creating it if missing
+ * max-event-tickets &lt;count&gt;
+ * max-pool-tickets &lt;count&gt;
+ * capacity &lt;maxPoolTickets&gt; &lt;maxEventTickets&gt;
+ * vendor &lt;vendorId&gt; &lt;releaseRateMillis&gt;
+ * customer &lt;customerId&gt; &lt;retrievalRateMillis&gt;
+ * customers &lt;firstCustomerId&gt; &lt;count&gt; &lt;retrievalRateMillis&gt;
+ * add-tickets &lt;vendorId&gt; &lt;count&gt;
+ * purchase &lt;customerId&gt; &lt;quantity&gt;
+ * actors list|pause|resume|stop|drain [vendor|customer|all] [actorId]
+ * actors rate vendor|customer|all &lt;actorId&gt; &lt;rateMillis&gt;
+ * simulate &lt;seed&gt; &lt;onSaleBuyers&gt;                run a virtual-time simulation
+ * status
+ * analytics                                 rolling sales rates and sell-out projection
+ * stop                                      stop every actor and reset every event
+ * sleep &lt;millis&gt;
+ * exit
+ * </pre>
+ */
+public class CommandScript {
+    /** Exit code of a script whose commands all succeeded. */
+    public static final int OK = 0;
+    /** Exit code of a script stopped by a command the system rejected. */
+    public static final int REJECTED = 1;
+    /** Exit code of a script stopped by a command that could not be parsed. */
+    public static final int MALFORMED = 2;
+
+    private final HeadlessRuntime runtime;
+    private final PrintStream out;
+    private int eventId = Ticket.DEFAULT_EVENT_ID;
+
+    /**
+     * Creates a script runner.
+     *
+     * @param runtime the services the commands act on.
+     * @param out     where responses and errors are printed.
+     */
+    public CommandScript(HeadlessRuntime runtime, PrintStream out) {
+        this.runtime = runtime;
+        this.out = out;
+    }
+
+    /**
+     * Runs commands until the script ends, an {@code exit} command or the
+     * first failing command.
+     *
+     * @param script the commands, one per line.
+     * @return {@link #OK}, {@link #REJECTED} or {@link #MALFORMED}.
+     * @throws IOException if the script cannot be read.
+     */
+    public int run(BufferedReader script) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = script.readLine()) != null) {
+            lineNumber++;
+            String command = line.trim();
+            if (command.isEmpty() || command.startsWith("#")) {
+                continue;
+            }
+            String[] words = command.split("\\s+");
+            if (words[0].equals("exit")) {
+                return OK;
+            }
+            ResponseEntity<?> response;
+            try {
+                response = execute(words);
+            } catch (MalformedCommandException e) {
+                out.println("Line " + lineNumber + ": " + e.getMessage());
+                return MALFORMED;
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                // The command parsed, but a service refused it, e.g. a vendor ID already in use.
+                out.println("Line " + lineNumber + ": " + e.getMessage());
+                return REJECTED;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                out.println("Line " + lineNumber + ": interrupted.");
+                return REJECTED;
+            }
+            if (response == null) {
+                continue;
+            }
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                out.println("Line " + lineNumber + ": " + response.getStatusCode().value() + " " + response.getBody());
+                return REJECTED;
+            }
+            out.println(response.getBody());
+        }
+        return OK;
+    }
+
+    /**
+     * Runs one command.
+     *
+     * @return the endpoint's response, or null for commands without one.
+     */
+    private ResponseEntity<?> execute(String[] words) throws InterruptedException {
+        switch (words[0]) {
+            case "event":
+                int selectedEventId = intArg(words, 1, "eventId", 2);
+                ResponseEntity<?> created = null;
+                if (runtime.eventRegistry().getEvent(selectedEventId) == null) {
+                    created = runtime.ticketingController().createEvent(selectedEventId, null, null);
+                }
+                if (created == null || created.getStatusCode().is2xxSuccessful()) {
+                    eventId = selectedEventId;
+                }
+                return created;
+            case "max-event-tickets":
+                return runtime.ticketingController().setMaxEventTickets(eventId, intArg(words, 1, "count", 2));
+            case "max-pool-tickets":
+                return runtime.ticketingController().setMaxPoolTickets(eventId, intArg(words, 1, "count", 2));
+            case "capacity":
+                return runtime.ticketingController().resize(eventId, intArg(words, 1, "maxPoolTickets", 3),
+                        intArg(words, 2, "maxEventTickets", 3));
+            case "vendor":
+                return runtime.ticketingController().startVendor(eventId, intArg(words, 1, "vendorId", 3),
+                        intArg(words, 2, "releaseRateMillis", 3));
+            case "customer":
+                return runtime.ticketingController().startCustomer(eventId, intArg(words, 1, "customerId", 3),
+                        intArg(words, 2, "retrievalRateMillis", 3));
+            case "customers":
+                return runtime.ticketingController().startCustomers(eventId, intArg(words, 1, "firstCustomerId", 4),
+                        intArg(words, 2, "count", 4), intArg(words, 3, "retrievalRateMillis", 4));
+            case "add-tickets":
+                return runtime.ticketingController().addTickets(eventId, intArg(words, 1, "vendorId", 3),
+                        intArg(words, 2, "count", 3), false);
+            case "purchase":
+                return runtime.ticketingController().purchase(eventId, intArg(words, 1, "customerId", 3),
+                        intArg(words, 2, "quantity", 3), true);
+            case "actors":
+                return actors(words);
+            case "simulate":
+                Map<String, String> settings = Map.of("seed", "" + intArg(words, 1, "seed", 3),
+                        "onSaleBuyers", "" + intArg(words, 2, "onSaleBuyers", 3));
+                return runtime.simulationController().simulate("virtual", eventId, 1, settings);
+            case "status":
+                expectWords(words, 1);
+                return runtime.ticketingController().status(eventId);
+            case "analytics":
+                expectWords(words, 1);
+                return runtime.ticketingController().analytics(eventId, 5, null, null);
+            case "stop":
+                expectWords(words, 1);
+                return runtime.ticketingController().stopAll();
+            case "sleep":
+                Thread.sleep(intArg(words, 1, "millis", 2));
+                return null;
+            default:
+                throw new MalformedCommandException("unknown command \"" + words[0] + "\".");
+        }
+    }
+
+    private ResponseEntity<?> actors(String[] words) {
+        if (words.length < 2) {
+            throw new MalformedCommandException("actors needs an action.");
+        }
+        String action = words[1];
+        if (action.equals("rate") ? words.length != 5 : words.length > 4) {
+            throw new MalformedCommandException(action.equals("rate")
+                    ? "actors rate takes a role, an actor ID and a rate."
+                    : "actors " + action + " takes at most a role and an actor ID.");
+        }
+        String role = words.length > 2 ? role(words[2]) : null;
+        int actorId = words.length > 3 ? parseInt(words, 3, "actorId") : 0;
+        switch (action) {
+            case "list":
+                return runtime.actorController().actors(eventId, role, actorId);
+            case "pause":
+                return runtime.actorController().pause(eventId, role, actorId);
+            case "resume":
+                return runtime.actorController().resume(eventId, role, actorId);
+            case "stop":
+                return runtime.actorController().stop(eventId, role, actorId);
+            case "drain":
+                return runtime.actorController().drain(eventId, role, actorId, 5000);
+            case "rate":
+                return runtime.actorController().rate(eventId, role, actorId, parseInt(words, 4, "rateMillis"));
+            default:
+                throw new MalformedCommandException("unknown actors action \"" + action + "\".");
+        }
+    }
+
+    private static String role(String word) {
+        switch (word) {
+            case "vendor":
+            case "customer":
+                return word;
+            case "all":
+                return null;
+            default:
+                throw new MalformedCommandException("role must be vendor, customer or all, not \"" + word + "\".");
+        }
+    }
+
+    private static int intArg(String[] words, int index, String name, int expectedWords) {
+        expectWords(words, expectedWords);
+        return parseInt(words, index, name);
+    }
+
+    private static int parseInt(String[] words, int index, String name) {
+        try {
+            return Integer.parseInt(words[index]);
+        } catch (NumberFormatException e) {
+            throw new MalformedCommandException(words[0] + ": " + name + " must be an integer, not \"" + words[index] + "\".");
+        }
+    }
+
+    private static void expectWords(String[] words, int expected) {
+        if (words.length != expected) {
+            throw new MalformedCommandException(words[0] + " takes " + (expected - 1) + " argument"
+                    + (expected == 2 ? "" : "s") + ", got " + (words.length - 1) + ".");
+        }
+    }
+
+    /**
+     * Thrown for a command that cannot be parsed, as opposed to one that
+     * parsed but was refused.
+     */
+    private static final class MalformedCommandException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        MalformedCommandException(String message) {
+            super(message);
+        }
+    }
+}
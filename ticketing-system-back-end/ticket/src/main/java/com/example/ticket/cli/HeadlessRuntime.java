@@ -0,0 +1,257 @@
+package com.example.ticket.cli;
+
+import com.example.ticket.config.AppConfig;
+import com.example.ticket.controllers.ActorController;
+import com.example.ticket.controllers.SimulationController;
+import com.example.ticket.controllers.TicketingController;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.analytics.SalesAnalytics;
+import com.example.ticket.services.cluster.ClusterNode;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.execution.ActorExecutor;
+import com.example.ticket.services.holds.HoldTimer;
+import com.example.ticket.services.ids.TicketIdAllocator;
+import com.example.ticket.services.pool.TicketPools;
+import com.example.ticket.services.purchase.PurchaseQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The services of the ticketing system without a Spring application
+ * context, for the CLI and other short-lived runs. Components are built by
+ * the same {@link AppConfig} factory methods the server uses, from the same
+ * {@code application.properties} (overridden by system properties), but
+ * only when first asked for: a run that never starts an actor never
+ * creates the actor executor, and nothing is scanned, proxied or wired
+ * reflectively.
+ *
+ * <p>Components are closed in the reverse order they were created.</p>
+ */
+public class HeadlessRuntime implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(HeadlessRuntime.class.getName());
+
+    private final Properties settings;
+    private final AppConfig config = new AppConfig();
+    private final Deque<AutoCloseable> created = new ArrayDeque<>();
+    private SaleEventBus saleEventBus;
+    private SalesAnalytics salesAnalytics;
+    private HoldTimer holdTimer;
+    private TicketIdAllocator ticketIdAllocator;
+    private ClusterNode clusterNode;
+    private EventRegistry eventRegistry;
+    private ActorExecutor actorExecutor;
+    private TicketingController ticketingController;
+    private SimulationController simulationController;
+    private ActorController actorController;
+
+    /**
+     * Creates a runtime configured by {@code application.properties} on the
+     * class path, with system properties taking precedence.
+     *
+     * @return the runtime; nothing is started yet.
+     */
+    public static HeadlessRuntime load() {
+        Properties settings = new Properties();
+        try (InputStream defaults = HeadlessRuntime.class.getResourceAsStream("/application.properties")) {
+            if (defaults != null) {
+                settings.load(defaults);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read application.properties", e);
+        }
+        settings.putAll(System.getProperties());
+        return new HeadlessRuntime(settings);
+    }
+
+    /**
+     * Creates a runtime with the given settings; missing settings take the
+     * server's defaults.
+     *
+     * @param settings the {@code ticket.*} properties.
+     */
+    public HeadlessRuntime(Properties settings) {
+        this.settings = settings;
+    }
+
+    public synchronized SaleEventBus saleEventBus() {
+        if (saleEventBus == null) {
+            saleEventBus = created(config.saleEventBus(
+                    intSetting("ticket.events.buffer-size", SaleEventBus.DEFAULT_CAPACITY)));
+        }
+        return saleEventBus;
+    }
+
+    public synchronized SalesAnalytics salesAnalytics() {
+        if (salesAnalytics == null) {
+            salesAnalytics = config.salesAnalytics(
+                    intSetting("ticket.analytics.max-actors", SalesAnalytics.DEFAULT_MAX_ACTORS), saleEventBus());
+        }
+        return salesAnalytics;
+    }
+
+    public synchronized HoldTimer holdTimer() {
+        if (holdTimer == null) {
+            holdTimer = created(config.holdTimer(longSetting("ticket.holds.tick-ms", HoldTimer.DEFAULT_TICK_MILLIS)));
+        }
+        return holdTimer;
+    }
+
+    public synchronized TicketIdAllocator ticketIdAllocator() {
+        if (ticketIdAllocator == null) {
+            try {
+                ticketIdAllocator = created(config.ticketIdAllocator(
+                        booleanSetting("ticket.ids.durable", true),
+                        setting("ticket.ids.lease-path", ""),
+                        intSetting("ticket.ids.block-size", TicketIdAllocator.DEFAULT_BLOCK_SIZE),
+                        longSetting("ticket.ids.lease-size", TicketIdAllocator.DEFAULT_LEASE_SIZE),
+                        booleanSetting("ticket.cluster.enabled", false),
+                        setting("ticket.cluster.coordinator-dir", "data/cluster")));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open the ticket ID lease", e);
+            }
+        }
+        return ticketIdAllocator;
+    }
+
+    public synchronized ClusterNode clusterNode() {
+        if (clusterNode == null) {
+            try {
+                clusterNode = created(config.clusterNode(
+                        booleanSetting("ticket.cluster.enabled", false),
+                        setting("ticket.cluster.node-id", ""),
+                        setting("ticket.cluster.coordinator-dir", "data/cluster"),
+                        longSetting("ticket.cluster.lease-ms", 5000),
+                        intSetting("ticket.cluster.quota-chunk", 50),
+                        longSetting("ticket.cluster.sync-interval-ms", 500)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot join the ticketing cluster", e);
+            }
+        }
+        return clusterNode;
+    }
+
+    public synchronized EventRegistry eventRegistry() {
+        if (eventRegistry == null) {
+            try {
+                eventRegistry = created(config.eventRegistry(
+                        setting("ticket.pool.engine", TicketPools.DEFAULT_ENGINE),
+                        intSetting("ticket.pool.ring-capacity", TicketPools.DEFAULT_RING_CAPACITY),
+                        booleanSetting("ticket.journal.enabled", false),
+                        setting("ticket.journal.path", "data/ticket-pool.journal"),
+                        setting("ticket.journal.fsync", "batch"),
+                        longSetting("ticket.journal.fsync-interval-ms", 10),
+                        intSetting("ticket.journal.buffer-size", 1048576),
+                        intSetting("ticket.metrics.max-actor-meters", 1000),
+                        intSetting("ticket.purchases.max-pending", PurchaseQueue.DEFAULT_CAPACITY),
+                        saleEventBus(), holdTimer(), ticketIdAllocator(), salesAnalytics(), clusterNode(),
+                        new NoMeterRegistry()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot recover the journaled events", e);
+            }
+        }
+        return eventRegistry;
+    }
+
+    public synchronized ActorExecutor actorExecutor() {
+        if (actorExecutor == null) {
+            ActorExecutor executor = config.actorExecutor(setting("ticket.actors.execution-mode", "fixed"),
+                    intSetting("ticket.actors.pool-size", 10));
+            actorExecutor = created(executor, executor::shutdownNow);
+        }
+        return actorExecutor;
+    }
+
+    public synchronized TicketingController ticketingController() {
+        if (ticketingController == null) {
+            ticketingController = new TicketingController(eventRegistry(), actorExecutor());
+        }
+        return ticketingController;
+    }
+
+    public synchronized SimulationController simulationController() {
+        if (simulationController == null) {
+            simulationController = new SimulationController(eventRegistry());
+        }
+        return simulationController;
+    }
+
+    public synchronized ActorController actorController() {
+        if (actorController == null) {
+            actorController = new ActorController(eventRegistry(), actorExecutor());
+        }
+        return actorController;
+    }
+
+    /**
+     * Closes every component created so far, newest first.
+     */
+    @Override
+    public synchronized void close() {
+        while (!created.isEmpty()) {
+            try {
+                created.pop().close();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Closing a headless runtime component failed.", e);
+            }
+        }
+    }
+
+    private <T extends AutoCloseable> T created(T component) {
+        return created(component, component);
+    }
+
+    private <T> T created(T component, AutoCloseable closer) {
+        created.push(closer);
+        return component;
+    }
+
+    private String setting(String key, String defaultValue) {
+        return settings.getProperty(key, defaultValue).trim();
+    }
+
+    private int intSetting(String key, int defaultValue) {
+        return Integer.parseInt(setting(key, Integer.toString(defaultValue)));
+    }
+
+    private long longSetting(String key, long defaultValue) {
+        return Long.parseLong(setting(key, Long.toString(defaultValue)));
+    }
+
+    private boolean booleanSetting(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(setting(key, Boolean.toString(defaultValue)));
+    }
+
+    /**
+     * Headless runs export no metrics, so pools record nothing.
+     */
+    private static final class NoMeterRegistry implements ObjectProvider<MeterRegistry> {
+        @Override
+        public MeterRegistry getObject() {
+            throw new IllegalStateException("No meter registry in a headless run.");
+        }
+
+        @Override
+        public MeterRegistry getObject(Object... args) {
+            return getObject();
+        }
+
+        @Override
+        public MeterRegistry getIfAvailable() {
+            return null;
+        }
+
+        @Override
+        public MeterRegistry getIfUnique() {
+            return null;
+        }
+    }
+}
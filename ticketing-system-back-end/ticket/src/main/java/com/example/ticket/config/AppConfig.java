@@ -1,14 +1,236 @@
 package com.example.ticket.config;
 
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.analytics.SalesAnalytics;
 import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.cluster.ClusterNode;
+import com.example.ticket.services.cluster.FileQuotaCoordinator;
+import com.example.ticket.services.events.LoggingSaleEventListener;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.execution.ActorExecutor;
+import com.example.ticket.services.holds.HoldTimer;
+import com.example.ticket.services.ids.FileIdBlockSource;
+import com.example.ticket.services.ids.TicketIdAllocator;
+import com.example.ticket.services.journal.SaleJournal;
+import com.example.ticket.services.metrics.MicrometerPoolMetrics;
+import com.example.ticket.services.pool.TicketPools;
+import com.example.ticket.services.purchase.PurchaseQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class AppConfig {
+    private static final String EVENT_JOURNAL_INFIX = "-event-";
+
+    /**
+     * Creates the asynchronous sale event bus, with event logging attached.
+     */
+    @Bean(destroyMethod = "close")
+    public SaleEventBus saleEventBus(
+            @Value("${ticket.events.buffer-size:" + SaleEventBus.DEFAULT_CAPACITY + "}") int bufferSize) {
+        SaleEventBus bus = new SaleEventBus(bufferSize);
+        bus.addListener(new LoggingSaleEventListener());
+        return bus;
+    }
+
+    /**
+     * Creates the streaming sales analytics, fed by the sale event bus.
+     * Per event, at most {@code ticket.analytics.max-actors} vendors and as
+     * many customers get their own rolling history.
+     */
+    @Bean
+    public SalesAnalytics salesAnalytics(
+            @Value("${ticket.analytics.max-actors:" + SalesAnalytics.DEFAULT_MAX_ACTORS + "}") int maxActors,
+            SaleEventBus saleEventBus) {
+        SalesAnalytics analytics = new SalesAnalytics(maxActors);
+        saleEventBus.addListener(analytics);
+        return analytics;
+    }
+
+    /**
+     * Creates the timer that expires ticket holds of every event, ticking
+     * every {@code ticket.holds.tick-ms} milliseconds.
+     */
+    @Bean(destroyMethod = "close")
+    public HoldTimer holdTimer(@Value("${ticket.holds.tick-ms:" + HoldTimer.DEFAULT_TICK_MILLIS + "}") long tickMillis) {
+        return new HoldTimer(tickMillis);
+    }
+
+    /**
+     * Creates this instance's cluster membership. When
+     * {@code ticket.cluster.enabled} is true, every event sells from a slice
+     * of its quota leased from the ledger files in
+     * {@code ticket.cluster.coordinator-dir}, which all nodes must share;
+     * otherwise the node runs standalone.
+     */
+    @Bean(destroyMethod = "close")
+    public ClusterNode clusterNode(
+            @Value("${ticket.cluster.enabled:false}") boolean enabled,
+            @Value("${ticket.cluster.node-id:}") String nodeId,
+            @Value("${ticket.cluster.coordinator-dir:data/cluster}") String coordinatorDir,
+            @Value("${ticket.cluster.lease-ms:5000}") long leaseMillis,
+            @Value("${ticket.cluster.quota-chunk:50}") int quotaChunk,
+            @Value("${ticket.cluster.sync-interval-ms:500}") long syncIntervalMillis) throws IOException {
+        if (!enabled) {
+            return new ClusterNode();
+        }
+        return new ClusterNode(nodeId, new FileQuotaCoordinator(Path.of(coordinatorDir), leaseMillis),
+                quotaChunk, syncIntervalMillis);
+    }
+
+    /**
+     * Creates the ticket ID allocator shared by every event. IDs are leased
+     * {@code ticket.ids.lease-size} at a time from the file at
+     * {@code ticket.ids.lease-path}, which defaults to the coordinator
+     * directory when clustered so every node leases disjoint ranges, and are
+     * handed to its stripes {@code ticket.ids.block-size} at a time. Setting
+     * {@code ticket.ids.durable} to false keeps IDs in memory, starting at 1.
+     */
+    @Bean(destroyMethod = "close")
+    public TicketIdAllocator ticketIdAllocator(
+            @Value("${ticket.ids.durable:true}") boolean durable,
+            @Value("${ticket.ids.lease-path:}") String leasePath,
+            @Value("${ticket.ids.block-size:" + TicketIdAllocator.DEFAULT_BLOCK_SIZE + "}") int blockSize,
+            @Value("${ticket.ids.lease-size:" + TicketIdAllocator.DEFAULT_LEASE_SIZE + "}") long leaseSize,
+            @Value("${ticket.cluster.enabled:false}") boolean clustered,
+            @Value("${ticket.cluster.coordinator-dir:data/cluster}") String coordinatorDir) throws IOException {
+        if (!durable) {
+            return new TicketIdAllocator(null, blockSize, leaseSize);
+        }
+        Path path;
+        if (!leasePath.isBlank()) {
+            path = Path.of(leasePath);
+        } else if (clustered) {
+            path = Path.of(coordinatorDir, "ticket-ids.lease");
+        } else {
+            path = Path.of("data", "ticket-ids.lease");
+        }
+        return new TicketIdAllocator(new FileIdBlockSource(path), blockSize, leaseSize);
+    }
+
+    /**
+     * Creates the event registry, with the default event already on sale.
+     * Every event gets an engine selected by {@code ticket.pool.engine}
+     * ("synchronized" or "ring-buffer"). When {@code ticket.journal.enabled}
+     * is true each event also gets its own journal next to
+     * {@code ticket.journal.path}, and every event found there is recovered;
+     * {@code ticket.journal.fsync} selects "always", "batch" or "none".
+     * All events share one hold timer and one ticket ID allocator. At most
+     * {@code ticket.purchases.max-pending} asynchronous purchases may wait
+     * for stock per event. Every event's sales are analysed. Pools report metrics to the Micrometer registry
+     * when one is present, and join the cluster when the node is part of one.
+     */
+    @Bean(destroyMethod = "close")
+    public EventRegistry eventRegistry(
+            @Value("${ticket.pool.engine:" + TicketPools.DEFAULT_ENGINE + "}") String engine,
+            @Value("${ticket.pool.ring-capacity:" + TicketPools.DEFAULT_RING_CAPACITY + "}") int ringCapacity,
+            @Value("${ticket.journal.enabled:false}") boolean journalEnabled,
+            @Value("${ticket.journal.path:data/ticket-pool.journal}") String journalPath,
+            @Value("${ticket.journal.fsync:batch}") String fsync,
+            @Value("${ticket.journal.fsync-interval-ms:10}") long fsyncIntervalMillis,
+            @Value("${ticket.journal.buffer-size:1048576}") int journalBufferSize,
+            @Value("${ticket.metrics.max-actor-meters:1000}") int maxActorMeters,
+            @Value("${ticket.purchases.max-pending:" + PurchaseQueue.DEFAULT_CAPACITY + "}") int maxPendingPurchases,
+            SaleEventBus saleEventBus, HoldTimer holdTimer, TicketIdAllocator ticketIdAllocator,
+            SalesAnalytics salesAnalytics, ClusterNode clusterNode,
+            ObjectProvider<MeterRegistry> meterRegistry) throws IOException {
+        MeterRegistry meters = meterRegistry.getIfAvailable();
+        SaleJournal.FsyncPolicy policy = SaleJournal.FsyncPolicy.from(fsync);
+        EventRegistry registry = new EventRegistry(eventId -> {
+            TicketPoolService pool =
+                    new TicketPoolService(eventId, TicketPools.create(engine, ringCapacity), saleEventBus);
+            pool.setHoldTimer(holdTimer);
+            pool.setTicketIdAllocator(ticketIdAllocator);
+            pool.setMaxPendingPurchases(maxPendingPurchases);
+            salesAnalytics.attach(pool);
+            clusterNode.attach(pool);
+            if (meters != null) {
+                pool.setMetrics(new MicrometerPoolMetrics(meters, pool, maxActorMeters));
+            }
+            if (journalEnabled) {
+                try {
+                    pool.attachJournal(new SaleJournal(journalPath(journalPath, eventId), policy,
+                            fsyncIntervalMillis, journalBufferSize));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot open the journal of event " + eventId, e);
+                }
+            }
+            return pool;
+        });
+        registry.createEvent(Ticket.DEFAULT_EVENT_ID);
+        if (journalEnabled) {
+            for (int eventId : journaledEvents(journalPath)) {
+                registry.createEvent(eventId);
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Creates the executor for vendor and customer simulations, running
+     * them on a fixed platform pool or one virtual thread each depending on
+     * {@code ticket.actors.execution-mode} ("fixed" or "virtual").
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ActorExecutor actorExecutor(
+            @Value("${ticket.actors.execution-mode:fixed}") String mode,
+            @Value("${ticket.actors.pool-size:10}") int poolSize) {
+        return new ActorExecutor(ActorExecutor.Mode.from(mode), poolSize);
+    }
+
+    /**
+     * The default event keeps the configured journal path so existing
+     * journals still recover; other events get "name-event-ID.ext" beside it.
+     */
+    private static Path journalPath(String path, int eventId) {
+        Path base = Path.of(path);
+        if (eventId == Ticket.DEFAULT_EVENT_ID) {
+            return base;
+        }
+        String name = base.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        return base.resolveSibling(stem + EVENT_JOURNAL_INFIX + eventId + extension);
+    }
 
-    @Bean(name="customTicketPoolService")
-    public TicketPoolService ticketPoolService() {
-        return new TicketPoolService();
+    private static List<Integer> journaledEvents(String path) throws IOException {
+        Path base = Path.of(path).toAbsolutePath();
+        Path directory = base.getParent();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String name = base.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String prefix = (dot > 0 ? name.substring(0, dot) : name) + EVENT_JOURNAL_INFIX;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        List<Integer> eventIds = new ArrayList<>();
+        try (DirectoryStream<Path> journals = Files.newDirectoryStream(directory, prefix + "*" + extension)) {
+            for (Path journal : journals) {
+                String file = journal.getFileName().toString();
+                String id = file.substring(prefix.length(), file.length() - extension.length());
+                try {
+                    int eventId = Integer.parseInt(id);
+                    if (eventId > 0 && eventId != Ticket.DEFAULT_EVENT_ID) {
+                        eventIds.add(eventId);
+                    }
+                } catch (NumberFormatException e) {
+                    // Not an event journal.
+                }
+            }
+        }
+        return eventIds;
     }
 }
@@ -0,0 +1,218 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.execution.ActorExecutor;
+import com.example.ticket.services.execution.ActorHandle;
+import com.example.ticket.services.metrics.PoolMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * REST Controller for the lifecycle of running vendors and customers.
+ * Every operation applies to the actors of one event, narrowed by an
+ * optional role and actor ID, so load can be scaled up and down during a
+ * sale without stopping the whole system or resetting the pool.
+ */
+@RestController
+@RequestMapping("/api/ticketing")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ActorController {
+    private static final String DEFAULT_EVENT_ID = "" + Ticket.DEFAULT_EVENT_ID;
+
+    private final EventRegistry eventRegistry;
+    private final ActorExecutor actorExecutor;
+
+    /**
+     * Constructor to inject the event registry and actor executor.
+     *
+     * @param eventRegistry the registry holding the pool of each event.
+     * @param actorExecutor the executor running vendor and customer simulations.
+     */
+    @Autowired
+    public ActorController(EventRegistry eventRegistry, ActorExecutor actorExecutor) {
+        this.eventRegistry = eventRegistry;
+        this.actorExecutor = actorExecutor;
+    }
+
+    /**
+     * Lists the running and paused actors of an event.
+     *
+     * @param eventId the ID of the event.
+     * @param role    "vendor" or "customer", or omitted for both.
+     * @param actorId the vendor or customer ID, or 0 for every actor.
+     * @return ResponseEntity containing each actor's role, ID, state and rate.
+     */
+    @GetMapping("/actors")
+    public ResponseEntity<Map<String, Object>> actors(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                      @RequestParam(required = false) String role,
+                                                      @RequestParam(defaultValue = "0") int actorId) {
+        return apply(eventId, role, actorId, handles -> {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("eventId", eventId);
+            response.put("actors", handles.stream().map(ActorHandle::describe).toList());
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /**
+     * Pauses actors after their current step. Paused actors keep their
+     * registration and any ticket in hand.
+     *
+     * @param eventId the ID of the event.
+     * @param role    "vendor" or "customer", or omitted for both.
+     * @param actorId the vendor or customer ID, or 0 for every actor.
+     * @return ResponseEntity containing how many actors were paused.
+     */
+    @PostMapping("/actors/pause")
+    public ResponseEntity<Map<String, Object>> pause(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                     @RequestParam(required = false) String role,
+                                                     @RequestParam(defaultValue = "0") int actorId) {
+        return change(eventId, role, actorId, ActorHandle::pause, true);
+    }
+
+    /**
+     * Resumes paused actors.
+     *
+     * @param eventId the ID of the event.
+     * @param role    "vendor" or "customer", or omitted for both.
+     * @param actorId the vendor or customer ID, or 0 for every actor.
+     * @return ResponseEntity containing how many actors were resumed.
+     */
+    @PostMapping("/actors/resume")
+    public ResponseEntity<Map<String, Object>> resume(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                      @RequestParam(required = false) String role,
+                                                      @RequestParam(defaultValue = "0") int actorId) {
+        return change(eventId, role, actorId, ActorHandle::resume, false);
+    }
+
+    /**
+     * Stops actors after their current step, cutting short any wait for
+     * the pool. The pool itself is left as it is.
+     *
+     * @param eventId the ID of the event.
+     * @param role    "vendor" or "customer", or omitted for both.
+     * @param actorId the vendor or customer ID, or 0 for every actor.
+     * @return ResponseEntity containing how many actors were stopped.
+     */
+    @PostMapping("/actors/stop")
+    public ResponseEntity<Map<String, Object>> stop(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                    @RequestParam(required = false) String role,
+                                                    @RequestParam(defaultValue = "0") int actorId) {
+        return change(eventId, role, actorId, ActorHandle::stop, true);
+    }
+
+    /**
+     * Changes how often actors add or buy tickets. Sleeping actors pick up
+     * the new rate at once.
+     *
+     * @param eventId    the ID of the event.
+     * @param role       "vendor" or "customer", or omitted for both.
+     * @param actorId    the vendor or customer ID, or 0 for every actor.
+     * @param rateMillis the new pause between steps in milliseconds.
+     * @return ResponseEntity containing how many actors were changed.
+     */
+    @PostMapping("/actors/rate")
+    public ResponseEntity<Map<String, Object>> rate(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                    @RequestParam(required = false) String role,
+                                                    @RequestParam(defaultValue = "0") int actorId,
+                                                    @RequestParam int rateMillis) {
+        if (rateMillis <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Rate must be a positive integer."));
+        }
+        return change(eventId, role, actorId, handle -> {
+            handle.setRateMillis(rateMillis);
+            return true;
+        }, false);
+    }
+
+    /**
+     * Lets actors finish what they are doing and exit, waiting for them.
+     * A draining vendor first places the ticket it is holding; a draining
+     * customer finishes its current wait for a ticket.
+     *
+     * @param eventId       the ID of the event.
+     * @param role          "vendor" or "customer", or omitted for both.
+     * @param actorId       the vendor or customer ID, or 0 for every actor.
+     * @param timeoutMillis how long to wait for the actors to exit.
+     * @return ResponseEntity containing how many actors were drained and how many are still exiting.
+     */
+    @PostMapping("/actors/drain")
+    public ResponseEntity<Map<String, Object>> drain(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                     @RequestParam(required = false) String role,
+                                                     @RequestParam(defaultValue = "0") int actorId,
+                                                     @RequestParam(defaultValue = "5000") long timeoutMillis) {
+        return apply(eventId, role, actorId, handles -> {
+            int draining = 0;
+            for (ActorHandle handle : handles) {
+                if (handle.drain()) {
+                    draining++;
+                }
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeoutMillis));
+            int exited = 0;
+            try {
+                for (ActorHandle handle : handles) {
+                    if (handle.awaitExit(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        exited++;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("eventId", eventId);
+            response.put("matched", handles.size());
+            response.put("draining", draining);
+            response.put("exited", exited);
+            response.put("stillExiting", handles.size() - exited);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    private ResponseEntity<Map<String, Object>> change(int eventId, String role, int actorId,
+                                                       Predicate<ActorHandle> action, boolean wakeWaiters) {
+        return apply(eventId, role, actorId, handles -> {
+            int changed = 0;
+            for (ActorHandle handle : handles) {
+                if (action.test(handle)) {
+                    changed++;
+                }
+            }
+            if (wakeWaiters && changed > 0) {
+                // Once for all actors, so blocked actors notice without one wake-up round each.
+                eventRegistry.getEvent(eventId).wakeWaiters();
+            }
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("eventId", eventId);
+            response.put("matched", handles.size());
+            response.put("changed", changed);
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    private ResponseEntity<Map<String, Object>> apply(int eventId, String role, int actorId,
+                                                      Function<List<ActorHandle>, ResponseEntity<Map<String, Object>>> operation) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event " + eventId + " does not exist."));
+        }
+        PoolMetrics.Role actorRole;
+        try {
+            actorRole = role == null || role.isBlank() ? null : PoolMetrics.Role.valueOf(role.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Role must be vendor or customer."));
+        }
+        return operation.apply(actorExecutor.getActors(eventId, actorRole, actorId));
+    }
+}
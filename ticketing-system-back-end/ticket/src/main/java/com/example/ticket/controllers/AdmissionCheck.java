@@ -0,0 +1,59 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.admission.AdmissionToken;
+import com.example.ticket.services.admission.WaitingRoom;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces an event's waiting room on the endpoints that take tickets out
+ * of the pool.
+ */
+final class AdmissionCheck {
+
+    private AdmissionCheck() {
+    }
+
+    /**
+     * Checks whether a customer may buy or hold tickets now.
+     *
+     * @param ticketPoolService the pool of the event.
+     * @param customerId        the ID of the customer.
+     * @return null if the request may go ahead, otherwise the response refusing it.
+     */
+    static ResponseEntity<Map<String, Object>> refusal(TicketPoolService ticketPoolService, int customerId) {
+        WaitingRoom waitingRoom = ticketPoolService.getWaitingRoom();
+        if (waitingRoom == null) {
+            return null;
+        }
+        switch (waitingRoom.tryAccess(customerId)) {
+            case ALLOWED:
+                return null;
+            case NOT_IN_ROOM:
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Customer " + customerId + " must enter the waiting room first."));
+            case WAITING:
+                AdmissionToken token = waitingRoom.getToken(customerId);
+                long waitMillis = token.isAssigned()
+                        ? TimeUnit.NANOSECONDS.toMillis(Math.max(0, token.getAdmitAtNanos() - System.nanoTime()))
+                        : TimeUnit.NANOSECONDS.toMillis(Math.max(0, waitingRoom.getOpensAtNanos() - System.nanoTime()));
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds(waitMillis)))
+                        .body(Map.of("error", "Customer " + customerId + " has not been admitted yet.",
+                                "expectedWaitMillis", waitMillis));
+            default:
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(Map.of("error", "Customer " + customerId + " is making requests too quickly."));
+        }
+    }
+
+    private static long retryAfterSeconds(long waitMillis) {
+        return Math.max(1, (waitMillis + 999) / 1000);
+    }
+}
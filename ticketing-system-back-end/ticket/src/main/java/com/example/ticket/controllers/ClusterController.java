@@ -0,0 +1,71 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.cluster.ClusterNode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * REST Controller reporting how an event's quota is split across the
+ * nodes of a ticketing cluster.
+ */
+@RestController
+@RequestMapping("/api/ticketing")
+@CrossOrigin(origins = "http://localhost:4200")
+public class ClusterController {
+    private static final String DEFAULT_EVENT_ID = "" + Ticket.DEFAULT_EVENT_ID;
+
+    private final EventRegistry eventRegistry;
+    private final ClusterNode clusterNode;
+
+    /**
+     * Constructor to inject the event registry and this node's cluster membership.
+     *
+     * @param eventRegistry the registry holding the pool of each event.
+     * @param clusterNode   this instance's membership of the cluster.
+     */
+    @Autowired
+    public ClusterController(EventRegistry eventRegistry, ClusterNode clusterNode) {
+        this.eventRegistry = eventRegistry;
+        this.clusterNode = clusterNode;
+    }
+
+    /**
+     * Retrieves the shared quota ledger of an event: its limit, the quota
+     * allocated and the budget of every live node.
+     *
+     * @param eventId the ID of the event.
+     * @return ResponseEntity containing the ledger, 404 if the event does not exist,
+     * or 409 if this node is not part of a cluster.
+     */
+    @GetMapping("/cluster")
+    public ResponseEntity<Map<String, Object>> cluster(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Event " + eventId + " does not exist."));
+        }
+        if (!clusterNode.isClustered()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "This node is not part of a cluster."));
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("nodeId", clusterNode.getNodeId());
+        try {
+            response.putAll(clusterNode.getCoordinator().describe(eventId));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Quota ledger unavailable: " + e.getMessage()));
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.holds.Hold;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Controller for reserve-then-pay checkouts. Customers hold tickets
+ * for a limited time, then confirm the hold to buy them or release it;
+ * holds left alone expire and their tickets go back on sale.
+ */
+@RestController
+@RequestMapping("/api/ticketing")
+@CrossOrigin(origins = "http://localhost:4200")
+public class HoldController {
+    private static final String DEFAULT_EVENT_ID = "" + Ticket.DEFAULT_EVENT_ID;
+    private static final String DEFAULT_TTL_SECONDS = "600";
+
+    private final EventRegistry eventRegistry;
+
+    /**
+     * Constructor to inject the event registry.
+     *
+     * @param eventRegistry the registry holding the pool of each event.
+     */
+    @Autowired
+    public HoldController(EventRegistry eventRegistry) {
+        this.eventRegistry = eventRegistry;
+    }
+
+    /**
+     * Holds tickets for a customer.
+     *
+     * @param eventId    the ID of the event.
+     * @param customerId the ID of the customer.
+     * @param quantity   the number of tickets wanted.
+     * @param ttlSeconds how long the hold lasts before the tickets go back on sale.
+     * @return ResponseEntity containing the hold, 409 if not enough tickets are available,
+     * or 403/429 if the event's waiting room refuses the customer.
+     */
+    @PostMapping("/holds")
+    public ResponseEntity<Map<String, Object>> hold(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                    @RequestParam int customerId, @RequestParam int quantity,
+                                                    @RequestParam(defaultValue = DEFAULT_TTL_SECONDS) long ttlSeconds) {
+        if (customerId <= 0 || quantity <= 0 || ttlSeconds <= 0) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Customer ID, quantity and TTL must be positive integers."));
+        }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        ResponseEntity<Map<String, Object>> refusal = AdmissionCheck.refusal(ticketPoolService, customerId);
+        if (refusal != null) {
+            return refusal;
+        }
+        Hold hold = ticketPoolService.holdTickets(customerId, quantity, ttlSeconds, TimeUnit.SECONDS);
+        if (hold == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Fewer than " + quantity + " tickets are available."));
+        }
+        Map<String, Object> response = describe(eventId, hold.getHoldId(), hold.getTickets());
+        response.put("expiresInMillis",
+                Math.max(0, TimeUnit.NANOSECONDS.toMillis(hold.getExpiresAtNanos() - System.nanoTime())));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Buys the tickets of a hold.
+     *
+     * @param eventId    the ID of the event.
+     * @param customerId the ID of the customer who placed the hold.
+     * @param holdId     the ID of the hold.
+     * @return ResponseEntity containing the tickets bought, or 409 if the hold is no longer active.
+     */
+    @PostMapping("/holds/confirm")
+    public ResponseEntity<Map<String, Object>> confirm(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                       @RequestParam int customerId, @RequestParam long holdId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        List<Ticket> tickets = ticketPoolService.confirmHold(customerId, holdId);
+        if (tickets == null) {
+            return inactiveHold(holdId);
+        }
+        return ResponseEntity.ok(describe(eventId, holdId, tickets));
+    }
+
+    /**
+     * Gives the tickets of a hold back to the pool.
+     *
+     * @param eventId    the ID of the event.
+     * @param customerId the ID of the customer who placed the hold.
+     * @param holdId     the ID of the hold.
+     * @return ResponseEntity confirming the release, or 409 if the hold is no longer active.
+     */
+    @PostMapping("/holds/release")
+    public ResponseEntity<Map<String, Object>> release(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                       @RequestParam int customerId, @RequestParam long holdId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        if (!ticketPoolService.releaseHold(customerId, holdId)) {
+            return inactiveHold(holdId);
+        }
+        return ResponseEntity.ok(Map.of("eventId", eventId, "holdId", holdId, "released", true));
+    }
+
+    private static Map<String, Object> describe(int eventId, long holdId, List<Ticket> tickets) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("holdId", holdId);
+        response.put("ticketIds", tickets.stream().map(Ticket::getTicketId).toList());
+        return response;
+    }
+
+    private static ResponseEntity<Map<String, Object>> unknownEvent(int eventId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event " + eventId + " does not exist."));
+    }
+
+    private static ResponseEntity<Map<String, Object>> inactiveHold(long holdId) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Hold " + holdId + " is not active for this customer."));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.purchase.PendingPurchase;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Controller for purchases that wait for stock without holding a
+ * servlet thread. The request is parked as a {@link DeferredResult} and
+ * answered from whichever thread releases the tickets, so a sold-out
+ * event can have tens of thousands of buyers waiting for the next release
+ * while the request threads stay free.
+ */
+@RestController
+@RequestMapping("/api/ticketing")
+@CrossOrigin(origins = "http://localhost:4200")
+public class PurchaseController {
+    private static final String DEFAULT_EVENT_ID = "" + Ticket.DEFAULT_EVENT_ID;
+
+    private final EventRegistry eventRegistry;
+    private final long maxTimeoutMillis;
+
+    /**
+     * Constructor to inject the event registry.
+     *
+     * @param eventRegistry    the registry holding the pool of each event.
+     * @param maxTimeoutMillis the longest a purchase may wait for stock, from {@code ticket.purchases.max-wait-ms}.
+     */
+    @Autowired
+    public PurchaseController(EventRegistry eventRegistry,
+                              @Value("${ticket.purchases.max-wait-ms:60000}") long maxTimeoutMillis) {
+        this.eventRegistry = eventRegistry;
+        this.maxTimeoutMillis = maxTimeoutMillis;
+    }
+
+    /**
+     * Purchases tickets, waiting up to the given time for them to be
+     * released if the pool cannot fill the order now. Waiting purchases
+     * are served in arrival order.
+     *
+     * @param eventId       the ID of the event to buy tickets for.
+     * @param customerId    the ID of the customer.
+     * @param quantity      the number of tickets wanted.
+     * @param allOrNothing  whether to wait for the full quantity rather than take what there is.
+     * @param timeoutMillis how long to wait for tickets, capped by {@code ticket.purchases.max-wait-ms}.
+     * @return the IDs of the tickets purchased, an empty list with {@code timedOut} set if none
+     * were released in time, 403/429 if the waiting room refuses the customer, 503 if too
+     * many purchases are already waiting, or 500 if the sale could not be recorded.
+     */
+    @PostMapping("/purchase/async")
+    public DeferredResult<ResponseEntity<Map<String, Object>>> purchaseAsync(
+            @RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+            @RequestParam int customerId, @RequestParam int quantity,
+            @RequestParam(defaultValue = "true") boolean allOrNothing,
+            @RequestParam(defaultValue = "30000") long timeoutMillis) {
+        if (customerId <= 0 || quantity <= 0 || timeoutMillis <= 0) {
+            return answered(ResponseEntity.badRequest()
+                    .body(Map.of("error", "Customer ID, quantity and timeout must be positive integers.")));
+        }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return answered(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Event " + eventId + " does not exist.")));
+        }
+        ResponseEntity<Map<String, Object>> refusal = AdmissionCheck.refusal(ticketPoolService, customerId);
+        if (refusal != null) {
+            return answered(refusal);
+        }
+        PendingPurchase purchase = ticketPoolService.purchaseAsync(customerId, quantity, allOrNothing);
+        if (purchase == null) {
+            return answered(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Too many purchases are waiting for event " + eventId + "; try again later.")));
+        }
+        if (purchase.isDone()) {
+            return answered(outcome(eventId, purchase));
+        }
+
+        DeferredResult<ResponseEntity<Map<String, Object>>> result =
+                new DeferredResult<>(Math.min(timeoutMillis, maxTimeoutMillis));
+        purchase.whenComplete((tickets, failure) -> {
+            if (!purchase.isCancelled()) {
+                result.setResult(outcome(eventId, purchase));
+            }
+        });
+        result.onTimeout(() -> {
+            if (purchase.cancel(false)) {
+                result.setResult(response(eventId, purchase, List.of(), true));
+            } else {
+                // Served just before the timeout; answer with the outcome of the sale.
+                result.setResult(outcome(eventId, purchase));
+            }
+        });
+        result.onError(error -> purchase.cancel(false));
+        return result;
+    }
+
+    /**
+     * Answers a purchase that was served, waiting for its sale to finish
+     * if it is still being recorded.
+     */
+    private static ResponseEntity<Map<String, Object>> outcome(int eventId, PendingPurchase purchase) {
+        try {
+            return response(eventId, purchase, purchase.join(), false);
+        } catch (CompletionException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Purchase for event " + eventId + " failed: " + e.getCause().getMessage()));
+        }
+    }
+
+    private static ResponseEntity<Map<String, Object>> response(int eventId, PendingPurchase purchase,
+                                                                List<Ticket> tickets, boolean timedOut) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("requested", purchase.getQuantity());
+        response.put("purchased", tickets.size());
+        response.put("ticketIds", tickets.stream().map(Ticket::getTicketId).toList());
+        response.put("waitedMillis", TimeUnit.NANOSECONDS.toMillis(purchase.getWaitedNanos()));
+        response.put("timedOut", timedOut);
+        return ResponseEntity.ok(response);
+    }
+
+    private static DeferredResult<ResponseEntity<Map<String, Object>>> answered(
+            ResponseEntity<Map<String, Object>> response) {
+        DeferredResult<ResponseEntity<Map<String, Object>>> result = new DeferredResult<>();
+        result.setResult(response);
+        return result;
+    }
+}
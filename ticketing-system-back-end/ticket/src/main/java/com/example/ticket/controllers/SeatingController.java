@@ -0,0 +1,191 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.models.SeatTicket;
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.seating.SeatMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST Controller for seated events. Provides endpoints to lay out an
+ * event's seat map and to find, buy and release adjacent seats.
+ */
+@RestController
+@RequestMapping("/api/ticketing")
+@CrossOrigin(origins = "http://localhost:4200")
+public class SeatingController {
+    private static final String DEFAULT_EVENT_ID = "" + Ticket.DEFAULT_EVENT_ID;
+
+    private final EventRegistry eventRegistry;
+
+    /**
+     * Constructor to inject the event registry.
+     *
+     * @param eventRegistry the registry holding the pool of each event.
+     */
+    @Autowired
+    public SeatingController(EventRegistry eventRegistry) {
+        this.eventRegistry = eventRegistry;
+    }
+
+    /**
+     * Lays out the seat map of an event, replacing any previous one.
+     *
+     * @param eventId  the ID of the event.
+     * @param sections the sections in order of preference, each written as {@code name:rows:seatsPerRow}.
+     * @return ResponseEntity containing the new seat map's sections.
+     */
+    @PostMapping("/seat-map")
+    public ResponseEntity<Map<String, Object>> createSeatMap(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                             @RequestParam List<String> sections) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        SeatMap seatMap;
+        try {
+            List<SeatMap.SectionLayout> layouts = new ArrayList<>(sections.size());
+            for (String section : sections) {
+                layouts.add(SeatMap.SectionLayout.parse(section));
+            }
+            seatMap = new SeatMap(layouts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        ticketPoolService.setSeatMap(seatMap);
+        return ResponseEntity.ok(describe(eventId, seatMap));
+    }
+
+    /**
+     * Retrieves the capacity and availability of an event's seat map.
+     *
+     * @param eventId the ID of the event.
+     * @return ResponseEntity containing the availability of each section.
+     */
+    @GetMapping("/seat-map")
+    public ResponseEntity<Map<String, Object>> seatMap(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        SeatMap seatMap = ticketPoolService.getSeatMap();
+        if (seatMap == null) {
+            return noSeatMap(eventId);
+        }
+        return ResponseEntity.ok(describe(eventId, seatMap));
+    }
+
+    /**
+     * Finds the best adjacent seats without buying them.
+     *
+     * @param eventId  the ID of the event.
+     * @param quantity the number of adjacent seats wanted.
+     * @param section  the section to search, or all sections if omitted.
+     * @return ResponseEntity containing the seats found, possibly none.
+     */
+    @GetMapping("/seats/best-available")
+    public ResponseEntity<Map<String, Object>> bestAvailable(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                             @RequestParam int quantity,
+                                                             @RequestParam(required = false) String section) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        SeatMap seatMap = ticketPoolService.getSeatMap();
+        if (seatMap == null) {
+            return noSeatMap(eventId);
+        }
+        try {
+            return ResponseEntity.ok(Map.of("seats", seatMap.findBestAvailable(quantity, section)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Buys the best adjacent seats for a customer.
+     *
+     * @param eventId    the ID of the event.
+     * @param customerId the ID of the customer.
+     * @param quantity   the number of adjacent seats wanted.
+     * @param section    the section to buy in, or any section if omitted.
+     * @return ResponseEntity containing the tickets bought with their seats, 409 if no run is long enough,
+     * or 403/429 if the event's waiting room refuses the customer.
+     */
+    @PostMapping("/seats/claim")
+    public ResponseEntity<Map<String, Object>> claimSeats(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                          @RequestParam int customerId, @RequestParam int quantity,
+                                                          @RequestParam(required = false) String section) {
+        if (customerId <= 0 || quantity <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Customer ID and quantity must be positive integers."));
+        }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        if (ticketPoolService.getSeatMap() == null) {
+            return noSeatMap(eventId);
+        }
+        ResponseEntity<Map<String, Object>> refusal = AdmissionCheck.refusal(ticketPoolService, customerId);
+        if (refusal != null) {
+            return refusal;
+        }
+        List<SeatTicket> seats;
+        try {
+            seats = ticketPoolService.claimSeats(customerId, quantity, section);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        if (seats.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "No " + quantity + " adjacent seats are available."));
+        }
+        return ResponseEntity.ok(Map.of("eventId", eventId, "seats", seats));
+    }
+
+    /**
+     * Returns seats to an event's seat map.
+     *
+     * @param eventId the ID of the event.
+     * @param seatIds the IDs of the seats to release.
+     * @return ResponseEntity containing the number of seats released.
+     */
+    @PostMapping("/seats/release")
+    public ResponseEntity<Map<String, Object>> releaseSeats(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                            @RequestParam int[] seatIds) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        if (ticketPoolService.getSeatMap() == null) {
+            return noSeatMap(eventId);
+        }
+        return ResponseEntity.ok(Map.of("requested", seatIds.length, "released", ticketPoolService.releaseSeats(seatIds)));
+    }
+
+    private static Map<String, Object> describe(int eventId, SeatMap seatMap) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("capacity", seatMap.getCapacity());
+        response.put("available", seatMap.getAvailable());
+        response.put("sections", seatMap.getSections());
+        return response;
+    }
+
+    private static ResponseEntity<Map<String, Object>> unknownEvent(int eventId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event " + eventId + " does not exist."));
+    }
+
+    private static ResponseEntity<Map<String, Object>> noSeatMap(int eventId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event " + eventId + " has no seat map."));
+    }
+}
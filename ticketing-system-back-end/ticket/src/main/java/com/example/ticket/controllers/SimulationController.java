@@ -0,0 +1,79 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.simulation.Simulator;
+import com.example.ticket.services.simulation.WorkloadProfile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST Controller for seeded load simulations. A workload can be run in
+ * virtual time against a throwaway pool, to capacity-test pool settings
+ * offline, or played against a live event.
+ */
+@RestController
+@RequestMapping("/api/ticketing")
+@CrossOrigin(origins = "http://localhost:4200")
+public class SimulationController {
+    private static final String DEFAULT_EVENT_ID = "" + Ticket.DEFAULT_EVENT_ID;
+
+    private final EventRegistry eventRegistry;
+    private final Simulator simulator = new Simulator();
+
+    /**
+     * Constructor to inject the event registry.
+     *
+     * @param eventRegistry the registry holding the pool of each event.
+     */
+    @Autowired
+    public SimulationController(EventRegistry eventRegistry) {
+        this.eventRegistry = eventRegistry;
+    }
+
+    /**
+     * Runs a simulation and waits for its report. Every other parameter is
+     * a {@link WorkloadProfile} setting, such as {@code seed},
+     * {@code arrivalCurve}, {@code onSaleBuyers} or {@code maxPoolTickets}.
+     *
+     * @param mode     "virtual" to run on a new pool in simulated time, or "live" to play against an event.
+     * @param eventId  the ID of the event a live run plays against.
+     * @param speed    how much faster than real time a live run plays.
+     * @param settings the request parameters, including the workload settings.
+     * @return ResponseEntity containing the simulation report.
+     */
+    @PostMapping("/simulations")
+    public ResponseEntity<Map<String, Object>> simulate(@RequestParam(defaultValue = "virtual") String mode,
+                                                        @RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                        @RequestParam(defaultValue = "1") double speed,
+                                                        @RequestParam Map<String, String> settings) {
+        Map<String, String> workload = new HashMap<>(settings);
+        workload.remove("mode");
+        workload.remove("eventId");
+        workload.remove("speed");
+        try {
+            WorkloadProfile profile = WorkloadProfile.from(workload);
+            if (Simulator.Mode.from(mode) == Simulator.Mode.VIRTUAL) {
+                return ResponseEntity.ok(simulator.runVirtual(profile).toMap());
+            }
+            TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+            if (ticketPoolService == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Event " + eventId + " does not exist."));
+            }
+            return ResponseEntity.ok(simulator.runLive(profile, ticketPoolService, speed).toMap());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Simulation was interrupted."));
+        }
+    }
+}
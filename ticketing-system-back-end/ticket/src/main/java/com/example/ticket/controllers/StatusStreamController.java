@@ -0,0 +1,194 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.models.PoolStatusSnapshot;
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.PoolStatusTracker;
+import com.example.ticket.services.TicketPoolService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Pushes pool status snapshots to dashboard clients instead of having them
+ * poll {@code /status}. One snapshot per event is built and serialized per
+ * tick and then fanned out, both to STOMP subscribers of
+ * {@code /topic/status/{eventId}} and to Server-Sent Events clients of
+ * {@code /api/ticketing/status/stream?eventId=...}.
+ */
+@RestController
+@RequestMapping("/api/ticketing")
+@CrossOrigin(origins = "http://localhost:4200")
+public class StatusStreamController {
+    public static final String STATUS_TOPIC = "/topic/status";
+    private static final Logger logger = Logger.getLogger(StatusStreamController.class.getName());
+
+    private final EventRegistry eventRegistry;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final int maxCustomers;
+    private final Map<Integer, PoolStatusTracker> statusTrackers = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<StatusClient>> clientsByEvent = new ConcurrentHashMap<>();
+    private final Map<Integer, PoolStatusSnapshot> latest = new ConcurrentHashMap<>();
+    private final Executor senders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("status-sse-", 0).factory());
+
+    /**
+     * Constructor to inject the events and the messaging infrastructure.
+     *
+     * @param eventRegistry     the events to report on.
+     * @param messagingTemplate the STOMP broker template.
+     * @param objectMapper      the JSON mapper used to serialize snapshots once per tick.
+     * @param maxCustomers      the maximum number of customers listed per snapshot.
+     */
+    @Autowired
+    public StatusStreamController(EventRegistry eventRegistry, SimpMessagingTemplate messagingTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${ticket.status.max-customers:50}") int maxCustomers) {
+        this.eventRegistry = eventRegistry;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.maxCustomers = maxCustomers;
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of status snapshots for one event.
+     *
+     * @param eventId the ID of the event.
+     * @return the emitter the snapshots are written to.
+     */
+    @GetMapping(path = "/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStatus(@RequestParam(defaultValue = "" + Ticket.DEFAULT_EVENT_ID) int eventId) {
+        if (eventRegistry.getEvent(eventId) == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Event " + eventId + " does not exist.");
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        StatusClient client = new StatusClient(eventId, emitter);
+        emitter.onCompletion(() -> removeClient(client));
+        emitter.onTimeout(() -> removeClient(client));
+        emitter.onError(e -> removeClient(client));
+        clientsByEvent.compute(eventId, (id, clients) -> {
+            Set<StatusClient> joined = clients == null ? new CopyOnWriteArraySet<>() : clients;
+            joined.add(client);
+            return joined;
+        });
+        PoolStatusSnapshot snapshot = latest.get(eventId);
+        if (snapshot != null) {
+            client.offer(SseEmitter.event().name("status").data(snapshot, MediaType.APPLICATION_JSON).build());
+        }
+        return emitter;
+    }
+
+    /**
+     * Takes one snapshot per event and publishes it to that event's
+     * subscribers. Runs at the coalescing interval
+     * {@code ticket.status.publish-interval-ms}. Writes to SSE clients are
+     * handed to their own senders, so a slow client never delays the tick.
+     */
+    @Scheduled(fixedRateString = "${ticket.status.publish-interval-ms:500}")
+    public void publishStatus() {
+        Set<Integer> eventIds = new HashSet<>();
+        for (TicketPoolService ticketPoolService : eventRegistry.getEvents()) {
+            int eventId = ticketPoolService.getEventId();
+            eventIds.add(eventId);
+            PoolStatusTracker statusTracker = statusTrackers.computeIfAbsent(eventId,
+                    id -> new PoolStatusTracker(ticketPoolService, maxCustomers));
+            PoolStatusSnapshot snapshot = statusTracker.next();
+            latest.put(eventId, snapshot);
+            messagingTemplate.convertAndSend(STATUS_TOPIC + "/" + eventId, snapshot);
+            Set<StatusClient> clients = clientsByEvent.get(eventId);
+            if (clients != null && !clients.isEmpty()) {
+                send(clients, snapshot);
+            }
+        }
+        statusTrackers.keySet().retainAll(eventIds);
+        latest.keySet().retainAll(eventIds);
+    }
+
+    private void send(Set<StatusClient> clients, PoolStatusSnapshot snapshot) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            logger.severe("Could not serialize status snapshot: " + e.getMessage());
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> event =
+                SseEmitter.event().name("status").data(json, MediaType.APPLICATION_JSON).build();
+        for (StatusClient client : clients) {
+            client.offer(event);
+        }
+    }
+
+    /**
+     * Forgets a client, and its event's client set once it was the last one.
+     */
+    private void removeClient(StatusClient client) {
+        clientsByEvent.computeIfPresent(client.eventId, (id, clients) -> {
+            clients.remove(client);
+            return clients.isEmpty() ? null : clients;
+        });
+    }
+
+    /**
+     * One SSE client. Snapshots are written by a virtual thread, one at a
+     * time; a client that falls behind skips to the newest snapshot rather
+     * than queueing the ones it missed.
+     */
+    private final class StatusClient implements Runnable {
+        final int eventId;
+        private final SseEmitter emitter;
+        private final AtomicReference<Set<ResponseBodyEmitter.DataWithMediaType>> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        StatusClient(int eventId, SseEmitter emitter) {
+            this.eventId = eventId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+            pending.set(event);
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            do {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while ((event = pending.getAndSet(null)) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        // Keep sending set so the dropped client is never scheduled again.
+                        removeClient(this);
+                        return;
+                    }
+                }
+                sending.set(false);
+            } while (pending.get() != null && sending.compareAndSet(false, true));
+        }
+    }
+}
@@ -1,48 +1,124 @@
 package com.example.ticket.controllers;
 
+import com.example.ticket.models.Ticket;
 import com.example.ticket.services.CustomerService;
+import com.example.ticket.services.EventRegistry;
 import com.example.ticket.services.TicketPoolService;
 import com.example.ticket.services.VendorService;
+import com.example.ticket.services.analytics.ActivityStats;
+import com.example.ticket.services.analytics.EventAnalytics;
+import com.example.ticket.services.cluster.ClusterQuota;
+import com.example.ticket.services.execution.ActorExecutor;
+import com.example.ticket.services.pool.CapacityChange;
+import com.example.ticket.services.pool.PoolCounts;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.*;
-import java.util.concurrent.*;
 
 /**
  * REST Controller for managing the ticketing system.
  * Provides endpoints for vendors, customers, and ticket pool management.
+ * Every pool endpoint takes an {@code eventId}, defaulting to the event
+ * that exists at startup, and acts only on that event's pool.
  */
 @RestController
 @RequestMapping("/api/ticketing")
 @CrossOrigin(origins = "http://localhost:4200")
 public class TicketingController {
+    private static final String DEFAULT_EVENT_ID = "" + Ticket.DEFAULT_EVENT_ID;
+
     /**
-     * Executor service to manage concurrent tasks for vendors and customers.
+     * Executor to manage concurrent tasks for vendors and customers.
      */
-    private ExecutorService executorService = Executors.newFixedThreadPool(10);
+    private final ActorExecutor actorExecutor;
     private boolean isStopped = false;
-    private TicketPoolService ticketPoolService;
+    private final EventRegistry eventRegistry;
 
 
     /**
-     * Constructor to inject the ticket pool service.
+     * Constructor using a fixed pool of 10 actor threads.
      *
-     * @param ticketPoolService the ticket pool service to manage tickets.
+     * @param eventRegistry the registry holding the pool of each event.
+     */
+    public TicketingController(EventRegistry eventRegistry) {
+        this(eventRegistry, new ActorExecutor(ActorExecutor.Mode.FIXED, 10));
+    }
+
+    /**
+     * Constructor to inject the event registry and actor executor.
+     *
+     * @param eventRegistry the registry holding the pool of each event.
+     * @param actorExecutor the executor running vendor and customer simulations.
      */
     @Autowired
-    public TicketingController(TicketPoolService ticketPoolService) {
-        this.ticketPoolService = ticketPoolService;
+    public TicketingController(EventRegistry eventRegistry, ActorExecutor actorExecutor) {
+        this.eventRegistry = eventRegistry;
+        this.actorExecutor = actorExecutor;
+    }
+
+    /**
+     * Creates a new event with its own ticket pool and limits.
+     *
+     * @param eventId         the ID of the new event.
+     * @param maxEventTickets the maximum number of tickets for the event.
+     * @param maxPoolTickets  the maximum number of tickets in the event's pool.
+     * @return ResponseEntity indicating success or failure.
+     */
+    @PostMapping("/events")
+    public ResponseEntity<String> createEvent(@RequestParam int eventId,
+                                              @RequestParam(required = false) Integer maxEventTickets,
+                                              @RequestParam(required = false) Integer maxPoolTickets) {
+        if ((maxEventTickets != null && maxEventTickets <= 0) || (maxPoolTickets != null && maxPoolTickets <= 0)) {
+            return ResponseEntity.badRequest().body("Ticket limits must be positive integers.");
+        }
+        TicketPoolService ticketPoolService;
+        try {
+            ticketPoolService = eventRegistry.createEvent(eventId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (maxEventTickets != null) {
+            ticketPoolService.setMaxEventTickets(maxEventTickets);
+        }
+        if (maxPoolTickets != null) {
+            ticketPoolService.setMaxPoolTickets(maxPoolTickets);
+        }
+        return ResponseEntity.ok("Event " + eventId + " created.");
+    }
+
+    /**
+     * Lists every event with the state of its pool.
+     *
+     * @return ResponseEntity containing one entry per event.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<List<Map<String, Object>>> events() {
+        List<Map<String, Object>> response = new ArrayList<>();
+        for (TicketPoolService ticketPoolService : eventRegistry.getEvents()) {
+            response.add(status(ticketPoolService));
+        }
+        return ResponseEntity.ok(response);
     }
 
     /**
      * Sets the maximum number of tickets for the event.
      *
+     * @param eventId         the ID of the event.
      * @param maxEventTickets the maximum number of event tickets.
      * @return ResponseEntity with the success message.
      */
     @PostMapping("/set-max-event-tickets")
-    public ResponseEntity<String> setMaxEventTickets(@RequestParam int maxEventTickets) {
+    public ResponseEntity<String> setMaxEventTickets(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                     @RequestParam int maxEventTickets) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        if (maxEventTickets < 0) {
+            return ResponseEntity.badRequest().body("Ticket limits cannot be negative.");
+        }
         ticketPoolService.setMaxEventTickets(maxEventTickets);
         return ResponseEntity.ok("Max event tickets set to " + maxEventTickets);
     }
@@ -50,76 +126,394 @@ public class TicketingController {
     /**
      * Sets the maximum number of tickets allowed in the ticket pool.
      *
+     * @param eventId        the ID of the event.
      * @param maxPoolTickets the maximum number of pool tickets.
      * @return ResponseEntity with the success message.
      */
     @PostMapping("/set-max-pool-tickets")
-    public ResponseEntity<String> setMaxPoolTickets(@RequestParam int maxPoolTickets) {
+    public ResponseEntity<String> setMaxPoolTickets(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                    @RequestParam int maxPoolTickets) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        if (maxPoolTickets < 0) {
+            return ResponseEntity.badRequest().body("Ticket limits cannot be negative.");
+        }
         ticketPoolService.setMaxPoolTickets(maxPoolTickets);
         return ResponseEntity.ok("Max pool tickets set to " + maxPoolTickets);
     }
 
     /**
-     * Stops the system, resets the ticket pool, and restarts the executor service.
+     * Changes both ticket limits of an event in one step while sales go
+     * on. Unsold tickets that no longer fit are withdrawn, and blocked
+     * vendors and customers re-check against the new limits at once.
+     *
+     * @param eventId         the ID of the event.
+     * @param maxPoolTickets  the new pool limit; unchanged if omitted.
+     * @param maxEventTickets the new event limit; unchanged if omitted.
+     * @return ResponseEntity containing the limits in force, their version and the number of tickets withdrawn.
+     */
+    @PostMapping("/capacity")
+    public ResponseEntity<Map<String, Object>> resize(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                      @RequestParam(required = false) Integer maxPoolTickets,
+                                                      @RequestParam(required = false) Integer maxEventTickets) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEventError(eventId);
+        }
+        if ((maxPoolTickets != null && maxPoolTickets < 0) || (maxEventTickets != null && maxEventTickets < 0)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Ticket limits cannot be negative."));
+        }
+        CapacityChange change = ticketPoolService.resize(
+                maxPoolTickets != null ? maxPoolTickets : ticketPoolService.getMaxPoolTickets(),
+                maxEventTickets != null ? maxEventTickets : ticketPoolService.getMaxEventTickets());
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.putAll(change.toMap());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Stops the system, resets every ticket pool, and restarts the executor service.
      *
      * @return ResponseEntity with the success message.
      */
-    @PostMapping("/stop")
     public ResponseEntity<String> stopAll() {
+        return stopAll(null, true);
+    }
+
+    /**
+     * Stops vendors and customers, optionally resetting their ticket pools.
+     * With an event ID only that event's actors and pool are affected;
+     * without one every actor is stopped and the executor restarted. Actors
+     * finish their current step and exit before any pool is reset. Without
+     * a reset the pools, and their journals if enabled, keep every sale made
+     * so far.
+     *
+     * @param eventId the ID of the event to stop, or null for all events.
+     * @param reset   whether to clear the ticket pools as well.
+     * @return ResponseEntity with the success message.
+     */
+    @PostMapping("/stop")
+    public ResponseEntity<String> stopAll(@RequestParam(required = false) Integer eventId,
+                                          @RequestParam(defaultValue = "true") boolean reset) {
+        if (eventId != null) {
+            TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+            if (ticketPoolService == null) {
+                return unknownEvent(eventId);
+            }
+            actorExecutor.stop(eventId, ticketPoolService::wakeWaiters);
+            if (reset) {
+                ticketPoolService.resetTicketPool();
+            }
+            return ResponseEntity.ok(reset ? "Event " + eventId + " stopped and reset." : "Event " + eventId + " stopped.");
+        }
         isStopped = true;
-        executorService.shutdownNow();
-        ticketPoolService.resetTicketPool();
+        Map<Integer, Runnable> wakeWaitersByEvent = new LinkedHashMap<>();
+        for (TicketPoolService ticketPoolService : eventRegistry.getEvents()) {
+            wakeWaitersByEvent.put(ticketPoolService.getEventId(), ticketPoolService::wakeWaiters);
+        }
+        actorExecutor.stop(wakeWaitersByEvent);
+        actorExecutor.restart();
+        if (reset) {
+            for (TicketPoolService ticketPoolService : eventRegistry.getEvents()) {
+                ticketPoolService.resetTicketPool();
+            }
+        }
         isStopped = false;
-        this.executorService = Executors.newFixedThreadPool(10);
-        return ResponseEntity.ok("System stopped and reset.");
+        return ResponseEntity.ok(reset ? "System stopped and reset." : "System stopped.");
     }
 
     /**
      * Starts a vendor simulation to add tickets at a given release rate.
      *
+     * @param eventId           the ID of the event to release tickets for.
      * @param vendorId          the ID of the vendor.
      * @param ticketReleaseRate the rate at which the vendor adds tickets.
      * @return ResponseEntity indicating success or failure.
      */
     @PostMapping("/start-vendor")
-    public ResponseEntity<String> startVendor(@RequestParam int vendorId, @RequestParam int ticketReleaseRate) {
+    public ResponseEntity<String> startVendor(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                              @RequestParam int vendorId, @RequestParam int ticketReleaseRate) {
         if (vendorId <= 0 || ticketReleaseRate <= 0) {
             return ResponseEntity.badRequest().body("Vendor ID and release rate must be positive integers.");
         }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
         VendorService vendor = new VendorService(ticketPoolService, vendorId, ticketReleaseRate);
         vendor.setTicketPoolService(ticketPoolService);
-        executorService.submit(vendor);
+        vendor.setLagRecorder(actorExecutor.getLagRecorder());
+        actorExecutor.submit(eventId, vendor, vendor.getHandle());
         return ResponseEntity.ok("Vendor " + vendorId + " started.");
     }
 
     /**
      * Starts a customer simulation to retrieve tickets at a given retrieval rate.
      *
+     * @param eventId               the ID of the event to buy tickets for.
      * @param customerId           the ID of the customer.
      * @param customerRetrievalRate the rate at which the customer retrieves tickets.
      * @return ResponseEntity indicating success or failure.
      */
     @PostMapping("/start-customer")
-    public ResponseEntity<String> startCustomer(@RequestParam int customerId, @RequestParam int customerRetrievalRate) {
+    public ResponseEntity<String> startCustomer(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                @RequestParam int customerId, @RequestParam int customerRetrievalRate) {
         if (customerId <= 0 || customerRetrievalRate <= 0) {
             return ResponseEntity.badRequest().body("Customer ID and retrieval rate must be positive integers.");
         }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
         CustomerService customer = new CustomerService(ticketPoolService, customerId, customerRetrievalRate);
         customer.setTicketPoolService(ticketPoolService);
-        executorService.submit(customer);
+        customer.setLagRecorder(actorExecutor.getLagRecorder());
+        actorExecutor.submit(eventId, customer, customer.getHandle());
         return ResponseEntity.ok("Customer " + customerId + " started.");
     }
 
     /**
-     * Retrieves the current status of the ticket pool.
+     * Starts a block of customer simulations with consecutive IDs, which is
+     * how large crowds of buyers are simulated in virtual thread mode.
+     *
+     * @param eventId               the ID of the event to buy tickets for.
+     * @param firstCustomerId       the ID of the first customer.
+     * @param count                 the number of customers to start.
+     * @param customerRetrievalRate the rate at which each customer retrieves tickets.
+     * @return ResponseEntity indicating how many customers were started.
+     */
+    @PostMapping("/start-customers")
+    public ResponseEntity<String> startCustomers(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                 @RequestParam int firstCustomerId, @RequestParam int count,
+                                                 @RequestParam int customerRetrievalRate) {
+        if (firstCustomerId <= 0 || count <= 0 || customerRetrievalRate <= 0
+                || (long) firstCustomerId + count - 1 > Integer.MAX_VALUE) {
+            return ResponseEntity.badRequest().body("Customer ID, count and retrieval rate must be positive integers.");
+        }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        int started = 0;
+        for (int customerId = firstCustomerId; customerId < firstCustomerId + count; customerId++) {
+            try {
+                CustomerService customer = new CustomerService(ticketPoolService, customerId, customerRetrievalRate);
+                customer.setLagRecorder(actorExecutor.getLagRecorder());
+                actorExecutor.submit(eventId, customer, customer.getHandle());
+                started++;
+            } catch (IllegalArgumentException e) {
+                // Already registered; leave the existing customer running.
+            }
+        }
+        return ResponseEntity.ok(started + " customers started.");
+    }
+
+    /**
+     * Registers a block of customers with consecutive IDs without starting
+     * simulations for them, such as buyers who will purchase through the API.
+     *
+     * @param eventId         the ID of the event to register customers for.
+     * @param firstCustomerId the ID of the first customer.
+     * @param count           the number of customers to register.
+     * @return ResponseEntity containing the number of customers newly registered.
+     */
+    @PostMapping("/register-customers")
+    public ResponseEntity<Map<String, Object>> registerCustomers(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                                 @RequestParam int firstCustomerId, @RequestParam int count) {
+        if (firstCustomerId <= 0 || count <= 0 || (long) firstCustomerId + count - 1 > Integer.MAX_VALUE) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Customer ID and count must be positive integers."));
+        }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEventError(eventId);
+        }
+        int[] customerIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            customerIds[i] = firstCustomerId + i;
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("requested", count);
+        response.put("registered", ticketPoolService.registerCustomers(customerIds));
+        response.put("registeredCustomers", ticketPoolService.getRegisteredCustomers());
+        response.put("registrationMemoryBytes", ticketPoolService.getRegistrationMemoryBytes());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Releases a block of tickets for a vendor in one operation.
      *
+     * @param eventId      the ID of the event to release tickets for.
+     * @param vendorId     the ID of the vendor.
+     * @param count        the number of tickets to release.
+     * @param allOrNothing whether to release nothing unless the whole block fits.
+     * @return ResponseEntity containing the number of tickets requested and added.
+     */
+    @PostMapping("/add-tickets")
+    public ResponseEntity<Map<String, Object>> addTickets(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                          @RequestParam int vendorId, @RequestParam int count,
+                                                          @RequestParam(defaultValue = "false") boolean allOrNothing) {
+        if (vendorId <= 0 || count <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Vendor ID and count must be positive integers."));
+        }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEventError(eventId);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("requested", count);
+        response.put("added", ticketPoolService.addTickets(vendorId, count, allOrNothing));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Purchases several tickets for a customer in one operation.
+     *
+     * @param eventId      the ID of the event to buy tickets for.
+     * @param customerId   the ID of the customer.
+     * @param quantity     the number of tickets wanted.
+     * @param allOrNothing whether to buy nothing unless the full quantity is available.
+     * @return ResponseEntity containing the IDs of the tickets purchased, or 403/429 if
+     * the event's waiting room has not admitted the customer or is limiting them.
+     */
+    @PostMapping("/purchase")
+    public ResponseEntity<Map<String, Object>> purchase(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                        @RequestParam int customerId, @RequestParam int quantity,
+                                                        @RequestParam(defaultValue = "true") boolean allOrNothing) {
+        if (customerId <= 0 || quantity <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Customer ID and quantity must be positive integers."));
+        }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEventError(eventId);
+        }
+        ResponseEntity<Map<String, Object>> refusal = AdmissionCheck.refusal(ticketPoolService, customerId);
+        if (refusal != null) {
+            return refusal;
+        }
+        List<Ticket> tickets = ticketPoolService.purchase(customerId, quantity, allOrNothing);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("requested", quantity);
+        response.put("purchased", tickets.size());
+        response.put("ticketIds", tickets.stream().map(Ticket::getTicketId).toList());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retrieves how late actors start and wake compared to their configured rates.
+     *
+     * @return ResponseEntity containing the execution mode and lag statistics.
+     */
+    @GetMapping("/scheduling")
+    public ResponseEntity<Map<String, Object>> scheduling() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("mode", actorExecutor.getMode());
+        response.put("runningActors", actorExecutor.getRunningActors());
+        response.putAll(actorExecutor.getLagRecorder().summary());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Retrieves the current status of an event's ticket pool. The counts
+     * and limits are read as one consistent, versioned view without
+     * blocking sales, so the endpoint can be polled heavily.
+     *
+     * @param eventId the ID of the event.
      * @return ResponseEntity containing the number of available tickets and tickets sold.
      */
     @GetMapping("/status")
-    public ResponseEntity<Map<String, Object>> status() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("availableTickets", ticketPoolService.getAvailableTickets());
-        response.put("ticketsSold", ticketPoolService.getTicketsSold());
+    public ResponseEntity<Map<String, Object>> status(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEventError(eventId);
+        }
+        return ResponseEntity.ok(status(ticketPoolService));
+    }
+
+    /**
+     * Retrieves rolling sales analytics of an event: sales and release rates
+     * over the last minute and hour with percentiles of the per-second
+     * counts, the busiest vendors and customers, and how long the event took
+     * or is projected to take to sell out. Only fixed-size windows are read,
+     * never the raw sale history. The event summary also reports how many
+     * sale events the bus dropped, as those are missing from the analytics.
+     *
+     * @param eventId    the ID of the event.
+     * @param top        the number of busiest vendors and customers to list.
+     * @param vendorId   the ID of a vendor to report on alone, if any.
+     * @param customerId the ID of a customer to report on alone, if any.
+     * @return ResponseEntity containing the analytics of the event or of the one vendor or customer.
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<Map<String, Object>> analytics(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                         @RequestParam(defaultValue = "5") int top,
+                                                         @RequestParam(required = false) Integer vendorId,
+                                                         @RequestParam(required = false) Integer customerId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEventError(eventId);
+        }
+        if (top < 0 || (vendorId != null && customerId != null)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "top must not be negative, and at most one of vendorId and customerId may be given."));
+        }
+        EventAnalytics analytics = ticketPoolService.getAnalytics();
+        if (analytics == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Sales of event " + eventId + " are not analysed."));
+        }
+        long now = System.currentTimeMillis();
+        if (vendorId == null && customerId == null) {
+            Map<String, Object> response = analytics.toMap(now, EventAnalytics.Stock.of(ticketPoolService), top);
+            // Analytics are fed by the event bus, so events it dropped are missing from them.
+            response.put("droppedEvents", ticketPoolService.getEventBus().getDroppedEvents());
+            return ResponseEntity.ok(response);
+        }
+        ActivityStats stats = vendorId != null ? analytics.getVendor(vendorId) : analytics.getCustomer(customerId);
+        String actor = vendorId != null ? "Vendor " + vendorId : "Customer " + customerId;
+        if (stats == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", actor + " has no activity tracked in event " + eventId + "."));
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put(vendorId != null ? "vendorId" : "customerId", vendorId != null ? vendorId : customerId);
+        response.putAll(stats.toMap(now));
         return ResponseEntity.ok(response);
     }
+
+    private static Map<String, Object> status(TicketPoolService ticketPoolService) {
+        PoolCounts counts = ticketPoolService.getCounts();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", ticketPoolService.getEventId());
+        response.putAll(counts.toMap());
+        response.put("capacityVersion", ticketPoolService.getCapacityVersion());
+        response.put("heldTickets", ticketPoolService.getHeldTickets());
+        response.put("activeHolds", ticketPoolService.getActiveHolds());
+        response.put("pendingPurchases", ticketPoolService.getPendingPurchases());
+        response.put("registeredVendors", ticketPoolService.getRegisteredVendors());
+        response.put("registeredCustomers", ticketPoolService.getRegisteredCustomers());
+        response.put("registrationMemoryBytes", ticketPoolService.getRegistrationMemoryBytes());
+        response.put("engine", ticketPoolService.getEngineName());
+        response.put("droppedEvents", ticketPoolService.getEventBus().getDroppedEvents());
+        response.put("ticketIds", ticketPoolService.getTicketIdAllocator().toMap());
+        ClusterQuota quota = ticketPoolService.getClusterQuota();
+        if (quota != null) {
+            response.put("cluster", quota.toMap());
+        }
+        return response;
+    }
+
+    private static ResponseEntity<String> unknownEvent(int eventId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Event " + eventId + " does not exist.");
+    }
+
+    private static ResponseEntity<Map<String, Object>> unknownEventError(int eventId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event " + eventId + " does not exist."));
+    }
 }
\ No newline at end of file
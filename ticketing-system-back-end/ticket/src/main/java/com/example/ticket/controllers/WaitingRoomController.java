@@ -0,0 +1,208 @@
+package com.example.ticket.controllers;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.EventRegistry;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.admission.AdmissionToken;
+import com.example.ticket.services.admission.WaitingRoom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * REST Controller for an event's virtual waiting room. Provides endpoints
+ * to open and remove the room, to join the line, and to report queue
+ * depth and expected waits.
+ */
+@RestController
+@RequestMapping("/api/ticketing")
+@CrossOrigin(origins = "http://localhost:4200")
+public class WaitingRoomController {
+    private static final String DEFAULT_EVENT_ID = "" + Ticket.DEFAULT_EVENT_ID;
+
+    private final EventRegistry eventRegistry;
+
+    /**
+     * Constructor to inject the event registry.
+     *
+     * @param eventRegistry the registry holding the pool of each event.
+     */
+    @Autowired
+    public WaitingRoomController(EventRegistry eventRegistry) {
+        this.eventRegistry = eventRegistry;
+    }
+
+    /**
+     * Puts an event behind a new waiting room, replacing any previous one.
+     *
+     * @param eventId                   the ID of the event.
+     * @param mode                      "fifo", or "randomized" to shuffle customers who arrive before opening.
+     * @param admitPerSecond            how many customers are admitted per second.
+     * @param admitBurst                how many customers may be admitted at once.
+     * @param opensInSeconds            how long until admission starts.
+     * @param customerRequestsPerSecond how many purchase requests per second an admitted customer may make.
+     * @param customerBurst             how many requests a customer may make at once.
+     * @return ResponseEntity containing the room's settings and state.
+     */
+    @PostMapping("/waiting-room")
+    public ResponseEntity<Map<String, Object>> open(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                    @RequestParam(defaultValue = "fifo") String mode,
+                                                    @RequestParam(defaultValue = "50") double admitPerSecond,
+                                                    @RequestParam(defaultValue = "50") int admitBurst,
+                                                    @RequestParam(defaultValue = "0") long opensInSeconds,
+                                                    @RequestParam(defaultValue = "5") double customerRequestsPerSecond,
+                                                    @RequestParam(defaultValue = "5") int customerBurst) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        if (opensInSeconds < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Opening delay cannot be negative."));
+        }
+        WaitingRoom waitingRoom;
+        try {
+            waitingRoom = new WaitingRoom(WaitingRoom.Mode.from(mode), admitPerSecond, admitBurst,
+                    System.nanoTime() + TimeUnit.SECONDS.toNanos(opensInSeconds),
+                    customerRequestsPerSecond, customerBurst);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        ticketPoolService.setWaitingRoom(waitingRoom);
+        return ResponseEntity.ok(describe(eventId, waitingRoom));
+    }
+
+    /**
+     * Lets customers of an event go straight to the pool again.
+     *
+     * @param eventId the ID of the event.
+     * @return ResponseEntity indicating success or failure.
+     */
+    @PostMapping("/waiting-room/remove")
+    public ResponseEntity<Map<String, Object>> remove(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        ticketPoolService.setWaitingRoom(null);
+        return ResponseEntity.ok(Map.of("eventId", eventId, "waitingRoom", false));
+    }
+
+    /**
+     * Retrieves the queue depth and expected wait of an event's waiting room.
+     *
+     * @param eventId the ID of the event.
+     * @return ResponseEntity containing the room's settings and state.
+     */
+    @GetMapping("/waiting-room")
+    public ResponseEntity<Map<String, Object>> status(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        WaitingRoom waitingRoom = ticketPoolService.getWaitingRoom();
+        if (waitingRoom == null) {
+            return noWaitingRoom(eventId);
+        }
+        return ResponseEntity.ok(describe(eventId, waitingRoom));
+    }
+
+    /**
+     * Puts a customer in line, or reports their existing place.
+     *
+     * @param eventId    the ID of the event.
+     * @param customerId the ID of the customer.
+     * @return ResponseEntity containing the customer's place and expected wait.
+     */
+    @PostMapping("/waiting-room/enter")
+    public ResponseEntity<Map<String, Object>> enter(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                     @RequestParam int customerId) {
+        if (customerId <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Customer ID must be a positive integer."));
+        }
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        WaitingRoom waitingRoom = ticketPoolService.getWaitingRoom();
+        if (waitingRoom == null) {
+            return noWaitingRoom(eventId);
+        }
+        return ResponseEntity.ok(describe(eventId, waitingRoom, waitingRoom.enter(customerId)));
+    }
+
+    /**
+     * Retrieves a customer's place in line.
+     *
+     * @param eventId    the ID of the event.
+     * @param customerId the ID of the customer.
+     * @return ResponseEntity containing the customer's place and expected wait.
+     */
+    @GetMapping("/waiting-room/position")
+    public ResponseEntity<Map<String, Object>> position(@RequestParam(defaultValue = DEFAULT_EVENT_ID) int eventId,
+                                                        @RequestParam int customerId) {
+        TicketPoolService ticketPoolService = eventRegistry.getEvent(eventId);
+        if (ticketPoolService == null) {
+            return unknownEvent(eventId);
+        }
+        WaitingRoom waitingRoom = ticketPoolService.getWaitingRoom();
+        if (waitingRoom == null) {
+            return noWaitingRoom(eventId);
+        }
+        AdmissionToken token = waitingRoom.getToken(customerId);
+        if (token == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Customer " + customerId + " is not in the waiting room."));
+        }
+        return ResponseEntity.ok(describe(eventId, waitingRoom, token));
+    }
+
+    private static Map<String, Object> describe(int eventId, WaitingRoom waitingRoom) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("mode", waitingRoom.getMode());
+        response.put("admitPerSecond", waitingRoom.getAdmitPerSecond());
+        response.put("admitBurst", waitingRoom.getAdmitBurst());
+        response.put("customerRequestsPerSecond", waitingRoom.getCustomerPerSecond());
+        response.put("customerBurst", waitingRoom.getCustomerBurst());
+        response.put("opensInMillis", millisUntil(waitingRoom.getOpensAtNanos()));
+        response.put("entered", waitingRoom.getEntered());
+        response.put("depth", waitingRoom.getDepth());
+        response.put("expectedWaitMillis", TimeUnit.NANOSECONDS.toMillis(waitingRoom.getExpectedWaitNanos()));
+        return response;
+    }
+
+    private static Map<String, Object> describe(int eventId, WaitingRoom waitingRoom, AdmissionToken token) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("eventId", eventId);
+        response.put("customerId", token.getCustomerId());
+        if (token.isAssigned()) {
+            long waitMillis = millisUntil(token.getAdmitAtNanos());
+            response.put("position", token.getPosition());
+            response.put("admitted", waitMillis == 0);
+            response.put("expectedWaitMillis", waitMillis);
+        } else {
+            // Arrived before a randomized room opened; places are drawn at opening.
+            response.put("position", null);
+            response.put("admitted", false);
+            response.put("opensInMillis", millisUntil(waitingRoom.getOpensAtNanos()));
+        }
+        return response;
+    }
+
+    private static long millisUntil(long nanoTime) {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(0, nanoTime - System.nanoTime()));
+    }
+
+    private static ResponseEntity<Map<String, Object>> unknownEvent(int eventId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event " + eventId + " does not exist."));
+    }
+
+    private static ResponseEntity<Map<String, Object>> noWaitingRoom(int eventId) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Event " + eventId + " has no waiting room."));
+    }
+}
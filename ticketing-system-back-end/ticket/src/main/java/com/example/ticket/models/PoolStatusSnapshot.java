@@ -0,0 +1,36 @@
+package com.example.ticket.models;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of a ticket pool, published to dashboard clients.
+ * Rates are tickets per second over the interval since the previous snapshot.
+ *
+ * @param sequence          increasing snapshot number.
+ * @param eventId           the event the pool belongs to.
+ * @param timestamp         wall-clock time the snapshot was taken, in milliseconds.
+ * @param availableTickets  tickets currently in the pool.
+ * @param ticketsSold       tickets sold since the last reset.
+ * @param maxPoolTickets    maximum number of tickets allowed in the pool.
+ * @param maxEventTickets   maximum number of tickets allowed for the event.
+ * @param salesPerSecond    overall purchase rate.
+ * @param releasesPerSecond overall release rate.
+ * @param vendorRates       release rate per vendor ID.
+ * @param customerRates     purchase rate per customer ID, limited to the busiest customers.
+ * @param waitingRoomDepth  customers waiting to be admitted to the event.
+ * @param expectedWaitMillis how long a customer arriving now would wait to be admitted.
+ */
+public record PoolStatusSnapshot(long sequence,
+                                 int eventId,
+                                 long timestamp,
+                                 int availableTickets,
+                                 int ticketsSold,
+                                 int maxPoolTickets,
+                                 int maxEventTickets,
+                                 double salesPerSecond,
+                                 double releasesPerSecond,
+                                 Map<Integer, Double> vendorRates,
+                                 Map<Integer, Double> customerRates,
+                                 long waitingRoomDepth,
+                                 long expectedWaitMillis) {
+}
@@ -0,0 +1,12 @@
+package com.example.ticket.models;
+
+/**
+ * A seat in an event's seat map.
+ *
+ * @param seatId  the seat's ID, unique within the event.
+ * @param section the name of the section.
+ * @param row     the row number, starting at 1 for the front row.
+ * @param seat    the seat number within the row, starting at 1.
+ */
+public record Seat(int seatId, String section, int row, int seat) {
+}
@@ -0,0 +1,12 @@
+package com.example.ticket.models;
+
+/**
+ * A ticket sold for a specific seat. The ticket ID comes from the same
+ * allocator as general admission tickets, so it is unique like theirs;
+ * the seat ID only identifies the seat within its event's seat map.
+ *
+ * @param ticket the ticket issued for the seat.
+ * @param seat   the seat the ticket is for.
+ */
+public record SeatTicket(Ticket ticket, Seat seat) {
+}
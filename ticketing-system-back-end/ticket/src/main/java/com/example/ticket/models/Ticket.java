@@ -1,13 +1,46 @@
 package com.example.ticket.models;
 
+/**
+ * A ticket for an event. Ticket IDs are unique across every event and, in
+ * a cluster, every node, so a ticket can key sales, refunds and audits;
+ * two tickets are equal when their event and ticket IDs are.
+ */
 public class Ticket {
-    private final int ticketId;
+    /** Event that tickets created without an explicit event belong to. */
+    public static final int DEFAULT_EVENT_ID = 1;
 
-    public Ticket(int ticketId) {
+    private final int eventId;
+    private final long ticketId;
+
+    public Ticket(long ticketId) {
+        this(DEFAULT_EVENT_ID, ticketId);
+    }
+
+    public Ticket(int eventId, long ticketId) {
+        this.eventId = eventId;
         this.ticketId = ticketId;
     }
 
-    public int getTicketId() {
+    public int getEventId() {
+        return eventId;
+    }
+
+    public long getTicketId() {
         return ticketId;
     }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Ticket ticket && ticket.eventId == eventId && ticket.ticketId == ticketId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(ticketId) * 31 + eventId;
+    }
+
+    @Override
+    public String toString() {
+        return "Ticket " + ticketId + " of event " + eventId;
+    }
 }
@@ -0,0 +1,58 @@
+package com.example.ticket.services;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-actor ticket counters, such as tickets released per vendor or
+ * purchased per customer. Each actor has its own striped adder, so actors
+ * never contend with each other when counting.
+ */
+public class ActorCounters {
+    private final ConcurrentHashMap<Integer, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Adds to an actor's count.
+     *
+     * @param actorId the vendor or customer ID.
+     * @param amount  the number of tickets to add.
+     */
+    public void add(int actorId, long amount) {
+        LongAdder counter = counters.get(actorId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(actorId, id -> new LongAdder());
+        }
+        counter.add(amount);
+    }
+
+    /**
+     * Retrieves an actor's count.
+     *
+     * @param actorId the vendor or customer ID.
+     * @return the count, or 0 if the actor has none.
+     */
+    public long get(int actorId) {
+        LongAdder counter = counters.get(actorId);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Copies every actor's current count.
+     *
+     * @return a map of actor ID to count.
+     */
+    public Map<Integer, Long> snapshot() {
+        Map<Integer, Long> snapshot = new HashMap<>(counters.size() * 2);
+        counters.forEach((actorId, counter) -> snapshot.put(actorId, counter.sum()));
+        return snapshot;
+    }
+
+    /**
+     * Removes every actor's count.
+     */
+    public void reset() {
+        counters.clear();
+    }
+}
@@ -1,47 +1,83 @@
 package com.example.ticket.services;
 
 import com.example.ticket.models.Ticket;
+import com.example.ticket.services.admission.WaitingRoom;
+import com.example.ticket.services.execution.ActorHandle;
+import com.example.ticket.services.execution.SchedulingLagRecorder;
+import com.example.ticket.services.metrics.PoolMetrics;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 public class CustomerService implements Runnable {
     private TicketPoolService ticketPoolService;
     private final int customerId;
-    private int customerRetrievalRate;
-    private boolean running = true;
+    private final ActorHandle handle;
+    private SchedulingLagRecorder lagRecorder;
     private static final Logger logger = Logger.getLogger(TicketPoolService.class.getName());
+    /** Upper bound on a single wait for stock, so the loop re-checks its running flag. */
+    private static final long WAIT_TIMEOUT_MS = 1000;
 
 
     public CustomerService(TicketPoolService ticketPoolService, int customerId, int CustomerRetrievalRate) {
         this.ticketPoolService = ticketPoolService;
         this.customerId = customerId;
-        this.customerRetrievalRate = CustomerRetrievalRate;
+        this.handle = new ActorHandle(PoolMetrics.Role.CUSTOMER, customerId, CustomerRetrievalRate);
         if (!ticketPoolService.registerCustomer(customerId)) {
             throw new IllegalArgumentException("Customer ID " + customerId + " is already in use.");
         }
     }
 
+    /**
+     * Retrieves the handle used to pause, resume, re-rate, drain or stop this customer.
+     *
+     * @return the customer's handle.
+     */
+    public ActorHandle getHandle() {
+        return handle;
+    }
+
     public void setTicketPoolService(TicketPoolService ticketPoolService) {
         this.ticketPoolService = ticketPoolService;
     }
 
+    /**
+     * Sets the recorder that tracks how late this actor wakes from its pacing sleeps.
+     *
+     * @param lagRecorder the recorder, or null to pace without recording.
+     */
+    public void setLagRecorder(SchedulingLagRecorder lagRecorder) {
+        this.lagRecorder = lagRecorder;
+    }
+
     @Override
     public void run() {
-        while (running) {
-            try {
-                Thread.sleep(customerRetrievalRate);
+        handle.bind();
+        if (ticketPoolService != null) {
+            ticketPoolService.getMetrics().actorStarted(PoolMetrics.Role.CUSTOMER, customerId);
+        }
+        try {
+            while (handle.awaitRunnable()) {
                 if (ticketPoolService != null) {
-                    Ticket ticket = ticketPoolService.removeTicket();
-                    if (ticket != null) {
-                        logger.info("Customer " + customerId + " purchased ticket " + ticket.getTicketId());
-                    } else {
-                        logger.severe("Customer " + customerId + " found no tickets available.");
+                    WaitingRoom waitingRoom = ticketPoolService.getWaitingRoom();
+                    long admissionWait = waitingRoom == null ? 0 : waitingRoom.acquire(customerId);
+                    if (admissionWait > 0) {
+                        handle.sleepNanos(Math.min(admissionWait, TimeUnit.MILLISECONDS.toNanos(WAIT_TIMEOUT_MS)));
+                        continue;
+                    }
+                    Ticket ticket = ticketPoolService.takeTicket(customerId, WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (ticket == null) {
+                        logger.fine(() -> "Customer " + customerId + " still waiting, no tickets available.");
+                        ticketPoolService.getMetrics().actorIdle(PoolMetrics.Role.CUSTOMER);
+                        continue;
                     }
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.severe("Customer " + customerId + " interrupted.");
-                break;
+                handle.pace(lagRecorder);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.severe("Customer " + customerId + " interrupted.");
+        } finally {
+            handle.exited();
         }
     }
-}
\ No newline at end of file
+}
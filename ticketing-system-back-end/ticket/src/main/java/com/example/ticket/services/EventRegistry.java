@@ -0,0 +1,84 @@
+package com.example.ticket.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.logging.Logger;
+
+/**
+ * Registry of the events currently on sale. Every event owns its own
+ * {@link TicketPoolService}, with a separate engine, limits, counters,
+ * waiter lock and journal, so a busy on-sale for one event cannot contend
+ * with another. Lookups are lock-free and happen once per request.
+ */
+public class EventRegistry implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(EventRegistry.class.getName());
+
+    private final ConcurrentHashMap<Integer, TicketPoolService> events = new ConcurrentHashMap<>();
+    private final IntFunction<TicketPoolService> poolFactory;
+
+    /**
+     * Creates an empty registry.
+     *
+     * @param poolFactory creates the pool of a new event from its ID.
+     */
+    public EventRegistry(IntFunction<TicketPoolService> poolFactory) {
+        this.poolFactory = poolFactory;
+    }
+
+    /**
+     * Creates an event with its own pool.
+     *
+     * @param eventId the ID of the new event.
+     * @return the pool of the new event.
+     * @throws IllegalArgumentException if the ID is not positive or already in use.
+     */
+    public TicketPoolService createEvent(int eventId) {
+        if (eventId <= 0) {
+            throw new IllegalArgumentException("Event ID must be a positive integer.");
+        }
+        boolean[] created = new boolean[1];
+        TicketPoolService pool = events.computeIfAbsent(eventId, id -> {
+            created[0] = true;
+            return poolFactory.apply(id);
+        });
+        if (!created[0]) {
+            throw new IllegalArgumentException("Event ID " + eventId + " is already in use.");
+        }
+        logger.info("Event " + eventId + " created.");
+        return pool;
+    }
+
+    /**
+     * Retrieves the pool of an event.
+     *
+     * @param eventId the ID of the event.
+     * @return the pool, or null if no such event exists.
+     */
+    public TicketPoolService getEvent(int eventId) {
+        return events.get(eventId);
+    }
+
+    /**
+     * Retrieves the pools of all events, ordered by event ID.
+     *
+     * @return the pools.
+     */
+    public List<TicketPoolService> getEvents() {
+        List<TicketPoolService> pools = new ArrayList<>(events.values());
+        pools.sort(Comparator.comparingInt(TicketPoolService::getEventId));
+        return pools;
+    }
+
+    /**
+     * Closes the journals of every event.
+     */
+    @Override
+    public void close() {
+        for (TicketPoolService pool : events.values()) {
+            pool.closeJournal();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.ticket.services;
+
+import com.example.ticket.models.PoolStatusSnapshot;
+import com.example.ticket.services.pool.PoolCounts;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds successive {@link PoolStatusSnapshot}s for a pool, deriving rates
+ * from the difference between consecutive per-actor counts. Intended to be
+ * driven by a single scheduler thread.
+ */
+public class PoolStatusTracker {
+    private final TicketPoolService ticketPoolService;
+    private final int maxCustomers;
+    private long sequence;
+    private long previousNanos = System.nanoTime();
+    private Map<Integer, Long> previousVendorCounts = new HashMap<>();
+    private Map<Integer, Long> previousCustomerCounts = new HashMap<>();
+
+    /**
+     * Creates a tracker for the given pool.
+     *
+     * @param ticketPoolService the pool to observe.
+     * @param maxCustomers      the maximum number of customers listed per snapshot.
+     */
+    public PoolStatusTracker(TicketPoolService ticketPoolService, int maxCustomers) {
+        this.ticketPoolService = ticketPoolService;
+        this.maxCustomers = maxCustomers;
+    }
+
+    /**
+     * Takes the next snapshot.
+     *
+     * @return the snapshot, with rates measured since the previous call.
+     */
+    public synchronized PoolStatusSnapshot next() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-9, (now - previousNanos) / 1e9);
+        previousNanos = now;
+
+        PoolCounts counts = ticketPoolService.getCounts();
+        Map<Integer, Long> vendorCounts = ticketPoolService.getTicketsAddedByVendor().snapshot();
+        Map<Integer, Long> customerCounts = ticketPoolService.getTicketsPurchasedByCustomer().snapshot();
+        Map<Integer, Double> vendorRates = rates(vendorCounts, previousVendorCounts, seconds);
+        Map<Integer, Double> customerRates = rates(customerCounts, previousCustomerCounts, seconds);
+        previousVendorCounts = vendorCounts;
+        previousCustomerCounts = customerCounts;
+
+        return new PoolStatusSnapshot(
+                ++sequence,
+                ticketPoolService.getEventId(),
+                System.currentTimeMillis(),
+                counts.available(),
+                counts.sold(),
+                counts.maxPoolTickets(),
+                counts.maxEventTickets(),
+                sum(customerRates),
+                sum(vendorRates),
+                vendorRates,
+                busiest(customerRates, maxCustomers),
+                ticketPoolService.getWaitingRoomDepth(),
+                ticketPoolService.getExpectedAdmissionWaitMillis());
+    }
+
+    private static Map<Integer, Double> rates(Map<Integer, Long> counts, Map<Integer, Long> previous, double seconds) {
+        Map<Integer, Double> rates = new HashMap<>(counts.size() * 2);
+        counts.forEach((actorId, count) -> {
+            long delta = count - previous.getOrDefault(actorId, 0L);
+            rates.put(actorId, Math.max(0, delta) / seconds);
+        });
+        return rates;
+    }
+
+    private static double sum(Map<Integer, Double> rates) {
+        double total = 0;
+        for (double rate : rates.values()) {
+            total += rate;
+        }
+        return total;
+    }
+
+    private static Map<Integer, Double> busiest(Map<Integer, Double> rates, int limit) {
+        if (rates.size() <= limit) {
+            return rates;
+        }
+        Map<Integer, Double> busiest = new LinkedHashMap<>();
+        rates.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .forEach(entry -> busiest.put(entry.getKey(), entry.getValue()));
+        return busiest;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.ticket.services;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent set of primitive ints, used to record which vendors and
+ * customers are registered. IDs are stored unboxed in open-addressing
+ * tables, which takes about 5 to 11 bytes per ID against roughly 50 for a
+ * concurrent set of {@link Integer}s, and creates no garbage per
+ * registration.
+ *
+ * <p>The set is split into stripes by hash, each with its own table and
+ * {@link StampedLock}. Adds to different stripes never contend, and
+ * membership checks read a stripe optimistically, so they take no lock
+ * unless the stripe is being written at that moment.</p>
+ *
+ * <p>IDs arrive from clients and need not be dense, so hashing is used
+ * rather than a bitmap indexed by ID.</p>
+ */
+public class StripedIntSet {
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final int INITIAL_CAPACITY = 16;
+    /** Marks a free slot; 0 itself is tracked by a flag on its stripe. */
+    private static final int FREE = 0;
+    /** A stripe object plus its lock. */
+    private static final long STRIPE_OVERHEAD_BYTES = 72;
+    private static final long ARRAY_HEADER_BYTES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Creates an empty set.
+     */
+    public StripedIntSet() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Adds an ID to the set.
+     *
+     * @param id the ID to add.
+     * @return true if the ID was added, false if it was already present.
+     */
+    public boolean add(int id) {
+        int hash = mix(id);
+        Stripe stripe = stripes[hash >>> (Integer.SIZE - STRIPE_BITS)];
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.insert(id, hash);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds many IDs at once. IDs are grouped by stripe first, so each
+     * stripe is locked and resized at most once for the whole batch.
+     *
+     * @param ids the IDs to add; duplicates within the batch are added once.
+     * @return the number of IDs that were not already present.
+     */
+    public int addAll(int[] ids) {
+        int[] hashes = new int[ids.length];
+        int[] runStart = new int[STRIPES + 1];
+        for (int i = 0; i < ids.length; i++) {
+            hashes[i] = mix(ids[i]);
+            runStart[(hashes[i] >>> (Integer.SIZE - STRIPE_BITS)) + 1]++;
+        }
+        for (int s = 0; s < STRIPES; s++) {
+            runStart[s + 1] += runStart[s];
+        }
+        int[] byStripe = new int[ids.length];
+        int[] next = runStart.clone();
+        for (int i = 0; i < ids.length; i++) {
+            byStripe[next[hashes[i] >>> (Integer.SIZE - STRIPE_BITS)]++] = i;
+        }
+
+        int added = 0;
+        for (int s = 0; s < STRIPES; s++) {
+            int from = runStart[s];
+            int to = runStart[s + 1];
+            if (from == to) {
+                continue;
+            }
+            Stripe stripe = stripes[s];
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.ensureCapacity(stripe.size + (to - from));
+                for (int k = from; k < to; k++) {
+                    int i = byStripe[k];
+                    if (stripe.insert(ids[i], hashes[i])) {
+                        added++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Checks whether an ID is in the set.
+     *
+     * @param id the ID to look for.
+     * @return true if the ID is present.
+     */
+    public boolean contains(int id) {
+        int hash = mix(id);
+        Stripe stripe = stripes[hash >>> (Integer.SIZE - STRIPE_BITS)];
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean found = stripe.find(id, hash);
+            if (stripe.lock.validate(stamp)) {
+                return found;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.find(id, hash);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Retrieves the number of IDs in the set. Adds made while counting
+     * may or may not be included.
+     *
+     * @return the size of the set.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * Removes every ID and shrinks the tables back to their initial size.
+     */
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.writeLock();
+            try {
+                stripe.table = new int[INITIAL_CAPACITY];
+                stripe.containsZero = false;
+                stripe.size = 0;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Estimates the heap used by the set, including its tables and locks.
+     *
+     * @return the approximate size in bytes.
+     */
+    public long getMemoryBytes() {
+        long bytes = ARRAY_HEADER_BYTES + (long) STRIPES * Integer.BYTES;
+        for (Stripe stripe : stripes) {
+            bytes += STRIPE_OVERHEAD_BYTES + ARRAY_HEADER_BYTES + (long) stripe.table.length * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Spreads IDs over stripes and slots; sequential IDs would otherwise
+     * fill one run of slots and probe through it. This is the MurmurHash3
+     * finalizer, which maps 0 to 0.
+     */
+    private static int mix(int id) {
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * One lock and linear-probing table. Tables are kept at most three
+     * quarters full and doubled when they pass that.
+     */
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        private int[] table = new int[INITIAL_CAPACITY];
+        private boolean containsZero;
+        private volatile int size;
+
+        /**
+         * Looks an ID up. Also called without the lock under an optimistic
+         * read, so it works on a local copy of the table and probes at most
+         * once around it.
+         */
+        boolean find(int id, int hash) {
+            if (id == FREE) {
+                return containsZero;
+            }
+            int[] slots = table;
+            int mask = slots.length - 1;
+            for (int i = hash & mask, probes = 0; probes < slots.length; i = (i + 1) & mask, probes++) {
+                int slot = slots[i];
+                if (slot == id) {
+                    return true;
+                }
+                if (slot == FREE) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Adds an ID; the caller holds the write lock.
+         */
+        boolean insert(int id, int hash) {
+            if (id == FREE) {
+                if (containsZero) {
+                    return false;
+                }
+                containsZero = true;
+                size++;
+                return true;
+            }
+            ensureCapacity(size + 1);
+            int[] slots = table;
+            int mask = slots.length - 1;
+            int i = hash & mask;
+            while (slots[i] != FREE) {
+                if (slots[i] == id) {
+                    return false;
+                }
+                i = (i + 1) & mask;
+            }
+            slots[i] = id;
+            size++;
+            return true;
+        }
+
+        /**
+         * Grows the table so it can hold the given number of IDs; the
+         * caller holds the write lock.
+         */
+        void ensureCapacity(int ids) {
+            int capacity = table.length;
+            while ((long) ids * 4 > (long) capacity * 3) {
+                capacity <<= 1;
+            }
+            if (capacity == table.length) {
+                return;
+            }
+            int[] resized = new int[capacity];
+            int mask = capacity - 1;
+            for (int id : table) {
+                if (id != FREE) {
+                    int i = mix(id) & mask;
+                    while (resized[i] != FREE) {
+                        i = (i + 1) & mask;
+                    }
+                    resized[i] = id;
+                }
+            }
+            table = resized;
+        }
+    }
+}
@@ -1,9 +1,37 @@
 package com.example.ticket.services;
 
+import com.example.ticket.models.Seat;
+import com.example.ticket.models.SeatTicket;
 import com.example.ticket.models.Ticket;
-import org.springframework.stereotype.Service;
+import com.example.ticket.services.admission.WaitingRoom;
+import com.example.ticket.services.analytics.EventAnalytics;
+import com.example.ticket.services.cluster.ClusterQuota;
+import com.example.ticket.services.events.LoggingSaleEventListener;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.events.SaleEventType;
+import com.example.ticket.services.holds.Hold;
+import com.example.ticket.services.holds.HoldTimer;
+import com.example.ticket.services.ids.TicketIdAllocator;
+import com.example.ticket.services.journal.JournalRecovery;
+import com.example.ticket.services.journal.SaleJournal;
+import com.example.ticket.services.metrics.PoolMetrics;
+import com.example.ticket.services.pool.CapacityChange;
+import com.example.ticket.services.pool.PoolCounts;
+import com.example.ticket.services.pool.TicketPool;
+import com.example.ticket.services.pool.TicketPools;
+import com.example.ticket.services.purchase.PendingPurchase;
+import com.example.ticket.services.purchase.PurchaseQueue;
+import com.example.ticket.services.seating.SeatMap;
+import java.io.IOException;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -11,16 +39,134 @@ import java.util.logging.Logger;
  * This service handles ticket addition, removal, and registration
  * of vendors and customers, while ensuring constraints such as
  * maximum tickets for the event and the pool are adhered to.
+ * Storage and limit enforcement are delegated to a pluggable
+ * {@link TicketPool} engine so that implementations can be compared.
+ *
+ * <p>Callers that want to wait for stock or capacity use {@link #takeTicket}
+ * and {@link #offerTicket}. Waiters park on conditions of a lock that is only
+ * touched when someone is actually waiting, so the non-blocking fast path
+ * stays free of it.</p>
+ *
+ * <p>Sales, releases and registrations are reported as typed events on a
+ * {@link SaleEventBus} after the engine operation completes, so no logging
+ * or formatting happens on the sale path itself.</p>
+ *
+ * <p>When a {@link SaleJournal} is attached, every addition, sale, limit
+ * change and reset is also appended to it so the pool survives restarts.</p>
+ *
+ * <p>Throughput, latency, waits and contention are reported through
+ * {@link PoolMetrics}, which records nothing unless metrics are attached.</p>
+ *
+ * <p>Customers may {@link #holdTickets hold} tickets before paying. Held
+ * tickets leave the pool but keep their capacity until the hold is
+ * confirmed as a sale or released; holds that time out are expired by a
+ * shared {@link HoldTimer} and their tickets go straight back on sale.
+ * Holds are not journaled, so after a restart held tickets are available
+ * again.</p>
+ *
+ * <p>On-sale bursts can be put behind a {@link WaitingRoom}, which admits
+ * customers at a fixed rate and limits each admitted customer's requests.
+ * The room is enforced at the edges, by the REST endpoints and the
+ * simulated customers, so the pool's own operations stay unchanged.</p>
+ *
+ * <p>HTTP clients can {@link #purchaseAsync buy asynchronously}: an order
+ * the pool cannot fill yet waits in a bounded {@link PurchaseQueue} instead
+ * of on a thread, and is served in arrival order as tickets are released.</p>
+ *
+ * <p>Limits are changed with {@link #resize}, which publishes both at once
+ * under a new capacity version, withdraws unsold tickets that no longer
+ * fit and wakes every waiter so they re-check against the new limits.
+ * Sales carry on while a resize is in progress.</p>
+ *
+ * <p>Seated events may also attach a {@link SeatMap}; seats are sold from
+ * it directly by position, while the pool holds general admission tickets.</p>
+ *
+ * <p>Ticket IDs come from a {@link TicketIdAllocator}, normally one shared
+ * by every event and leased from durable storage, so they are unique
+ * across events, nodes and restarts.</p>
+ *
+ * <p>In a cluster every node runs its own pool per event, and each ticket
+ * added first takes a unit of the node's {@link ClusterQuota}, so the nodes
+ * together never issue more than the event limit. Without a quota the pool
+ * enforces the limit alone.</p>
+ *
+ * <p>Each instance is the pool of a single event. Events share nothing
+ * mutable but the event bus, so sales for one event never wait on the
+ * locks or counters of another; see {@link EventRegistry}.</p>
  */
-@Service
 public class TicketPoolService {
-    private final Queue<Ticket> ticketPool = new ConcurrentLinkedQueue<>();
-    private int maxPoolTickets = 200;
-    private int maxEventTickets = 1000;
-    private int ticketsSold = 0;
+    private final int eventId;
+    private final TicketPool ticketPool;
+    private final SaleEventBus events;
     private static final Logger logger = Logger.getLogger(TicketPoolService.class.getName());
-    private Set<Integer> registeredVendors = new HashSet<>();
-    private Set<Integer> registeredCustomers = new HashSet<>();
+    private final StripedIntSet registeredVendors = new StripedIntSet();
+    private final StripedIntSet registeredCustomers = new StripedIntSet();
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition ticketsAvailable = waitLock.newCondition();
+    private final Condition capacityAvailable = waitLock.newCondition();
+    private final AtomicInteger waitingCustomers = new AtomicInteger();
+    private final AtomicInteger waitingVendors = new AtomicInteger();
+    private final LongAdder waitLockContention = new LongAdder();
+    /** Bumped, under the waiter lock, to end every current wait early. */
+    private int waiterWakeups;
+    private volatile TicketIdAllocator ticketIds = new TicketIdAllocator();
+    private final ActorCounters ticketsAddedByVendor = new ActorCounters();
+    private final ActorCounters ticketsPurchasedByCustomer = new ActorCounters();
+    private volatile SaleJournal journal;
+    private volatile PoolMetrics metrics = PoolMetrics.NONE;
+    private volatile SeatMap seatMap;
+    private volatile WaitingRoom waitingRoom;
+    private volatile ClusterQuota clusterQuota;
+    private volatile EventAnalytics analytics;
+    private final ReentrantLock capacityLock = new ReentrantLock();
+    private volatile long capacityVersion;
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final AtomicLong nextHoldId = new AtomicLong(1);
+    private final Consumer<Hold> expireHold = this::expireHold;
+    private volatile HoldTimer holdTimer;
+    private final PurchaseQueue pendingPurchases = new PurchaseQueue(PurchaseQueue.DEFAULT_CAPACITY, new QueueSeller());
+
+    /**
+     * Creates a service backed by the default engine.
+     */
+    public TicketPoolService() {
+        this(TicketPools.create(TicketPools.DEFAULT_ENGINE));
+    }
+
+    /**
+     * Creates a service backed by the given engine, logging events through
+     * an event bus shared by every service created without one, so that
+     * such services do not each leave a consumer thread behind.
+     *
+     * @param ticketPool the engine storing the tickets.
+     */
+    public TicketPoolService(TicketPool ticketPool) {
+        this(ticketPool, SharedEventBus.INSTANCE);
+    }
+
+    /**
+     * Creates a service backed by the given engine and event bus.
+     *
+     * @param ticketPool the engine storing the tickets.
+     * @param events     the bus receiving sale events.
+     */
+    public TicketPoolService(TicketPool ticketPool, SaleEventBus events) {
+        this(Ticket.DEFAULT_EVENT_ID, ticketPool, events);
+    }
+
+    /**
+     * Creates the pool of a specific event.
+     *
+     * @param eventId    the ID of the event this pool sells tickets for.
+     * @param ticketPool the engine storing the tickets.
+     * @param events     the bus receiving sale events.
+     */
+    public TicketPoolService(int eventId, TicketPool ticketPool, SaleEventBus events) {
+        this.eventId = eventId;
+        this.ticketPool = ticketPool;
+        this.events = events;
+        logger.info("Ticket pool engine for event " + eventId + ": " + ticketPool.name());
+    }
 
     /**
      * Adds a ticket to the pool, ensuring constraints on maximum pool
@@ -28,29 +174,589 @@ public class TicketPoolService {
      *
      * @param vendorId the ID of the vendor adding the ticket.
      * @param ticket   the ticket to be added.
+     * @return the outcome of the attempt.
+     */
+    public TicketPool.AddResult addTicket(int vendorId, Ticket ticket) {
+        TicketPool.AddResult result = addToPool(ticket);
+        switch (result) {
+            case EVENT_LIMIT_REACHED:
+                metrics.addRejected(result);
+                events.publish(SaleEventType.EVENT_LIMIT_REACHED, eventId, vendorId, 0, ticket.getTicketId());
+                break;
+            case POOL_FULL:
+                metrics.addRejected(result);
+                events.publish(SaleEventType.POOL_FULL, eventId, vendorId, 0, ticket.getTicketId());
+                break;
+            default:
+                signalTicketsAvailable(1);
+                ticketsAddedByVendor.add(vendorId, 1);
+                metrics.ticketsAdded(1);
+                journal(SaleJournal.RecordType.ADD, vendorId, 0, ticket.getTicketId());
+                events.publish(SaleEventType.TICKET_ADDED, eventId, vendorId, 0, ticket.getTicketId());
+                pendingPurchases.serve();
+        }
+        return result;
+    }
+
+    /**
+     * Adds a ticket to the pool, waiting up to the given time for pool
+     * capacity if the pool is full. Returns immediately if the event
+     * ticket limit has been reached, since waiting cannot help.
+     *
+     * @param vendorId the ID of the vendor adding the ticket.
+     * @param ticket   the ticket to be added.
+     * @param timeout  the maximum time to wait for capacity.
+     * @param unit     the unit of the timeout.
+     * @return the outcome of the attempt; POOL_FULL if the timeout elapsed or
+     * {@link #wakeWaiters} was called.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public TicketPool.AddResult offerTicket(int vendorId, Ticket ticket, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        TicketPool.AddResult result = addToPool(ticket);
+        if (result == TicketPool.AddResult.POOL_FULL) {
+            long waitStart = System.nanoTime();
+            long nanos = unit.toNanos(timeout);
+            lockWaitersInterruptibly();
+            waitingVendors.incrementAndGet();
+            int wakeups = waiterWakeups;
+            try {
+                while ((result = addToPool(ticket)) == TicketPool.AddResult.POOL_FULL && nanos > 0
+                        && wakeups == waiterWakeups) {
+                    nanos = capacityAvailable.awaitNanos(nanos);
+                }
+            } finally {
+                waitingVendors.decrementAndGet();
+                waitLock.unlock();
+                metrics.waited(PoolMetrics.Role.VENDOR, System.nanoTime() - waitStart);
+            }
+        }
+        if (result == TicketPool.AddResult.ADDED) {
+            signalTicketsAvailable(1);
+            ticketsAddedByVendor.add(vendorId, 1);
+            metrics.ticketsAdded(1);
+            journal(SaleJournal.RecordType.ADD, vendorId, 0, ticket.getTicketId());
+            events.publish(SaleEventType.TICKET_ADDED, eventId, vendorId, 0, ticket.getTicketId());
+            pendingPurchases.serve();
+        } else {
+            metrics.addRejected(result);
+            if (result == TicketPool.AddResult.EVENT_LIMIT_REACHED) {
+                events.publish(SaleEventType.EVENT_LIMIT_REACHED, eventId, vendorId, 0, ticket.getTicketId());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes a ticket from the pool for purchase, waiting up to the given
+     * time for one to be released if the pool is empty.
+     *
+     * @param customerId the ID of the customer purchasing the ticket.
+     * @param timeout    the maximum time to wait for a ticket.
+     * @param unit       the unit of the timeout.
+     * @return the ticket purchased, or null if the timeout elapsed or
+     * {@link #wakeWaiters} was called.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Ticket takeTicket(int customerId, long timeout, TimeUnit unit) throws InterruptedException {
+        long start = System.nanoTime();
+        Ticket ticket = ticketPool.poll();
+        if (ticket == null) {
+            long nanos = unit.toNanos(timeout);
+            lockWaitersInterruptibly();
+            waitingCustomers.incrementAndGet();
+            int wakeups = waiterWakeups;
+            try {
+                while ((ticket = ticketPool.poll()) == null && nanos > 0 && wakeups == waiterWakeups) {
+                    nanos = ticketsAvailable.awaitNanos(nanos);
+                }
+            } finally {
+                waitingCustomers.decrementAndGet();
+                waitLock.unlock();
+                metrics.waited(PoolMetrics.Role.CUSTOMER, System.nanoTime() - start);
+            }
+        }
+        if (ticket != null) {
+            signalCapacityAvailable(1);
+            ticketsPurchasedByCustomer.add(customerId, 1);
+            metrics.ticketsPurchased(1, System.nanoTime() - start);
+            journal(SaleJournal.RecordType.SALE, customerId, 0, ticket.getTicketId());
+            events.publish(SaleEventType.TICKET_PURCHASED, eventId, 0, customerId, ticket.getTicketId());
+        }
+        return ticket;
+    }
+
+    /**
+     * Sets tickets aside for a customer without selling them. The hold
+     * expires after the given time unless it is confirmed or released first.
+     *
+     * @param customerId the ID of the customer holding the tickets.
+     * @param quantity   the number of tickets wanted.
+     * @param ttl        how long the hold lasts.
+     * @param unit       the unit of the ttl.
+     * @return the hold, or null unless the full quantity is available.
+     */
+    public Hold holdTickets(int customerId, int quantity, long ttl, TimeUnit unit) {
+        if (quantity <= 0) {
+            return null;
+        }
+        List<Ticket> tickets = ticketPool.hold(quantity, true);
+        if (tickets.isEmpty()) {
+            return null;
+        }
+        Hold hold = new Hold(nextHoldId.getAndIncrement(), customerId, tickets,
+                System.nanoTime() + unit.toNanos(ttl), expireHold);
+        holds.put(hold.getHoldId(), hold);
+        getHoldTimer().schedule(hold);
+        metrics.ticketsHeld(tickets.size());
+        for (Ticket ticket : tickets) {
+            events.publish(SaleEventType.TICKET_HELD, eventId, 0, customerId, ticket.getTicketId());
+        }
+        return hold;
+    }
+
+    /**
+     * Completes the purchase of a customer's held tickets.
+     *
+     * @param customerId the ID of the customer who placed the hold.
+     * @param holdId     the ID of the hold.
+     * @return the tickets purchased, or null if the hold is unknown, belongs
+     * to another customer or has already ended.
+     */
+    public List<Ticket> confirmHold(int customerId, long holdId) {
+        long start = System.nanoTime();
+        Hold hold = holds.get(holdId);
+        if (hold == null || hold.getCustomerId() != customerId || !hold.finish(Hold.State.CONFIRMED)) {
+            return null;
+        }
+        holds.remove(holdId, hold);
+        getHoldTimer().cancel(hold);
+        List<Ticket> tickets = hold.getTickets();
+        ticketPool.confirmHeld(tickets.size());
+        recordPurchase(customerId, tickets, System.nanoTime() - start);
+        return tickets;
+    }
+
+    /**
+     * Gives a customer's held tickets back to the pool.
+     *
+     * @param customerId the ID of the customer who placed the hold.
+     * @param holdId     the ID of the hold.
+     * @return true if the hold was released, false if it is unknown, belongs
+     * to another customer or has already ended.
+     */
+    public boolean releaseHold(int customerId, long holdId) {
+        Hold hold = holds.get(holdId);
+        if (hold == null || hold.getCustomerId() != customerId || !hold.finish(Hold.State.RELEASED)) {
+            return false;
+        }
+        holds.remove(holdId, hold);
+        getHoldTimer().cancel(hold);
+        returnHeldTickets(hold, SaleEventType.HOLD_RELEASED);
+        return true;
+    }
+
+    /**
+     * Retrieves an active hold.
+     *
+     * @param holdId the ID of the hold.
+     * @return the hold, or null if it is unknown or has ended.
+     */
+    public Hold getHold(long holdId) {
+        return holds.get(holdId);
+    }
+
+    /**
+     * Retrieves the number of holds not yet confirmed, released or expired.
+     *
+     * @return the active hold count.
+     */
+    public int getActiveHolds() {
+        return holds.size();
+    }
+
+    /**
+     * Retrieves the number of tickets set aside by active holds.
+     *
+     * @return the held ticket count.
+     */
+    public int getHeldTickets() {
+        return ticketPool.held();
+    }
+
+    /**
+     * Retrieves the timer that expires this pool's holds.
+     *
+     * @return the timer, the shared timer if none was set.
+     */
+    public HoldTimer getHoldTimer() {
+        HoldTimer current = holdTimer;
+        return current != null ? current : HoldTimer.shared();
+    }
+
+    /**
+     * Sets the timer that expires this pool's holds.
+     *
+     * @param holdTimer the timer.
+     */
+    public void setHoldTimer(HoldTimer holdTimer) {
+        this.holdTimer = holdTimer;
+    }
+
+    /**
+     * Rebuilds the pool from a journal and records all later changes to it.
+     * Must be called before the pool is used.
+     *
+     * @param journal the journal to replay and append to.
+     * @return the recovered state.
+     * @throws IOException if the journal cannot be read.
+     */
+    public JournalRecovery attachJournal(SaleJournal journal) throws IOException {
+        JournalRecovery recovery = journal.recover();
+        if (recovery.maxPoolTickets() >= 0) {
+            ticketPool.setMaxPoolTickets(recovery.maxPoolTickets());
+        }
+        if (recovery.maxEventTickets() >= 0) {
+            ticketPool.setMaxEventTickets(recovery.maxEventTickets());
+        }
+        long[] availableIds = recovery.availableTicketIds();
+        List<Ticket> tickets = new ArrayList<>(availableIds.length);
+        for (long ticketId : availableIds) {
+            tickets.add(new Ticket(eventId, ticketId));
+        }
+        ticketPool.restore(tickets, recovery.ticketsSold());
+        ticketIds.advancePast(recovery.highestTicketId());
+        this.journal = journal;
+        logger.info("Recovered " + availableIds.length + " available and " + recovery.ticketsSold()
+                + " sold tickets for event " + eventId + " from " + recovery.records() + " journal records in "
+                + recovery.elapsedNanos() / 1_000_000 + " ms.");
+        return recovery;
+    }
+
+    /**
+     * Detaches the journal, if any, and closes it after everything appended
+     * so far has been written.
+     */
+    public void closeJournal() {
+        SaleJournal current = journal;
+        journal = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    /**
+     * Allocates an ID for a new ticket. IDs come from the pool's
+     * {@link TicketIdAllocator}, so tickets released by different vendors,
+     * events and nodes never collide, and an ID is never reused.
+     *
+     * @return the ticket ID.
+     */
+    public long allocateTicketId() {
+        return ticketIds.next();
+    }
+
+    /**
+     * Retrieves the allocator this pool takes ticket IDs from.
+     *
+     * @return the allocator.
+     */
+    public TicketIdAllocator getTicketIdAllocator() {
+        return ticketIds;
+    }
+
+    /**
+     * Sets the allocator this pool takes ticket IDs from, usually one
+     * shared by every event. Must be called before a journal is attached.
+     * Pools start with a private in-memory allocator.
+     *
+     * @param ticketIds the allocator.
      */
-    public synchronized void addTicket(int vendorId, Ticket ticket) {
-        if ((ticketPool.size() + ticketsSold) >= maxEventTickets) {
-            logger.severe("Vendor "+vendorId+" cannot add ticket. Maximum event tickets reached: "+ maxEventTickets);
-            return;
+    public void setTicketIdAllocator(TicketIdAllocator ticketIds) {
+        this.ticketIds = ticketIds;
+    }
+
+    /**
+     * Claims the best run of adjacent seats for a customer, issuing a
+     * ticket for each from the same allocator as general admission tickets.
+     *
+     * @param customerId the ID of the customer buying the seats.
+     * @param quantity   the number of adjacent seats wanted.
+     * @param section    the section to buy in, or null for any section.
+     * @return the tickets issued with their seats, or an empty list if no run is long enough.
+     * @throws IllegalStateException if the event has no seat map.
+     */
+    public List<SeatTicket> claimSeats(int customerId, int quantity, String section) {
+        long start = System.nanoTime();
+        List<Seat> seats = requireSeatMap().claimBestAvailable(quantity, section);
+        if (seats.isEmpty()) {
+            return List.of();
+        }
+        long firstId = ticketIds.next(seats.size());
+        List<SeatTicket> sold = new ArrayList<>(seats.size());
+        for (int i = 0; i < seats.size(); i++) {
+            sold.add(new SeatTicket(new Ticket(eventId, firstId + i), seats.get(i)));
         }
-        if (ticketPool.size() >= maxPoolTickets) {
-            logger.severe("Vendor "+ vendorId+" cannot add ticket. Maximum pool tickets reached: "+maxPoolTickets);
-            return;
+        ticketsPurchasedByCustomer.add(customerId, seats.size());
+        metrics.ticketsPurchased(seats.size(), System.nanoTime() - start);
+        for (SeatTicket seatTicket : sold) {
+            events.publish(SaleEventType.TICKET_PURCHASED, eventId, 0, customerId, seatTicket.ticket().getTicketId());
         }
-        ticketPool.add(ticket);
-        logger.info("Vendor "+vendorId+" added ticket "+ticket.getTicketId());
+        return sold;
+    }
+
+    /**
+     * Returns seats to the seat map, for example after a cancelled order.
+     *
+     * @param seatIds the IDs of the seats to release.
+     * @return the number of seats released.
+     * @throws IllegalStateException if the event has no seat map.
+     */
+    public int releaseSeats(int... seatIds) {
+        return requireSeatMap().release(seatIds);
+    }
+
+    /**
+     * Retrieves the seat map of this event.
+     *
+     * @return the seat map, or null for a general admission event.
+     */
+    public SeatMap getSeatMap() {
+        return seatMap;
+    }
+
+    /**
+     * Sets the seat map this event sells seats from.
+     *
+     * @param seatMap the seat map.
+     */
+    public void setSeatMap(SeatMap seatMap) {
+        this.seatMap = seatMap;
+    }
+
+    /**
+     * Retrieves the waiting room customers pass through before buying.
+     *
+     * @return the waiting room, or null if customers go straight to the pool.
+     */
+    public WaitingRoom getWaitingRoom() {
+        return waitingRoom;
+    }
+
+    /**
+     * Puts customers of this event behind a waiting room, or lets them
+     * straight through when null.
+     *
+     * @param waitingRoom the waiting room.
+     */
+    public void setWaitingRoom(WaitingRoom waitingRoom) {
+        this.waitingRoom = waitingRoom;
+    }
+
+    /**
+     * Retrieves this node's slice of the event quota.
+     *
+     * @return the quota, or null if the pool is not part of a cluster.
+     */
+    public ClusterQuota getClusterQuota() {
+        return clusterQuota;
+    }
+
+    /**
+     * Makes every ticket added take a unit of a cluster quota first, or
+     * lets the local event limit decide alone when null.
+     *
+     * @param clusterQuota this node's slice of the event quota.
+     */
+    public void setClusterQuota(ClusterQuota clusterQuota) {
+        this.clusterQuota = clusterQuota;
+    }
+
+    /**
+     * Retrieves the rolling sales analytics of this event.
+     *
+     * @return the analytics, or null if the event is not analysed.
+     */
+    public EventAnalytics getAnalytics() {
+        return analytics;
+    }
+
+    /**
+     * Sets the rolling sales analytics of this event. The pool only hands
+     * them out; they are fed from the event bus.
+     *
+     * @param analytics the event's analytics.
+     */
+    public void setAnalytics(EventAnalytics analytics) {
+        this.analytics = analytics;
+    }
+
+    /**
+     * Retrieves how many customers are waiting to be admitted.
+     *
+     * @return the waiting room queue depth, or 0 without a waiting room.
+     */
+    public long getWaitingRoomDepth() {
+        WaitingRoom current = waitingRoom;
+        return current == null ? 0 : current.getDepth();
+    }
+
+    /**
+     * Retrieves how long a customer arriving now would wait to be admitted.
+     *
+     * @return the expected wait in milliseconds, or 0 without a waiting room.
+     */
+    public long getExpectedAdmissionWaitMillis() {
+        WaitingRoom current = waitingRoom;
+        return current == null ? 0 : TimeUnit.NANOSECONDS.toMillis(current.getExpectedWaitNanos());
+    }
+
+    /**
+     * Releases a block of new tickets on behalf of a vendor. Capacity for
+     * the whole block is reserved in a single step, so releasing hundreds
+     * of seats costs one synchronization round-trip.
+     *
+     * @param vendorId     the ID of the vendor releasing the tickets.
+     * @param count        the number of tickets to release.
+     * @param allOrNothing whether to release nothing unless the whole block fits.
+     * @return the number of tickets added to the pool.
+     */
+    public int addTickets(int vendorId, int count, boolean allOrNothing) {
+        int batchSize = Math.min(count, getMaxPoolTickets());
+        if (batchSize <= 0 || (allOrNothing && batchSize < count)) {
+            metrics.addRejected(TicketPool.AddResult.POOL_FULL);
+            events.publish(SaleEventType.POOL_FULL, eventId, vendorId, 0, 0);
+            return 0;
+        }
+        ClusterQuota quota = clusterQuota;
+        if (quota != null) {
+            batchSize = quota.take(batchSize, allOrNothing);
+            if (batchSize == 0) {
+                metrics.addRejected(TicketPool.AddResult.EVENT_LIMIT_REACHED);
+                events.publish(SaleEventType.EVENT_LIMIT_REACHED, eventId, vendorId, 0, 0);
+                return 0;
+            }
+        }
+        long firstId = ticketIds.next(batchSize);
+        List<Ticket> tickets = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            tickets.add(new Ticket(eventId, firstId + i));
+        }
+        int added = ticketPool.addAll(tickets, allOrNothing);
+        if (quota != null) {
+            quota.refund(batchSize - added);
+        }
+        if (added > 0) {
+            signalTicketsAvailable(added);
+            ticketsAddedByVendor.add(vendorId, added);
+            metrics.ticketsAdded(added);
+        }
+        journalAll(SaleJournal.RecordType.ADD, vendorId, tickets.subList(0, added));
+        for (int i = 0; i < added; i++) {
+            events.publish(SaleEventType.TICKET_ADDED, eventId, vendorId, 0, tickets.get(i).getTicketId());
+        }
+        if (added > 0) {
+            pendingPurchases.serve();
+        }
+        return added;
+    }
+
+    /**
+     * Purchases several tickets for a customer, reserving the whole
+     * quantity in a single step.
+     *
+     * @param customerId   the ID of the customer purchasing the tickets.
+     * @param quantity     the number of tickets wanted.
+     * @param allOrNothing whether to buy nothing unless the full quantity is available.
+     * @return the tickets purchased, possibly empty.
+     */
+    public List<Ticket> purchase(int customerId, int quantity, boolean allOrNothing) {
+        if (quantity <= 0) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        List<Ticket> tickets = ticketPool.pollBatch(quantity, allOrNothing);
+        if (!tickets.isEmpty()) {
+            recordPurchase(customerId, tickets, System.nanoTime() - start);
+        }
+        return tickets;
+    }
+
+    /**
+     * Purchases tickets for a customer without blocking the caller. If the
+     * pool cannot fill the order now, or other purchases are already
+     * waiting, it joins a bounded queue and is served in arrival order as
+     * tickets are released. Cancel the purchase to stop waiting.
+     *
+     * @param customerId   the ID of the customer purchasing the tickets.
+     * @param quantity     the number of tickets wanted.
+     * @param allOrNothing whether to wait for the full quantity rather than take what there is.
+     * @return the purchase, already complete if it was filled at once, or
+     * null if the maximum number of purchases are already waiting.
+     */
+    public PendingPurchase purchaseAsync(int customerId, int quantity, boolean allOrNothing) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be a positive integer.");
+        }
+        return pendingPurchases.submit(customerId, quantity, allOrNothing);
+    }
+
+    /**
+     * Retrieves the number of asynchronous purchases waiting for stock.
+     *
+     * @return the number of queued purchases, including cancelled ones not yet removed.
+     */
+    public int getPendingPurchases() {
+        return pendingPurchases.getWaiting();
+    }
+
+    /**
+     * Retrieves how many asynchronous purchases may wait at once.
+     *
+     * @return the maximum number of pending purchases.
+     */
+    public int getMaxPendingPurchases() {
+        return pendingPurchases.getCapacity();
+    }
+
+    /**
+     * Sets how many asynchronous purchases may wait at once. Further
+     * purchases are refused while the queue is full.
+     *
+     * @param maxPendingPurchases the maximum number of pending purchases.
+     */
+    public void setMaxPendingPurchases(int maxPendingPurchases) {
+        pendingPurchases.setCapacity(maxPendingPurchases);
     }
 
     /**
-     * Resets the ticket pool, clearing all tickets, sold counts, and registrations.
+     * Resets the ticket pool, clearing all tickets, sold counts, registrations
+     * and sales analytics.
+     * Ticket IDs are not reset, so no ticket issued afterwards shares an ID
+     * with one issued before.
      */
-    public synchronized void resetTicketPool() {
-        ticketPool.clear();
-        ticketsSold = 0;
+    public void resetTicketPool() {
+        HoldTimer timer = getHoldTimer();
+        for (Hold hold : holds.values()) {
+            if (hold.finish(Hold.State.RELEASED)) {
+                timer.cancel(hold);
+            }
+        }
+        holds.clear();
+        ticketPool.reset();
+        journal(SaleJournal.RecordType.RESET, 0, 0, 0);
+        EventAnalytics currentAnalytics = analytics;
+        if (!events.publish(SaleEventType.POOL_RESET, eventId, 0, 0, 0) && currentAnalytics != null) {
+            // The bus dropped the reset, so the analytics would never see it.
+            currentAnalytics.reset();
+        }
         registeredVendors.clear();
         registeredCustomers.clear();
-        logger.info("Ticket pool has been reset.");
+        ticketsAddedByVendor.reset();
+        ticketsPurchasedByCustomer.reset();
+        pendingPurchases.clear();
+        signalAll();
+        logger.info("Ticket pool for event " + eventId + " has been reset.");
     }
 
     /**
@@ -58,24 +764,36 @@ public class TicketPoolService {
      *
      * @return the ticket removed, or null if the pool is empty.
      */
-    public synchronized Ticket removeTicket() {
+    public Ticket removeTicket() {
+        long start = System.nanoTime();
         Ticket ticket = ticketPool.poll();
         if (ticket != null) {
-            ticketsSold++;
-            logger.info("Ticket Purchased: " + ticket.getTicketId());
+            signalCapacityAvailable(1);
+            metrics.ticketsPurchased(1, System.nanoTime() - start);
+            journal(SaleJournal.RecordType.SALE, 0, 0, ticket.getTicketId());
+            events.publish(SaleEventType.TICKET_PURCHASED, eventId, 0, 0, ticket.getTicketId());
         } else {
-            logger.warning("No tickets available for purchase.");
+            logger.fine("No tickets available for purchase.");
         }
         return ticket;
     }
 
+    /**
+     * Retrieves the ID of the event this pool sells tickets for.
+     *
+     * @return the event ID.
+     */
+    public int getEventId() {
+        return eventId;
+    }
+
     /**
      * Retrieves the number of available tickets in the pool.
      *
      * @return the size of the ticket pool.
      */
     public int getAvailableTickets() {
-        return ticketPool.size();
+        return ticketPool.available();
     }
 
     /**
@@ -84,7 +802,20 @@ public class TicketPoolService {
      * @return the total number of tickets sold.
      */
     public int getTicketsSold() {
-        return ticketsSold;
+        return ticketPool.sold();
+    }
+
+    /**
+     * Retrieves the available and sold counts and both limits as one
+     * consistent view, in O(1) and without blocking sales. The engine
+     * numbers every change it makes, so pollers can tell whether anything
+     * happened since their last read, and a view with a higher version is
+     * never older than one with a lower version.
+     *
+     * @return the versioned counts and limits.
+     */
+    public PoolCounts getCounts() {
+        return ticketPool.counts();
     }
 
     /**
@@ -93,13 +824,12 @@ public class TicketPoolService {
      * @param vendorId the ID of the vendor to register.
      * @return true if the vendor was successfully registered, false otherwise.
      */
-    public synchronized boolean registerVendor(int vendorId) {
-        if (registeredVendors.contains(vendorId)) {
-            logger.severe("Vendor ID "+vendorId+" is already registered.");
+    public boolean registerVendor(int vendorId) {
+        if (!registeredVendors.add(vendorId)) {
+            events.publish(SaleEventType.DUPLICATE_VENDOR, eventId, vendorId, 0, 0);
             return false;
         }
-        registeredVendors.add(vendorId);
-        logger.info("Vendor registered with ID "+ vendorId);
+        events.publish(SaleEventType.VENDOR_REGISTERED, eventId, vendorId, 0, 0);
         return true;
     }
 
@@ -109,23 +839,173 @@ public class TicketPoolService {
      * @param customerId the ID of the customer to register.
      * @return true if the customer was successfully registered, false otherwise.
      */
-    public synchronized boolean registerCustomer(int customerId) {
-        if (registeredCustomers.contains(customerId)) {
-            logger.severe("Customer ID "+customerId+" is already registered.");
+    public boolean registerCustomer(int customerId) {
+        if (!registeredCustomers.add(customerId)) {
+            events.publish(SaleEventType.DUPLICATE_CUSTOMER, eventId, 0, customerId, 0);
             return false;
         }
-        registeredCustomers.add(customerId);
-        logger.info("Customer registered with ID "+ customerId);
+        events.publish(SaleEventType.CUSTOMER_REGISTERED, eventId, 0, customerId, 0);
         return true;
     }
 
+    /**
+     * Registers many customers at once, such as a crowd loaded before an
+     * on-sale. Customers already registered are skipped. A single summary
+     * is logged instead of one event per customer.
+     *
+     * @param customerIds the IDs of the customers to register.
+     * @return the number of customers newly registered.
+     */
+    public int registerCustomers(int[] customerIds) {
+        int registered = registeredCustomers.addAll(customerIds);
+        logger.info("Registered " + registered + " of " + customerIds.length + " customers for event " + eventId + ".");
+        return registered;
+    }
+
+    /**
+     * Checks whether a vendor is registered.
+     *
+     * @param vendorId the ID of the vendor.
+     * @return true if the vendor is registered.
+     */
+    public boolean isVendorRegistered(int vendorId) {
+        return registeredVendors.contains(vendorId);
+    }
+
+    /**
+     * Checks whether a customer is registered.
+     *
+     * @param customerId the ID of the customer.
+     * @return true if the customer is registered.
+     */
+    public boolean isCustomerRegistered(int customerId) {
+        return registeredCustomers.contains(customerId);
+    }
+
+    /**
+     * Retrieves the number of registered vendors.
+     *
+     * @return the vendor count.
+     */
+    public int getRegisteredVendors() {
+        return registeredVendors.size();
+    }
+
+    /**
+     * Retrieves the number of registered customers.
+     *
+     * @return the customer count.
+     */
+    public int getRegisteredCustomers() {
+        return registeredCustomers.size();
+    }
+
+    /**
+     * Estimates the heap used by the vendor and customer registries.
+     *
+     * @return the approximate size in bytes.
+     */
+    public long getRegistrationMemoryBytes() {
+        return registeredVendors.getMemoryBytes() + registeredCustomers.getMemoryBytes();
+    }
+
+    /**
+     * Retrieves the number of tickets each vendor has added since the last reset.
+     *
+     * @return the per-vendor counters.
+     */
+    public ActorCounters getTicketsAddedByVendor() {
+        return ticketsAddedByVendor;
+    }
+
+    /**
+     * Retrieves the number of tickets each customer has purchased since the last reset.
+     *
+     * @return the per-customer counters.
+     */
+    public ActorCounters getTicketsPurchasedByCustomer() {
+        return ticketsPurchasedByCustomer;
+    }
+
+    /**
+     * Retrieves the number of vendors parked waiting for pool capacity.
+     *
+     * @return the waiting vendor count.
+     */
+    public int getWaitingVendors() {
+        return waitingVendors.get();
+    }
+
+    /**
+     * Retrieves the number of customers parked waiting for stock.
+     *
+     * @return the waiting customer count.
+     */
+    public int getWaitingCustomers() {
+        return waitingCustomers.get();
+    }
+
+    /**
+     * Retrieves how often the engine found itself busy.
+     *
+     * @return the engine's failed CAS or contended lock count.
+     */
+    public long getEngineContention() {
+        return ticketPool.contention();
+    }
+
+    /**
+     * Retrieves how often the lock guarding waiters was already held when taken.
+     *
+     * @return the contended acquisition count.
+     */
+    public long getWaitLockContention() {
+        return waitLockContention.sum();
+    }
+
+    /**
+     * Retrieves the metrics this pool reports to.
+     *
+     * @return the metrics, {@link PoolMetrics#NONE} if none are attached.
+     */
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Attaches metrics recording to this pool.
+     *
+     * @param metrics the metrics to report to.
+     */
+    public void setMetrics(PoolMetrics metrics) {
+        this.metrics = metrics == null ? PoolMetrics.NONE : metrics;
+    }
+
+    /**
+     * Retrieves the bus that sale events are published to.
+     *
+     * @return the event bus.
+     */
+    public SaleEventBus getEventBus() {
+        return events;
+    }
+
+    /**
+     * Retrieves the name of the engine backing this pool.
+     *
+     * @return the engine name.
+     */
+    public String getEngineName() {
+        return ticketPool.name();
+    }
+
     /**
      * Retrieves the maximum number of tickets allowed for the event.
      *
      * @return the maximum number of event tickets.
      */
     public int getMaxEventTickets() {
-        return maxEventTickets;
+        return ticketPool.getMaxEventTickets();
     }
 
     /**
@@ -134,24 +1014,295 @@ public class TicketPoolService {
      * @return the maximum number of pool tickets.
      */
     public int getMaxPoolTickets() {
-        return maxPoolTickets;
+        return ticketPool.getMaxPoolTickets();
     }
 
     /**
-     * Sets the maximum number of tickets allowed for the event.
+     * Retrieves the version of the limits in force.
+     *
+     * @return the number of resizes since the pool was created.
+     */
+    public long getCapacityVersion() {
+        return capacityVersion;
+    }
+
+    /**
+     * Sets the maximum number of tickets allowed for the event, keeping the
+     * pool limit. See {@link #resize}.
      *
      * @param maxEventTickets the new maximum number of event tickets.
      */
     public void setMaxEventTickets(int maxEventTickets) {
-        this.maxEventTickets = maxEventTickets;
+        capacityLock.lock();
+        try {
+            resize(ticketPool.getMaxPoolTickets(), maxEventTickets);
+        } finally {
+            capacityLock.unlock();
+        }
     }
 
     /**
-     * Sets the maximum number of tickets allowed in the pool.
+     * Sets the maximum number of tickets allowed in the pool, keeping the
+     * event limit. See {@link #resize}.
      *
      * @param maxPoolTickets the new maximum number of pool tickets.
      */
     public void setMaxPoolTickets(int maxPoolTickets) {
-        this.maxPoolTickets = maxPoolTickets;
+        capacityLock.lock();
+        try {
+            resize(maxPoolTickets, ticketPool.getMaxEventTickets());
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces both limits in one step. Every addition that completes
+     * afterwards is checked against the new limits; unsold tickets that no
+     * longer fit are withdrawn, oldest first, and blocked vendors and
+     * buyers are woken to re-check. Resizes are applied one at a time, but
+     * sales do not wait for them. In a cluster the event limit is changed
+     * for every node, but cannot drop below the quota already handed out.
+     * A pool limit above the engine's capacity is capped at it.
+     *
+     * @param maxPoolTickets  the new maximum number of pool tickets.
+     * @param maxEventTickets the new maximum number of event tickets.
+     * @return the limits in force, their version and the tickets withdrawn.
+     * @throws IllegalArgumentException if either limit is negative.
+     */
+    public CapacityChange resize(int maxPoolTickets, int maxEventTickets) {
+        if (maxPoolTickets < 0 || maxEventTickets < 0) {
+            throw new IllegalArgumentException("Ticket limits cannot be negative.");
+        }
+        capacityLock.lock();
+        try {
+            ClusterQuota quota = clusterQuota;
+            if (quota != null) {
+                try {
+                    maxEventTickets = quota.setMaxEventTickets(maxEventTickets);
+                } catch (IOException e) {
+                    logger.warning("Event " + eventId + " limit changed on this node only: " + e.getMessage());
+                }
+            }
+            List<Ticket> withdrawn = ticketPool.resize(maxPoolTickets, maxEventTickets);
+            long version = capacityVersion + 1;
+            capacityVersion = version;
+            journalLimits();
+            for (Ticket ticket : withdrawn) {
+                journal(SaleJournal.RecordType.WITHDRAW, 0, 0, ticket.getTicketId());
+                events.publish(SaleEventType.TICKET_WITHDRAWN, eventId, 0, 0, ticket.getTicketId());
+            }
+            if (quota != null) {
+                quota.refund(withdrawn.size());
+            }
+            signalAll();
+            // The engine may cap the pool limit at its capacity; report the limit it applied.
+            return new CapacityChange(version, ticketPool.getMaxPoolTickets(), maxEventTickets, withdrawn);
+        } finally {
+            capacityLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a ticket to the engine, taking cluster quota for it first.
+     */
+    private TicketPool.AddResult addToPool(Ticket ticket) {
+        ClusterQuota quota = clusterQuota;
+        if (quota == null) {
+            return ticketPool.add(ticket);
+        }
+        if (quota.take(1, true) == 0) {
+            return TicketPool.AddResult.EVENT_LIMIT_REACHED;
+        }
+        TicketPool.AddResult result = ticketPool.add(ticket);
+        if (result != TicketPool.AddResult.ADDED) {
+            quota.refund(1);
+        }
+        return result;
+    }
+
+    private void journal(SaleJournal.RecordType type, int first, int second, long ticketId) {
+        SaleJournal current = journal;
+        if (current != null) {
+            current.append(type, first, second, ticketId);
+        }
+    }
+
+    /**
+     * Journals one record per ticket as a single group, so a batch waits
+     * for one fsync rather than one per ticket.
+     */
+    private void journalAll(SaleJournal.RecordType type, int actorId, List<Ticket> tickets) {
+        SaleJournal current = journal;
+        if (current != null && !tickets.isEmpty()) {
+            long[] ids = new long[tickets.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = tickets.get(i).getTicketId();
+            }
+            current.appendBatch(type, actorId, 0, ids);
+        }
+    }
+
+    /**
+     * Called on the timer thread when a hold runs out.
+     */
+    private void expireHold(Hold hold) {
+        holds.remove(hold.getHoldId(), hold);
+        returnHeldTickets(hold, SaleEventType.HOLD_EXPIRED);
+    }
+
+    private void returnHeldTickets(Hold hold, SaleEventType type) {
+        List<Ticket> tickets = hold.getTickets();
+        ticketPool.returnHeld(tickets);
+        signalTicketsAvailable(tickets.size());
+        metrics.holdEnded(hold.getState(), tickets.size());
+        for (Ticket ticket : tickets) {
+            events.publish(type, eventId, 0, hold.getCustomerId(), ticket.getTicketId());
+        }
+        pendingPurchases.serve();
+    }
+
+    /**
+     * Records tickets that have left the pool as sold to a customer.
+     */
+    private void recordPurchase(int customerId, List<Ticket> tickets, long latencyNanos) {
+        signalCapacityAvailable(tickets.size());
+        ticketsPurchasedByCustomer.add(customerId, tickets.size());
+        metrics.ticketsPurchased(tickets.size(), latencyNanos);
+        journalAll(SaleJournal.RecordType.SALE, customerId, tickets);
+        for (Ticket ticket : tickets) {
+            events.publish(SaleEventType.TICKET_PURCHASED, eventId, 0, customerId, ticket.getTicketId());
+        }
+    }
+
+    private void journalLimits() {
+        journal(SaleJournal.RecordType.LIMITS, ticketPool.getMaxPoolTickets(), ticketPool.getMaxEventTickets(), 0);
+    }
+
+    private SeatMap requireSeatMap() {
+        SeatMap current = seatMap;
+        if (current == null) {
+            throw new IllegalStateException("Event " + eventId + " has no seat map.");
+        }
+        return current;
+    }
+
+    /**
+     * Wakes waiting customers after tickets were added. The waiter count is
+     * checked first so that producers only take the lock when someone is parked.
+     *
+     * @param tickets the number of tickets added.
+     */
+    private void signalTicketsAvailable(int tickets) {
+        if (waitingCustomers.get() > 0) {
+            signal(ticketsAvailable, tickets);
+        }
+    }
+
+    /**
+     * Wakes waiting vendors after tickets left the pool.
+     *
+     * @param tickets the number of pool slots freed.
+     */
+    private void signalCapacityAvailable(int tickets) {
+        if (waitingVendors.get() > 0) {
+            signal(capacityAvailable, tickets);
+        }
+    }
+
+    private void signal(Condition condition, int tickets) {
+        lockWaiters();
+        try {
+            if (tickets == 1) {
+                condition.signal();
+            } else {
+                condition.signalAll();
+            }
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * Ends every current {@link #takeTicket} and {@link #offerTicket} wait
+     * early, so that waiting actors return and re-check their handles.
+     * Callers changing many actors at once call this once afterwards.
+     */
+    public void wakeWaiters() {
+        lockWaiters();
+        try {
+            waiterWakeups++;
+            ticketsAvailable.signalAll();
+            capacityAvailable.signalAll();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * Wakes every waiting vendor and customer so they re-check the pool.
+     */
+    private void signalAll() {
+        lockWaiters();
+        try {
+            ticketsAvailable.signalAll();
+            capacityAvailable.signalAll();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    /**
+     * Takes the waiter lock, counting acquisitions that found it held.
+     */
+    private void lockWaiters() {
+        if (!waitLock.tryLock()) {
+            waitLockContention.increment();
+            waitLock.lock();
+        }
+    }
+
+    private void lockWaitersInterruptibly() throws InterruptedException {
+        if (!waitLock.tryLock()) {
+            waitLockContention.increment();
+            waitLock.lockInterruptibly();
+        }
+    }
+
+    /**
+     * Serves queued asynchronous purchases from the pool. Tickets are held
+     * first and only sold once the purchase is claimed, so a purchase
+     * cancelled meanwhile puts them straight back.
+     */
+    private final class QueueSeller implements PurchaseQueue.Seller {
+
+        @Override
+        public List<Ticket> hold(int quantity, boolean allOrNothing) {
+            return ticketPool.hold(quantity, allOrNothing);
+        }
+
+        @Override
+        public void sell(PendingPurchase purchase, List<Ticket> tickets) {
+            ticketPool.confirmHeld(tickets.size());
+            recordPurchase(purchase.getCustomerId(), tickets, purchase.getWaitedNanos());
+        }
+
+        @Override
+        public void giveBack(List<Ticket> tickets) {
+            ticketPool.returnHeld(tickets);
+            signalTicketsAvailable(tickets.size());
+        }
+    }
+
+    /**
+     * Holds the logging event bus of services created without one. It is
+     * started on first use and lives as long as the JVM.
+     */
+    private static final class SharedEventBus {
+        static final SaleEventBus INSTANCE = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+
+        static {
+            INSTANCE.addListener(new LoggingSaleEventListener());
+        }
     }
-}
\ No newline at end of file
+}
@@ -2,15 +2,22 @@ package com.example.ticket.services;
 
 
 import com.example.ticket.models.Ticket;
+import com.example.ticket.services.execution.ActorHandle;
+import com.example.ticket.services.execution.SchedulingLagRecorder;
+import com.example.ticket.services.metrics.PoolMetrics;
+import com.example.ticket.services.pool.TicketPool;
 
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 public class VendorService implements Runnable {
     private static final java.util.logging.Logger logger = Logger.getLogger(VendorService.class.getName());
+    /** Upper bound on a single wait for pool capacity, so the loop re-checks its running flag. */
+    private static final long WAIT_TIMEOUT_MS = 1000;
     private TicketPoolService ticketPoolService;
     private int vendorId;
-    private int ticketReleaseRate;
-    private boolean running = true;
+    private final ActorHandle handle;
+    private SchedulingLagRecorder lagRecorder;
 
     public VendorService(TicketPoolService ticketPoolService, int vendorId, int ticketReleaseRate) {
         if (!ticketPoolService.registerVendor(vendorId)) {
@@ -18,37 +25,69 @@ public class VendorService implements Runnable {
         }
         this.ticketPoolService = ticketPoolService;
         this.vendorId = vendorId;
-        this.ticketReleaseRate = ticketReleaseRate;
+        this.handle = new ActorHandle(PoolMetrics.Role.VENDOR, vendorId, ticketReleaseRate);
+    }
+
+    /**
+     * Retrieves the handle used to pause, resume, re-rate, drain or stop this vendor.
+     *
+     * @return the vendor's handle.
+     */
+    public ActorHandle getHandle() {
+        return handle;
     }
 
     public void setTicketPoolService(TicketPoolService ticketPoolService) {
         this.ticketPoolService = ticketPoolService;
     }
 
+    /**
+     * Sets the recorder that tracks how late this actor wakes from its pacing sleeps.
+     *
+     * @param lagRecorder the recorder, or null to pace without recording.
+     */
+    public void setLagRecorder(SchedulingLagRecorder lagRecorder) {
+        this.lagRecorder = lagRecorder;
+    }
+
+    /**
+     * Releases tickets until stopped. A draining vendor first places the
+     * ticket it is holding, if any, so no allocated ticket is dropped
+     * because the pool happened to be full.
+     */
     @Override
     public void run() {
-        int ticketId = 1;
-        while (running) {
-            try {
-                Thread.sleep(ticketReleaseRate);
+        handle.bind();
+        Ticket ticket = null;
+        if (ticketPoolService != null) {
+            ticketPoolService.getMetrics().actorStarted(PoolMetrics.Role.VENDOR, vendorId);
+        }
+        try {
+            while (handle.awaitRunnable() || (ticket != null && handle.getState() == ActorHandle.State.DRAINING)) {
                 if (ticketPoolService != null) {
-                    if (ticketPoolService.getAvailableTickets()
-                            + ticketPoolService.getTicketsSold() >= ticketPoolService.getMaxEventTickets()) {
-                        logger.severe("Vendor "+vendorId+" cannot add ticket. Maximum event ticket limit reached.");
+                    if (ticket == null) {
+                        ticket = new Ticket(ticketPoolService.getEventId(), ticketPoolService.allocateTicketId());
+                    }
+                    TicketPool.AddResult result = ticketPoolService.offerTicket(
+                            vendorId, ticket, WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                    if (result == TicketPool.AddResult.EVENT_LIMIT_REACHED) {
+                        logger.severe("Vendor "+vendorId+" stopping. Maximum event ticket limit reached.");
                         return;
                     }
-                    if (ticketPoolService.getAvailableTickets() >= ticketPoolService.getMaxPoolTickets()) {
-                        logger.info("Vendor "+vendorId+" waiting, max pool limit reached.");
+                    if (result == TicketPool.AddResult.POOL_FULL) {
+                        logger.fine(() -> "Vendor "+vendorId+" still waiting, max pool limit reached.");
+                        ticketPoolService.getMetrics().actorIdle(PoolMetrics.Role.VENDOR);
                         continue;
                     }
-                    Ticket ticket = new Ticket(ticketId++);
-                    ticketPoolService.addTicket(vendorId, ticket);
+                    ticket = null;
                 }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                logger.severe("Vendor "+vendorId+" interrupted.");
-                break;
+                handle.pace(lagRecorder);
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.severe("Vendor "+vendorId+" interrupted.");
+        } finally {
+            handle.exited();
         }
     }
 }
@@ -0,0 +1,63 @@
+package com.example.ticket.services.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A customer's place in a {@link WaitingRoom}. The admission time is fixed
+ * when the place is assigned, so the wait can be reported exactly; in a
+ * randomized room, customers who arrived before the on-sale time get their
+ * place when the lottery is drawn at opening.
+ */
+public class AdmissionToken {
+    /** Admission time of a token still waiting for the lottery. */
+    static final long UNASSIGNED = Long.MAX_VALUE;
+
+    private final int customerId;
+    /** Lottery draw; only used for customers who arrived before opening. */
+    long draw;
+    private volatile long position = -1;
+    private volatile long admitAtNanos = UNASSIGNED;
+    /** Theoretical arrival time of the customer's next request permit. */
+    final AtomicLong requests;
+
+    AdmissionToken(int customerId, long now) {
+        this.customerId = customerId;
+        this.requests = new AtomicLong(now);
+    }
+
+    void assign(long position, long admitAtNanos) {
+        this.position = position;
+        this.admitAtNanos = admitAtNanos;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Retrieves the customer's place in line.
+     *
+     * @return the zero-based position, or -1 until the lottery is drawn.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Checks whether the customer has been given a place in line.
+     *
+     * @return false while the customer waits for the opening lottery.
+     */
+    public boolean isAssigned() {
+        return admitAtNanos != UNASSIGNED;
+    }
+
+    /**
+     * Retrieves when the customer is admitted.
+     *
+     * @return the {@link System#nanoTime()} of admission, or {@link Long#MAX_VALUE} until assigned.
+     */
+    public long getAdmitAtNanos() {
+        return admitAtNanos;
+    }
+}
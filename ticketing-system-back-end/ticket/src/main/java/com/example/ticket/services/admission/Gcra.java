@@ -0,0 +1,83 @@
+package com.example.ticket.services.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generic cell rate algorithm: a token bucket kept as a single theoretical
+ * arrival time, so taking a token is one CAS and needs no refill thread.
+ * A rate of {@code r} per second with a burst of {@code b} spaces grants
+ * {@code 1/r} seconds apart once the first {@code b} have been used.
+ */
+final class Gcra {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    /**
+     * @param perSecond the sustained rate.
+     * @param burst     how many grants may be made at once after an idle period.
+     */
+    Gcra(double perSecond, int burst) {
+        if (!(perSecond > 0) || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive.");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / perSecond));
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+    }
+
+    /**
+     * Books the next grant, however far in the future it is.
+     *
+     * @param tat    the theoretical arrival time of the next grant.
+     * @param start  the earliest time this grant may be made.
+     * @param minTat a lower bound for the theoretical arrival time, for grants booked elsewhere.
+     * @return the time of the grant booked.
+     */
+    long schedule(AtomicLong tat, long start, long minTat) {
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(Math.max(current, minTat), start);
+            if (tat.compareAndSet(current, next + intervalNanos)) {
+                return Math.max(start, next - toleranceNanos);
+            }
+        }
+    }
+
+    /**
+     * Takes a grant if one is available now.
+     *
+     * @param tat the theoretical arrival time of the next grant.
+     * @param now the current {@link System#nanoTime()}.
+     * @return 0 if granted, otherwise the nanoseconds until a grant is available.
+     */
+    long tryAcquire(AtomicLong tat, long now) {
+        while (true) {
+            long current = tat.get();
+            long allowedAt = current - toleranceNanos;
+            if (now < allowedAt) {
+                return allowedAt - now;
+            }
+            if (tat.compareAndSet(current, Math.max(current, now) + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Retrieves when the next grant would be made if it were booked now.
+     *
+     * @param tat   the theoretical arrival time of the next grant.
+     * @param start the earliest time the grant may be made.
+     * @return the time the grant would be made.
+     */
+    long nextGrant(long tat, long start) {
+        return Math.max(start, Math.max(tat, start) - toleranceNanos);
+    }
+
+    long intervalNanos() {
+        return intervalNanos;
+    }
+
+    long toleranceNanos() {
+        return toleranceNanos;
+    }
+}
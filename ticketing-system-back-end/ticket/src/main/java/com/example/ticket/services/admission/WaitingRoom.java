@@ -0,0 +1,322 @@
+package com.example.ticket.services.admission;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual waiting room in front of an event's pool. Customers take an
+ * {@link AdmissionToken} and are let through at a configured rate, so an
+ * on-sale burst turns into a steady stream of buyers instead of thousands
+ * of threads racing for the same tickets. Once admitted, each customer is
+ * held to their own request rate.
+ *
+ * <p>Admission is paced with a GCRA (a token bucket kept as one timestamp):
+ * entering books the next admission slot with a single CAS, which fixes
+ * the customer's admission time and so their exact expected wait. Queue
+ * depth and the wait of a new arrival follow from the same timestamp, so
+ * nothing is counted or scanned to report them.</p>
+ *
+ * <p>In {@link Mode#FIFO FIFO} rooms customers are admitted in arrival
+ * order. In {@link Mode#RANDOMIZED randomized} rooms everyone who arrives
+ * before the on-sale time joins a lobby and is given a random place when
+ * the room opens, so arriving a millisecond earlier is worth nothing;
+ * later arrivals queue behind the lobby in arrival order. The lobby is
+ * closed by one CAS that also freezes its size, which lets later arrivals
+ * book their places behind it while the lottery is still being drawn.</p>
+ */
+public class WaitingRoom {
+
+    /**
+     * How customers who arrive before opening are ordered.
+     */
+    public enum Mode {
+        FIFO,
+        RANDOMIZED;
+
+        /**
+         * Parses a mode name, ignoring case.
+         *
+         * @param name the mode name, "fifo" or "randomized".
+         * @return the matching mode.
+         */
+        public static Mode from(String name) {
+            try {
+                return Mode.valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown waiting room mode: " + name);
+            }
+        }
+    }
+
+    /**
+     * Whether a customer may make a request now.
+     */
+    public enum Access {
+        ALLOWED,
+        NOT_IN_ROOM,
+        WAITING,
+        RATE_LIMITED
+    }
+
+    private static final long LOBBY_CLOSED = 1L << 62;
+
+    private final Mode mode;
+    private final double admitPerSecond;
+    private final int admitBurst;
+    private final double customerPerSecond;
+    private final int customerBurst;
+    private final long opensAtNanos;
+    private final Gcra admission;
+    private final Gcra customerRequests;
+    private final Map<Integer, AdmissionToken> tokens = new ConcurrentHashMap<>();
+    /** Theoretical time of the next admission after the lobby. */
+    private final AtomicLong nextAdmission;
+    private final AtomicLong arrivals = new AtomicLong();
+    /** Lobby size, with {@link #LOBBY_CLOSED} set once the room has opened. */
+    private final AtomicLong lobby = new AtomicLong();
+    private final Queue<AdmissionToken> lobbyTokens = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger lobbyQueued = new AtomicInteger();
+    private volatile boolean lotteryDrawn;
+
+    /**
+     * Creates a waiting room.
+     *
+     * @param mode              how customers who arrive before opening are ordered.
+     * @param admitPerSecond    how many customers are admitted per second.
+     * @param admitBurst        how many customers may be admitted at once.
+     * @param opensAtNanos      the {@link System#nanoTime()} at which admission starts.
+     * @param customerPerSecond how many requests per second an admitted customer may make.
+     * @param customerBurst     how many requests a customer may make at once.
+     */
+    public WaitingRoom(Mode mode, double admitPerSecond, int admitBurst, long opensAtNanos,
+                       double customerPerSecond, int customerBurst) {
+        this.mode = mode;
+        this.admitPerSecond = admitPerSecond;
+        this.admitBurst = admitBurst;
+        this.customerPerSecond = customerPerSecond;
+        this.customerBurst = customerBurst;
+        this.opensAtNanos = opensAtNanos;
+        this.admission = new Gcra(admitPerSecond, admitBurst);
+        this.customerRequests = new Gcra(customerPerSecond, customerBurst);
+        this.nextAdmission = new AtomicLong(opensAtNanos);
+        if (mode == Mode.FIFO) {
+            lobby.set(LOBBY_CLOSED);
+            lotteryDrawn = true;
+        }
+    }
+
+    /**
+     * Puts a customer in line, or returns their existing place.
+     *
+     * @param customerId the ID of the customer.
+     * @return the customer's token.
+     */
+    public AdmissionToken enter(int customerId) {
+        AdmissionToken token = tokens.get(customerId);
+        if (token != null) {
+            return token;
+        }
+        long now = System.nanoTime();
+        token = new AdmissionToken(customerId, now);
+        AdmissionToken existing = tokens.putIfAbsent(customerId, token);
+        if (existing != null) {
+            return existing;
+        }
+        if (joinLobby(now)) {
+            token.draw = ThreadLocalRandom.current().nextLong();
+            lobbyTokens.add(token);
+            lobbyQueued.incrementAndGet();
+        } else {
+            openIfDue(now);
+            long lobbySize = lobby.get() & ~LOBBY_CLOSED;
+            long admitAt = admission.schedule(nextAdmission, Math.max(now, opensAtNanos), lobbyEnd(lobbySize));
+            token.assign(lobbySize + arrivals.getAndIncrement(), admitAt);
+        }
+        return token;
+    }
+
+    /**
+     * Retrieves a customer's place in line.
+     *
+     * @param customerId the ID of the customer.
+     * @return the token, or null if the customer has not entered.
+     */
+    public AdmissionToken getToken(int customerId) {
+        openIfDue(System.nanoTime());
+        return tokens.get(customerId);
+    }
+
+    /**
+     * Checks whether a customer may make a request now, and if so uses one
+     * of their request permits. Customers are not put in line.
+     *
+     * @param customerId the ID of the customer.
+     * @return whether the request may go ahead.
+     */
+    public Access tryAccess(int customerId) {
+        long now = System.nanoTime();
+        openIfDue(now);
+        AdmissionToken token = tokens.get(customerId);
+        if (token == null) {
+            return Access.NOT_IN_ROOM;
+        }
+        if (token.getAdmitAtNanos() > now) {
+            return Access.WAITING;
+        }
+        return customerRequests.tryAcquire(token.requests, now) == 0 ? Access.ALLOWED : Access.RATE_LIMITED;
+    }
+
+    /**
+     * Puts a customer in line if needed and uses one of their request
+     * permits once they are admitted. Used by simulated customers, which
+     * sleep for the returned time instead of polling.
+     *
+     * @param customerId the ID of the customer.
+     * @return 0 if the request may go ahead, otherwise the nanoseconds to wait before trying again.
+     */
+    public long acquire(int customerId) {
+        AdmissionToken token = enter(customerId);
+        long now = System.nanoTime();
+        openIfDue(now);
+        if (!token.isAssigned()) {
+            return Math.max(opensAtNanos - now, admission.intervalNanos());
+        }
+        if (token.getAdmitAtNanos() > now) {
+            return token.getAdmitAtNanos() - now;
+        }
+        return customerRequests.tryAcquire(token.requests, now);
+    }
+
+    /**
+     * Retrieves how many customers are in line and not yet admitted.
+     *
+     * @return the queue depth.
+     */
+    public long getDepth() {
+        long now = System.nanoTime();
+        openIfDue(now);
+        if (now < opensAtNanos) {
+            return tokens.size();
+        }
+        long interval = admission.intervalNanos();
+        long lastAdmission = Math.max(nextAdmission.get(), lobbyEnd(lobby.get() & ~LOBBY_CLOSED))
+                - interval - admission.toleranceNanos();
+        if (lastAdmission <= now) {
+            return 0;
+        }
+        return Math.min(tokens.size(), (lastAdmission - now + interval - 1) / interval);
+    }
+
+    /**
+     * Retrieves how long a customer entering now would wait to be admitted.
+     *
+     * @return the expected wait in nanoseconds.
+     */
+    public long getExpectedWaitNanos() {
+        long now = System.nanoTime();
+        openIfDue(now);
+        long lobbySize = lobby.get() & ~LOBBY_CLOSED;
+        if (now < opensAtNanos && mode == Mode.RANDOMIZED) {
+            // Joining the lobby now means a random place among everyone in it.
+            lobbySize /= 2;
+        }
+        long tat = Math.max(nextAdmission.get(), lobbyEnd(lobbySize));
+        return Math.max(0, admission.nextGrant(tat, Math.max(now, opensAtNanos)) - now);
+    }
+
+    /**
+     * Retrieves how many customers have entered the room.
+     *
+     * @return the number of tokens issued.
+     */
+    public int getEntered() {
+        return tokens.size();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getAdmitPerSecond() {
+        return admitPerSecond;
+    }
+
+    public int getAdmitBurst() {
+        return admitBurst;
+    }
+
+    public double getCustomerPerSecond() {
+        return customerPerSecond;
+    }
+
+    public int getCustomerBurst() {
+        return customerBurst;
+    }
+
+    public long getOpensAtNanos() {
+        return opensAtNanos;
+    }
+
+    /**
+     * Joins the lobby if the room is randomized and not yet open.
+     */
+    private boolean joinLobby(long now) {
+        while (true) {
+            long state = lobby.get();
+            if ((state & LOBBY_CLOSED) != 0 || now >= opensAtNanos) {
+                return false;
+            }
+            if (lobby.compareAndSet(state, state + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Draws the lottery once the on-sale time has passed. The thread that
+     * closes the lobby draws it; every other caller returns at once.
+     */
+    private void openIfDue(long now) {
+        if (lotteryDrawn || now < opensAtNanos) {
+            return;
+        }
+        long state = lobby.getAndUpdate(s -> s | LOBBY_CLOSED);
+        if ((state & LOBBY_CLOSED) != 0) {
+            return;
+        }
+        drawLottery((int) state);
+    }
+
+    private void drawLottery(int lobbySize) {
+        // Customers counted into the lobby enqueue their token right after.
+        while (lobbyQueued.get() < lobbySize) {
+            Thread.onSpinWait();
+        }
+        List<AdmissionToken> drawn = new ArrayList<>(lobbySize);
+        for (int i = 0; i < lobbySize; i++) {
+            drawn.add(lobbyTokens.poll());
+        }
+        drawn.sort(Comparator.comparingLong(token -> token.draw));
+        AtomicLong lotteryAdmission = new AtomicLong(opensAtNanos);
+        for (int rank = 0; rank < drawn.size(); rank++) {
+            drawn.get(rank).assign(rank, admission.schedule(lotteryAdmission, opensAtNanos, opensAtNanos));
+        }
+        lotteryDrawn = true;
+    }
+
+    /**
+     * Retrieves the theoretical admission time after the lobby has been
+     * admitted, which is where later arrivals start booking.
+     */
+    private long lobbyEnd(long lobbySize) {
+        return opensAtNanos + lobbySize * admission.intervalNanos();
+    }
+}
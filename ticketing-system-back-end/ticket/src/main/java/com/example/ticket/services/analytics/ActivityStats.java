@@ -0,0 +1,126 @@
+package com.example.ticket.services.analytics;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rolling history of one kind of activity, such as an event's sales or one
+ * vendor's releases: a count per second over the last minute and per
+ * minute over the last hour, plus running totals. Rates are taken over the
+ * time the activity has actually been going on, up to the window length,
+ * so a sale that started ten seconds ago is not averaged over a minute.
+ *
+ * <p>Recorded by one thread and read by any.</p>
+ */
+public class ActivityStats {
+    /** Slots of the per-second window. */
+    public static final int SECONDS = 60;
+    /** Slots of the per-minute window. */
+    public static final int MINUTES = 60;
+
+    private final RollingWindow perSecond = new RollingWindow(SECONDS, 1000);
+    private final RollingWindow perMinute = new RollingWindow(MINUTES, 60_000);
+    private volatile long total;
+    private volatile long firstMillis = -1;
+    private volatile long lastMillis = -1;
+
+    /**
+     * Records activity at a point in time.
+     *
+     * @param timeMillis the time of the activity.
+     * @param amount     how much happened, e.g. the number of tickets.
+     */
+    public void record(long timeMillis, int amount) {
+        perSecond.add(timeMillis, amount);
+        perMinute.add(timeMillis, amount);
+        total += amount;
+        if (firstMillis < 0) {
+            firstMillis = timeMillis;
+        }
+        lastMillis = Math.max(lastMillis, timeMillis);
+    }
+
+    /**
+     * Retrieves the average rate over the last minute, or over the time
+     * since the first record if that is shorter.
+     *
+     * @param nowMillis the current time.
+     * @return the rate per second.
+     */
+    public double perSecond(long nowMillis) {
+        double seconds = activeSlots(nowMillis, 1000, SECONDS);
+        return seconds == 0 ? 0 : perSecond.sum(nowMillis, SECONDS) / seconds;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getFirstMillis() {
+        return firstMillis;
+    }
+
+    public long getLastMillis() {
+        return lastMillis;
+    }
+
+    /**
+     * Builds a summary suitable for a JSON response.
+     *
+     * @param nowMillis the current time.
+     * @return the totals, rates and percentiles of the per-second counts over the last minute.
+     */
+    public Map<String, Object> toMap(long nowMillis) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("total", total);
+        map.put("lastMinute", perSecond.sum(nowMillis, SECONDS));
+        map.put("lastHour", perMinute.sum(nowMillis, MINUTES));
+        map.put("perSecond", round(perSecond(nowMillis)));
+        double minutes = activeSlots(nowMillis, 60_000, MINUTES);
+        map.put("perMinute", round(minutes == 0 ? 0 : perMinute.sum(nowMillis, MINUTES) / minutes));
+        map.put("perSecondPercentiles", percentiles(nowMillis));
+        map.put("firstAt", firstMillis < 0 ? null : firstMillis);
+        map.put("lastAt", lastMillis < 0 ? null : lastMillis);
+        return map;
+    }
+
+    /**
+     * Percentiles of the per-second counts over the seconds of the last
+     * minute in which the activity had started, by nearest rank.
+     */
+    private Map<String, Object> percentiles(long nowMillis) {
+        int seconds = (int) Math.ceil(activeSlots(nowMillis, 1000, SECONDS));
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (seconds == 0) {
+            return map;
+        }
+        int[] counts = perSecond.counts(nowMillis, seconds);
+        Arrays.sort(counts);
+        map.put("p50", counts[rank(counts.length, 0.50)]);
+        map.put("p90", counts[rank(counts.length, 0.90)]);
+        map.put("p99", counts[rank(counts.length, 0.99)]);
+        map.put("max", counts[counts.length - 1]);
+        return map;
+    }
+
+    /**
+     * The number of slots, between 0 and {@code slots}, since the first record,
+     * counting the current slot in full.
+     */
+    private double activeSlots(long nowMillis, long slotMillis, int slots) {
+        long first = firstMillis;
+        if (first < 0 || nowMillis < first) {
+            return 0;
+        }
+        return Math.min(slots, nowMillis / slotMillis - first / slotMillis + 1);
+    }
+
+    private static int rank(int size, double percentile) {
+        return Math.max(0, (int) Math.ceil(percentile * size) - 1);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
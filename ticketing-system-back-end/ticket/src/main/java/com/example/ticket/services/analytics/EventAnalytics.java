@@ -0,0 +1,248 @@
+package com.example.ticket.services.analytics;
+
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.cluster.ClusterQuota;
+import com.example.ticket.services.events.SaleEventType;
+import com.example.ticket.services.pool.PoolCounts;
+import com.example.ticket.services.seating.SeatMap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sales analytics of one event: rolling sales and release history for the
+ * event as a whole and for each vendor and customer. At most
+ * {@code maxActors} vendors and as many customers get their own history;
+ * activity of the rest is pooled under "other", so memory stays bounded
+ * by the number of actors tracked, not by how long the sale runs.
+ *
+ * <p>Fed by {@link SalesAnalytics} on the event bus thread; queries read
+ * the windows directly and never replay events. A pool reset arrives on
+ * the bus after the sales before it, and starts every history afresh.</p>
+ */
+public class EventAnalytics {
+    /**
+     * What is left to sell, as the sell-out projection sees it. Seats count
+     * like tickets on both sides, as their sales are in the sales history.
+     *
+     * @param sold      the tickets and seats sold.
+     * @param remaining the tickets and seats that can still be sold.
+     * @param nodeLocal whether the figures cover only this node's share of a
+     *                  clustered event, since other nodes' sales are not known here.
+     */
+    public record Stock(long sold, long remaining, boolean nodeLocal) {
+
+        /**
+         * Reads the stock of a pool. Without a cluster the remaining tickets
+         * are those the event limit still allows; in a cluster they are the
+         * tickets this node has on sale or held plus the quota it may still
+         * issue, matching the sales history, which only has this node's sales.
+         *
+         * @param pool the pool of the event.
+         * @return the pool's stock.
+         */
+        public static Stock of(TicketPoolService pool) {
+            PoolCounts counts = pool.getCounts();
+            ClusterQuota quota = pool.getClusterQuota();
+            long sold = counts.sold();
+            long remaining = quota == null
+                    ? Math.max(0, (long) counts.maxEventTickets() - counts.sold())
+                    : (long) counts.available() + pool.getHeldTickets() + quota.getBudget();
+            SeatMap seatMap = pool.getSeatMap();
+            if (seatMap != null) {
+                sold += seatMap.getCapacity() - seatMap.getAvailable();
+                remaining += seatMap.getAvailable();
+            }
+            return new Stock(sold, remaining, quota != null);
+        }
+    }
+
+    private final int eventId;
+    private final int maxActors;
+    private final Map<Integer, ActivityStats> vendors = new ConcurrentHashMap<>();
+    private final Map<Integer, ActivityStats> customers = new ConcurrentHashMap<>();
+    private volatile ActivityStats sales = new ActivityStats();
+    private volatile ActivityStats releases = new ActivityStats();
+    private volatile ActivityStats otherVendors = new ActivityStats();
+    private volatile ActivityStats otherCustomers = new ActivityStats();
+    private volatile long withdrawn;
+
+    /**
+     * Creates empty analytics for an event.
+     *
+     * @param eventId   the ID of the event.
+     * @param maxActors the number of vendors, and of customers, tracked individually.
+     */
+    public EventAnalytics(int eventId, int maxActors) {
+        if (maxActors < 0) {
+            throw new IllegalArgumentException("Tracked actor limit must not be negative.");
+        }
+        this.eventId = eventId;
+        this.maxActors = maxActors;
+    }
+
+    /**
+     * Records one sale event of this event.
+     *
+     * @param type       the kind of event.
+     * @param vendorId   the vendor involved, or 0 if none.
+     * @param customerId the customer involved, or 0 if none.
+     * @param timeMillis when the event happened.
+     */
+    void record(SaleEventType type, int vendorId, int customerId, long timeMillis) {
+        switch (type) {
+            case TICKET_ADDED:
+                releases.record(timeMillis, 1);
+                if (vendorId != 0) {
+                    actor(vendors, otherVendors, vendorId).record(timeMillis, 1);
+                }
+                break;
+            case TICKET_PURCHASED:
+                sales.record(timeMillis, 1);
+                if (customerId != 0) {
+                    actor(customers, otherCustomers, customerId).record(timeMillis, 1);
+                }
+                break;
+            case TICKET_WITHDRAWN:
+                withdrawn++;
+                break;
+            case POOL_RESET:
+                reset();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Forgets all history, as after a pool reset. Normally called on the
+     * event bus thread when the reset is delivered.
+     */
+    public void reset() {
+        sales = new ActivityStats();
+        releases = new ActivityStats();
+        otherVendors = new ActivityStats();
+        otherCustomers = new ActivityStats();
+        vendors.clear();
+        customers.clear();
+        withdrawn = 0;
+    }
+
+    public int getEventId() {
+        return eventId;
+    }
+
+    public ActivityStats getSales() {
+        return sales;
+    }
+
+    public ActivityStats getReleases() {
+        return releases;
+    }
+
+    /**
+     * Retrieves the history of one vendor.
+     *
+     * @param vendorId the ID of the vendor.
+     * @return the vendor's releases, or null if the vendor is not tracked individually.
+     */
+    public ActivityStats getVendor(int vendorId) {
+        return vendors.get(vendorId);
+    }
+
+    /**
+     * Retrieves the history of one customer.
+     *
+     * @param customerId the ID of the customer.
+     * @return the customer's purchases, or null if the customer is not tracked individually.
+     */
+    public ActivityStats getCustomer(int customerId) {
+        return customers.get(customerId);
+    }
+
+    /**
+     * Builds a summary suitable for a JSON response, including a sell-out
+     * projection from the pool's current stock.
+     *
+     * @param nowMillis the current time.
+     * @param stock     what the pool has sold and has left, see {@link Stock#of}.
+     * @param top       the number of busiest vendors and customers to list.
+     * @return the event's sales, releases, sell-out state and busiest actors.
+     */
+    public Map<String, Object> toMap(long nowMillis, Stock stock, int top) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("eventId", eventId);
+        map.put("sales", sales.toMap(nowMillis));
+        map.put("releases", releases.toMap(nowMillis));
+        map.put("withdrawn", withdrawn);
+        map.put("sellOut", sellOut(nowMillis, stock));
+        map.put("topVendors", top(vendors, "vendorId", nowMillis, top));
+        map.put("topCustomers", top(customers, "customerId", nowMillis, top));
+        map.put("otherVendors", otherVendors.toMap(nowMillis));
+        map.put("otherCustomers", otherCustomers.toMap(nowMillis));
+        map.put("trackedVendors", vendors.size());
+        map.put("trackedCustomers", customers.size());
+        return map;
+    }
+
+    /**
+     * Either how long the event took to sell out, or when it will at the
+     * sales rate of the last minute.
+     */
+    private Map<String, Object> sellOut(long nowMillis, Stock stock) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        long remaining = stock.remaining();
+        map.put("scope", stock.nodeLocal() ? "node" : "event");
+        map.put("soldTickets", stock.sold());
+        map.put("remainingTickets", remaining);
+        map.put("soldOut", remaining == 0 && stock.sold() > 0);
+        if (remaining == 0) {
+            long firstRelease = releases.getFirstMillis();
+            long lastSale = sales.getLastMillis();
+            map.put("sellOutMillis", firstRelease >= 0 && lastSale >= firstRelease ? lastSale - firstRelease : null);
+            return map;
+        }
+        double rate = sales.perSecond(nowMillis);
+        if (rate > 0) {
+            long seconds = (long) Math.ceil(remaining / rate);
+            map.put("projectedSeconds", seconds);
+            map.put("projectedAt", Instant.ofEpochMilli(nowMillis + seconds * 1000).toString());
+        } else {
+            map.put("projectedSeconds", null);
+            map.put("projectedAt", null);
+        }
+        return map;
+    }
+
+    private static List<Map<String, Object>> top(Map<Integer, ActivityStats> actors, String idName,
+                                                 long nowMillis, int top) {
+        List<Map.Entry<Integer, ActivityStats>> busiest = new ArrayList<>(actors.entrySet());
+        busiest.sort(Comparator.comparingDouble(
+                (Map.Entry<Integer, ActivityStats> entry) -> entry.getValue().perSecond(nowMillis)).reversed());
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (Map.Entry<Integer, ActivityStats> entry : busiest.subList(0, Math.min(top, busiest.size()))) {
+            Map<String, Object> actor = new LinkedHashMap<>();
+            actor.put(idName, entry.getKey());
+            actor.putAll(entry.getValue().toMap(nowMillis));
+            list.add(actor);
+        }
+        return list;
+    }
+
+    private ActivityStats actor(Map<Integer, ActivityStats> actors, ActivityStats other, int actorId) {
+        ActivityStats stats = actors.get(actorId);
+        if (stats == null) {
+            if (actors.size() >= maxActors) {
+                return other;
+            }
+            stats = new ActivityStats();
+            actors.put(actorId, stats);
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.ticket.services.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Counts of something per time slot over a fixed number of recent slots,
+ * kept in a primitive ring. Recording advances the ring to the record's
+ * slot, clearing slots skipped on the way, so memory is the same however
+ * long the window runs and nothing older than the window is kept.
+ * Records older than the window are dropped.
+ *
+ * <p>Written by one thread; reads from others are synchronized with it.</p>
+ */
+public class RollingWindow {
+    private final int[] counts;
+    private final long slotMillis;
+    /** The slot number (time / slotMillis) of the newest slot, or -1 before the first record. */
+    private long newestSlot = -1;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param slots      the number of slots kept.
+     * @param slotMillis the length of a slot in milliseconds.
+     */
+    public RollingWindow(int slots, long slotMillis) {
+        if (slots <= 0 || slotMillis <= 0) {
+            throw new IllegalArgumentException("Window slots and slot length must be positive.");
+        }
+        this.counts = new int[slots];
+        this.slotMillis = slotMillis;
+    }
+
+    /**
+     * Adds to the count of the slot holding a point in time.
+     *
+     * @param timeMillis the time of the record.
+     * @param amount     the amount to add.
+     */
+    public synchronized void add(long timeMillis, int amount) {
+        long slot = timeMillis / slotMillis;
+        advanceTo(slot);
+        if (slot > newestSlot - counts.length) {
+            counts[index(slot)] += amount;
+        }
+    }
+
+    /**
+     * Sums the most recent slots up to a point in time.
+     *
+     * @param nowMillis the current time.
+     * @param slots     the number of slots to sum, ending with the one holding {@code nowMillis}.
+     * @return the total of those slots.
+     */
+    public synchronized long sum(long nowMillis, int slots) {
+        long now = nowMillis / slotMillis;
+        long total = 0;
+        for (long slot = Math.max(now - slots + 1, newestSlot - counts.length + 1); slot <= Math.min(now, newestSlot);
+             slot++) {
+            total += counts[index(slot)];
+        }
+        return total;
+    }
+
+    /**
+     * Copies the counts of the most recent slots, oldest first; slots outside
+     * the window read as zero.
+     *
+     * @param nowMillis the current time.
+     * @param slots     the number of slots to copy, ending with the one holding {@code nowMillis}.
+     * @return the counts.
+     */
+    public synchronized int[] counts(long nowMillis, int slots) {
+        long now = nowMillis / slotMillis;
+        int[] copy = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            long slot = now - slots + 1 + i;
+            if (slot <= newestSlot && slot > newestSlot - counts.length) {
+                copy[i] = counts[index(slot)];
+            }
+        }
+        return copy;
+    }
+
+    public int getSlots() {
+        return counts.length;
+    }
+
+    public long getSlotMillis() {
+        return slotMillis;
+    }
+
+    private void advanceTo(long slot) {
+        if (slot <= newestSlot) {
+            return;
+        }
+        if (newestSlot < 0 || slot - newestSlot >= counts.length) {
+            Arrays.fill(counts, 0);
+        } else {
+            for (long cleared = newestSlot + 1; cleared <= slot; cleared++) {
+                counts[index(cleared)] = 0;
+            }
+        }
+        newestSlot = slot;
+    }
+
+    private int index(long slot) {
+        return (int) Math.floorMod(slot, (long) counts.length);
+    }
+}
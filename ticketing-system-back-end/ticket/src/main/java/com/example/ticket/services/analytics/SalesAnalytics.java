@@ -0,0 +1,65 @@
+package com.example.ticket.services.analytics;
+
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventListener;
+import com.example.ticket.services.events.SaleEventType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process analytics stage on the {@link com.example.ticket.services.events.SaleEventBus}.
+ * Every sale, release and withdrawal is folded into the rolling windows
+ * of its event's {@link EventAnalytics} as it is delivered, so analytics
+ * add nothing to the sale path and queries only read the windows.
+ * Events whose pool was never attached are ignored.
+ */
+public class SalesAnalytics implements SaleEventListener {
+    public static final int DEFAULT_MAX_ACTORS = 1000;
+
+    private final int maxActors;
+    private final Map<Integer, EventAnalytics> events = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an analytics stage; register it on the event bus to feed it.
+     *
+     * @param maxActors the number of vendors, and of customers, tracked individually per event.
+     */
+    public SalesAnalytics(int maxActors) {
+        if (maxActors < 0) {
+            throw new IllegalArgumentException("Tracked actor limit must not be negative.");
+        }
+        this.maxActors = maxActors;
+    }
+
+    /**
+     * Starts analysing an event's sales.
+     *
+     * @param pool the pool of the event.
+     * @return the event's analytics.
+     */
+    public EventAnalytics attach(TicketPoolService pool) {
+        EventAnalytics analytics = events.computeIfAbsent(pool.getEventId(),
+                eventId -> new EventAnalytics(eventId, maxActors));
+        pool.setAnalytics(analytics);
+        return analytics;
+    }
+
+    /**
+     * Retrieves the analytics of an event.
+     *
+     * @param eventId the ID of the event.
+     * @return the event's analytics, or null if it is not analysed.
+     */
+    public EventAnalytics getEvent(int eventId) {
+        return events.get(eventId);
+    }
+
+    @Override
+    public void onEvent(SaleEventType type, int eventId, int vendorId, int customerId, long ticketId, long timestamp) {
+        EventAnalytics analytics = events.get(eventId);
+        if (analytics != null) {
+            analytics.record(type, vendorId, customerId, timestamp);
+        }
+    }
+}
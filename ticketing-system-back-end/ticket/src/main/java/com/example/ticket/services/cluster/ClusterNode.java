@@ -0,0 +1,121 @@
+package com.example.ticket.services.cluster;
+
+import com.example.ticket.services.TicketPoolService;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This instance's membership of a ticketing cluster. Every event pool
+ * attached to the node sells from its own {@link ClusterQuota}, and one
+ * background thread renews all of their leases every sync interval. A
+ * node built without a coordinator runs standalone: attaching a pool
+ * leaves it limited by its local event limit alone.
+ */
+public class ClusterNode implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ClusterNode.class.getName());
+
+    private final String nodeId;
+    private final QuotaCoordinator coordinator;
+    private final int chunk;
+    private final long syncIntervalMillis;
+    private final List<ClusterQuota> quotas = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService syncer;
+
+    /**
+     * Creates a standalone node.
+     */
+    public ClusterNode() {
+        this(null, null, 1, 1);
+    }
+
+    /**
+     * Creates a node and starts renewing its leases.
+     *
+     * @param nodeId             the ID of this node, unique in the cluster; defaults to host and process ID.
+     * @param coordinator        the shared quota ledger, or null to run standalone.
+     * @param chunk              the quota each event asks for per refill.
+     * @param syncIntervalMillis how often leases are renewed; well below the coordinator's lease.
+     */
+    public ClusterNode(String nodeId, QuotaCoordinator coordinator, int chunk, long syncIntervalMillis) {
+        if (chunk <= 0 || syncIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Quota chunk and sync interval must be positive.");
+        }
+        this.nodeId = nodeId == null || nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        this.coordinator = coordinator;
+        this.chunk = chunk;
+        this.syncIntervalMillis = syncIntervalMillis;
+        if (coordinator == null) {
+            this.syncer = null;
+            return;
+        }
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-quota-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::renewAll, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Node " + this.nodeId + " joined the ticketing cluster.");
+    }
+
+    /**
+     * Makes a pool sell from this node's slice of its event quota.
+     *
+     * @param pool the pool of an event.
+     * @return the pool's quota, or null when running standalone.
+     */
+    public ClusterQuota attach(TicketPoolService pool) {
+        if (coordinator == null) {
+            return null;
+        }
+        ClusterQuota quota = new ClusterQuota(pool.getEventId(), nodeId, coordinator, chunk, syncIntervalMillis,
+                pool::getMaxEventTickets, syncer);
+        quotas.add(quota);
+        pool.setClusterQuota(quota);
+        return quota;
+    }
+
+    public boolean isClustered() {
+        return coordinator != null;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public QuotaCoordinator getCoordinator() {
+        return coordinator;
+    }
+
+    /**
+     * Stops renewing, gives every event's unused quota back and closes the coordinator.
+     */
+    @Override
+    public void close() {
+        if (coordinator == null) {
+            return;
+        }
+        syncer.shutdownNow();
+        for (ClusterQuota quota : quotas) {
+            quota.leave();
+        }
+        coordinator.close();
+        logger.info("Node " + nodeId + " left the ticketing cluster.");
+    }
+
+    private void renewAll() {
+        for (ClusterQuota quota : quotas) {
+            try {
+                quota.renew();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Renewing the quota lease of node " + nodeId + " failed.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.ticket.services.cluster;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.logging.Logger;
+
+/**
+ * One node's slice of an event's ticket quota. The pool takes a unit of
+ * budget with a single CAS before every ticket it adds, so selling from
+ * the local slice needs no coordination; only refilling, returning and
+ * lease renewal go to the {@link QuotaCoordinator}, a chunk at a time.
+ *
+ * <p>The budget is topped up in the background once it falls below half a
+ * chunk. A node that runs dry refills on the spot, and if the cluster has
+ * nothing left to allocate it stops asking for one sync interval, so a
+ * sold-out event does not turn every add into a coordinator round-trip.
+ * Nodes that asked for quota and got less are reported as starving; on its
+ * periodic sync a node that is not short itself hands half of its budget
+ * back, where the starving nodes pick it up on their next refill.</p>
+ *
+ * <p>Quota is only ever given back after it has been taken out of the
+ * budget, and quota whose return may or may not have reached the
+ * coordinator is dropped rather than kept, so the tickets issued by all
+ * nodes together never exceed the event limit.</p>
+ */
+public class ClusterQuota {
+    private static final Logger logger = Logger.getLogger(ClusterQuota.class.getName());
+
+    private final int eventId;
+    private final String nodeId;
+    private final QuotaCoordinator coordinator;
+    private final int chunk;
+    private final long syncIntervalNanos;
+    private final IntSupplier maxEventTickets;
+    private final Executor refiller;
+    private final AtomicInteger budget = new AtomicInteger();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder failedSyncs = new LongAdder();
+    private final LongAdder donated = new LongAdder();
+    private volatile boolean demanded;
+    private volatile boolean left;
+    private volatile boolean leaseKnown = true;
+    private volatile long dryUntilNanos = System.nanoTime();
+    private volatile int starvingNodes;
+    private volatile int unallocated;
+
+    /**
+     * Creates an empty slice; the first ticket added fetches the first chunk.
+     *
+     * @param eventId           the ID of the event.
+     * @param nodeId            the ID of this node in the cluster.
+     * @param coordinator       the shared quota ledger.
+     * @param chunk             the quota asked for per refill.
+     * @param syncInterval      how long a dry node waits before asking again, in milliseconds.
+     * @param maxEventTickets   the local event limit, used if the event is new to the coordinator.
+     * @param refiller          the executor running background refills.
+     */
+    public ClusterQuota(int eventId, String nodeId, QuotaCoordinator coordinator, int chunk, long syncInterval,
+                        IntSupplier maxEventTickets, Executor refiller) {
+        if (chunk <= 0) {
+            throw new IllegalArgumentException("Quota chunk must be a positive integer.");
+        }
+        this.eventId = eventId;
+        this.nodeId = nodeId;
+        this.coordinator = coordinator;
+        this.chunk = chunk;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncInterval);
+        this.maxEventTickets = maxEventTickets;
+        this.refiller = refiller;
+    }
+
+    /**
+     * Takes quota for tickets about to be added, refilling from the
+     * coordinator if the budget is empty.
+     *
+     * @param wanted       the number of tickets to be added.
+     * @param allOrNothing whether to take nothing unless the full amount is available.
+     * @return the quota taken, between 0 and {@code wanted}.
+     */
+    public int take(int wanted, boolean allOrNothing) {
+        int taken = tryTake(wanted, allOrNothing);
+        if (taken == 0 && !left && System.nanoTime() - dryUntilNanos >= 0) {
+            demanded = true;
+            syncLock.lock();
+            try {
+                // Another thread may have refilled while this one waited.
+                taken = tryTake(wanted, allOrNothing);
+                if (taken == 0) {
+                    sync(Math.max(chunk, wanted));
+                    taken = tryTake(wanted, allOrNothing);
+                }
+            } finally {
+                syncLock.unlock();
+            }
+        }
+        if (budget.get() < chunk / 2) {
+            demanded = true;
+            refillInBackground();
+        }
+        return taken;
+    }
+
+    /**
+     * Puts back quota taken for tickets the pool did not accept.
+     *
+     * @param unused the quota to put back.
+     */
+    public void refund(int unused) {
+        if (unused > 0) {
+            budget.addAndGet(unused);
+        }
+    }
+
+    /**
+     * Renews the lease, topping up the budget if tickets were added from it
+     * since the last sync, or donating half of it if others are starving.
+     * Called periodically by the node.
+     */
+    public void renew() {
+        boolean needsQuota = demanded && budget.get() < chunk / 2;
+        demanded = false;
+        syncLock.lock();
+        try {
+            if (!left) {
+                sync(needsQuota ? chunk : 0);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Gives the whole budget back and leaves the cluster; no ticket can be
+     * added from this slice afterwards.
+     */
+    public void leave() {
+        syncLock.lock();
+        try {
+            left = true;
+            int returned = budget.getAndSet(0);
+            coordinator.leave(eventId, nodeId, returned);
+        } catch (IOException e) {
+            logger.warning("Node " + nodeId + " could not leave event " + eventId + ": " + e.getMessage());
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Changes the event limit for the whole cluster.
+     *
+     * @param maxEventTickets the new limit.
+     * @return the limit in force, which cannot be below the quota already allocated.
+     * @throws IOException if the coordinator cannot be reached.
+     */
+    public int setMaxEventTickets(int maxEventTickets) throws IOException {
+        int limit = coordinator.setMaxEventTickets(eventId, maxEventTickets);
+        dryUntilNanos = System.nanoTime();
+        return limit;
+    }
+
+    /**
+     * Builds a summary of this slice suitable for a JSON response.
+     *
+     * @return the node, its budget and what it last heard from the coordinator.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("nodeId", nodeId);
+        map.put("quotaBudget", budget.get());
+        map.put("quotaChunk", chunk);
+        map.put("unallocatedQuota", unallocated);
+        map.put("starvingNodes", starvingNodes);
+        map.put("leaseKnown", leaseKnown);
+        map.put("quotaDonated", donated.sum());
+        map.put("quotaSyncs", syncs.sum());
+        map.put("failedQuotaSyncs", failedSyncs.sum());
+        return map;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public int getBudget() {
+        return budget.get();
+    }
+
+    public QuotaCoordinator getCoordinator() {
+        return coordinator;
+    }
+
+    private int tryTake(int wanted, boolean allOrNothing) {
+        while (true) {
+            int current = budget.get();
+            int taken = Math.min(current, wanted);
+            if (taken <= 0 || (allOrNothing && taken < wanted)) {
+                return 0;
+            }
+            if (budget.compareAndSet(current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+
+    private void refillInBackground() {
+        if (left || System.nanoTime() - dryUntilNanos < 0 || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refiller.execute(() -> {
+                try {
+                    if (syncLock.tryLock()) {
+                        try {
+                            if (!left && budget.get() < chunk / 2) {
+                                sync(chunk);
+                            }
+                        } finally {
+                            syncLock.unlock();
+                        }
+                    }
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * Runs one exchange with the coordinator; called with the sync lock held.
+     * A refill that comes back short, or fails, holds off further refills
+     * until the next periodic sync.
+     */
+    private void sync(int wanted) {
+        int returned = 0;
+        if (wanted == 0 && starvingNodes > 0) {
+            returned = tryTake(budget.get() / 2, false);
+        }
+        QuotaGrant grant;
+        try {
+            grant = coordinator.sync(eventId, nodeId, maxEventTickets.getAsInt(), wanted, returned);
+        } catch (IOException | RuntimeException e) {
+            // Whether the returned quota arrived is unknown, so it is dropped rather than reused.
+            failedSyncs.increment();
+            dryUntilNanos = System.nanoTime() + syncIntervalNanos;
+            logger.warning("Quota sync of node " + nodeId + " for event " + eventId + " failed: " + e.getMessage());
+            return;
+        }
+        syncs.increment();
+        donated.add(returned);
+        budget.addAndGet(grant.granted());
+        if (grant.granted() < wanted) {
+            dryUntilNanos = System.nanoTime() + syncIntervalNanos;
+        }
+        starvingNodes = grant.starvingNodes();
+        unallocated = grant.unallocated();
+        if (!grant.known() && leaseKnown) {
+            logger.warning("Lease of node " + nodeId + " on event " + eventId
+                    + " had lapsed; quota it still holds can no longer be returned.");
+        }
+        leaseKnown = grant.known();
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.ticket.services.cluster;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+/**
+ * {@link QuotaCoordinator} kept in one small properties file per event in
+ * a shared directory, so several instances on one machine (or on hosts
+ * sharing a file system with working locks) can run as a cluster without
+ * an external store. Every operation reads, changes and rewrites the file
+ * under an exclusive {@link FileLock} on a companion lock file; instances
+ * in the same JVM also share an in-process lock, since file locks are held
+ * per process. A new ledger is written and synced to a temporary file and
+ * then renamed over the old one, so a crash leaves either the old or the
+ * new ledger and never an empty or partial one.
+ *
+ * <p>Nodes only come here to refill or return quota in chunks and to renew
+ * their lease, never per ticket, so a file round-trip per sync is cheap
+ * enough.</p>
+ */
+public class FileQuotaCoordinator implements QuotaCoordinator {
+    private static final Logger logger = Logger.getLogger(FileQuotaCoordinator.class.getName());
+    private static final ConcurrentHashMap<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+    private static final String NODE_PREFIX = "node.";
+
+    private final Path directory;
+    private final long leaseMillis;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a coordinator over a shared directory.
+     *
+     * @param directory   the directory holding one ledger file per event; created if missing.
+     * @param leaseMillis how long a node stays live without syncing.
+     * @throws IOException if the directory cannot be created.
+     */
+    public FileQuotaCoordinator(Path directory, long leaseMillis) throws IOException {
+        this(directory, leaseMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a coordinator with a custom wall clock, for tests.
+     *
+     * @param directory   the directory holding one ledger file per event; created if missing.
+     * @param leaseMillis how long a node stays live without syncing.
+     * @param clock       the wall clock in milliseconds, shared by every node.
+     * @throws IOException if the directory cannot be created.
+     */
+    public FileQuotaCoordinator(Path directory, long leaseMillis, LongSupplier clock) throws IOException {
+        if (leaseMillis <= 0) {
+            throw new IllegalArgumentException("Lease must be a positive number of milliseconds.");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.leaseMillis = leaseMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public QuotaGrant sync(int eventId, String nodeId, int maxEventTickets, int wanted, int returned)
+            throws IOException {
+        return update(eventId, maxEventTickets, true, ledger -> {
+            long now = clock.getAsLong();
+            ledger.expire(now, leaseMillis, eventId);
+            Lease lease = ledger.nodes.get(nodeId);
+            boolean known = lease != null;
+            if (!known) {
+                lease = new Lease();
+                ledger.nodes.put(nodeId, lease);
+            } else {
+                int back = Math.max(0, Math.min(returned, lease.quota));
+                lease.quota -= back;
+                ledger.allocated -= back;
+            }
+            int granted = Math.max(0, Math.min(wanted, ledger.max - ledger.allocated));
+            ledger.allocated += granted;
+            lease.quota += granted;
+            lease.seenMillis = now;
+            lease.starved = wanted > 0 && granted < wanted;
+            int starving = 0;
+            for (Map.Entry<String, Lease> entry : ledger.nodes.entrySet()) {
+                if (entry.getValue().starved && !entry.getKey().equals(nodeId)) {
+                    starving++;
+                }
+            }
+            return new QuotaGrant(granted, known, starving, ledger.max - ledger.allocated);
+        });
+    }
+
+    @Override
+    public int setMaxEventTickets(int eventId, int maxEventTickets) throws IOException {
+        return update(eventId, maxEventTickets, true, ledger -> {
+            ledger.max = Math.max(maxEventTickets, ledger.allocated);
+            return ledger.max;
+        });
+    }
+
+    @Override
+    public void leave(int eventId, String nodeId, int returned) throws IOException {
+        update(eventId, 0, true, ledger -> {
+            Lease lease = ledger.nodes.remove(nodeId);
+            if (lease == null) {
+                return false;
+            }
+            ledger.allocated -= Math.max(0, Math.min(returned, lease.quota));
+            return true;
+        });
+    }
+
+    @Override
+    public Map<String, Object> describe(int eventId) throws IOException {
+        return update(eventId, 0, false, ledger -> {
+            Map<String, Object> description = new LinkedHashMap<>();
+            description.put("maxEventTickets", ledger.max);
+            description.put("allocated", ledger.allocated);
+            description.put("unallocated", ledger.max - ledger.allocated);
+            Map<String, Object> nodes = new TreeMap<>();
+            int leased = 0;
+            for (Map.Entry<String, Lease> entry : ledger.nodes.entrySet()) {
+                Lease lease = entry.getValue();
+                leased += lease.quota;
+                nodes.put(entry.getKey(), Map.of("quota", lease.quota, "starved", lease.starved,
+                        "seenMillisAgo", clock.getAsLong() - lease.seenMillis));
+            }
+            description.put("writtenOff", ledger.allocated - leased);
+            description.put("nodes", nodes);
+            return description;
+        });
+    }
+
+    /**
+     * Applies a change to an event's ledger under the process and file locks.
+     * A missing ledger starts out with the given limit and nothing allocated,
+     * and is only created by a change that brings a positive limit.
+     */
+    private <T> T update(int eventId, int initialMax, boolean write, LedgerChange<T> change) throws IOException {
+        Path file = directory.resolve("event-" + eventId + ".quota").toAbsolutePath().normalize();
+        ReentrantLock processLock = PROCESS_LOCKS.computeIfAbsent(file, path -> new ReentrantLock());
+        processLock.lock();
+        try (FileChannel lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock fileLock = lockChannel.lock();
+            try {
+                byte[] stored = Files.exists(file) ? Files.readAllBytes(file) : new byte[0];
+                Ledger ledger = read(stored, initialMax);
+                T result = change.apply(ledger);
+                if (write && (stored.length > 0 || ledger.max > 0)) {
+                    write(file, ledger);
+                }
+                return result;
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    private static Ledger read(byte[] stored, int initialMax) throws IOException {
+        Ledger ledger = new Ledger();
+        ledger.max = initialMax;
+        if (stored.length == 0) {
+            return ledger;
+        }
+        Properties properties = new Properties();
+        properties.load(new StringReader(new String(stored, StandardCharsets.UTF_8)));
+        ledger.max = Integer.parseInt(properties.getProperty("max"));
+        ledger.allocated = Integer.parseInt(properties.getProperty("allocated"));
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(NODE_PREFIX) && key.endsWith(".quota")) {
+                String nodeId = key.substring(NODE_PREFIX.length(), key.length() - ".quota".length());
+                Lease lease = new Lease();
+                lease.quota = Integer.parseInt(properties.getProperty(key));
+                lease.seenMillis = Long.parseLong(properties.getProperty(NODE_PREFIX + nodeId + ".seen"));
+                lease.starved = Boolean.parseBoolean(properties.getProperty(NODE_PREFIX + nodeId + ".starved"));
+                ledger.nodes.put(nodeId, lease);
+            }
+        }
+        return ledger;
+    }
+
+    /**
+     * Replaces the ledger file: the new ledger is synced to a temporary file
+     * first and then renamed over the old one.
+     */
+    private static void write(Path file, Ledger ledger) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("max", Integer.toString(ledger.max));
+        properties.setProperty("allocated", Integer.toString(ledger.allocated));
+        ledger.nodes.forEach((nodeId, lease) -> {
+            properties.setProperty(NODE_PREFIX + nodeId + ".quota", Integer.toString(lease.quota));
+            properties.setProperty(NODE_PREFIX + nodeId + ".seen", Long.toString(lease.seenMillis));
+            properties.setProperty(NODE_PREFIX + nodeId + ".starved", Boolean.toString(lease.starved));
+        });
+        StringWriter text = new StringWriter();
+        try {
+            properties.store(text, "Ticket quota ledger");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(file.getParent());
+    }
+
+    /**
+     * Syncs a directory so that a rename in it survives a crash. Some
+     * platforms cannot open a directory; there the rename's durability is
+     * left to the file system.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.fine("Could not sync directory " + directory + ": " + e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface LedgerChange<T> {
+        T apply(Ledger ledger);
+    }
+
+    /**
+     * One event's quota: the limit, the total allocated to nodes (including
+     * quota of lapsed nodes, which stays allocated) and each live node's lease.
+     */
+    private static final class Ledger {
+        int max;
+        int allocated;
+        final Map<String, Lease> nodes = new TreeMap<>();
+
+        void expire(long now, long leaseMillis, int eventId) {
+            Iterator<Map.Entry<String, Lease>> iterator = nodes.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, Lease> entry = iterator.next();
+                if (now - entry.getValue().seenMillis > leaseMillis) {
+                    iterator.remove();
+                    logger.warning("Lease of node " + entry.getKey() + " on event " + eventId + " lapsed; its "
+                            + entry.getValue().quota + " quota stays allocated.");
+                }
+            }
+        }
+    }
+
+    /**
+     * A node's quota not yet returned, which includes quota it has already
+     * used to issue tickets.
+     */
+    private static final class Lease {
+        int quota;
+        long seenMillis;
+        boolean starved;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ticket.services.cluster;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Shared ledger of how much of each event's ticket quota every node of a
+ * cluster holds. Quota is the right to issue tickets: a node adds a
+ * ticket to its local pool only after taking one unit from its budget, so
+ * the event limit holds across the cluster as long as the coordinator
+ * never allocates more than {@code maxEventTickets} in total.
+ *
+ * <p>Nodes hold leases renewed by every sync. When a lease lapses the
+ * node's outstanding budget is written off rather than handed to others:
+ * the coordinator cannot tell how much of it the node used, so the
+ * cluster may sell slightly fewer tickets after a crash, but never
+ * more.</p>
+ */
+public interface QuotaCoordinator extends AutoCloseable {
+
+    /**
+     * Renews a node's lease, takes back quota it returns and allocates
+     * quota it asks for, as far as the event limit allows.
+     *
+     * @param eventId         the ID of the event.
+     * @param nodeId          the ID of the node.
+     * @param maxEventTickets the event limit to start from if the event is new to the coordinator.
+     * @param wanted          the quota the node asks for.
+     * @param returned        unused quota the node gives back.
+     * @return what was granted and how the rest of the cluster stands.
+     * @throws IOException if the shared ledger cannot be read or written.
+     */
+    QuotaGrant sync(int eventId, String nodeId, int maxEventTickets, int wanted, int returned) throws IOException;
+
+    /**
+     * Changes the event limit for the whole cluster. The limit cannot drop
+     * below the quota already allocated.
+     *
+     * @param eventId         the ID of the event.
+     * @param maxEventTickets the new limit.
+     * @return the limit in force.
+     * @throws IOException if the shared ledger cannot be read or written.
+     */
+    int setMaxEventTickets(int eventId, int maxEventTickets) throws IOException;
+
+    /**
+     * Removes a node that is shutting down, taking back its unused quota.
+     *
+     * @param eventId  the ID of the event.
+     * @param nodeId   the ID of the node.
+     * @param returned the node's unused quota.
+     * @throws IOException if the shared ledger cannot be read or written.
+     */
+    void leave(int eventId, String nodeId, int returned) throws IOException;
+
+    /**
+     * Builds a summary of an event's ledger suitable for a JSON response.
+     *
+     * @param eventId the ID of the event.
+     * @return the limit, allocated and written-off quota and each live node's budget.
+     * @throws IOException if the shared ledger cannot be read.
+     */
+    Map<String, Object> describe(int eventId) throws IOException;
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ticket.services.cluster;
+
+/**
+ * Answer of a {@link QuotaCoordinator} to a node's sync.
+ *
+ * @param granted       quota added to the node's budget by this sync.
+ * @param known         false if the node's lease had lapsed, so its previous budget was written off.
+ * @param starvingNodes other live nodes that last asked for quota and got less than they wanted.
+ * @param unallocated   quota of the event not allocated to any node.
+ */
+public record QuotaGrant(int granted, boolean known, int starvingNodes, int unallocated) {
+}
@@ -0,0 +1,89 @@
+package com.example.ticket.services.events;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes sale events to {@code java.util.logging}. Messages are only
+ * formatted when the logger would actually record them.
+ *
+ * <p>Events about single tickets are logged at {@code FINE}: at INFO,
+ * formatting and writing one line per ticket would slow the bus thread
+ * enough to fill its ring under load, and every listener on it, the
+ * sales analytics included, would lose the events dropped.</p>
+ */
+public class LoggingSaleEventListener implements SaleEventListener {
+    private static final Logger logger = Logger.getLogger("com.example.ticket.services.TicketPoolService");
+
+    @Override
+    public void onEvent(SaleEventType type, int eventId, int vendorId, int customerId, long ticketId, long timestamp) {
+        Level level = levelOf(type);
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        switch (type) {
+            case TICKET_ADDED:
+                logger.log(level, "Vendor "+vendorId+" added ticket "+ticketId+" to event "+eventId);
+                break;
+            case TICKET_PURCHASED:
+                logger.log(level, "Customer "+customerId+" purchased ticket "+ticketId+" for event "+eventId);
+                break;
+            case POOL_FULL:
+                logger.log(level, "Vendor "+vendorId+" cannot add ticket to event "+eventId+". Maximum pool tickets reached.");
+                break;
+            case EVENT_LIMIT_REACHED:
+                logger.log(level, "Vendor "+vendorId+" cannot add ticket to event "+eventId+". Maximum event tickets reached.");
+                break;
+            case VENDOR_REGISTERED:
+                logger.log(level, "Vendor registered with ID "+vendorId+" for event "+eventId);
+                break;
+            case CUSTOMER_REGISTERED:
+                logger.log(level, "Customer registered with ID "+customerId+" for event "+eventId);
+                break;
+            case DUPLICATE_VENDOR:
+                logger.log(level, "Vendor ID "+vendorId+" is already registered for event "+eventId+".");
+                break;
+            case DUPLICATE_CUSTOMER:
+                logger.log(level, "Customer ID "+customerId+" is already registered for event "+eventId+".");
+                break;
+            case TICKET_HELD:
+                logger.log(level, "Customer "+customerId+" is holding ticket "+ticketId+" for event "+eventId);
+                break;
+            case HOLD_RELEASED:
+                logger.log(level, "Customer "+customerId+" released held ticket "+ticketId+" for event "+eventId);
+                break;
+            case HOLD_EXPIRED:
+                logger.log(level, "Hold of customer "+customerId+" on ticket "+ticketId+" for event "+eventId+" expired");
+                break;
+            case TICKET_WITHDRAWN:
+                logger.log(level, "Ticket "+ticketId+" of event "+eventId+" was withdrawn to fit a lowered limit");
+                break;
+            case POOL_RESET:
+                logger.log(level, "Ticket pool for event "+eventId+" was reset");
+                break;
+            default:
+                logger.log(level, type+" event="+eventId+" vendor="+vendorId+" customer="+customerId+" ticket="+ticketId);
+        }
+    }
+
+    private static Level levelOf(SaleEventType type) {
+        switch (type) {
+            case POOL_FULL:
+            case EVENT_LIMIT_REACHED:
+            case DUPLICATE_VENDOR:
+            case DUPLICATE_CUSTOMER:
+                return Level.SEVERE;
+            case TICKET_ADDED:
+            case TICKET_PURCHASED:
+            case TICKET_HELD:
+            case HOLD_RELEASED:
+            case HOLD_EXPIRED:
+            case TICKET_WITHDRAWN:
+            case POOL_RESET:
+                // The pool logs its own resets.
+                return Level.FINE;
+            default:
+                return Level.INFO;
+        }
+    }
+}
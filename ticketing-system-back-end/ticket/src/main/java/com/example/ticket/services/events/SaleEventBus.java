@@ -0,0 +1,188 @@
+package com.example.ticket.services.events;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Asynchronous, bounded pipeline for sale events. Producers write event
+ * fields into preallocated primitive slots of a ring buffer and return
+ * immediately; a single background thread delivers them to listeners.
+ * When the ring is full the event is dropped and counted rather than
+ * blocking the sale path.
+ */
+public class SaleEventBus implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 65536;
+    private static final Logger logger = Logger.getLogger(SaleEventBus.class.getName());
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final byte[] types;
+    private final int[] eventIds;
+    private final int[] vendorIds;
+    private final int[] customerIds;
+    private final long[] ticketIds;
+    private final long[] timestamps;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final LongAdder dropped = new LongAdder();
+    private final List<SaleEventListener> listeners = new CopyOnWriteArrayList<>();
+    private final Thread consumer;
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts an event bus.
+     *
+     * @param capacity the number of buffered events, rounded up to a power of two.
+     */
+    public SaleEventBus(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Event buffer capacity must be a positive integer.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.types = new byte[size];
+        this.eventIds = new int[size];
+        this.vendorIds = new int[size];
+        this.customerIds = new int[size];
+        this.ticketIds = new long[size];
+        this.timestamps = new long[size];
+        this.consumer = new Thread(this::drainLoop, "sale-events");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    /**
+     * Registers a listener for all subsequent events.
+     *
+     * @param listener the listener to add.
+     */
+    public void addListener(SaleEventListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Publishes an event without blocking.
+     *
+     * @param type       the kind of event.
+     * @param eventId    the event whose pool the change happened in.
+     * @param vendorId   the vendor involved, or 0 if none.
+     * @param customerId the customer involved, or 0 if none.
+     * @param ticketId   the ticket involved, or 0 if none.
+     * @return true if the event was buffered, false if it was dropped.
+     */
+    public boolean publish(SaleEventType type, int eventId, int vendorId, int customerId, long ticketId) {
+        long position = tail.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+        types[index] = (byte) type.ordinal();
+        eventIds[index] = eventId;
+        vendorIds[index] = vendorId;
+        customerIds[index] = customerId;
+        ticketIds[index] = ticketId;
+        timestamps[index] = System.currentTimeMillis();
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Retrieves the number of events dropped because the buffer was full.
+     *
+     * @return the dropped event count.
+     */
+    public long getDroppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * Retrieves the number of events buffered but not yet delivered.
+     *
+     * @return the pending event count.
+     */
+    public long getPendingEvents() {
+        return Math.max(0, tail.get() - head);
+    }
+
+    /**
+     * Waits until every event published so far has been delivered.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return true if the buffer drained within the timeout.
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        long target = tail.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (head < target) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Delivers the remaining buffered events and stops the consumer thread.
+     */
+    @Override
+    public void close() {
+        flush(1, TimeUnit.SECONDS);
+        running = false;
+        LockSupport.unpark(consumer);
+    }
+
+    private void drainLoop() {
+        long position = head;
+        while (running) {
+            int index = (int) (position & mask);
+            if (sequences.getAcquire(index) != position + 1) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            SaleEventType type = SaleEventType.fromOrdinal(types[index]);
+            int eventId = eventIds[index];
+            int vendorId = vendorIds[index];
+            int customerId = customerIds[index];
+            long ticketId = ticketIds[index];
+            long timestamp = timestamps[index];
+            sequences.setRelease(index, position + mask + 1);
+            head = ++position;
+            for (SaleEventListener listener : listeners) {
+                try {
+                    listener.onEvent(type, eventId, vendorId, customerId, ticketId, timestamp);
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Sale event listener failed", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.ticket.services.events;
+
+/**
+ * Receives sale events on the event bus consumer thread. Fields are passed
+ * as primitives so that delivering an event allocates nothing; listeners
+ * that format or store events should do so lazily.
+ */
+@FunctionalInterface
+public interface SaleEventListener {
+
+    /**
+     * Handles a single event.
+     *
+     * @param type       the kind of event.
+     * @param eventId    the event whose pool the change happened in.
+     * @param vendorId   the vendor involved, or 0 if none.
+     * @param customerId the customer involved, or 0 if none.
+     * @param ticketId   the ticket involved, or 0 if none.
+     * @param timestamp  the wall-clock time the event was published, in milliseconds.
+     */
+    void onEvent(SaleEventType type, int eventId, int vendorId, int customerId, long ticketId, long timestamp);
+}
@@ -0,0 +1,26 @@
+package com.example.ticket.services.events;
+
+/**
+ * Kinds of events emitted by the ticket pool.
+ */
+public enum SaleEventType {
+    TICKET_ADDED,
+    TICKET_PURCHASED,
+    POOL_FULL,
+    EVENT_LIMIT_REACHED,
+    VENDOR_REGISTERED,
+    CUSTOMER_REGISTERED,
+    DUPLICATE_VENDOR,
+    DUPLICATE_CUSTOMER,
+    TICKET_HELD,
+    HOLD_RELEASED,
+    HOLD_EXPIRED,
+    TICKET_WITHDRAWN,
+    POOL_RESET;
+
+    private static final SaleEventType[] VALUES = values();
+
+    static SaleEventType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.ticket.services.execution;
+
+import com.example.ticket.services.metrics.PoolMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs vendor and customer simulations. In {@link Mode#FIXED} mode actors
+ * share a bounded platform thread pool, so actors beyond its size queue
+ * until an earlier one exits. In {@link Mode#VIRTUAL} mode every actor gets
+ * its own virtual thread, which lets a single node run very large numbers
+ * of mostly idle actors.
+ *
+ * <p>Actors are submitted under a group, such as the event they trade in,
+ * so that one group can be stopped without disturbing the others. Actors
+ * submitted with an {@link ActorHandle} can also be paused, resumed,
+ * re-rated and drained one by one, and are stopped through their handles
+ * rather than by interrupting them.</p>
+ */
+public class ActorExecutor {
+    private static final Logger logger = Logger.getLogger(ActorExecutor.class.getName());
+    /** How long a stop waits for actors to exit before interrupting them. */
+    private static final long STOP_GRACE_MS = 2000;
+
+    /**
+     * Execution strategy for actors.
+     */
+    public enum Mode {
+        FIXED,
+        VIRTUAL;
+
+        /**
+         * Parses a mode name, ignoring case.
+         *
+         * @param name the mode name, "fixed" or "virtual".
+         * @return the matching mode.
+         */
+        public static Mode from(String name) {
+            try {
+                return Mode.valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown actor execution mode: " + name);
+            }
+        }
+    }
+
+    private final Mode mode;
+    private final int poolSize;
+    private final SchedulingLagRecorder lagRecorder = new SchedulingLagRecorder();
+    private final AtomicInteger runningActors = new AtomicInteger();
+    private final Map<Integer, Set<Actor>> actorsByGroup = new ConcurrentHashMap<>();
+    private volatile ExecutorService executorService;
+
+    /**
+     * Creates an executor for the given mode.
+     *
+     * @param mode     the execution strategy.
+     * @param poolSize the number of platform threads used in fixed mode.
+     */
+    public ActorExecutor(Mode mode, int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Actor pool size must be a positive integer.");
+        }
+        this.mode = mode;
+        this.poolSize = poolSize;
+        this.executorService = newExecutorService();
+        logger.info("Actor execution mode: " + mode);
+    }
+
+    /**
+     * Submits an actor for execution, recording how long it waits to start.
+     *
+     * @param group the group the actor belongs to.
+     * @param actor the vendor or customer loop to run.
+     */
+    public void submit(int group, Runnable actor) {
+        submit(group, actor, null);
+    }
+
+    /**
+     * Submits an actor that is controlled through a handle.
+     *
+     * @param group  the group the actor belongs to.
+     * @param actor  the vendor or customer loop to run.
+     * @param handle the actor's handle, or null if it has none.
+     */
+    public void submit(int group, Runnable actor, ActorHandle handle) {
+        long submittedAt = System.nanoTime();
+        Set<Actor> actors = actorsByGroup.computeIfAbsent(group, g -> ConcurrentHashMap.newKeySet());
+        Actor task = new Actor(() -> {
+            lagRecorder.recordStart(System.nanoTime() - submittedAt);
+            runningActors.incrementAndGet();
+            try {
+                actor.run();
+            } finally {
+                runningActors.decrementAndGet();
+            }
+        }, handle, actors);
+        actors.add(task);
+        try {
+            executorService.execute(task);
+        } catch (RejectedExecutionException e) {
+            actors.remove(task);
+            throw e;
+        }
+    }
+
+    /**
+     * Lists the handles of a group's actors that have not exited.
+     *
+     * @param group   the group to look in.
+     * @param role    the role to match, or null for vendors and customers.
+     * @param actorId the vendor or customer ID to match, or 0 for every actor.
+     * @return the matching handles.
+     */
+    public List<ActorHandle> getActors(int group, PoolMetrics.Role role, int actorId) {
+        List<ActorHandle> handles = new ArrayList<>();
+        for (Actor actor : actorsByGroup.getOrDefault(group, Set.of())) {
+            ActorHandle handle = actor.handle;
+            if (handle != null && (role == null || handle.getRole() == role)
+                    && (actorId == 0 || handle.getActorId() == actorId)) {
+                handles.add(handle);
+            }
+        }
+        return handles;
+    }
+
+    /**
+     * Stops every actor of one group, leaving other groups running. Actors
+     * are told to stop through their handles, waiters on their pool are
+     * woken once, and only actors that have not exited after a grace
+     * period, or that have no handle, are interrupted.
+     *
+     * @param group       the group to stop.
+     * @param wakeWaiters wakes actors of the group blocked in a pool wait.
+     * @return the number of actors stopped.
+     */
+    public int stop(int group, Runnable wakeWaiters) {
+        return stop(Map.of(group, wakeWaiters));
+    }
+
+    /**
+     * Stops every actor of several groups as {@link #stop(int, Runnable)}
+     * does for one. Every group is told to stop and woken before any is
+     * waited for, and all share one grace period, so stopping many groups
+     * takes no longer than stopping one.
+     *
+     * @param wakeWaitersByGroup the groups to stop, each with the action that
+     *                           wakes its actors blocked in a pool wait.
+     * @return the number of actors stopped.
+     */
+    public int stop(Map<Integer, Runnable> wakeWaitersByGroup) {
+        List<Actor> stopping = new ArrayList<>();
+        int stopped = 0;
+        for (Map.Entry<Integer, Runnable> entry : wakeWaitersByGroup.entrySet()) {
+            Set<Actor> actors = actorsByGroup.get(entry.getKey());
+            if (actors == null) {
+                continue;
+            }
+            for (Actor actor : actors) {
+                stopping.add(actor);
+                if (actor.handle == null) {
+                    continue;
+                }
+                if (actor.handle.stop()) {
+                    stopped++;
+                }
+                if (!actor.handle.isStarted()) {
+                    // Still queued for a thread; make sure it never starts.
+                    actor.cancel(false);
+                }
+            }
+            entry.getValue().run();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(STOP_GRACE_MS);
+        for (Actor actor : stopping) {
+            try {
+                if (actor.handle != null && actor.handle.awaitExit(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (actor.cancel(true) && actor.handle == null) {
+                stopped++;
+            }
+        }
+        return stopped;
+    }
+
+    /**
+     * Interrupts every actor still running and replaces the underlying
+     * executor with a fresh one, clearing the recorded lag statistics.
+     * Callers stop each group through {@link #stop} first so that actors
+     * exit on their own.
+     */
+    public void restart() {
+        ExecutorService previous = executorService;
+        executorService = newExecutorService();
+        previous.shutdownNow();
+        for (Set<Actor> actors : actorsByGroup.values()) {
+            for (Actor actor : actors) {
+                if (actor.handle != null) {
+                    actor.handle.stop();
+                }
+                actor.cancel(true);
+            }
+        }
+        lagRecorder.reset();
+    }
+
+    /**
+     * Interrupts every actor and stops accepting new ones.
+     */
+    public void shutdownNow() {
+        executorService.shutdownNow();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getRunningActors() {
+        return runningActors.get();
+    }
+
+    public SchedulingLagRecorder getLagRecorder() {
+        return lagRecorder;
+    }
+
+    private ExecutorService newExecutorService() {
+        if (mode == Mode.VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("actor-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(poolSize);
+    }
+
+    /**
+     * A submitted actor, removed from its group once it completes.
+     */
+    private static final class Actor extends FutureTask<Void> {
+        final ActorHandle handle;
+        private final Set<Actor> group;
+
+        Actor(Runnable body, ActorHandle handle, Set<Actor> group) {
+            super(body, null);
+            this.handle = handle;
+            this.group = group;
+        }
+
+        @Override
+        protected void done() {
+            group.remove(this);
+            if (handle != null && isCancelled()) {
+                // Cancelled before it ran, so the actor never reported its own exit.
+                handle.exited();
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.ticket.services.execution;
+
+import com.example.ticket.services.metrics.PoolMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Controls one running vendor or customer. Actors check their handle
+ * before every step and pace through it, so pausing, resuming, changing
+ * the rate or stopping an actor takes effect at its next step boundary:
+ * state changes unpark the actor's thread instead of interrupting it, and
+ * an actor never stops halfway through adding or buying a ticket.
+ *
+ * <p>Actors blocked in a pool wait are not woken by the handle itself.
+ * Callers changing many handles at once wake the pool's waiters once
+ * afterwards (see {@code TicketPoolService#wakeWaiters}), which keeps a
+ * bulk pause from turning into one wake-up round per actor.</p>
+ */
+public class ActorHandle {
+
+    /**
+     * Lifecycle of an actor.
+     */
+    public enum State {
+        /** Working at its configured rate. */
+        RUNNING,
+        /** Idle until resumed; keeps its registration and any ticket in hand. */
+        PAUSED,
+        /** Finishing its current step, then exiting. */
+        DRAINING,
+        /** Exiting at once, or already exited. */
+        STOPPED
+    }
+
+    private final PoolMetrics.Role role;
+    private final int actorId;
+    private final CountDownLatch exited = new CountDownLatch(1);
+    private volatile State state = State.RUNNING;
+    private volatile int rateMillis;
+    private volatile Thread thread;
+
+    /**
+     * Creates a handle for an actor that has not started yet.
+     *
+     * @param role       whether the actor is a vendor or a customer.
+     * @param actorId    the vendor or customer ID.
+     * @param rateMillis the pause between the actor's steps in milliseconds.
+     */
+    public ActorHandle(PoolMetrics.Role role, int actorId, int rateMillis) {
+        this.role = role;
+        this.actorId = actorId;
+        this.rateMillis = rateMillis;
+    }
+
+    /**
+     * Called by the actor when it starts running, so that state changes
+     * can wake it.
+     */
+    public void bind() {
+        thread = Thread.currentThread();
+    }
+
+    /**
+     * Called by the actor before each step. Parks while the actor is
+     * paused.
+     *
+     * @return true if the actor should take another step, false if it should exit.
+     */
+    public boolean awaitRunnable() {
+        while (true) {
+            State current = state;
+            if (current == State.RUNNING) {
+                return true;
+            }
+            if (current != State.PAUSED || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.park(this);
+        }
+    }
+
+    /**
+     * Sleeps for the actor's rate, returning early if its state changes.
+     * A rate change while sleeping takes effect at once, measured from the
+     * start of this sleep.
+     *
+     * @param lagRecorder the recorder of how late the actor woke, or null.
+     */
+    public void pace(SchedulingLagRecorder lagRecorder) {
+        long start = System.nanoTime();
+        while (state == State.RUNNING && !Thread.currentThread().isInterrupted()) {
+            long remaining = start + TimeUnit.MILLISECONDS.toNanos(rateMillis) - System.nanoTime();
+            if (remaining <= 0) {
+                if (lagRecorder != null) {
+                    lagRecorder.recordWake(-remaining);
+                }
+                return;
+            }
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * Sleeps for a fixed time, returning early if the actor's state changes.
+     *
+     * @param nanos the time to sleep in nanoseconds.
+     */
+    public void sleepNanos(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        State initial = state;
+        long remaining = nanos;
+        while (remaining > 0 && state == initial && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Called by the actor when it exits, whatever the reason.
+     */
+    public void exited() {
+        state = State.STOPPED;
+        thread = null;
+        exited.countDown();
+    }
+
+    /**
+     * Pauses a running actor.
+     *
+     * @return true if the actor was running.
+     */
+    public boolean pause() {
+        return transition(State.RUNNING, State.PAUSED);
+    }
+
+    /**
+     * Resumes a paused actor.
+     *
+     * @return true if the actor was paused.
+     */
+    public boolean resume() {
+        return transition(State.PAUSED, State.RUNNING);
+    }
+
+    /**
+     * Lets the actor finish its current step and exit.
+     *
+     * @return true if the actor was running or paused.
+     */
+    public boolean drain() {
+        return transition(State.RUNNING, State.DRAINING) || transition(State.PAUSED, State.DRAINING);
+    }
+
+    /**
+     * Makes the actor exit at its next check, even while draining.
+     *
+     * @return true if the actor had not already been stopped.
+     */
+    public synchronized boolean stop() {
+        if (state == State.STOPPED) {
+            return false;
+        }
+        state = State.STOPPED;
+        LockSupport.unpark(thread);
+        return true;
+    }
+
+    /**
+     * Changes the pause between the actor's steps.
+     *
+     * @param rateMillis the new rate in milliseconds.
+     */
+    public void setRateMillis(int rateMillis) {
+        if (rateMillis <= 0) {
+            throw new IllegalArgumentException("Rate must be a positive integer.");
+        }
+        this.rateMillis = rateMillis;
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Waits for the actor to exit.
+     *
+     * @param timeout the maximum time to wait.
+     * @param unit    the unit of the timeout.
+     * @return true if the actor exited in time.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitExit(long timeout, TimeUnit unit) throws InterruptedException {
+        return exited.await(timeout, unit);
+    }
+
+    /**
+     * Checks whether the actor's thread has picked it up.
+     *
+     * @return true once the actor has started and until it exits.
+     */
+    public boolean isStarted() {
+        return thread != null;
+    }
+
+    public PoolMetrics.Role getRole() {
+        return role;
+    }
+
+    public int getActorId() {
+        return actorId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public int getRateMillis() {
+        return rateMillis;
+    }
+
+    /**
+     * Builds a summary suitable for a JSON response.
+     *
+     * @return the actor's role, ID, state and rate.
+     */
+    public Map<String, Object> describe() {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("role", role);
+        description.put("actorId", actorId);
+        description.put("state", state);
+        description.put("rateMillis", rateMillis);
+        return description;
+    }
+
+    private synchronized boolean transition(State from, State to) {
+        if (state != from) {
+            return false;
+        }
+        state = to;
+        LockSupport.unpark(thread);
+        return true;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.ticket.services.execution;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how late actors run compared to when they should have run.
+ * Two delays are tracked: the start lag between submitting an actor and
+ * its first instruction (queueing in a saturated executor), and the wake
+ * lag between the end of a pacing sleep and the moment the actor actually
+ * resumed (carrier or CPU starvation).
+ */
+public class SchedulingLagRecorder {
+    private final LagStats startLag = new LagStats();
+    private final LagStats wakeLag = new LagStats();
+
+    /**
+     * Records the delay between submitting an actor and it starting to run.
+     *
+     * @param lagNanos the delay in nanoseconds.
+     */
+    public void recordStart(long lagNanos) {
+        startLag.record(lagNanos);
+    }
+
+    /**
+     * Records how much later than requested an actor resumed from a
+     * pacing sleep it timed itself.
+     *
+     * @param lagNanos the delay in nanoseconds.
+     */
+    public void recordWake(long lagNanos) {
+        wakeLag.record(lagNanos);
+    }
+
+    /**
+     * Clears all recorded samples.
+     */
+    public void reset() {
+        startLag.reset();
+        wakeLag.reset();
+    }
+
+    /**
+     * Builds a summary of the recorded lags in milliseconds.
+     *
+     * @return the start and wake lag summaries.
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("startLag", startLag.summary());
+        summary.put("wakeLag", wakeLag.summary());
+        return summary;
+    }
+
+    /**
+     * Lag samples bucketed by power of two nanoseconds, which is enough
+     * resolution for percentiles without keeping individual samples.
+     */
+    private static final class LagStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+        void record(long lagNanos) {
+            long lag = Math.max(0, lagNanos);
+            count.increment();
+            totalNanos.add(lag);
+            maxNanos.accumulateAndGet(lag, Math::max);
+            buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(lag | 1));
+        }
+
+        void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+        }
+
+        Map<String, Object> summary() {
+            long samples = count.sum();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("samples", samples);
+            summary.put("meanMs", samples == 0 ? 0.0 : toMillis(totalNanos.sum() / samples));
+            summary.put("p99Ms", toMillis(Math.min(percentile(samples, 0.99), maxNanos.get())));
+            summary.put("maxMs", toMillis(maxNanos.get()));
+            return summary;
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given percentile.
+         * Callers cap it with the observed maximum.
+         */
+        private long percentile(long samples, double percentile) {
+            long rank = (long) Math.ceil(samples * percentile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return i == 63 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return 0;
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.ticket.services.holds;
+
+import com.example.ticket.models.Ticket;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Tickets set aside for a customer until they pay, give them back or run
+ * out of time. A hold ends exactly once: confirming, releasing and expiring
+ * race on a single state change, and only the winner moves the tickets.
+ *
+ * <p>Holds are linked directly into the {@link HoldTimer} that expires
+ * them, so scheduling one allocates nothing beyond the hold itself.</p>
+ */
+public class Hold {
+
+    /**
+     * Lifecycle of a hold.
+     */
+    public enum State {
+        ACTIVE,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+
+    private static final State[] STATES = State.values();
+
+    private final long holdId;
+    private final int customerId;
+    private final List<Ticket> tickets;
+    private final long expiresAtNanos;
+    private final Consumer<Hold> onExpiry;
+    private final AtomicInteger state = new AtomicInteger(State.ACTIVE.ordinal());
+
+    /** Neighbours in the same timer inbox or wheel slot; owned by the timer. */
+    Hold next;
+    Hold prev;
+    /** Next hold in the timer's inbox of holds that ended early. */
+    Hold nextEnded;
+    /** Wheel slot holding this hold, or -1; owned by the timer thread. */
+    int slot = -1;
+    /** Timer tick at which the hold expires; set by the timer. */
+    long deadlineTick;
+
+    /**
+     * Creates an active hold.
+     *
+     * @param holdId         the ID of the hold, unique within its event.
+     * @param customerId     the ID of the customer holding the tickets.
+     * @param tickets        the tickets held.
+     * @param expiresAtNanos the {@link System#nanoTime()} at which the hold expires.
+     * @param onExpiry       called on the timer thread if the hold expires.
+     */
+    public Hold(long holdId, int customerId, List<Ticket> tickets, long expiresAtNanos, Consumer<Hold> onExpiry) {
+        this.holdId = holdId;
+        this.customerId = customerId;
+        this.tickets = tickets;
+        this.expiresAtNanos = expiresAtNanos;
+        this.onExpiry = onExpiry;
+    }
+
+    /**
+     * Ends the hold if it is still active.
+     *
+     * @param outcome the final state.
+     * @return true if this call ended the hold, false if it had already ended.
+     */
+    public boolean finish(State outcome) {
+        return state.compareAndSet(State.ACTIVE.ordinal(), outcome.ordinal());
+    }
+
+    /**
+     * Expires the hold on behalf of the timer, unless it already ended.
+     */
+    void expire() {
+        if (finish(State.EXPIRED)) {
+            onExpiry.accept(this);
+        }
+    }
+
+    public long getHoldId() {
+        return holdId;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public List<Ticket> getTickets() {
+        return tickets;
+    }
+
+    public long getExpiresAtNanos() {
+        return expiresAtNanos;
+    }
+
+    public State getState() {
+        return STATES[state.get()];
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.ticket.services.holds;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Expires {@link Hold}s from a hierarchical timing wheel driven by a single
+ * thread, however many holds are outstanding.
+ *
+ * <p>Time is divided into ticks. The wheel has several levels of 64 slots;
+ * level 0 holds expiries due within 64 ticks, and each higher level covers
+ * 64 times the span of the one below. When the clock reaches a higher
+ * level slot, its holds are cascaded down to finer slots, so every hold is
+ * moved at most once per level and scheduling, expiring and cancelling are
+ * all constant time.</p>
+ *
+ * <p>Producers never touch the wheel itself: {@link #schedule} and
+ * {@link #cancel} push the hold onto a lock-free inbox with one CAS, and the
+ * timer thread files new holds and unlinks ended ones from their doubly
+ * linked slot on its next tick, so confirmed and released holds are freed
+ * within a tick rather than lingering until their deadline.</p>
+ */
+public class HoldTimer implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(HoldTimer.class.getName());
+
+    public static final long DEFAULT_TICK_MILLIS = 10;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+    /** Longest delay the wheel can place; later expiries are re-placed when they get there. */
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final AtomicReference<Hold> inbox = new AtomicReference<>();
+    private final AtomicReference<Hold> ended = new AtomicReference<>();
+    private final Hold[][] wheel = new Hold[LEVELS][SLOTS];
+    private final LongAdder scheduled = new LongAdder();
+    private volatile long completed;
+    private long currentTick;
+    private final Thread ticker;
+    private volatile boolean running = true;
+
+    /**
+     * Creates and starts a timer.
+     *
+     * @param tickMillis the timer resolution; holds expire at most one tick late.
+     */
+    public HoldTimer(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Hold timer tick must be a positive number of milliseconds.");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.ticker = new Thread(this::tickLoop, "hold-expiry");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Retrieves the timer shared by pools that were not given one.
+     *
+     * @return the shared timer, started on first use.
+     */
+    public static HoldTimer shared() {
+        return Shared.TIMER;
+    }
+
+    /**
+     * Schedules a hold to expire at its deadline. Safe to call from any thread.
+     *
+     * @param hold the hold to expire.
+     */
+    public void schedule(Hold hold) {
+        long delay = hold.getExpiresAtNanos() - startNanos;
+        hold.deadlineTick = delay <= 0 ? 0 : (delay + tickNanos - 1) / tickNanos;
+        Hold head;
+        do {
+            head = inbox.get();
+            hold.next = head;
+        } while (!inbox.compareAndSet(head, hold));
+        scheduled.increment();
+    }
+
+    /**
+     * Removes a hold that ended before its deadline. Safe to call from any
+     * thread, once per hold, after {@link Hold#finish} succeeded.
+     *
+     * @param hold the hold that ended.
+     */
+    public void cancel(Hold hold) {
+        Hold head;
+        do {
+            head = ended.get();
+            hold.nextEnded = head;
+        } while (!ended.compareAndSet(head, hold));
+    }
+
+    /**
+     * Retrieves the number of scheduled holds the timer has not yet
+     * expired or removed.
+     *
+     * @return the pending hold count.
+     */
+    public long getPending() {
+        return scheduled.sum() - completed;
+    }
+
+    /**
+     * Stops the timer thread. Pending holds are no longer expired.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(ticker);
+    }
+
+    private void tickLoop() {
+        while (running) {
+            try {
+                long target = (System.nanoTime() - startNanos) / tickNanos;
+                drainInbox();
+                drainEnded();
+                while (currentTick < target) {
+                    advance();
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.SEVERE, "Hold timer tick failed", e);
+            }
+            LockSupport.parkNanos(startNanos + (currentTick + 1) * tickNanos - System.nanoTime());
+        }
+    }
+
+    private void drainInbox() {
+        Hold hold = inbox.getAndSet(null);
+        while (hold != null) {
+            Hold next = hold.next;
+            place(hold);
+            hold = next;
+        }
+    }
+
+    private void drainEnded() {
+        Hold hold = ended.getAndSet(null);
+        while (hold != null) {
+            Hold next = hold.nextEnded;
+            hold.nextEnded = null;
+            if (hold.slot >= 0) {
+                unlink(hold);
+                completed++;
+            }
+            hold = next;
+        }
+    }
+
+    /**
+     * Moves the clock one tick forward: cascades every higher level slot
+     * whose span starts at the new tick, then expires the level 0 slot.
+     */
+    private void advance() {
+        currentTick++;
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) == 0) {
+                replace(level, (int) (currentTick >>> shift) & SLOT_MASK);
+            }
+        }
+        replace(0, (int) currentTick & SLOT_MASK);
+    }
+
+    /**
+     * Empties a slot and places each of its holds again, which moves them
+     * down a level or expires them.
+     */
+    private void replace(int level, int slot) {
+        Hold hold = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (hold != null) {
+            Hold next = hold.next;
+            hold.next = null;
+            hold.prev = null;
+            hold.slot = -1;
+            place(hold);
+            hold = next;
+        }
+    }
+
+    /**
+     * Files a hold in the slot of the finest level that can reach its
+     * deadline, or expires it if the deadline has passed.
+     */
+    private void place(Hold hold) {
+        long delay = hold.deadlineTick - currentTick;
+        if (delay <= 0) {
+            expire(hold);
+            return;
+        }
+        if (hold.getState() != Hold.State.ACTIVE) {
+            hold.next = null;
+            completed++;
+            return;
+        }
+        delay = Math.min(delay, MAX_DELAY_TICKS);
+        int level = 0;
+        while (delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((currentTick + delay) >>> (SLOT_BITS * level)) & SLOT_MASK;
+        Hold head = wheel[level][slot];
+        hold.prev = null;
+        hold.next = head;
+        if (head != null) {
+            head.prev = hold;
+        }
+        wheel[level][slot] = hold;
+        hold.slot = level * SLOTS + slot;
+    }
+
+    private void unlink(Hold hold) {
+        int level = hold.slot / SLOTS;
+        int slot = hold.slot % SLOTS;
+        if (hold.prev != null) {
+            hold.prev.next = hold.next;
+        } else {
+            wheel[level][slot] = hold.next;
+        }
+        if (hold.next != null) {
+            hold.next.prev = hold.prev;
+        }
+        hold.next = null;
+        hold.prev = null;
+        hold.slot = -1;
+    }
+
+    private void expire(Hold hold) {
+        hold.next = null;
+        try {
+            hold.expire();
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Could not expire hold " + hold.getHoldId(), e);
+        } finally {
+            completed++;
+        }
+    }
+
+    private static final class Shared {
+        static final HoldTimer TIMER = new HoldTimer(DEFAULT_TICK_MILLIS);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.ticket.services.ids;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * {@link IdBlockSource} kept in a small file holding the first ID no lease
+ * has included yet. Each lease reads and advances the value under an
+ * exclusive {@link FileLock} on a companion lock file, and makes the new
+ * value durable before the range is used, so a restart never reuses an ID,
+ * and processes sharing the file (such as the nodes of a cluster sharing
+ * the coordinator directory) never lease the same range. Sources in the
+ * same JVM share an in-process lock, since file locks are held per process.
+ *
+ * <p>The new value is synced to a temporary file and renamed over the
+ * lease file, so a crash leaves either the old or the new value, never an
+ * empty file that would restart IDs from 1.</p>
+ */
+public class FileIdBlockSource implements IdBlockSource {
+    private static final Logger logger = Logger.getLogger(FileIdBlockSource.class.getName());
+    private static final ConcurrentHashMap<Path, ReentrantLock> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+
+    /**
+     * Creates a source over a lease file.
+     *
+     * @param file the lease file; it and its directory are created on the first lease.
+     * @throws IOException if the directory cannot be created.
+     */
+    public FileIdBlockSource(Path file) throws IOException {
+        this.file = file.toAbsolutePath().normalize();
+        Path directory = this.file.getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    @Override
+    public long lease(long floor, long size) throws IOException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Lease size must be positive.");
+        }
+        ReentrantLock processLock = PROCESS_LOCKS.computeIfAbsent(file, path -> new ReentrantLock());
+        processLock.lock();
+        try (FileChannel lockChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock fileLock = lockChannel.lock();
+            try {
+                long first = Math.max(Math.max(floor, 1), read());
+                write(Math.addExact(first, size));
+                return first;
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    @Override
+    public String describe() {
+        return file.toString();
+    }
+
+    private long read() throws IOException {
+        if (!Files.exists(file)) {
+            return 1;
+        }
+        String text = Files.readString(file, StandardCharsets.US_ASCII).trim();
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IOException("Ticket ID lease file is corrupt: \"" + text + "\"", e);
+        }
+    }
+
+    /**
+     * Replaces the lease file with a new value: the value is synced to a
+     * temporary file first and then renamed over the old one.
+     */
+    private void write(long next) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap((next + "\n").getBytes(StandardCharsets.US_ASCII));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(file.getParent());
+    }
+
+    /**
+     * Syncs a directory so that a rename in it survives a crash. Some
+     * platforms cannot open a directory; there the rename's durability is
+     * left to the file system.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.fine("Could not sync directory " + directory + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ticket.services.ids;
+
+import java.io.IOException;
+
+/**
+ * Durable record of which ticket IDs have been handed out. A
+ * {@link TicketIdAllocator} leases large ranges from it and assigns IDs
+ * from memory, so the source is only consulted once per lease. A source
+ * shared by several processes gives each of them disjoint ranges.
+ */
+public interface IdBlockSource extends AutoCloseable {
+
+    /**
+     * Leases a range of IDs that no earlier lease, in this or any process
+     * sharing the source, has included.
+     *
+     * @param floor the lowest ID the caller can accept, because IDs below it may already be in use.
+     * @param size  the number of IDs wanted.
+     * @return the first ID of the range {@code [first, first + size)}, which is stored before returning.
+     * @throws IOException if the lease cannot be recorded.
+     */
+    long lease(long floor, long size) throws IOException;
+
+    /**
+     * Describes where the leases are recorded.
+     *
+     * @return a short description for status responses.
+     */
+    String describe();
+
+    @Override
+    default void close() {
+    }
+}
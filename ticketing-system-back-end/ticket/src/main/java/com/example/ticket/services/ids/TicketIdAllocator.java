@@ -0,0 +1,214 @@
+package com.example.ticket.services.ids;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * Hands out 64-bit ticket IDs that are never reused. IDs are drawn from
+ * blocks held by a fixed set of stripes, and each thread uses the stripe
+ * picked by its thread ID, so threads rarely contend for a block. A stripe
+ * comes to the shared lease for a new block once per {@code blockSize}
+ * IDs, and the allocator goes to its {@link IdBlockSource} once per
+ * {@code leaseSize} IDs. Blocks outlive the threads that used them, so
+ * short-lived virtual threads that allocate a few IDs each waste none.
+ *
+ * <p>With a durable source every lease is recorded before any ID in it is
+ * used, so a restart continues after the last lease and the unused rest of
+ * it is simply skipped. Without one, IDs live in memory and start at 1;
+ * {@link #advancePast} then keeps them clear of IDs recovered from a
+ * journal.</p>
+ *
+ * <p>IDs are unique, not ordered: tickets added on different stripes
+ * interleave blocks, and one allocator serves every event.</p>
+ */
+public class TicketIdAllocator implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(TicketIdAllocator.class.getName());
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+    public static final long DEFAULT_LEASE_SIZE = 1L << 20;
+
+    private final IdBlockSource source;
+    private final int blockSize;
+    private final long leaseSize;
+    private final Stripe[] stripes = newStripes();
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private final LongAdder blocksTaken = new LongAdder();
+    private final LongAdder leasesTaken = new LongAdder();
+    /** The next ID of the current lease not yet given to a thread; guarded by the lease lock. */
+    private long next = 1;
+    /** The end of the current lease, exclusive; guarded by the lease lock. */
+    private long leaseEnd;
+
+    /**
+     * Creates an in-memory allocator starting at ID 1.
+     */
+    public TicketIdAllocator() {
+        this(null, DEFAULT_BLOCK_SIZE, DEFAULT_LEASE_SIZE);
+    }
+
+    /**
+     * Creates an allocator.
+     *
+     * @param source    the durable record of leased IDs, or null to keep IDs in memory only.
+     * @param blockSize the number of IDs each stripe takes at a time.
+     * @param leaseSize the number of IDs leased from the source at a time.
+     */
+    public TicketIdAllocator(IdBlockSource source, int blockSize, long leaseSize) {
+        if (blockSize <= 0 || leaseSize < blockSize) {
+            throw new IllegalArgumentException("Block size must be positive and no larger than the lease size.");
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+        this.leaseSize = leaseSize;
+        this.leaseEnd = source == null ? Long.MAX_VALUE : next;
+    }
+
+    /**
+     * Allocates one ticket ID.
+     *
+     * @return the ID.
+     * @throws UncheckedIOException if a new lease is needed and cannot be recorded.
+     */
+    public long next() {
+        Stripe stripe = stripe();
+        stripe.lock.lock();
+        try {
+            if (stripe.next == stripe.end) {
+                stripe.refill(take(blockSize), blockSize);
+            }
+            return stripe.next++;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Allocates a run of consecutive ticket IDs, for tickets added in one batch.
+     *
+     * @param count the number of IDs wanted.
+     * @return the first ID; the run is {@code [first, first + count)}.
+     * @throws UncheckedIOException if a new lease is needed and cannot be recorded.
+     */
+    public long next(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("ID count must be positive.");
+        }
+        Stripe stripe = stripe();
+        stripe.lock.lock();
+        try {
+            if (stripe.end - stripe.next < count) {
+                if (count >= blockSize) {
+                    // Larger than a block: take the run straight from the lease.
+                    return take(count);
+                }
+                stripe.refill(take(blockSize), blockSize);
+            }
+            long first = stripe.next;
+            stripe.next += count;
+            return first;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Makes sure IDs allocated from now on are above the given one, which
+     * is known to be in use, e.g. because it was recovered from a journal.
+     * Blocks the stripes already hold are not affected, so this should be
+     * called before the IDs of the recovered event are allocated.
+     *
+     * @param ticketId an ID in use.
+     */
+    public void advancePast(long ticketId) {
+        leaseLock.lock();
+        try {
+            if (next <= ticketId) {
+                next = ticketId + 1;
+            }
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    /**
+     * Builds a summary of the allocator suitable for a JSON response.
+     *
+     * @return the source, block and lease sizes and how often each was taken.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("source", source == null ? "memory" : source.describe());
+        map.put("blockSize", blockSize);
+        map.put("leaseSize", leaseSize);
+        map.put("blocksTaken", blocksTaken.sum());
+        map.put("leasesTaken", leasesTaken.sum());
+        return map;
+    }
+
+    /**
+     * Closes the durable source, if any.
+     */
+    @Override
+    public void close() {
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().threadId() & (stripes.length - 1)];
+    }
+
+    private static Stripe[] newStripes() {
+        // A power of two at least twice the core count, so running threads rarely share a stripe.
+        Stripe[] stripes = new Stripe[Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        return stripes;
+    }
+
+    private long take(long count) {
+        leaseLock.lock();
+        try {
+            if (leaseEnd - next < count) {
+                long size = Math.max(leaseSize, count);
+                long first;
+                try {
+                    first = source.lease(next, size);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot lease ticket IDs from " + source.describe(), e);
+                }
+                logger.fine("Leased ticket IDs " + first + " to " + (first + size - 1) + " from "
+                        + source.describe() + ".");
+                next = first;
+                leaseEnd = first + size;
+                leasesTaken.increment();
+            }
+            long first = next;
+            next += count;
+            blocksTaken.increment();
+            return first;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    /**
+     * A stripe's current run of IDs, {@code [next, end)}, guarded by its lock.
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        long next;
+        long end;
+
+        void refill(long first, long size) {
+            next = first;
+            end = first + size;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.ticket.services.journal;
+
+/**
+ * Pool state rebuilt from a {@link SaleJournal}.
+ *
+ * @param availableTicketIds IDs of tickets still in the pool, in release order.
+ * @param ticketsSold        tickets sold since the last reset.
+ * @param maxPoolTickets     the last recorded pool limit, or -1 if none was recorded.
+ * @param maxEventTickets    the last recorded event limit, or -1 if none was recorded.
+ * @param highestTicketId    the highest ticket ID ever recorded, so new IDs can continue after it.
+ * @param records            the number of valid records replayed.
+ * @param truncatedBytes     bytes of torn or corrupt tail that were discarded.
+ * @param elapsedNanos       time taken to replay the journal.
+ */
+public record JournalRecovery(long[] availableTicketIds,
+                              int ticketsSold,
+                              int maxPoolTickets,
+                              int maxEventTickets,
+                              long highestTicketId,
+                              long records,
+                              long truncatedBytes,
+                              long elapsedNanos) {
+}
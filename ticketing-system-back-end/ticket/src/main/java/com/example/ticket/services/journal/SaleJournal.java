@@ -0,0 +1,450 @@
+package com.example.ticket.services.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of ticket additions and sales, replayed on startup
+ * to rebuild the pool after a restart.
+ *
+ * <p>Appenders copy a fixed-size record into an in-memory buffer; a single
+ * writer thread swaps buffers and writes them to the file, so concurrent
+ * appends are group-committed with one write and at most one fsync per
+ * batch. The {@link FsyncPolicy} decides how durable an append is when it
+ * returns.</p>
+ *
+ * <p>Each record is 32 bytes: type, two int fields, ticket ID, timestamp
+ * and a CRC32C. Replay stops at the first torn or corrupt record and
+ * truncates the file there.</p>
+ */
+public class SaleJournal implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(SaleJournal.class.getName());
+    static final int RECORD_SIZE = 32;
+    private static final int CHECKED_BYTES = 25;
+    private static final int READ_CHUNK = 1 << 20;
+
+    /**
+     * How durable an append is when it returns.
+     */
+    public enum FsyncPolicy {
+        /** Wait until the record has been written and fsynced; concurrent appends share one fsync. */
+        ALWAYS,
+        /** Return immediately; the writer fsyncs at the configured interval. */
+        BATCH,
+        /** Return immediately; the writer writes at the interval and leaves syncing to the OS. */
+        NONE;
+
+        /**
+         * Parses a policy name, ignoring case.
+         *
+         * @param name the policy name.
+         * @return the matching policy.
+         */
+        public static FsyncPolicy from(String name) {
+            try {
+                return FsyncPolicy.valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown journal fsync policy: " + name);
+            }
+        }
+    }
+
+    /**
+     * Kinds of journal record.
+     */
+    public enum RecordType {
+        ADD(1),
+        SALE(2),
+        RESET(3),
+        LIMITS(4),
+        WITHDRAW(5);
+
+        private final byte code;
+
+        RecordType(int code) {
+            this.code = (byte) code;
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long intervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final Condition bufferSwapped = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer active;
+    private ByteBuffer spare;
+    private long appended;
+    private long durable;
+    private boolean recovered;
+    private volatile boolean running = true;
+    private volatile IOException failure;
+    private Thread writer;
+
+    /**
+     * Opens or creates a journal file. {@link #recover()} must be called
+     * before the first append.
+     *
+     * @param path                the journal file.
+     * @param policy              the fsync policy.
+     * @param fsyncIntervalMillis how often the writer flushes in BATCH and NONE modes.
+     * @param bufferSize          the size of each of the two append buffers, in bytes.
+     * @throws IOException if the file cannot be opened.
+     */
+    public SaleJournal(Path path, FsyncPolicy policy, long fsyncIntervalMillis, int bufferSize) throws IOException {
+        if (bufferSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("Journal buffer must hold at least one record.");
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.policy = policy;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, fsyncIntervalMillis));
+        int capacity = bufferSize - bufferSize % RECORD_SIZE;
+        this.active = ByteBuffer.allocate(capacity);
+        this.spare = ByteBuffer.allocate(capacity);
+    }
+
+    /**
+     * Replays the journal and starts the writer thread. Records after the
+     * last reset determine the recovered state.
+     *
+     * @return the recovered pool state.
+     * @throws IOException if the file cannot be read.
+     */
+    public synchronized JournalRecovery recover() throws IOException {
+        if (recovered) {
+            throw new IllegalStateException("Journal " + path + " has already been recovered.");
+        }
+        long started = System.nanoTime();
+        Replay replay = new Replay();
+        ByteBuffer chunk = ByteBuffer.allocate(READ_CHUNK);
+        CRC32C checksum = new CRC32C();
+        long size = channel.size();
+        long offset = 0;
+        long records = 0;
+        boolean corrupt = false;
+        while (offset + RECORD_SIZE <= size && !corrupt) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), (size - offset) / RECORD_SIZE * RECORD_SIZE));
+            while (chunk.hasRemaining() && channel.read(chunk, offset + chunk.position()) >= 0) {
+                // keep reading until the chunk is full
+            }
+            chunk.flip();
+            while (chunk.remaining() >= RECORD_SIZE) {
+                int start = chunk.position();
+                checksum.reset();
+                checksum.update(chunk.array(), start, CHECKED_BYTES);
+                byte type = chunk.get();
+                int first = chunk.getInt();
+                int second = chunk.getInt();
+                long ticketId = chunk.getLong();
+                chunk.getLong();
+                int storedChecksum = chunk.getInt();
+                chunk.position(start + RECORD_SIZE);
+                if (storedChecksum != (int) checksum.getValue() || !replay.apply(type, first, second, ticketId)) {
+                    corrupt = true;
+                    break;
+                }
+                offset += RECORD_SIZE;
+                records++;
+            }
+        }
+        long truncated = size - offset;
+        if (truncated > 0) {
+            logger.warning("Discarding " + truncated + " bytes of torn or corrupt journal tail in " + path);
+            channel.truncate(offset);
+        }
+        channel.position(offset);
+        recovered = true;
+        writer = new Thread(this::writeLoop, "sale-journal");
+        writer.setDaemon(true);
+        writer.start();
+        return replay.result(records, truncated, System.nanoTime() - started);
+    }
+
+    /**
+     * Appends a record. Depending on the policy this returns once the
+     * record is buffered or once it is durable on disk.
+     *
+     * @param type     the kind of record.
+     * @param first    the first int field (vendor or customer ID, or pool limit).
+     * @param second   the second int field (event limit for LIMITS records).
+     * @param ticketId the ticket involved, or 0 if none.
+     */
+    public void append(RecordType type, int first, int second, long ticketId) {
+        checkRecovered();
+        lock.lock();
+        try {
+            checkHealthy();
+            awaitSpace();
+            put(type, first, second, ticketId);
+            awaitDurable(appended);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends one record per ticket, all with the same type and fields, as
+     * a single group. The records are buffered under one lock hold, waiting
+     * only if a buffer fills, and under {@link FsyncPolicy#ALWAYS} the call
+     * waits for one flush covering the last of them rather than one per
+     * record.
+     *
+     * @param type      the kind of record.
+     * @param first     the first int field (vendor or customer ID).
+     * @param second    the second int field.
+     * @param ticketIds the tickets involved, one record each.
+     */
+    public void appendBatch(RecordType type, int first, int second, long[] ticketIds) {
+        checkRecovered();
+        if (ticketIds.length == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            checkHealthy();
+            for (long ticketId : ticketIds) {
+                awaitSpace();
+                put(type, first, second, ticketId);
+            }
+            awaitDurable(appended);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the fsync policy.
+     *
+     * @return the policy.
+     */
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Writes and syncs everything appended so far, then stops the writer.
+     */
+    @Override
+    public void close() {
+        running = false;
+        lock.lock();
+        try {
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (writer != null) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not close journal " + path, e);
+        }
+    }
+
+    private void checkRecovered() {
+        if (!recovered) {
+            throw new IllegalStateException("Journal " + path + " must be recovered before appending.");
+        }
+    }
+
+    /**
+     * Waits, with the lock held, until the active buffer has room for a record.
+     */
+    private void awaitSpace() {
+        while (active.remaining() < RECORD_SIZE) {
+            flushRequested.signal();
+            bufferSwapped.awaitUninterruptibly();
+            checkHealthy();
+        }
+    }
+
+    /**
+     * Writes one record into the active buffer, with the lock held.
+     */
+    private void put(RecordType type, int first, int second, long ticketId) {
+        int start = active.position();
+        active.put(type.code).putInt(first).putInt(second).putLong(ticketId).putLong(System.currentTimeMillis());
+        crc.reset();
+        crc.update(active.array(), start, CHECKED_BYTES);
+        active.putInt((int) crc.getValue());
+        active.position(start + RECORD_SIZE);
+        appended++;
+    }
+
+    /**
+     * Under {@link FsyncPolicy#ALWAYS}, asks the writer to flush and waits,
+     * with the lock held, until the given record is durable.
+     */
+    private void awaitDurable(long sequence) {
+        if (policy == FsyncPolicy.ALWAYS) {
+            flushRequested.signal();
+            while (durable < sequence) {
+                durableAdvanced.awaitUninterruptibly();
+                checkHealthy();
+            }
+        }
+    }
+
+    private void checkHealthy() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal " + path + " failed", failure);
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long target;
+            lock.lock();
+            try {
+                if (active.position() == 0) {
+                    if (!running) {
+                        return;
+                    }
+                    flushRequested.awaitNanos(intervalNanos);
+                    if (active.position() == 0) {
+                        continue;
+                    }
+                }
+                batch = active;
+                active = spare;
+                spare = batch;
+                target = appended;
+                bufferSwapped.signalAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                batch.clear();
+                if (policy != FsyncPolicy.NONE) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                logger.log(Level.SEVERE, "Journal write failed for " + path, e);
+                failure = e;
+            }
+            lock.lock();
+            try {
+                durable = target;
+                durableAdvanced.signalAll();
+                if (failure != null) {
+                    bufferSwapped.signalAll();
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replay state. Sales and withdrawals normally consume the oldest
+     * ticket, so each is matched against the head of a primitive deque of
+     * released IDs; out-of-order ones are remembered and skipped when reached.
+     */
+    private static final class Replay {
+        private long[] released = new long[1024];
+        private int head;
+        private int tail;
+        private final Map<Long, Integer> removedOutOfOrder = new HashMap<>();
+        private int ticketsSold;
+        private int maxPoolTickets = -1;
+        private int maxEventTickets = -1;
+        private long highestTicketId;
+
+        boolean apply(byte type, int first, int second, long ticketId) {
+            if (type == RecordType.ADD.code) {
+                if (tail == released.length) {
+                    compact();
+                }
+                released[tail++] = ticketId;
+                highestTicketId = Math.max(highestTicketId, ticketId);
+            } else if (type == RecordType.SALE.code || type == RecordType.WITHDRAW.code) {
+                if (type == RecordType.SALE.code) {
+                    ticketsSold++;
+                }
+                if (head < tail && released[head] == ticketId) {
+                    head++;
+                } else {
+                    removedOutOfOrder.merge(ticketId, 1, Integer::sum);
+                }
+            } else if (type == RecordType.RESET.code) {
+                head = 0;
+                tail = 0;
+                removedOutOfOrder.clear();
+                ticketsSold = 0;
+            } else if (type == RecordType.LIMITS.code) {
+                maxPoolTickets = first;
+                maxEventTickets = second;
+            } else {
+                return false;
+            }
+            return true;
+        }
+
+        private void compact() {
+            int size = tail - head;
+            long[] target = size * 2 > released.length ? new long[released.length * 2] : released;
+            System.arraycopy(released, head, target, 0, size);
+            released = target;
+            head = 0;
+            tail = size;
+        }
+
+        JournalRecovery result(long records, long truncated, long elapsedNanos) {
+            long[] available = new long[tail - head];
+            int count = 0;
+            for (int i = head; i < tail; i++) {
+                long ticketId = released[i];
+                Integer pending = removedOutOfOrder.get(ticketId);
+                if (pending != null) {
+                    if (pending == 1) {
+                        removedOutOfOrder.remove(ticketId);
+                    } else {
+                        removedOutOfOrder.put(ticketId, pending - 1);
+                    }
+                    continue;
+                }
+                available[count++] = ticketId;
+            }
+            return new JournalRecovery(Arrays.copyOf(available, count), ticketsSold,
+                    maxPoolTickets, maxEventTickets, highestTicketId, records, truncated, elapsedNanos);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.ticket.services.metrics;
+
+import com.example.ticket.services.ActorCounters;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.holds.Hold;
+import com.example.ticket.services.pool.TicketPool;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publishes the metrics of one event's pool to a Micrometer registry, and
+ * from there to the Actuator {@code metrics} and {@code prometheus}
+ * endpoints. Every meter is tagged with the event ID.
+ *
+ * <p>Counters and timers are resolved once at construction, so recording
+ * is a striped add with no lookup. Levels such as occupancy, waiter counts
+ * and engine contention are read from the pool when scraped rather than
+ * pushed on every change.</p>
+ *
+ * <p>Per-actor throughput is exported for at most {@code maxActorMeters}
+ * actors per event, since every tagged actor adds a time series.</p>
+ */
+public class MicrometerPoolMetrics implements PoolMetrics {
+    private static final Duration MIN_LATENCY = Duration.ofNanos(1_000);
+    private static final Duration MAX_LATENCY = Duration.ofSeconds(30);
+
+    private final MeterRegistry registry;
+    private final TicketPoolService ticketPoolService;
+    private final Tags tags;
+    private final int maxActorMeters;
+    private final AtomicInteger actorMeters = new AtomicInteger();
+    private final Set<Long> meteredActors = ConcurrentHashMap.newKeySet();
+    private final Counter added;
+    private final Counter purchased;
+    private final Counter poolFull;
+    private final Counter eventLimitReached;
+    private final Counter held;
+    private final Counter holdsReleased;
+    private final Counter holdsExpired;
+    private final Timer purchaseLatency;
+    private final Timer vendorWait;
+    private final Timer customerWait;
+    private final Counter vendorIdle;
+    private final Counter customerIdle;
+
+    /**
+     * Registers the meters of a pool.
+     *
+     * @param registry          the registry to publish to.
+     * @param ticketPoolService the pool to observe.
+     * @param maxActorMeters    the maximum number of actors given their own throughput meter.
+     */
+    public MicrometerPoolMetrics(MeterRegistry registry, TicketPoolService ticketPoolService, int maxActorMeters) {
+        this.registry = registry;
+        this.ticketPoolService = ticketPoolService;
+        this.tags = Tags.of("event", Integer.toString(ticketPoolService.getEventId()));
+        this.maxActorMeters = maxActorMeters;
+
+        added = Counter.builder("ticket.added").description("Tickets added to the pool")
+                .tags(tags).register(registry);
+        purchased = Counter.builder("ticket.purchased").description("Tickets sold")
+                .tags(tags).register(registry);
+        poolFull = Counter.builder("ticket.add.rejected").description("Additions refused by the pool")
+                .tags(tags).tag("reason", "pool_full").register(registry);
+        eventLimitReached = Counter.builder("ticket.add.rejected").description("Additions refused by the pool")
+                .tags(tags).tag("reason", "event_limit").register(registry);
+        held = Counter.builder("ticket.held").description("Tickets set aside by holds")
+                .tags(tags).register(registry);
+        holdsReleased = Counter.builder("ticket.hold.returned").description("Held tickets returned to the pool")
+                .tags(tags).tag("outcome", "released").register(registry);
+        holdsExpired = Counter.builder("ticket.hold.returned").description("Held tickets returned to the pool")
+                .tags(tags).tag("outcome", "expired").register(registry);
+        purchaseLatency = latencyTimer("ticket.purchase.latency", "Time from purchase request to tickets handed over")
+                .tags(tags).register(registry);
+        vendorWait = latencyTimer("ticket.wait", "Time actors spent parked waiting for the pool")
+                .tags(tags).tag("role", "vendor").register(registry);
+        customerWait = latencyTimer("ticket.wait", "Time actors spent parked waiting for the pool")
+                .tags(tags).tag("role", "customer").register(registry);
+        vendorIdle = Counter.builder("ticket.actor.idle").description("Actor waits that timed out")
+                .tags(tags).tag("role", "vendor").register(registry);
+        customerIdle = Counter.builder("ticket.actor.idle").description("Actor waits that timed out")
+                .tags(tags).tag("role", "customer").register(registry);
+
+        Gauge.builder("ticket.pool.available", ticketPoolService, TicketPoolService::getAvailableTickets)
+                .description("Tickets currently in the pool").tags(tags).register(registry);
+        Gauge.builder("ticket.pool.held", ticketPoolService, TicketPoolService::getHeldTickets)
+                .description("Tickets set aside by active holds").tags(tags).register(registry);
+        Gauge.builder("ticket.pool.sold", ticketPoolService, TicketPoolService::getTicketsSold)
+                .description("Tickets sold since the last reset").tags(tags).register(registry);
+        Gauge.builder("ticket.pool.occupancy", ticketPoolService, MicrometerPoolMetrics::occupancy)
+                .description("Fraction of the pool capacity in use").tags(tags).register(registry);
+        Gauge.builder("ticket.pool.limit", ticketPoolService, TicketPoolService::getMaxPoolTickets)
+                .description("Maximum tickets in the pool").tags(tags).register(registry);
+        Gauge.builder("ticket.event.limit", ticketPoolService, TicketPoolService::getMaxEventTickets)
+                .description("Maximum tickets for the event").tags(tags).register(registry);
+        Gauge.builder("ticket.waiting", ticketPoolService, TicketPoolService::getWaitingVendors)
+                .description("Actors parked waiting for the pool").tags(tags).tag("role", "vendor").register(registry);
+        Gauge.builder("ticket.waiting", ticketPoolService, TicketPoolService::getWaitingCustomers)
+                .description("Actors parked waiting for the pool").tags(tags).tag("role", "customer").register(registry);
+        Gauge.builder("ticket.waiting_room.depth", ticketPoolService, TicketPoolService::getWaitingRoomDepth)
+                .description("Customers waiting to be admitted").tags(tags).register(registry);
+        Gauge.builder("ticket.waiting_room.expected_wait", ticketPoolService,
+                        TicketPoolService::getExpectedAdmissionWaitMillis)
+                .description("Admission wait of a customer arriving now").baseUnit("milliseconds")
+                .tags(tags).register(registry);
+        FunctionCounter.builder("ticket.contention", ticketPoolService, TicketPoolService::getEngineContention)
+                .description("Failed CAS attempts or contended lock acquisitions")
+                .tags(tags).tag("lock", "engine").tag("engine", ticketPoolService.getEngineName()).register(registry);
+        FunctionCounter.builder("ticket.contention", ticketPoolService, TicketPoolService::getWaitLockContention)
+                .description("Failed CAS attempts or contended lock acquisitions")
+                .tags(tags).tag("lock", "waiters").register(registry);
+    }
+
+    @Override
+    public void ticketsAdded(int count) {
+        added.increment(count);
+    }
+
+    @Override
+    public void addRejected(TicketPool.AddResult result) {
+        if (result == TicketPool.AddResult.POOL_FULL) {
+            poolFull.increment();
+        } else if (result == TicketPool.AddResult.EVENT_LIMIT_REACHED) {
+            eventLimitReached.increment();
+        }
+    }
+
+    @Override
+    public void ticketsPurchased(int count, long latencyNanos) {
+        purchased.increment(count);
+        purchaseLatency.record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void ticketsHeld(int count) {
+        held.increment(count);
+    }
+
+    @Override
+    public void holdEnded(Hold.State outcome, int count) {
+        if (outcome == Hold.State.RELEASED) {
+            holdsReleased.increment(count);
+        } else if (outcome == Hold.State.EXPIRED) {
+            holdsExpired.increment(count);
+        }
+    }
+
+    @Override
+    public void waited(Role role, long nanos) {
+        (role == Role.VENDOR ? vendorWait : customerWait).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void actorIdle(Role role) {
+        (role == Role.VENDOR ? vendorIdle : customerIdle).increment();
+    }
+
+    @Override
+    public void actorStarted(Role role, int actorId) {
+        long key = ((long) role.ordinal() << 32) | (actorId & 0xFFFFFFFFL);
+        if (meteredActors.contains(key) || actorMeters.get() >= maxActorMeters) {
+            return;
+        }
+        if (!meteredActors.add(key) || actorMeters.incrementAndGet() > maxActorMeters) {
+            return;
+        }
+        ActorCounters counters = role == Role.VENDOR
+                ? ticketPoolService.getTicketsAddedByVendor()
+                : ticketPoolService.getTicketsPurchasedByCustomer();
+        FunctionCounter.builder("ticket.actor.tickets", counters, c -> c.get(actorId))
+                .description("Tickets added or bought by one actor")
+                .tags(tags).tag("role", role.name().toLowerCase()).tag("actor", Integer.toString(actorId))
+                .register(registry);
+    }
+
+    private static Timer.Builder latencyTimer(String name, String description) {
+        return Timer.builder(name).description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_LATENCY)
+                .maximumExpectedValue(MAX_LATENCY);
+    }
+
+    private static double occupancy(TicketPoolService ticketPoolService) {
+        int limit = ticketPoolService.getMaxPoolTickets();
+        int inPool = ticketPoolService.getAvailableTickets() + ticketPoolService.getHeldTickets();
+        return limit <= 0 ? 0 : (double) inPool / limit;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.ticket.services.metrics;
+
+import com.example.ticket.services.holds.Hold;
+import com.example.ticket.services.pool.TicketPool;
+
+/**
+ * Recording hooks called by {@link com.example.ticket.services.TicketPoolService}
+ * and the actor loops. Every method is called on the sale path, so
+ * implementations must not block or allocate per call. The default methods
+ * do nothing, which is what {@link #NONE} uses when metrics are off.
+ */
+public interface PoolMetrics {
+
+    /**
+     * Metrics that record nothing.
+     */
+    PoolMetrics NONE = new PoolMetrics() {
+    };
+
+    /**
+     * Which side of the pool an actor is on.
+     */
+    enum Role {
+        VENDOR,
+        CUSTOMER
+    }
+
+    /**
+     * Records tickets added to the pool.
+     *
+     * @param count the number of tickets added.
+     */
+    default void ticketsAdded(int count) {
+    }
+
+    /**
+     * Records an addition the pool refused.
+     *
+     * @param result why the ticket was refused.
+     */
+    default void addRejected(TicketPool.AddResult result) {
+    }
+
+    /**
+     * Records a completed purchase.
+     *
+     * @param count        the number of tickets bought.
+     * @param latencyNanos the time from the purchase request to the tickets being handed over.
+     */
+    default void ticketsPurchased(int count, long latencyNanos) {
+    }
+
+    /**
+     * Records tickets set aside by a new hold.
+     *
+     * @param count the number of tickets held.
+     */
+    default void ticketsHeld(int count) {
+    }
+
+    /**
+     * Records the end of a hold.
+     *
+     * @param outcome whether the hold was confirmed, released or expired.
+     * @param count   the number of tickets it held.
+     */
+    default void holdEnded(Hold.State outcome, int count) {
+    }
+
+    /**
+     * Records time an actor spent parked waiting for stock or capacity.
+     *
+     * @param role  whose wait it was; customers wait for stock, vendors for capacity.
+     * @param nanos the time waited.
+     */
+    default void waited(Role role, long nanos) {
+    }
+
+    /**
+     * Records an actor loop iteration that gave up waiting without a result.
+     *
+     * @param role the role of the actor.
+     */
+    default void actorIdle(Role role) {
+    }
+
+    /**
+     * Called once when an actor loop starts, so per-actor throughput can
+     * be tracked.
+     *
+     * @param role    the role of the actor.
+     * @param actorId the vendor or customer ID.
+     */
+    default void actorStarted(Role role, int actorId) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ticket.services.pool;
+
+import com.example.ticket.models.Ticket;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of resizing a pool: the limits now in force, under the version
+ * they were published with, and the unsold tickets withdrawn to fit them.
+ *
+ * @param version         increases with every resize of the pool.
+ * @param maxPoolTickets  the pool limit in force.
+ * @param maxEventTickets the event limit in force.
+ * @param withdrawn       the tickets taken off sale, oldest first.
+ */
+public record CapacityChange(long version, int maxPoolTickets, int maxEventTickets, List<Ticket> withdrawn) {
+
+    /**
+     * Builds a summary suitable for a JSON response.
+     *
+     * @return the version, both limits and the number of tickets withdrawn.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("capacityVersion", version);
+        map.put("maxPoolTickets", maxPoolTickets);
+        map.put("maxEventTickets", maxEventTickets);
+        map.put("withdrawnTickets", withdrawn.size());
+        return map;
+    }
+}
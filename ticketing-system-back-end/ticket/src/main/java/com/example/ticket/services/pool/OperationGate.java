@@ -0,0 +1,74 @@
+package com.example.ticket.services.pool;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lets engine operations run side by side while allowing a reset to shut
+ * them all out. Each operation marks itself on a stripe picked by its
+ * thread, so threads rarely share a cache line; closing the gate waits
+ * until every stripe is empty.
+ *
+ * <p>An operation marks its stripe before checking the gate, and a reset
+ * closes the gate before checking the stripes, so at least one of the two
+ * sees the other: the reset waits for the operation, or the operation
+ * backs out and waits for the reset.</p>
+ */
+final class OperationGate {
+    private static final int STRIPES = 32;
+    /** Ints per stripe, so that each stripe has a 64-byte cache line of its own. */
+    private static final int PADDING = 16;
+
+    private final AtomicIntegerArray passing = new AtomicIntegerArray(STRIPES * PADDING);
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * Passes through the gate, waiting while it is closed.
+     *
+     * @return the stripe to hand back to {@link #exit}.
+     */
+    int enter() {
+        int stripe = (int) (Thread.currentThread().threadId() & (STRIPES - 1)) * PADDING;
+        while (true) {
+            passing.incrementAndGet(stripe);
+            if (!closed.get()) {
+                return stripe;
+            }
+            passing.decrementAndGet(stripe);
+            while (closed.get()) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Marks an operation that passed through the gate as finished.
+     *
+     * @param stripe the stripe returned by {@link #enter}.
+     */
+    void exit(int stripe) {
+        passing.decrementAndGet(stripe);
+    }
+
+    /**
+     * Closes the gate and waits for the operations already through it to
+     * finish. Only one caller can hold the gate closed at a time.
+     */
+    void close() {
+        while (!closed.compareAndSet(false, true)) {
+            Thread.onSpinWait();
+        }
+        for (int stripe = 0; stripe < passing.length(); stripe += PADDING) {
+            while (passing.get(stripe) != 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Lets operations through again.
+     */
+    void open() {
+        closed.set(false);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.ticket.services.pool;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Consistent view of a pool's counters and limits: every value was true
+ * at the same instant. Engines keep the available and sold counts in one
+ * 64-bit word and both limits in another, so a view can be read in O(1)
+ * without taking a lock or seeing a sale half-recorded.
+ *
+ * @param version         the number of changes the engine had made when the view was read; a view
+ *                        with a higher version is never older. 0 from engines that do not count changes.
+ * @param available       tickets currently in the pool, not counting held tickets.
+ * @param sold            tickets sold since the last reset.
+ * @param maxPoolTickets  maximum number of tickets allowed in the pool.
+ * @param maxEventTickets maximum number of tickets allowed for the event.
+ */
+public record PoolCounts(long version, int available, int sold, int maxPoolTickets, int maxEventTickets) {
+
+    /**
+     * Builds a view from an engine's packed words.
+     *
+     * @param version the engine's change count when the words were read.
+     * @param ledger  the available count in the low half and the sold count in the high half.
+     * @param limits  the pool limit in the low half and the event limit in the high half.
+     * @return the versioned view.
+     */
+    static PoolCounts of(long version, long ledger, long limits) {
+        return new PoolCounts(version, low(ledger), high(ledger), low(limits), high(limits));
+    }
+
+    /**
+     * Builds a summary suitable for a JSON response.
+     *
+     * @return the version, counts and limits.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("version", version);
+        map.put("availableTickets", available);
+        map.put("ticketsSold", sold);
+        map.put("maxPoolTickets", maxPoolTickets);
+        map.put("maxEventTickets", maxEventTickets);
+        return map;
+    }
+
+    static long pack(int low, int high) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    static int low(long word) {
+        return (int) word;
+    }
+
+    static int high(long word) {
+        return (int) (word >>> 32);
+    }
+}
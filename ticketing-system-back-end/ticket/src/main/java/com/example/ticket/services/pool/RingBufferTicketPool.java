@@ -0,0 +1,497 @@
+package com.example.ticket.services.pool;
+
+import com.example.ticket.models.Ticket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free engine built on a bounded multi-producer/multi-consumer ring
+ * buffer. Limits are enforced by reserving capacity on atomic counters
+ * before a ticket is published, so no operation ever takes a lock.
+ * Only a reset holds operations back, while it empties the ring.
+ *
+ * <p>The ring has a fixed physical capacity chosen at construction time;
+ * {@code maxPoolTickets} may be changed at runtime but is capped by it:
+ * a larger limit is stored, and reported, as the ring size.</p>
+ *
+ * <p>Both limits share one 64-bit word. A reservation re-reads it after
+ * its CAS and backs out if the limits changed meanwhile, so once a resize
+ * has published new limits no addition can still pass the old ones.</p>
+ *
+ * <p>The available and sold counts share one 64-bit word, so a sale moves
+ * a ticket from one to the other in the same CAS that claims it. Status
+ * reads get both from a single load and never see a sale half-recorded.
+ * Every change to either word then bumps a change counter, which status
+ * reads check on both sides, seqlock style, to number the view.</p>
+ */
+public class RingBufferTicketPool implements TicketPool {
+    public static final String NAME = "ring-buffer";
+    /** How long a resize waits for tickets still being published before leaving them to drain. */
+    private static final long RESIZE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final int mask;
+    private final AtomicReferenceArray<Ticket> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Tickets queued, being queued or held; bounded by {@code maxPoolTickets}. */
+    private final AtomicInteger stock = new AtomicInteger();
+    /**
+     * Published tickets not yet claimed by a buyer in the low half, tickets
+     * sold in the high half.
+     */
+    private final AtomicLong ledger = new AtomicLong();
+    /** Tickets ever admitted (in the pool or sold); bounded by {@code maxEventTickets}. */
+    private final AtomicInteger issued = new AtomicInteger();
+    /** Tickets taken out of the ring by a hold but not yet sold or returned. */
+    private final AtomicInteger held = new AtomicInteger();
+    /** Failed CAS attempts and spins waiting for a slot to be published. */
+    private final LongAdder contention = new LongAdder();
+    /** Pool limit in the low half, event limit in the high half. */
+    private final AtomicLong limits = new AtomicLong(PoolCounts.pack(200, 1000));
+    /**
+     * Bumped after every change to the ledger or the limits. A change is
+     * visible before its bump, so a view read between two equal values of
+     * it is at least as new as every view numbered lower.
+     */
+    private final AtomicLong changes = new AtomicLong();
+    /** Every operation that changes the ring or the counters passes through it; a reset closes it. */
+    private final OperationGate gate = new OperationGate();
+
+    /**
+     * Creates a ring buffer engine.
+     *
+     * @param capacity the physical ring size, rounded up to a power of two.
+     */
+    public RingBufferTicketPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Ring capacity must be a positive integer.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    @Override
+    public AddResult add(Ticket ticket) {
+        int stripe = gate.enter();
+        try {
+            if (!reserve(issued, true)) {
+                return AddResult.EVENT_LIMIT_REACHED;
+            }
+            if (!reserve(stock, false)) {
+                issued.decrementAndGet();
+                return AddResult.POOL_FULL;
+            }
+            if (!offer(ticket)) {
+                stock.decrementAndGet();
+                issued.decrementAndGet();
+                return AddResult.POOL_FULL;
+            }
+            ledger.incrementAndGet();
+            changes.incrementAndGet();
+            return AddResult.ADDED;
+        } finally {
+            gate.exit(stripe);
+        }
+    }
+
+    @Override
+    public Ticket poll() {
+        int stripe = gate.enter();
+        try {
+            if (claim(1, true, true) == 0) {
+                return null;
+            }
+            Ticket ticket = take();
+            stock.decrementAndGet();
+            return ticket;
+        } finally {
+            gate.exit(stripe);
+        }
+    }
+
+    @Override
+    public int addAll(List<Ticket> tickets, boolean allOrNothing) {
+        int stripe = gate.enter();
+        try {
+            int wanted = tickets.size();
+            int count = reserveUpTo(issued, true, wanted, allOrNothing);
+            if (count == 0) {
+                return 0;
+            }
+            int room = reserveUpTo(stock, false, count, allOrNothing);
+            if (room < count) {
+                issued.addAndGet(room - count);
+                count = room;
+            }
+            int published = 0;
+            while (published < count && offer(tickets.get(published))) {
+                published++;
+            }
+            if (published < count) {
+                // Defensive: stock never exceeds the ring size, so every reserved slot should be free.
+                stock.addAndGet(published - count);
+                issued.addAndGet(published - count);
+            }
+            ledger.addAndGet(published);
+            changes.incrementAndGet();
+            return published;
+        } finally {
+            gate.exit(stripe);
+        }
+    }
+
+    @Override
+    public List<Ticket> pollBatch(int quantity, boolean allOrNothing) {
+        int stripe = gate.enter();
+        try {
+            int count = claim(quantity, allOrNothing, true);
+            if (count == 0) {
+                return List.of();
+            }
+            List<Ticket> sold = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                sold.add(take());
+            }
+            stock.addAndGet(-count);
+            return sold;
+        } finally {
+            gate.exit(stripe);
+        }
+    }
+
+    @Override
+    public List<Ticket> hold(int quantity, boolean allOrNothing) {
+        int stripe = gate.enter();
+        try {
+            int count = claim(quantity, allOrNothing, false);
+            if (count == 0) {
+                return List.of();
+            }
+            List<Ticket> tickets = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                tickets.add(take());
+            }
+            held.addAndGet(count);
+            return tickets;
+        } finally {
+            gate.exit(stripe);
+        }
+    }
+
+    @Override
+    public void confirmHeld(int count) {
+        int stripe = gate.enter();
+        try {
+            held.addAndGet(-count);
+            stock.addAndGet(-count);
+            ledger.addAndGet((long) count << 32);
+            changes.incrementAndGet();
+        } finally {
+            gate.exit(stripe);
+        }
+    }
+
+    @Override
+    public void returnHeld(List<Ticket> tickets) {
+        int stripe = gate.enter();
+        try {
+            int returned = 0;
+            for (Ticket ticket : tickets) {
+                // Held tickets still count towards stock, so their slots are always free.
+                while (!offer(ticket)) {
+                    contention.increment();
+                    Thread.onSpinWait();
+                }
+                returned++;
+            }
+            held.addAndGet(-returned);
+            ledger.addAndGet(returned);
+            changes.incrementAndGet();
+        } finally {
+            gate.exit(stripe);
+        }
+    }
+
+    @Override
+    public int held() {
+        return held.get();
+    }
+
+    @Override
+    public int available() {
+        return PoolCounts.low(ledger.get());
+    }
+
+    @Override
+    public int sold() {
+        return PoolCounts.high(ledger.get());
+    }
+
+    @Override
+    public PoolCounts counts() {
+        while (true) {
+            long version = changes.get();
+            long before = limits.get();
+            long counts = ledger.get();
+            if (limits.get() == before && changes.get() == version) {
+                return PoolCounts.of(version, counts, before);
+            }
+        }
+    }
+
+    @Override
+    public int getMaxPoolTickets() {
+        return PoolCounts.low(limits.get());
+    }
+
+    @Override
+    public void setMaxPoolTickets(int maxPoolTickets) {
+        int limit = poolLimit(maxPoolTickets);
+        limits.updateAndGet(current -> PoolCounts.pack(limit, PoolCounts.high(current)));
+        changes.incrementAndGet();
+    }
+
+    @Override
+    public int getMaxEventTickets() {
+        return PoolCounts.high(limits.get());
+    }
+
+    @Override
+    public void setMaxEventTickets(int maxEventTickets) {
+        limits.updateAndGet(current -> PoolCounts.pack(PoolCounts.low(current), maxEventTickets));
+        changes.incrementAndGet();
+    }
+
+    @Override
+    public List<Ticket> resize(int maxPoolTickets, int maxEventTickets) {
+        int stripe = gate.enter();
+        try {
+            int poolLimit = poolLimit(maxPoolTickets);
+            limits.set(PoolCounts.pack(poolLimit, maxEventTickets));
+            changes.incrementAndGet();
+            List<Ticket> withdrawn = new ArrayList<>();
+            long giveUpAt = System.nanoTime() + RESIZE_WAIT_NANOS;
+            while (true) {
+                // Only tickets that are neither sold nor held can be withdrawn.
+                int inPool = stock.get() - held.get();
+                int unsold = issued.get() - sold() - held.get();
+                int excess = Math.max(Math.min(stock.get() - poolLimit, inPool),
+                        Math.min(issued.get() - maxEventTickets, unsold));
+                if (excess <= 0) {
+                    break;
+                }
+                int claimed = claim(excess, false, false);
+                if (claimed > 0) {
+                    for (int i = 0; i < claimed; i++) {
+                        withdrawn.add(take());
+                    }
+                    stock.addAndGet(-claimed);
+                    issued.addAndGet(-claimed);
+                } else if (System.nanoTime() - giveUpAt > 0) {
+                    // Tickets still arriving after the wait drain back under the limits through sales.
+                    break;
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            return withdrawn;
+        } finally {
+            gate.exit(stripe);
+        }
+    }
+
+    @Override
+    public void reset() {
+        gate.close();
+        try {
+            clear();
+        } finally {
+            gate.open();
+        }
+    }
+
+    @Override
+    public void restore(List<Ticket> tickets, int ticketsSold) {
+        if (tickets.size() > mask + 1) {
+            // Dropping the excess would lose tickets that were on sale before the restart.
+            throw new IllegalStateException("Cannot restore " + tickets.size() + " tickets into a ring of "
+                    + (mask + 1) + " slots; raise ticket.pool.ring-capacity.");
+        }
+        gate.close();
+        try {
+            clear();
+            int published = 0;
+            for (Ticket ticket : tickets) {
+                offer(ticket);
+                published++;
+            }
+            stock.set(published);
+            issued.set(published + ticketsSold);
+            ledger.set(PoolCounts.pack(published, ticketsSold));
+            changes.incrementAndGet();
+        } finally {
+            gate.open();
+        }
+    }
+
+    @Override
+    public long contention() {
+        return contention.sum();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * Empties the ring and zeroes the counters. Callers close the gate
+     * first, so no ticket can be published or claimed meanwhile.
+     */
+    private void clear() {
+        while (dequeue() != null) {
+            stock.decrementAndGet();
+        }
+        ledger.set(0);
+        changes.incrementAndGet();
+        held.set(0);
+        stock.set(0);
+        issued.set(0);
+    }
+
+    /**
+     * Caps a pool limit at the ring size, since no more tickets fit.
+     */
+    private int poolLimit(int maxPoolTickets) {
+        return Math.min(maxPoolTickets, mask + 1);
+    }
+
+    /**
+     * Increments the counter unless it has already reached its limit.
+     */
+    private boolean reserve(AtomicInteger counter, boolean eventLimit) {
+        return reserveUpTo(counter, eventLimit, 1, true) == 1;
+    }
+
+    /**
+     * Adds up to {@code wanted} to the counter without passing the event
+     * or pool limit. A reservation made while the limits changed is undone
+     * and retried against the new ones.
+     *
+     * @return the amount added; either {@code wanted} or 0 when all-or-nothing.
+     */
+    private int reserveUpTo(AtomicInteger counter, boolean eventLimit, int wanted, boolean allOrNothing) {
+        while (true) {
+            long currentLimits = limits.get();
+            int limit = eventLimit ? PoolCounts.high(currentLimits) : PoolCounts.low(currentLimits);
+            int current = counter.get();
+            int granted = Math.min(wanted, limit - current);
+            if (granted <= 0 || (allOrNothing && granted < wanted)) {
+                return 0;
+            }
+            if (counter.compareAndSet(current, current + granted)) {
+                if (limits.get() == currentLimits) {
+                    return granted;
+                }
+                counter.addAndGet(-granted);
+            }
+            contention.increment();
+        }
+    }
+
+    /**
+     * Claims up to {@code wanted} published tickets without going below
+     * zero, counting them as sold in the same step if requested.
+     *
+     * @return the number claimed; either {@code wanted} or 0 when all-or-nothing.
+     */
+    private int claim(int wanted, boolean allOrNothing, boolean sell) {
+        while (true) {
+            long current = ledger.get();
+            int granted = Math.min(wanted, PoolCounts.low(current));
+            if (granted <= 0 || (allOrNothing && granted < wanted)) {
+                return 0;
+            }
+            long next = current - granted + (sell ? (long) granted << 32 : 0);
+            if (ledger.compareAndSet(current, next)) {
+                changes.incrementAndGet();
+                return granted;
+            }
+            contention.increment();
+        }
+    }
+
+    /**
+     * Dequeues a ticket the caller has already claimed. The claim guarantees
+     * one is published, but a producer ahead of it in the ring may still be
+     * writing its slot, so this spins briefly in that case.
+     */
+    private Ticket take() {
+        Ticket ticket;
+        while ((ticket = dequeue()) == null) {
+            contention.increment();
+            Thread.onSpinWait();
+        }
+        return ticket;
+    }
+
+    private boolean offer(Ticket ticket) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.setPlain(index, ticket);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                contention.increment();
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private Ticket dequeue() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.getAcquire(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    Ticket ticket = slots.getPlain(index);
+                    slots.setPlain(index, null);
+                    sequences.setRelease(index, position + mask + 1);
+                    return ticket;
+                }
+                contention.increment();
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+}
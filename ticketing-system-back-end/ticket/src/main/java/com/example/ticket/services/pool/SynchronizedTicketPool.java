@@ -0,0 +1,302 @@
+package com.example.ticket.services.pool;
+
+import com.example.ticket.models.Ticket;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single lock engine. Every operation takes the same lock, which keeps
+ * the limits trivially consistent but serializes all vendors and customers.
+ * Kept as the reference implementation for throughput comparisons.
+ *
+ * <p>The lock is tried before blocking so that contended acquisitions can
+ * be counted; an uncontended acquisition costs the same as a monitor.</p>
+ *
+ * <p>Every change republishes the counts and limits as packed volatile
+ * words, and then bumps a change counter, before the lock is released,
+ * so status reads never take the lock.</p>
+ */
+public class SynchronizedTicketPool implements TicketPool {
+    public static final String NAME = "synchronized";
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder contention = new LongAdder();
+    private final Deque<Ticket> tickets = new ArrayDeque<>();
+    private int maxPoolTickets = 200;
+    private int maxEventTickets = 1000;
+    private volatile int ticketsHeld = 0;
+    private int ticketsSold = 0;
+    /** Available count in the low half, sold count in the high half. */
+    private volatile long ledger;
+    /** Pool limit in the low half, event limit in the high half. */
+    private volatile long limits = PoolCounts.pack(maxPoolTickets, maxEventTickets);
+    /** Bumped, with the lock held, after every change to the ledger or the limits. */
+    private volatile long changes;
+
+    @Override
+    public AddResult add(Ticket ticket) {
+        lock();
+        try {
+            if (tickets.size() + ticketsHeld + ticketsSold >= maxEventTickets) {
+                return AddResult.EVENT_LIMIT_REACHED;
+            }
+            if (tickets.size() + ticketsHeld >= maxPoolTickets) {
+                return AddResult.POOL_FULL;
+            }
+            tickets.addLast(ticket);
+            publish();
+            return AddResult.ADDED;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Ticket poll() {
+        lock();
+        try {
+            Ticket ticket = tickets.pollFirst();
+            if (ticket != null) {
+                ticketsSold++;
+                publish();
+            }
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int addAll(List<Ticket> batch, boolean allOrNothing) {
+        lock();
+        try {
+            int stock = tickets.size() + ticketsHeld;
+            int room = Math.min(maxEventTickets - stock - ticketsSold, maxPoolTickets - stock);
+            int count = Math.max(0, Math.min(room, batch.size()));
+            if (allOrNothing && count < batch.size()) {
+                return 0;
+            }
+            for (int i = 0; i < count; i++) {
+                tickets.addLast(batch.get(i));
+            }
+            publish();
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Ticket> pollBatch(int quantity, boolean allOrNothing) {
+        lock();
+        try {
+            int count = Math.min(quantity, tickets.size());
+            if (count <= 0 || (allOrNothing && count < quantity)) {
+                return List.of();
+            }
+            List<Ticket> sold = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                sold.add(tickets.pollFirst());
+            }
+            ticketsSold += count;
+            publish();
+            return sold;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Ticket> hold(int quantity, boolean allOrNothing) {
+        lock();
+        try {
+            int count = Math.min(quantity, tickets.size());
+            if (count <= 0 || (allOrNothing && count < quantity)) {
+                return List.of();
+            }
+            List<Ticket> held = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                held.add(tickets.pollFirst());
+            }
+            ticketsHeld += count;
+            publish();
+            return held;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void confirmHeld(int count) {
+        lock();
+        try {
+            ticketsHeld -= count;
+            ticketsSold += count;
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void returnHeld(List<Ticket> held) {
+        lock();
+        try {
+            tickets.addAll(held);
+            ticketsHeld -= held.size();
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int held() {
+        return ticketsHeld;
+    }
+
+    @Override
+    public int available() {
+        return PoolCounts.low(ledger);
+    }
+
+    @Override
+    public int sold() {
+        return PoolCounts.high(ledger);
+    }
+
+    @Override
+    public PoolCounts counts() {
+        while (true) {
+            long version = changes;
+            long before = limits;
+            long counts = ledger;
+            if (limits == before && changes == version) {
+                return PoolCounts.of(version, counts, before);
+            }
+        }
+    }
+
+    @Override
+    public int getMaxPoolTickets() {
+        return PoolCounts.low(limits);
+    }
+
+    @Override
+    public void setMaxPoolTickets(int maxPoolTickets) {
+        lock();
+        try {
+            this.maxPoolTickets = maxPoolTickets;
+            publishLimits();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getMaxEventTickets() {
+        return PoolCounts.high(limits);
+    }
+
+    @Override
+    public void setMaxEventTickets(int maxEventTickets) {
+        lock();
+        try {
+            this.maxEventTickets = maxEventTickets;
+            publishLimits();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Ticket> resize(int maxPoolTickets, int maxEventTickets) {
+        lock();
+        try {
+            this.maxPoolTickets = maxPoolTickets;
+            this.maxEventTickets = maxEventTickets;
+            publishLimits();
+            int inPool = tickets.size() + ticketsHeld;
+            int excess = Math.min(tickets.size(),
+                    Math.max(inPool - maxPoolTickets, inPool + ticketsSold - maxEventTickets));
+            if (excess <= 0) {
+                return List.of();
+            }
+            List<Ticket> withdrawn = new ArrayList<>(excess);
+            for (int i = 0; i < excess; i++) {
+                withdrawn.add(tickets.pollFirst());
+            }
+            publish();
+            return withdrawn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void reset() {
+        lock();
+        try {
+            tickets.clear();
+            ticketsHeld = 0;
+            ticketsSold = 0;
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void restore(List<Ticket> recovered, int ticketsSold) {
+        lock();
+        try {
+            tickets.clear();
+            tickets.addAll(recovered);
+            ticketsHeld = 0;
+            this.ticketsSold = ticketsSold;
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long contention() {
+        return contention.sum();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    /**
+     * Publishes the counts for lock-free readers. Called with the lock held
+     * after every change.
+     */
+    private void publish() {
+        ledger = PoolCounts.pack(tickets.size(), ticketsSold);
+        changes++;
+    }
+
+    /**
+     * Publishes the limits for lock-free readers. Called with the lock held
+     * after either limit changes.
+     */
+    private void publishLimits() {
+        limits = PoolCounts.pack(maxPoolTickets, maxEventTickets);
+        changes++;
+    }
+
+    private void lock() {
+        if (!lock.tryLock()) {
+            contention.increment();
+            lock.lock();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.ticket.services.pool;
+
+import com.example.ticket.models.Ticket;
+
+import java.util.List;
+
+/**
+ * Storage and admission engine behind {@link com.example.ticket.services.TicketPoolService}.
+ * An engine owns the queued tickets and the counters used to enforce the
+ * maximum pool and event ticket limits. Implementations must be safe for
+ * any number of concurrent producers and consumers.
+ *
+ * <p>Status reads ({@link #available}, {@link #sold}, {@link #held},
+ * {@link #counts} and the limit getters) may be polled far more often than
+ * tickets are sold, so engines should answer them without taking the
+ * lock the sale path uses.</p>
+ */
+public interface TicketPool {
+
+    /**
+     * Outcome of an attempt to add a ticket to the pool.
+     */
+    enum AddResult {
+        ADDED,
+        POOL_FULL,
+        EVENT_LIMIT_REACHED
+    }
+
+    /**
+     * Adds a ticket if both the pool and event limits allow it.
+     *
+     * @param ticket the ticket to add.
+     * @return the outcome of the attempt.
+     */
+    AddResult add(Ticket ticket);
+
+    /**
+     * Removes the oldest ticket from the pool and counts it as sold.
+     *
+     * @return the ticket sold, or null if the pool is empty.
+     */
+    Ticket poll();
+
+    /**
+     * Adds a batch of tickets with a single capacity reservation. Tickets
+     * are taken from the front of the list.
+     *
+     * @param tickets      the tickets to add.
+     * @param allOrNothing whether to add nothing unless every ticket fits.
+     * @return the number of tickets added.
+     */
+    int addAll(List<Ticket> tickets, boolean allOrNothing);
+
+    /**
+     * Removes up to the given number of tickets and counts them as sold,
+     * reserving the whole quantity in one step.
+     *
+     * @param quantity     the number of tickets wanted.
+     * @param allOrNothing whether to take nothing unless the full quantity is available.
+     * @return the tickets sold, possibly empty.
+     */
+    List<Ticket> pollBatch(int quantity, boolean allOrNothing);
+
+    /**
+     * Removes up to the given number of tickets without selling them. Held
+     * tickets keep their place in the pool's capacity until they are
+     * confirmed with {@link #confirmHeld} or put back with {@link #returnHeld}.
+     *
+     * @param quantity     the number of tickets wanted.
+     * @param allOrNothing whether to hold nothing unless the full quantity is available.
+     * @return the tickets held, possibly empty.
+     */
+    List<Ticket> hold(int quantity, boolean allOrNothing);
+
+    /**
+     * Counts held tickets as sold, freeing their pool capacity.
+     *
+     * @param count the number of held tickets sold.
+     */
+    void confirmHeld(int count);
+
+    /**
+     * Puts held tickets back at the end of the pool so they can be bought again.
+     *
+     * @param tickets the held tickets to return.
+     */
+    void returnHeld(List<Ticket> tickets);
+
+    /**
+     * Retrieves the number of tickets currently held.
+     *
+     * @return the number of held tickets.
+     */
+    int held();
+
+    /**
+     * Retrieves the number of tickets currently in the pool, not counting held tickets.
+     *
+     * @return the number of available tickets.
+     */
+    int available();
+
+    /**
+     * Retrieves the number of tickets sold since the last reset.
+     *
+     * @return the number of tickets sold.
+     */
+    int sold();
+
+    /**
+     * Reads the available and sold counts and both limits as one
+     * consistent view. The built-in engines answer in O(1) without
+     * blocking sales, numbered by the changes they have made so far; this
+     * default reads each value separately, so a concurrent sale may show
+     * up in one count but not the other, and reports version 0.
+     *
+     * @return the counts and limits.
+     */
+    default PoolCounts counts() {
+        return new PoolCounts(0, available(), sold(), getMaxPoolTickets(), getMaxEventTickets());
+    }
+
+    /**
+     * Retrieves the maximum number of tickets allowed in the pool.
+     *
+     * @return the maximum number of pool tickets.
+     */
+    int getMaxPoolTickets();
+
+    /**
+     * Sets the maximum number of tickets allowed in the pool. Only new
+     * additions are checked against it; use {@link #resize} to also bring
+     * the pool back under a lowered limit. Engines with a fixed capacity
+     * cap the limit at it, and {@link #getMaxPoolTickets} reports the
+     * limit in force.
+     *
+     * @param maxPoolTickets the new maximum number of pool tickets.
+     */
+    void setMaxPoolTickets(int maxPoolTickets);
+
+    /**
+     * Retrieves the maximum number of tickets allowed for the event.
+     *
+     * @return the maximum number of event tickets.
+     */
+    int getMaxEventTickets();
+
+    /**
+     * Sets the maximum number of tickets allowed for the event. Only new
+     * additions are checked against it; use {@link #resize} to also bring
+     * the pool back under a lowered limit.
+     *
+     * @param maxEventTickets the new maximum number of event tickets.
+     */
+    void setMaxEventTickets(int maxEventTickets);
+
+    /**
+     * Replaces both limits in one step and withdraws unsold tickets, oldest
+     * first, until the pool fits them again. Held and sold tickets are never
+     * withdrawn, so a pool may stay over a lowered limit until they drain;
+     * it admits nothing new meanwhile. Every addition that completes after
+     * this returns has been checked against the new limits.
+     *
+     * <p>The built-in engines resize without stopping sales. This default
+     * sets the limits one after the other and withdraws nothing. The pool
+     * limit is capped as by {@link #setMaxPoolTickets}.</p>
+     *
+     * @param maxPoolTickets  the new maximum number of pool tickets.
+     * @param maxEventTickets the new maximum number of event tickets.
+     * @return the tickets withdrawn from sale, possibly empty.
+     */
+    default List<Ticket> resize(int maxPoolTickets, int maxEventTickets) {
+        setMaxPoolTickets(maxPoolTickets);
+        setMaxEventTickets(maxEventTickets);
+        return List.of();
+    }
+
+    /**
+     * Clears all queued tickets, holds and counters. The built-in engines
+     * let operations in flight finish and hold back new ones until the reset
+     * is done, so nothing added or sold concurrently is half counted.
+     */
+    void reset();
+
+    /**
+     * Replaces the pool contents with state recovered after a restart. The
+     * limits are not re-checked, since the state was valid when recorded.
+     *
+     * @param tickets     the tickets to place in the pool, oldest first.
+     * @param ticketsSold the number of tickets already sold.
+     * @throws IllegalStateException if the engine cannot physically hold every ticket.
+     */
+    void restore(List<Ticket> tickets, int ticketsSold);
+
+    /**
+     * Retrieves how often operations found the engine busy: failed CAS
+     * attempts for lock-free engines, contended lock acquisitions otherwise.
+     *
+     * @return the contention count since the engine was created.
+     */
+    default long contention() {
+        return 0;
+    }
+
+    /**
+     * Retrieves the engine name used for selection in configuration.
+     *
+     * @return the engine name.
+     */
+    String name();
+}
@@ -0,0 +1,68 @@
+package com.example.ticket.services.pool;
+
+/**
+ * Factory for the available {@link TicketPool} engines.
+ */
+public final class TicketPools {
+    public static final String DEFAULT_ENGINE = SynchronizedTicketPool.NAME;
+    public static final int DEFAULT_RING_CAPACITY = 65536;
+
+    private TicketPools() {
+    }
+
+    /**
+     * Creates an engine by name. Besides the built-in names, the fully
+     * qualified name of any {@link TicketPool} implementation is accepted;
+     * it is constructed with the ring capacity if it has an {@code int}
+     * constructor, otherwise with its no-argument constructor. This lets
+     * benchmarks and experiments plug in alternative engines.
+     *
+     * @param engine       the engine name, "synchronized", "ring-buffer" or a class name.
+     * @param ringCapacity the physical capacity used by the ring buffer engine.
+     * @return a new, empty engine.
+     */
+    public static TicketPool create(String engine, int ringCapacity) {
+        if (engine == null || engine.isBlank()) {
+            engine = DEFAULT_ENGINE;
+        }
+        switch (engine.trim().toLowerCase()) {
+            case SynchronizedTicketPool.NAME:
+                return new SynchronizedTicketPool();
+            case RingBufferTicketPool.NAME:
+                return new RingBufferTicketPool(ringCapacity);
+            default:
+                return instantiate(engine.trim(), ringCapacity);
+        }
+    }
+
+    /**
+     * Creates an engine by name using the default ring capacity.
+     *
+     * @param engine the engine name.
+     * @return a new, empty engine.
+     */
+    public static TicketPool create(String engine) {
+        return create(engine, DEFAULT_RING_CAPACITY);
+    }
+
+    private static TicketPool instantiate(String className, int capacity) {
+        Class<?> type;
+        try {
+            type = Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Unknown ticket pool engine: " + className);
+        }
+        if (!TicketPool.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException(className + " does not implement " + TicketPool.class.getName());
+        }
+        try {
+            try {
+                return (TicketPool) type.getConstructor(int.class).newInstance(capacity);
+            } catch (NoSuchMethodException e) {
+                return (TicketPool) type.getConstructor().newInstance();
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot create ticket pool engine " + className, e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ticket.services.purchase;
+
+import com.example.ticket.models.Ticket;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A customer's purchase waiting for stock without holding a thread. It
+ * completes with the tickets bought, with an empty list if the pool is
+ * reset while it waits, or exceptionally if the sale cannot be recorded. Cancelling it withdraws it from the queue; serving
+ * and cancelling race on a single claim, so a cancelled purchase never
+ * buys anything and a served one can no longer be cancelled.
+ */
+public class PendingPurchase extends CompletableFuture<List<Ticket>> {
+    private final int customerId;
+    private final int quantity;
+    private final boolean allOrNothing;
+    private final long createdNanos = System.nanoTime();
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private final PurchaseQueue queue;
+
+    /**
+     * Creates a purchase that has not been queued yet.
+     *
+     * @param customerId   the ID of the customer buying.
+     * @param quantity     the number of tickets wanted.
+     * @param allOrNothing whether to wait for the full quantity rather than take what there is.
+     * @param queue        the queue the purchase will wait in, or null if it completes at once.
+     */
+    PendingPurchase(int customerId, int quantity, boolean allOrNothing, PurchaseQueue queue) {
+        this.customerId = customerId;
+        this.quantity = quantity;
+        this.allOrNothing = allOrNothing;
+        this.queue = queue;
+    }
+
+    /**
+     * Withdraws the purchase unless it has already been served.
+     *
+     * @param mayInterruptIfRunning ignored; no thread runs a pending purchase.
+     * @return true if the purchase was withdrawn.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!claim()) {
+            return false;
+        }
+        super.cancel(false);
+        if (queue != null) {
+            queue.cancelled();
+        }
+        return true;
+    }
+
+    public int getCustomerId() {
+        return customerId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public boolean isAllOrNothing() {
+        return allOrNothing;
+    }
+
+    /**
+     * Retrieves how long the purchase has existed.
+     *
+     * @return the time since the purchase was made, in nanoseconds.
+     */
+    public long getWaitedNanos() {
+        return System.nanoTime() - createdNanos;
+    }
+
+    /**
+     * Takes the right to complete the purchase.
+     *
+     * @return true for the first caller only.
+     */
+    boolean claim() {
+        return !claimed.get() && claimed.compareAndSet(false, true);
+    }
+}
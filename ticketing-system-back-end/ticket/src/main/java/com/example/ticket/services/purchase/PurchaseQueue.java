@@ -0,0 +1,271 @@
+package com.example.ticket.services.purchase;
+
+import com.example.ticket.models.Ticket;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded FIFO of purchases waiting for stock. A waiting purchase costs one
+ * small object rather than a parked thread, so tens of thousands of HTTP
+ * clients can wait for a release at once.
+ *
+ * <p>Whoever adds tickets calls {@link #serve}; one caller at a time drains
+ * the queue from the head, the others only leave a note for it to go round
+ * again. Purchases are served strictly in order: a head that cannot be
+ * filled yet blocks the ones behind it, so a large all-or-nothing order is
+ * not starved by smaller ones. Tickets are held in the pool while the head
+ * is claimed, so a purchase cancelled in that window gives them straight
+ * back instead of selling them to nobody.</p>
+ *
+ * <p>Only the draining caller ever removes purchases, so the queue needs
+ * no lock. Cancelled purchases are dropped when they reach the head, or
+ * swept out in one pass once they seem to make up half the queue or it
+ * is full.</p>
+ */
+public class PurchaseQueue {
+    public static final int DEFAULT_CAPACITY = 50_000;
+
+    /**
+     * Moves tickets between the pool and the purchases being served.
+     */
+    public interface Seller {
+
+        /**
+         * Takes tickets out of the pool without selling them.
+         *
+         * @param quantity     the number of tickets wanted.
+         * @param allOrNothing whether to take nothing unless the full quantity is available.
+         * @return the tickets taken, possibly empty.
+         */
+        List<Ticket> hold(int quantity, boolean allOrNothing);
+
+        /**
+         * Sells held tickets to a purchase, just before it completes.
+         *
+         * @param purchase the purchase being served.
+         * @param tickets  the tickets held for it.
+         */
+        void sell(PendingPurchase purchase, List<Ticket> tickets);
+
+        /**
+         * Puts held tickets back on sale.
+         *
+         * @param tickets the tickets held for a purchase that was cancelled meanwhile.
+         */
+        void giveBack(List<Ticket> tickets);
+    }
+
+    private final ConcurrentLinkedQueue<PendingPurchase> queue = new ConcurrentLinkedQueue<>();
+    /** Purchases in the queue, including cancelled ones not yet removed. */
+    private final AtomicInteger queued = new AtomicInteger();
+    /** Cancellations since the last sweep; a hint for when sweeping pays off. */
+    private final AtomicInteger cancelledSinceSweep = new AtomicInteger();
+    /** Serve requests not yet handled; non-zero while someone is draining. */
+    private final AtomicInteger serveRequests = new AtomicInteger();
+    private volatile boolean sweepRequested;
+    private volatile boolean clearRequested;
+    private final Seller seller;
+    private volatile int capacity;
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity the maximum number of waiting purchases.
+     * @param seller   the pool operations used to serve purchases.
+     */
+    public PurchaseQueue(int capacity, Seller seller) {
+        this.capacity = requirePositive(capacity);
+        this.seller = seller;
+    }
+
+    /**
+     * Buys tickets at once if nobody is queued and the pool can fill the
+     * order; otherwise queues the purchase behind those already waiting.
+     *
+     * @param customerId   the ID of the customer buying.
+     * @param quantity     the number of tickets wanted.
+     * @param allOrNothing whether to wait for the full quantity rather than take what there is.
+     * @return the purchase, already complete if it was filled at once, or null if the queue is full.
+     */
+    public PendingPurchase submit(int customerId, int quantity, boolean allOrNothing) {
+        if (queued.get() == 0) {
+            List<Ticket> tickets = seller.hold(quantity, allOrNothing);
+            if (!tickets.isEmpty()) {
+                PendingPurchase purchase = new PendingPurchase(customerId, quantity, allOrNothing, null);
+                purchase.claim();
+                sell(purchase, tickets);
+                return purchase;
+            }
+        }
+        if (queued.get() >= capacity) {
+            if (cancelledSinceSweep.get() == 0) {
+                return null;
+            }
+            sweepRequested = true;
+            serve();
+            if (queued.get() >= capacity) {
+                return null;
+            }
+        }
+        PendingPurchase purchase = new PendingPurchase(customerId, quantity, allOrNothing, this);
+        queued.incrementAndGet();
+        queue.offer(purchase);
+        // Stock may have arrived between the attempt above and the offer.
+        serve();
+        return purchase;
+    }
+
+    /**
+     * Checks whether any purchase is queued.
+     *
+     * @return true if new purchases must wait their turn.
+     */
+    public boolean hasWaiting() {
+        return queued.get() > 0;
+    }
+
+    /**
+     * Serves waiting purchases from the head for as long as the pool can
+     * fill them. Cheap when nothing is queued.
+     */
+    public void serve() {
+        if (queued.get() == 0 || serveRequests.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        try {
+            do {
+                if (clearRequested) {
+                    clearRequested = false;
+                    removeAll();
+                }
+                if (sweepRequested) {
+                    sweepRequested = false;
+                    sweep();
+                }
+                drain();
+                requests = serveRequests.addAndGet(-requests);
+            } while (requests != 0);
+        } finally {
+            if (requests != 0) {
+                // A pass failed; hand draining to the next caller rather than leave the queue stuck.
+                serveRequests.set(0);
+            }
+        }
+    }
+
+    /**
+     * Completes every waiting purchase with no tickets, for a pool reset.
+     * If another thread is serving the queue, it does the clearing.
+     */
+    public void clear() {
+        clearRequested = true;
+        serve();
+    }
+
+    /**
+     * Retrieves the number of queued purchases.
+     *
+     * @return the number of waiting purchases, including cancelled ones not yet removed.
+     */
+    public int getWaiting() {
+        return queued.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Sets how many purchases may wait at once. Purchases already waiting
+     * are kept.
+     *
+     * @param capacity the maximum number of waiting purchases.
+     */
+    public void setCapacity(int capacity) {
+        this.capacity = requirePositive(capacity);
+    }
+
+    private static int requirePositive(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be a positive integer.");
+        }
+        return capacity;
+    }
+
+    /**
+     * Called by a purchase that was cancelled while queued.
+     */
+    void cancelled() {
+        int cancelled = cancelledSinceSweep.incrementAndGet();
+        if (cancelled > 64 && cancelled * 2 > queued.get()) {
+            sweepRequested = true;
+            serve();
+        }
+    }
+
+    private void drain() {
+        PendingPurchase head;
+        while ((head = queue.peek()) != null) {
+            if (head.isDone()) {
+                removeHead();
+                continue;
+            }
+            List<Ticket> tickets = seller.hold(head.getQuantity(), head.isAllOrNothing());
+            if (tickets.isEmpty()) {
+                return;
+            }
+            removeHead();
+            if (head.claim()) {
+                sell(head, tickets);
+            } else {
+                seller.giveBack(tickets);
+            }
+        }
+    }
+
+    /**
+     * Sells held tickets to a claimed purchase and completes it. If the
+     * sale fails, the purchase fails with it, since nobody else can
+     * complete a claimed purchase.
+     */
+    private void sell(PendingPurchase purchase, List<Ticket> tickets) {
+        try {
+            seller.sell(purchase, tickets);
+        } catch (RuntimeException e) {
+            purchase.completeExceptionally(e);
+            return;
+        }
+        purchase.complete(tickets);
+    }
+
+    private void removeHead() {
+        queue.poll();
+        queued.decrementAndGet();
+    }
+
+    private void removeAll() {
+        PendingPurchase purchase;
+        while ((purchase = queue.poll()) != null) {
+            queued.decrementAndGet();
+            if (purchase.claim()) {
+                purchase.complete(List.of());
+            }
+        }
+    }
+
+    private void sweep() {
+        cancelledSinceSweep.set(0);
+        int[] removed = new int[1];
+        queue.removeIf(purchase -> {
+            if (purchase.isCancelled()) {
+                removed[0]++;
+                return true;
+            }
+            return false;
+        });
+        queued.addAndGet(-removed[0]);
+    }
+}
@@ -0,0 +1,477 @@
+package com.example.ticket.services.seating;
+
+import com.example.ticket.models.Seat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seat-level inventory for one event. Each section keeps one bit per seat
+ * in an {@link AtomicLongArray}, with every row starting on a word boundary
+ * so that a run of adjacent seats never crosses rows. Each row is padded to
+ * whole 64-bit words: 100,000 seats in rows of 64 take about 13 KB of
+ * bitmap, while 1,000 rows of 100 seats take 16 KB.
+ *
+ * <p>Searches read the bitmap without locking and skip rows and sections
+ * whose free counts are too low. Claims set the bits of the chosen run
+ * with CAS one word at a time, always in ascending word order, rolling back
+ * if another buyer took one of the seats first, and then search again.
+ * Because every claimer takes words in the same order, of two claimers
+ * that collide on a word the one that reached it first can never be
+ * blocked by the other further along, so contended claims cannot all roll
+ * back and buyers always make progress.</p>
+ *
+ * <p>Sections are independent partitions. Large multi-section maps search
+ * them in parallel while fewer searches are running than there are idle
+ * cores; under heavy load the pickers already keep every core busy, so each
+ * search runs on its caller's thread and skips rows behind its best find.</p>
+ *
+ * <p>The best seats are those nearest the front row, then nearest the
+ * middle of the row, then in the earliest section.</p>
+ */
+public class SeatMap {
+    /** Maps with at least this many seats and several sections may be searched in parallel. */
+    static final int PARALLEL_SEARCH_SEATS = 16_384;
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    private final Section[] sections;
+    private final Map<String, Section> sectionsByName = new LinkedHashMap<>();
+    private final int capacity;
+    private final AtomicInteger available = new AtomicInteger();
+    private final AtomicInteger activeSearches = new AtomicInteger();
+
+    /**
+     * Shape of one section.
+     *
+     * @param name        the section name.
+     * @param rows        the number of rows.
+     * @param seatsPerRow the number of seats in each row.
+     */
+    public record SectionLayout(String name, int rows, int seatsPerRow) {
+
+        /**
+         * Parses a layout written as {@code name:rows:seatsPerRow}.
+         *
+         * @param spec the layout text.
+         * @return the layout.
+         * @throws IllegalArgumentException if the text is malformed.
+         */
+        public static SectionLayout parse(String spec) {
+            String[] parts = spec.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Section must be written as name:rows:seatsPerRow, got " + spec);
+            }
+            try {
+                return new SectionLayout(parts[0].trim(), Integer.parseInt(parts[1].trim()),
+                        Integer.parseInt(parts[2].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Section rows and seats must be integers, got " + spec);
+            }
+        }
+    }
+
+    /**
+     * Availability of one section.
+     *
+     * @param name        the section name.
+     * @param rows        the number of rows.
+     * @param seatsPerRow the number of seats in each row.
+     * @param capacity    the number of seats.
+     * @param available   the number of seats not yet claimed.
+     */
+    public record SectionStatus(String name, int rows, int seatsPerRow, int capacity, int available) {
+    }
+
+    /**
+     * Creates a seat map with every seat available.
+     *
+     * @param layouts the sections, in order of preference.
+     * @throws IllegalArgumentException if the layout is empty or invalid.
+     */
+    public SeatMap(List<SectionLayout> layouts) {
+        if (layouts.isEmpty()) {
+            throw new IllegalArgumentException("A seat map needs at least one section.");
+        }
+        sections = new Section[layouts.size()];
+        long seats = 0;
+        for (int i = 0; i < sections.length; i++) {
+            SectionLayout layout = layouts.get(i);
+            if (layout.name().isEmpty() || layout.rows() <= 0 || layout.seatsPerRow() <= 0) {
+                throw new IllegalArgumentException("Section name, rows and seats per row must be set and positive.");
+            }
+            if (seats + (long) layout.rows() * layout.seatsPerRow() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Seat map is too large.");
+            }
+            sections[i] = new Section(i, layout, (int) seats);
+            if (sectionsByName.putIfAbsent(layout.name(), sections[i]) != null) {
+                throw new IllegalArgumentException("Duplicate section " + layout.name());
+            }
+            seats += sections[i].capacity;
+        }
+        capacity = (int) seats;
+        available.set(capacity);
+    }
+
+    /**
+     * Finds the best run of adjacent available seats without claiming it.
+     *
+     * @param quantity the number of adjacent seats wanted.
+     * @param section  the section to search, or null for any section.
+     * @return the seats, or an empty list if no run is long enough.
+     */
+    public List<Seat> findBestAvailable(int quantity, String section) {
+        Candidate candidate = search(quantity, section);
+        return candidate == null ? List.of() : candidate.seats();
+    }
+
+    /**
+     * Claims the best run of adjacent available seats.
+     *
+     * @param quantity the number of adjacent seats wanted.
+     * @param section  the section to search, or null for any section.
+     * @return the claimed seats, or an empty list if no run is long enough.
+     */
+    public List<Seat> claimBestAvailable(int quantity, String section) {
+        Candidate candidate;
+        while ((candidate = search(quantity, section)) != null) {
+            if (candidate.section.claim(candidate.row, candidate.start, quantity)) {
+                available.addAndGet(-quantity);
+                return candidate.seats();
+            }
+        }
+        return List.of();
+    }
+
+    /**
+     * Returns claimed seats to the map.
+     *
+     * @param seatIds the IDs of the seats to release.
+     * @return the number of seats that were claimed and are now available.
+     */
+    public int release(int... seatIds) {
+        int released = 0;
+        for (int seatId : seatIds) {
+            Section section = sectionOf(seatId);
+            if (section != null && section.release(seatId - section.firstSeatId)) {
+                released++;
+            }
+        }
+        available.addAndGet(released);
+        return released;
+    }
+
+    /**
+     * Looks up a seat by ID.
+     *
+     * @param seatId the seat ID.
+     * @return the seat, or null if the ID is outside the map.
+     */
+    public Seat seat(int seatId) {
+        Section section = sectionOf(seatId);
+        return section == null ? null : section.seat(seatId - section.firstSeatId);
+    }
+
+    /**
+     * Checks whether a seat has been claimed.
+     *
+     * @param seatId the seat ID.
+     * @return true if the seat is claimed.
+     */
+    public boolean isClaimed(int seatId) {
+        Section section = sectionOf(seatId);
+        return section != null && section.isTaken(seatId - section.firstSeatId);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getAvailable() {
+        return available.get();
+    }
+
+    /**
+     * Retrieves the availability of every section.
+     *
+     * @return one entry per section, in order of preference.
+     */
+    public List<SectionStatus> getSections() {
+        List<SectionStatus> statuses = new ArrayList<>(sections.length);
+        for (Section section : sections) {
+            statuses.add(new SectionStatus(section.name, section.rows, section.seatsPerRow,
+                    section.capacity, section.free.get()));
+        }
+        return statuses;
+    }
+
+    private Candidate search(int quantity, String sectionName) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be a positive integer.");
+        }
+        if (sectionName != null) {
+            Section section = sectionsByName.get(sectionName);
+            if (section == null) {
+                throw new IllegalArgumentException("Unknown section " + sectionName);
+            }
+            return section.search(quantity, Integer.MAX_VALUE);
+        }
+        if (available.get() < quantity) {
+            return null;
+        }
+        boolean parallel = sections.length > 1 && capacity >= PARALLEL_SEARCH_SEATS;
+        if (parallel && activeSearches.incrementAndGet() <= PROCESSORS / 2) {
+            try {
+                return Arrays.stream(sections).parallel()
+                        .map(section -> section.search(quantity, Integer.MAX_VALUE))
+                        .filter(Objects::nonNull)
+                        .min(Candidate.BEST_FIRST)
+                        .orElse(null);
+            } finally {
+                activeSearches.decrementAndGet();
+            }
+        }
+        try {
+            Candidate best = null;
+            for (Section section : sections) {
+                Candidate candidate = section.search(quantity, best == null ? Integer.MAX_VALUE : best.row);
+                if (candidate != null && (best == null || Candidate.BEST_FIRST.compare(candidate, best) < 0)) {
+                    best = candidate;
+                }
+            }
+            return best;
+        } finally {
+            if (parallel) {
+                activeSearches.decrementAndGet();
+            }
+        }
+    }
+
+    private Section sectionOf(int seatId) {
+        if (seatId < 0 || seatId >= capacity) {
+            return null;
+        }
+        int low = 0;
+        int high = sections.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (sections[middle].firstSeatId <= seatId) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return sections[low];
+    }
+
+    /**
+     * A run of free seats found by a search. The distance is measured in
+     * half seats so that even and odd run lengths compare exactly.
+     */
+    private record Candidate(Section section, int row, int start, int quantity, int centreDistance) {
+        static final Comparator<Candidate> BEST_FIRST = Comparator.comparingInt(Candidate::row)
+                .thenComparingInt(Candidate::centreDistance)
+                .thenComparingInt(candidate -> candidate.section.index);
+
+        List<Seat> seats() {
+            List<Seat> seats = new ArrayList<>(quantity);
+            int first = row * section.seatsPerRow + start;
+            for (int i = 0; i < quantity; i++) {
+                seats.add(section.seat(first + i));
+            }
+            return seats;
+        }
+    }
+
+    private static final class Section {
+        final int index;
+        final String name;
+        final int rows;
+        final int seatsPerRow;
+        final int wordsPerRow;
+        final int capacity;
+        final int firstSeatId;
+        /** One bit per seat, set when claimed. Bits past the end of a row are always set. */
+        final AtomicLongArray taken;
+        final AtomicIntegerArray rowFree;
+        final AtomicInteger free;
+
+        Section(int index, SectionLayout layout, int firstSeatId) {
+            this.index = index;
+            this.name = layout.name();
+            this.rows = layout.rows();
+            this.seatsPerRow = layout.seatsPerRow();
+            this.wordsPerRow = (seatsPerRow + 63) >>> 6;
+            this.capacity = rows * seatsPerRow;
+            this.firstSeatId = firstSeatId;
+            this.taken = new AtomicLongArray(rows * wordsPerRow);
+            this.rowFree = new AtomicIntegerArray(rows);
+            this.free = new AtomicInteger(capacity);
+            int tail = seatsPerRow & 63;
+            long padding = tail == 0 ? 0 : -1L << tail;
+            for (int row = 0; row < rows; row++) {
+                taken.set(row * wordsPerRow + wordsPerRow - 1, padding);
+                rowFree.set(row, seatsPerRow);
+            }
+        }
+
+        /**
+         * Finds this section's best run: the first row with a long enough
+         * run, and within it the run position closest to the middle.
+         * Rows after {@code lastRow} are not searched.
+         */
+        Candidate search(int quantity, int lastRow) {
+            if (quantity > seatsPerRow || free.get() < quantity) {
+                return null;
+            }
+            long[] words = new long[wordsPerRow];
+            // Twice the position a run should start at to be centred, so odd gaps stay integral.
+            int idealStart2 = seatsPerRow - quantity;
+            int endRow = Math.min(rows - 1, lastRow);
+            for (int row = 0; row <= endRow; row++) {
+                if (rowFree.get(row) < quantity) {
+                    continue;
+                }
+                int base = row * wordsPerRow;
+                for (int w = 0; w < wordsPerRow; w++) {
+                    words[w] = taken.get(base + w);
+                }
+                int bestStart = -1;
+                int bestDistance = Integer.MAX_VALUE;
+                int position = 0;
+                while (position < seatsPerRow) {
+                    int runStart = nextFree(words, position);
+                    if (runStart >= seatsPerRow) {
+                        break;
+                    }
+                    int runEnd = Math.min(nextTaken(words, runStart), seatsPerRow);
+                    if (runEnd - runStart >= quantity) {
+                        int start2 = Math.max(2 * runStart, Math.min(idealStart2, 2 * (runEnd - quantity)));
+                        int start = (start2 + 1) >>> 1;
+                        if (start > runEnd - quantity) {
+                            start = runEnd - quantity;
+                        }
+                        int distance = Math.abs(2 * start - idealStart2);
+                        if (distance < bestDistance) {
+                            bestDistance = distance;
+                            bestStart = start;
+                        }
+                    }
+                    position = runEnd;
+                }
+                if (bestStart >= 0) {
+                    return new Candidate(this, row, bestStart, quantity, bestDistance);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Atomically sets the bits of a run, undoing any words already set
+         * if a seat turns out to be taken. Words are set lowest first; that
+         * fixed order is what keeps two overlapping claims from both failing.
+         */
+        boolean claim(int row, int start, int quantity) {
+            int base = row * wordsPerRow;
+            int end = start + quantity;
+            for (int bit = start; bit < end; ) {
+                int word = bit >>> 6;
+                int wordEnd = Math.min(end, (word + 1) << 6);
+                long mask = mask(bit & 63, wordEnd - bit);
+                if (!setBits(base + word, mask)) {
+                    for (int undo = start; undo < bit; ) {
+                        int undoWord = undo >>> 6;
+                        int undoEnd = Math.min(bit, (undoWord + 1) << 6);
+                        clearBits(base + undoWord, mask(undo & 63, undoEnd - undo));
+                        undo = undoEnd;
+                    }
+                    return false;
+                }
+                bit = wordEnd;
+            }
+            rowFree.addAndGet(row, -quantity);
+            free.addAndGet(-quantity);
+            return true;
+        }
+
+        boolean release(int localSeat) {
+            int row = localSeat / seatsPerRow;
+            int column = localSeat % seatsPerRow;
+            int index = row * wordsPerRow + (column >>> 6);
+            long bit = 1L << (column & 63);
+            long current;
+            do {
+                current = taken.get(index);
+                if ((current & bit) == 0) {
+                    return false;
+                }
+            } while (!taken.compareAndSet(index, current, current & ~bit));
+            rowFree.incrementAndGet(row);
+            free.incrementAndGet();
+            return true;
+        }
+
+        boolean isTaken(int localSeat) {
+            int row = localSeat / seatsPerRow;
+            int column = localSeat % seatsPerRow;
+            return (taken.get(row * wordsPerRow + (column >>> 6)) & (1L << (column & 63))) != 0;
+        }
+
+        Seat seat(int localSeat) {
+            return new Seat(firstSeatId + localSeat, name, localSeat / seatsPerRow + 1, localSeat % seatsPerRow + 1);
+        }
+
+        private boolean setBits(int index, long mask) {
+            long current;
+            do {
+                current = taken.get(index);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+            } while (!taken.compareAndSet(index, current, current | mask));
+            return true;
+        }
+
+        private void clearBits(int index, long mask) {
+            long current;
+            do {
+                current = taken.get(index);
+            } while (!taken.compareAndSet(index, current, current & ~mask));
+        }
+
+        private static long mask(int from, int length) {
+            return length == 64 ? -1L : ((1L << length) - 1) << from;
+        }
+
+        private int nextFree(long[] words, int from) {
+            int word = from >>> 6;
+            long bits = ~words[word] & (-1L << (from & 63));
+            while (bits == 0) {
+                if (++word == wordsPerRow) {
+                    return seatsPerRow;
+                }
+                bits = ~words[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+
+        private int nextTaken(long[] words, int from) {
+            int word = from >>> 6;
+            long bits = words[word] & (-1L << (from & 63));
+            while (bits == 0) {
+                if (++word == wordsPerRow) {
+                    return seatsPerRow;
+                }
+                bits = words[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+    }
+}
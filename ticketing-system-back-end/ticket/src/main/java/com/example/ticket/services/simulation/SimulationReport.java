@@ -0,0 +1,204 @@
+package com.example.ticket.services.simulation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Results of one simulation run. Operation latency is the real time the
+ * pool took to answer each purchase or release; fulfilment latency is the
+ * simulated time from a buyer's arrival until they had all their tickets.
+ */
+public class SimulationReport {
+    private final Simulator.Mode mode;
+    private final long seed;
+    private final String engine;
+    private final int buyers;
+    private final long buyersServed;
+    private final long buyersGaveUp;
+    private final long ticketsRequested;
+    private final long ticketsReleased;
+    private final long ticketsSold;
+    private final long operations;
+    private final long simulatedMillis;
+    private final long wallMillis;
+    private final long sellOutMillis;
+    private final long failedSteps;
+    private final String failure;
+    private final LatencyHistogram operationNanos;
+    private final LatencyHistogram fulfilmentMillis;
+
+    SimulationReport(Simulator.Mode mode, WorkloadProfile profile, int buyers, long buyersServed, long buyersGaveUp,
+                     long ticketsRequested, long ticketsReleased, long ticketsSold, long operations,
+                     long simulatedMillis, long wallMillis, long sellOutMillis, long failedSteps, String failure,
+                     LatencyHistogram operationNanos, LatencyHistogram fulfilmentMillis) {
+        this.mode = mode;
+        this.seed = profile.getSeed();
+        this.engine = profile.getEngine();
+        this.buyers = buyers;
+        this.buyersServed = buyersServed;
+        this.buyersGaveUp = buyersGaveUp;
+        this.ticketsRequested = ticketsRequested;
+        this.ticketsReleased = ticketsReleased;
+        this.ticketsSold = ticketsSold;
+        this.operations = operations;
+        this.simulatedMillis = simulatedMillis;
+        this.wallMillis = wallMillis;
+        this.sellOutMillis = sellOutMillis;
+        this.failedSteps = failedSteps;
+        this.failure = failure;
+        this.operationNanos = operationNanos;
+        this.fulfilmentMillis = fulfilmentMillis;
+    }
+
+    /**
+     * Builds a summary suitable for a JSON response.
+     *
+     * @return the report as nested maps.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("mode", mode);
+        report.put("seed", seed);
+        report.put("engine", engine);
+        report.put("buyers", buyers);
+        report.put("buyersServed", buyersServed);
+        report.put("buyersGaveUp", buyersGaveUp);
+        report.put("ticketsRequested", ticketsRequested);
+        report.put("ticketsReleased", ticketsReleased);
+        report.put("ticketsSold", ticketsSold);
+        report.put("simulatedMillis", simulatedMillis);
+        report.put("wallMillis", wallMillis);
+        report.put("ticketsPerSecond", getTicketsPerSecond());
+        report.put("operations", operations);
+        report.put("operationsPerSecond", getOperationsPerSecond());
+        report.put("sellOutMillis", sellOutMillis < 0 ? null : sellOutMillis);
+        report.put("failedSteps", failedSteps);
+        report.put("failure", failure);
+
+        Map<String, Object> operationLatency = new LinkedHashMap<>();
+        operationLatency.put("p50", operationNanos.percentile(0.50) / 1_000.0);
+        operationLatency.put("p90", operationNanos.percentile(0.90) / 1_000.0);
+        operationLatency.put("p99", operationNanos.percentile(0.99) / 1_000.0);
+        operationLatency.put("p999", operationNanos.percentile(0.999) / 1_000.0);
+        operationLatency.put("max", operationNanos.max() / 1_000.0);
+        report.put("operationLatencyMicros", operationLatency);
+
+        Map<String, Object> fulfilmentLatency = new LinkedHashMap<>();
+        fulfilmentLatency.put("p50", fulfilmentMillis.percentile(0.50));
+        fulfilmentLatency.put("p90", fulfilmentMillis.percentile(0.90));
+        fulfilmentLatency.put("p99", fulfilmentMillis.percentile(0.99));
+        fulfilmentLatency.put("max", fulfilmentMillis.max());
+        report.put("fulfilmentLatencyMillis", fulfilmentLatency);
+        return report;
+    }
+
+    public Simulator.Mode getMode() {
+        return mode;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getBuyers() {
+        return buyers;
+    }
+
+    public long getBuyersServed() {
+        return buyersServed;
+    }
+
+    public long getBuyersGaveUp() {
+        return buyersGaveUp;
+    }
+
+    public long getTicketsRequested() {
+        return ticketsRequested;
+    }
+
+    public long getTicketsReleased() {
+        return ticketsReleased;
+    }
+
+    public long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getSimulatedMillis() {
+        return simulatedMillis;
+    }
+
+    public long getWallMillis() {
+        return wallMillis;
+    }
+
+    /**
+     * Retrieves when the event's last ticket was sold.
+     *
+     * @return the simulated time of the sell-out in milliseconds, or -1 if it did not sell out.
+     */
+    public long getSellOutMillis() {
+        return sellOutMillis;
+    }
+
+    /**
+     * Retrieves how many purchase or release steps threw instead of
+     * completing. Their buyers or vendors took no further part in the run.
+     *
+     * @return the number of failed steps.
+     */
+    public long getFailedSteps() {
+        return failedSteps;
+    }
+
+    /**
+     * Retrieves the error of the first failed step.
+     *
+     * @return the error, or null if every step completed.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Retrieves the sales rate over the simulated time.
+     *
+     * @return tickets sold per simulated second.
+     */
+    public double getTicketsPerSecond() {
+        return simulatedMillis == 0 ? 0 : ticketsSold * 1_000.0 / simulatedMillis;
+    }
+
+    /**
+     * Retrieves how many pool operations ran per real second.
+     *
+     * @return operations per wall-clock second.
+     */
+    public double getOperationsPerSecond() {
+        return wallMillis == 0 ? operations * 1_000.0 : operations * 1_000.0 / wallMillis;
+    }
+
+    /**
+     * Retrieves a fulfilment latency percentile.
+     *
+     * @param percentile the percentile, between 0 and 1.
+     * @return the simulated milliseconds from arrival to being served.
+     */
+    public long getFulfilmentMillis(double percentile) {
+        return fulfilmentMillis.percentile(percentile);
+    }
+
+    /**
+     * Retrieves a pool operation latency percentile.
+     *
+     * @param percentile the percentile, between 0 and 1.
+     * @return the real nanoseconds one purchase or release took.
+     */
+    public long getOperationNanos(double percentile) {
+        return operationNanos.percentile(percentile);
+    }
+}
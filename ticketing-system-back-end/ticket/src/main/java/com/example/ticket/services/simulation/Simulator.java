@@ -0,0 +1,333 @@
+package com.example.ticket.services.simulation;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.TicketPools;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Replays a {@link WorkloadProfile} against a ticket pool and reports
+ * throughput, latency percentiles and the sell-out time.
+ *
+ * <p>In {@link Mode#VIRTUAL virtual} mode the workload runs as a
+ * discrete-event simulation on a fresh pool: a single thread takes
+ * arrivals, retries and releases in time order and jumps the clock
+ * straight to the next one, so an hour-long on-sale runs in however long
+ * the pool operations themselves take. Apart from the measured operation
+ * latencies, the same seed always gives the same report.</p>
+ *
+ * <p>In {@link Mode#LIVE live} mode the same workload is played against
+ * a running event in real time, or scaled by a speed factor. Every step
+ * runs on its own virtual thread when it falls due, so buyers hit the pool
+ * concurrently with each other and with any other traffic.</p>
+ *
+ * <p>Buyers call {@link TicketPoolService#purchase} directly and retry at
+ * a fixed interval until they have all their tickets, their patience runs
+ * out or the event sells out. Waiting rooms are enforced by the REST
+ * endpoints, so simulated buyers are not held back by them.</p>
+ */
+public class Simulator {
+    private static final Logger logger = Logger.getLogger(Simulator.class.getName());
+
+    /**
+     * How simulated time relates to real time.
+     */
+    public enum Mode {
+        VIRTUAL,
+        LIVE;
+
+        /**
+         * Parses a mode name, ignoring case.
+         *
+         * @param name the mode name, "virtual" or "live".
+         * @return the matching mode.
+         */
+        public static Mode from(String name) {
+            try {
+                return Mode.valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown simulation mode: " + name);
+            }
+        }
+    }
+
+    /**
+     * Runs a workload in virtual time against a new pool configured by
+     * the profile.
+     *
+     * @param profile the workload to run.
+     * @return the results.
+     */
+    public SimulationReport runVirtual(WorkloadProfile profile) {
+        profile.validate();
+        SaleEventBus events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        try {
+            TicketPoolService service = new TicketPoolService(Ticket.DEFAULT_EVENT_ID,
+                    TicketPools.create(profile.getEngine(), profile.getMaxPoolTickets()), events);
+            service.setMaxEventTickets(profile.getMaxEventTickets());
+            service.setMaxPoolTickets(profile.getMaxPoolTickets());
+            Run run = new Run(Mode.VIRTUAL, profile, service);
+
+            long wallStart = System.nanoTime();
+            PriorityQueue<Step> queue = new PriorityQueue<>();
+            run.startVendors(queue::add);
+            long[] arrivals = run.workload.arrivalNanos;
+            int nextArrival = 0;
+            long now = 0;
+            // Arrivals are already sorted, so they are merged in rather than queued.
+            while (nextArrival < arrivals.length || !queue.isEmpty()) {
+                Step step = nextArrival < arrivals.length
+                        && (queue.isEmpty() || arrivals[nextArrival] < queue.peek().atNanos)
+                        ? run.arrival(nextArrival++)
+                        : queue.poll();
+                now = step.atNanos;
+                Step followUp = run.process(step, now);
+                if (followUp != null) {
+                    queue.add(followUp);
+                }
+            }
+            return run.report(now, System.nanoTime() - wallStart);
+        } finally {
+            events.close();
+        }
+    }
+
+    /**
+     * Plays a workload against a running event. The event's limits are
+     * left as they are; the profile's limits and engine are ignored.
+     *
+     * @param profile the workload to play.
+     * @param service the pool of the event.
+     * @param speed   how much faster than real time to play, e.g. 2 for twice as fast.
+     * @return the results.
+     * @throws InterruptedException if interrupted before the workload finished.
+     */
+    public SimulationReport runLive(WorkloadProfile profile, TicketPoolService service, double speed)
+            throws InterruptedException {
+        profile.validate();
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("Speed must be positive.");
+        }
+        Run run = new Run(Mode.LIVE, profile, service);
+        long wallStart = System.nanoTime();
+        DelayQueue<Due> queue = new DelayQueue<>();
+        AtomicInteger outstanding = new AtomicInteger();
+        Consumer<Step> schedule = step -> {
+            outstanding.incrementAndGet();
+            queue.add(new Due(step, wallStart + (long) (step.atNanos / speed)));
+        };
+        run.startVendors(schedule);
+        for (int i = 0; i < run.workload.buyers(); i++) {
+            schedule.accept(run.arrival(i));
+        }
+
+        try (ExecutorService steps = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (outstanding.get() > 0) {
+                Due due = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (due == null) {
+                    continue;
+                }
+                steps.execute(() -> {
+                    try {
+                        Step followUp = run.process(due.step(), (long) ((System.nanoTime() - wallStart) * speed));
+                        if (followUp != null) {
+                            schedule.accept(followUp);
+                        }
+                    } catch (RuntimeException e) {
+                        run.failed(e);
+                    } finally {
+                        outstanding.decrementAndGet();
+                    }
+                });
+            }
+        }
+        long wallNanos = System.nanoTime() - wallStart;
+        return run.report((long) (wallNanos * speed), wallNanos);
+    }
+
+    /**
+     * State of one run. Counters are thread-safe because live runs process
+     * steps concurrently.
+     */
+    private static final class Run {
+        final Mode mode;
+        final WorkloadProfile profile;
+        final TicketPoolService service;
+        final Workload workload;
+        final long durationNanos;
+        final long retryNanos;
+        final long patienceNanos;
+        final long releaseEveryNanos;
+        final AtomicLong nextSeq = new AtomicLong();
+        final LongAdder buyersServed = new LongAdder();
+        final LongAdder buyersGaveUp = new LongAdder();
+        final LongAdder ticketsRequested = new LongAdder();
+        final LongAdder ticketsReleased = new LongAdder();
+        final LongAdder ticketsSold = new LongAdder();
+        final LongAdder operations = new LongAdder();
+        final AtomicLong sellOutNanos = new AtomicLong(-1);
+        final LongAdder failedSteps = new LongAdder();
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final LatencyHistogram operationNanos = new LatencyHistogram();
+        final LatencyHistogram fulfilmentMillis = new LatencyHistogram();
+
+        Run(Mode mode, WorkloadProfile profile, TicketPoolService service) {
+            this.mode = mode;
+            this.profile = profile;
+            this.service = service;
+            this.workload = Workload.generate(profile);
+            this.durationNanos = TimeUnit.MILLISECONDS.toNanos(profile.getDurationMillis());
+            this.retryNanos = TimeUnit.MILLISECONDS.toNanos(profile.getRetryMillis());
+            this.patienceNanos = TimeUnit.MILLISECONDS.toNanos(profile.getPatienceMillis());
+            this.releaseEveryNanos = TimeUnit.MILLISECONDS.toNanos(profile.getReleaseEveryMillis());
+        }
+
+        void startVendors(Consumer<Step> schedule) {
+            for (int vendorId = 1; vendorId <= profile.getVendors(); vendorId++) {
+                int first = profile.getTicketsPerRelease() + (vendorId == 1 ? profile.getInitialTickets() : 0);
+                schedule.accept(new Step(0, nextSeq.getAndIncrement(), vendorId, 0, first));
+            }
+        }
+
+        Step arrival(int buyer) {
+            int quantity = workload.quantities[buyer];
+            ticketsRequested.add(quantity);
+            return new Step(workload.arrivalNanos[buyer], nextSeq.getAndIncrement(), 0, buyer + 1, quantity);
+        }
+
+        Step process(Step step, long now) {
+            return step.vendorId > 0 ? release(step) : buy(step, now);
+        }
+
+        /**
+         * Records a step that threw. The step is dropped rather than
+         * retried, and only the first error is kept and logged.
+         */
+        void failed(RuntimeException error) {
+            failedSteps.increment();
+            if (failure.compareAndSet(null, error.toString())) {
+                logger.log(Level.WARNING, "Simulation step failed", error);
+            }
+        }
+
+        private Step buy(Step step, long now) {
+            long start = System.nanoTime();
+            List<Ticket> tickets = service.purchase(step.customerId, step.remaining, profile.isAllOrNothing());
+            operationNanos.record(System.nanoTime() - start);
+            operations.increment();
+            if (!tickets.isEmpty()) {
+                ticketsSold.add(tickets.size());
+                step.remaining -= tickets.size();
+                if (sellOutNanos.get() < 0 && service.getTicketsSold() >= service.getMaxEventTickets()) {
+                    sellOutNanos.compareAndSet(-1, now);
+                }
+            }
+            if (step.remaining == 0) {
+                buyersServed.increment();
+                fulfilmentMillis.record(TimeUnit.NANOSECONDS.toMillis(now - step.arrivedAtNanos));
+                return null;
+            }
+            long retryAt = now + retryNanos;
+            if (retryAt - step.arrivedAtNanos > patienceNanos || service.getTicketsSold() >= service.getMaxEventTickets()) {
+                buyersGaveUp.increment();
+                return null;
+            }
+            return step.reschedule(retryAt, nextSeq.getAndIncrement());
+        }
+
+        private Step release(Step step) {
+            if (step.remaining > 0) {
+                long start = System.nanoTime();
+                int added = service.addTickets(step.vendorId, step.remaining, false);
+                operationNanos.record(System.nanoTime() - start);
+                operations.increment();
+                ticketsReleased.add(added);
+                step.remaining -= added;
+            }
+            // Tickets that did not fit are carried over to the vendor's next release.
+            long nextAt = step.atNanos + releaseEveryNanos;
+            int inEvent = service.getTicketsSold() + service.getAvailableTickets() + service.getHeldTickets();
+            if (nextAt >= durationNanos || inEvent >= service.getMaxEventTickets()) {
+                return null;
+            }
+            step.remaining = Math.min(step.remaining + profile.getTicketsPerRelease(), service.getMaxEventTickets());
+            return step.reschedule(nextAt, nextSeq.getAndIncrement());
+        }
+
+        SimulationReport report(long simulatedNanos, long wallNanos) {
+            long sellOut = sellOutNanos.get();
+            SimulationReport report = new SimulationReport(mode, profile, workload.buyers(),
+                    buyersServed.sum(), buyersGaveUp.sum(), ticketsRequested.sum(), ticketsReleased.sum(),
+                    ticketsSold.sum(), operations.sum(), TimeUnit.NANOSECONDS.toMillis(simulatedNanos),
+                    TimeUnit.NANOSECONDS.toMillis(wallNanos), sellOut < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(sellOut),
+                    failedSteps.sum(), failure.get(), operationNanos, fulfilmentMillis);
+            logger.info("Simulation with seed " + profile.getSeed() + " finished: " + report.getTicketsSold()
+                    + " tickets sold to " + report.getBuyersServed() + " of " + report.getBuyers() + " buyers.");
+            return report;
+        }
+    }
+
+    /**
+     * A buyer's next purchase attempt, or a vendor's next release. Steps
+     * are reused for retries and later releases.
+     */
+    private static final class Step implements Comparable<Step> {
+        final int vendorId;
+        final int customerId;
+        final long arrivedAtNanos;
+        long atNanos;
+        long seq;
+        int remaining;
+
+        Step(long atNanos, long seq, int vendorId, int customerId, int remaining) {
+            this.atNanos = atNanos;
+            this.seq = seq;
+            this.vendorId = vendorId;
+            this.customerId = customerId;
+            this.arrivedAtNanos = atNanos;
+            this.remaining = remaining;
+        }
+
+        Step reschedule(long atNanos, long seq) {
+            this.atNanos = atNanos;
+            this.seq = seq;
+            return this;
+        }
+
+        @Override
+        public int compareTo(Step other) {
+            int byTime = Long.compare(atNanos, other.atNanos);
+            return byTime != 0 ? byTime : Long.compare(seq, other.seq);
+        }
+    }
+
+    /**
+     * A step waiting for its wall-clock time in a live run.
+     */
+    private record Due(Step step, long dueNanos) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Due) other).dueNanos);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ticket.services.simulation;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The buyer arrivals of a {@link WorkloadProfile}, generated from its
+ * seed. Arrival times and ticket quantities are drawn from separate random
+ * streams, so changing how many tickets buyers want does not move their
+ * arrival times.
+ */
+final class Workload {
+    /** Arrival times in nanoseconds since the start of the run, ascending. */
+    final long[] arrivalNanos;
+    /** Tickets wanted by the buyer arriving at the same index. */
+    final int[] quantities;
+
+    private Workload(long[] arrivalNanos, int[] quantities) {
+        this.arrivalNanos = arrivalNanos;
+        this.quantities = quantities;
+    }
+
+    /**
+     * Generates the arrivals of a profile.
+     *
+     * @param profile the workload description.
+     * @return the arrivals, ordered by time.
+     */
+    static Workload generate(WorkloadProfile profile) {
+        SplittableRandom seed = new SplittableRandom(profile.getSeed());
+        SplittableRandom poisson = seed.split();
+        SplittableRandom burst = seed.split();
+        SplittableRandom sizes = seed.split();
+
+        long durationNanos = TimeUnit.MILLISECONDS.toNanos(profile.getDurationMillis());
+        long[] arrivals = new long[Math.max(16, profile.getOnSaleBuyers())];
+        int count = 0;
+
+        // Non-homogeneous Poisson arrivals by thinning: candidates arrive at
+        // the peak rate and are kept with probability rate(t) / peak.
+        double peak = profile.peakArrivalRate();
+        if (peak > 0) {
+            double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / peak;
+            double at = 0;
+            while (true) {
+                at += -Math.log(1 - poisson.nextDouble()) * meanGapNanos;
+                if (at >= durationNanos) {
+                    break;
+                }
+                if (poisson.nextDouble() * peak < profile.arrivalRateAt(at / 1_000_000.0)) {
+                    if (count == arrivals.length) {
+                        arrivals = Arrays.copyOf(arrivals, count * 2);
+                    }
+                    arrivals[count++] = (long) at;
+                }
+            }
+        }
+
+        long onSaleNanos = TimeUnit.MILLISECONDS.toNanos(profile.getOnSaleAtMillis());
+        long windowNanos = TimeUnit.MILLISECONDS.toNanos(profile.getOnSaleWindowMillis());
+        for (int i = 0; i < profile.getOnSaleBuyers(); i++) {
+            if (count == arrivals.length) {
+                arrivals = Arrays.copyOf(arrivals, count * 2);
+            }
+            arrivals[count++] = onSaleNanos + burst.nextLong(windowNanos);
+        }
+
+        arrivals = Arrays.copyOf(arrivals, count);
+        Arrays.sort(arrivals);
+        int[] quantities = new int[count];
+        for (int i = 0; i < count; i++) {
+            quantities[i] = 1 + sizes.nextInt(profile.getMaxTicketsPerBuyer());
+        }
+        return new Workload(arrivals, quantities);
+    }
+
+    /**
+     * Retrieves the number of buyers.
+     *
+     * @return the buyer count.
+     */
+    int buyers() {
+        return arrivalNanos.length;
+    }
+}
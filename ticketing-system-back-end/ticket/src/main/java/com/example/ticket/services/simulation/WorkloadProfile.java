@@ -0,0 +1,294 @@
+package com.example.ticket.services.simulation;
+
+import com.example.ticket.services.pool.TicketPools;
+
+import java.util.Map;
+
+/**
+ * Describes a seeded workload: when buyers arrive, how many tickets each
+ * wants, how patient they are, and when vendors release tickets. The same
+ * profile and seed always produce the same arrivals and releases, so a
+ * run can be repeated exactly against different pool settings.
+ *
+ * <p>Buyers arrive as a Poisson process whose rate follows an arrival
+ * curve, plus an optional on-sale burst of buyers spread over a short
+ * window. Vendors release a fixed number of tickets per vendor at a fixed
+ * interval until the event's ticket limit is reached.</p>
+ */
+public class WorkloadProfile {
+    private long seed = 1;
+    private long durationMillis = 60_000;
+    private String arrivalCurve = "0:20";
+    private double[] curveMillis = {0};
+    private double[] curveRates = {20};
+    private long onSaleAtMillis = 0;
+    private int onSaleBuyers = 0;
+    private long onSaleWindowMillis = 1_000;
+    private int maxTicketsPerBuyer = 4;
+    private boolean allOrNothing = true;
+    private long retryMillis = 500;
+    private long patienceMillis = 30_000;
+    private int vendors = 1;
+    private int initialTickets = 0;
+    private long releaseEveryMillis = 1_000;
+    private int ticketsPerRelease = 10;
+    private int maxEventTickets = 1_000;
+    private int maxPoolTickets = 100;
+    private String engine = TicketPools.DEFAULT_ENGINE;
+
+    /**
+     * Builds a profile from named settings, such as request parameters.
+     * Settings that are not given keep their defaults.
+     *
+     * @param settings the settings by name, e.g. "seed" or "arrivalCurve".
+     * @return the profile.
+     * @throws IllegalArgumentException if a setting is unknown or invalid.
+     */
+    public static WorkloadProfile from(Map<String, String> settings) {
+        WorkloadProfile profile = new WorkloadProfile();
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            String value = setting.getValue().trim();
+            try {
+                switch (setting.getKey()) {
+                    case "seed" -> profile.setSeed(Long.parseLong(value));
+                    case "durationMillis" -> profile.setDurationMillis(Long.parseLong(value));
+                    case "arrivalCurve" -> profile.setArrivalCurve(value);
+                    case "onSaleAtMillis" -> profile.setOnSaleAtMillis(Long.parseLong(value));
+                    case "onSaleBuyers" -> profile.setOnSaleBuyers(Integer.parseInt(value));
+                    case "onSaleWindowMillis" -> profile.setOnSaleWindowMillis(Long.parseLong(value));
+                    case "maxTicketsPerBuyer" -> profile.setMaxTicketsPerBuyer(Integer.parseInt(value));
+                    case "allOrNothing" -> profile.setAllOrNothing(Boolean.parseBoolean(value));
+                    case "retryMillis" -> profile.setRetryMillis(Long.parseLong(value));
+                    case "patienceMillis" -> profile.setPatienceMillis(Long.parseLong(value));
+                    case "vendors" -> profile.setVendors(Integer.parseInt(value));
+                    case "initialTickets" -> profile.setInitialTickets(Integer.parseInt(value));
+                    case "releaseEveryMillis" -> profile.setReleaseEveryMillis(Long.parseLong(value));
+                    case "ticketsPerRelease" -> profile.setTicketsPerRelease(Integer.parseInt(value));
+                    case "maxEventTickets" -> profile.setMaxEventTickets(Integer.parseInt(value));
+                    case "maxPoolTickets" -> profile.setMaxPoolTickets(Integer.parseInt(value));
+                    case "engine" -> profile.setEngine(value);
+                    default -> throw new IllegalArgumentException("Unknown workload setting: " + setting.getKey());
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid value for " + setting.getKey() + ": " + value);
+            }
+        }
+        profile.validate();
+        return profile;
+    }
+
+    /**
+     * Checks that the settings describe a runnable workload.
+     *
+     * @throws IllegalArgumentException if a setting is out of range.
+     */
+    public void validate() {
+        if (durationMillis <= 0 || onSaleWindowMillis <= 0 || retryMillis <= 0 || releaseEveryMillis <= 0) {
+            throw new IllegalArgumentException("Duration, on-sale window, retry and release intervals must be positive.");
+        }
+        if (onSaleAtMillis < 0 || onSaleBuyers < 0 || patienceMillis < 0 || initialTickets < 0 || ticketsPerRelease < 0) {
+            throw new IllegalArgumentException("On-sale time, buyers, patience and ticket counts cannot be negative.");
+        }
+        if (maxTicketsPerBuyer <= 0 || vendors <= 0 || maxEventTickets <= 0 || maxPoolTickets <= 0) {
+            throw new IllegalArgumentException("Tickets per buyer, vendors and ticket limits must be positive.");
+        }
+    }
+
+    /**
+     * Retrieves the buyer arrival rate at a point of the run, interpolating
+     * linearly between the points of the arrival curve.
+     *
+     * @param atMillis the time since the start of the run.
+     * @return the arrival rate in buyers per second.
+     */
+    public double arrivalRateAt(double atMillis) {
+        if (atMillis <= curveMillis[0]) {
+            return curveRates[0];
+        }
+        for (int i = 1; i < curveMillis.length; i++) {
+            if (atMillis < curveMillis[i]) {
+                double fraction = (atMillis - curveMillis[i - 1]) / (curveMillis[i] - curveMillis[i - 1]);
+                return curveRates[i - 1] + fraction * (curveRates[i] - curveRates[i - 1]);
+            }
+        }
+        return curveRates[curveRates.length - 1];
+    }
+
+    /**
+     * Retrieves the highest arrival rate on the curve.
+     *
+     * @return the peak rate in buyers per second.
+     */
+    public double peakArrivalRate() {
+        double peak = 0;
+        for (double rate : curveRates) {
+            peak = Math.max(peak, rate);
+        }
+        return peak;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+
+    public String getArrivalCurve() {
+        return arrivalCurve;
+    }
+
+    /**
+     * Sets the buyer arrival curve as comma-separated {@code millis:rate}
+     * points, e.g. {@code "0:10,5000:200,15000:10"} for a ramp up to 200
+     * buyers per second at 5 s and back down by 15 s. The rate before the
+     * first point and after the last one is held constant.
+     *
+     * @param arrivalCurve the curve points, in increasing time order.
+     * @throws IllegalArgumentException if the curve cannot be parsed.
+     */
+    public void setArrivalCurve(String arrivalCurve) {
+        String[] points = arrivalCurve.split(",");
+        double[] millis = new double[points.length];
+        double[] rates = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            String[] point = points[i].trim().split(":");
+            try {
+                if (point.length != 2) {
+                    throw new NumberFormatException();
+                }
+                millis[i] = Double.parseDouble(point[0]);
+                rates[i] = Double.parseDouble(point[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Arrival curve points must look like millis:rate, got " + points[i]);
+            }
+            if (rates[i] < 0 || (i > 0 && millis[i] <= millis[i - 1])) {
+                throw new IllegalArgumentException("Arrival curve rates cannot be negative and times must increase.");
+            }
+        }
+        this.arrivalCurve = arrivalCurve;
+        this.curveMillis = millis;
+        this.curveRates = rates;
+    }
+
+    public long getOnSaleAtMillis() {
+        return onSaleAtMillis;
+    }
+
+    public void setOnSaleAtMillis(long onSaleAtMillis) {
+        this.onSaleAtMillis = onSaleAtMillis;
+    }
+
+    public int getOnSaleBuyers() {
+        return onSaleBuyers;
+    }
+
+    public void setOnSaleBuyers(int onSaleBuyers) {
+        this.onSaleBuyers = onSaleBuyers;
+    }
+
+    public long getOnSaleWindowMillis() {
+        return onSaleWindowMillis;
+    }
+
+    public void setOnSaleWindowMillis(long onSaleWindowMillis) {
+        this.onSaleWindowMillis = onSaleWindowMillis;
+    }
+
+    public int getMaxTicketsPerBuyer() {
+        return maxTicketsPerBuyer;
+    }
+
+    public void setMaxTicketsPerBuyer(int maxTicketsPerBuyer) {
+        this.maxTicketsPerBuyer = maxTicketsPerBuyer;
+    }
+
+    public boolean isAllOrNothing() {
+        return allOrNothing;
+    }
+
+    public void setAllOrNothing(boolean allOrNothing) {
+        this.allOrNothing = allOrNothing;
+    }
+
+    public long getRetryMillis() {
+        return retryMillis;
+    }
+
+    public void setRetryMillis(long retryMillis) {
+        this.retryMillis = retryMillis;
+    }
+
+    public long getPatienceMillis() {
+        return patienceMillis;
+    }
+
+    public void setPatienceMillis(long patienceMillis) {
+        this.patienceMillis = patienceMillis;
+    }
+
+    public int getVendors() {
+        return vendors;
+    }
+
+    public void setVendors(int vendors) {
+        this.vendors = vendors;
+    }
+
+    public int getInitialTickets() {
+        return initialTickets;
+    }
+
+    public void setInitialTickets(int initialTickets) {
+        this.initialTickets = initialTickets;
+    }
+
+    public long getReleaseEveryMillis() {
+        return releaseEveryMillis;
+    }
+
+    public void setReleaseEveryMillis(long releaseEveryMillis) {
+        this.releaseEveryMillis = releaseEveryMillis;
+    }
+
+    public int getTicketsPerRelease() {
+        return ticketsPerRelease;
+    }
+
+    public void setTicketsPerRelease(int ticketsPerRelease) {
+        this.ticketsPerRelease = ticketsPerRelease;
+    }
+
+    public int getMaxEventTickets() {
+        return maxEventTickets;
+    }
+
+    public void setMaxEventTickets(int maxEventTickets) {
+        this.maxEventTickets = maxEventTickets;
+    }
+
+    public int getMaxPoolTickets() {
+        return maxPoolTickets;
+    }
+
+    public void setMaxPoolTickets(int maxPoolTickets) {
+        this.maxPoolTickets = maxPoolTickets;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.ticket.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandScriptTests {
+
+    @Test
+    void scriptRunsCommandsAgainstTheSelectedEvent() throws IOException {
+        String output = run(CommandScript.OK, """
+                # Limits first, then trade on a second event.
+                event 2
+                max-event-tickets 100
+                max-pool-tickets 10
+
+                add-tickets 1 15
+                purchase 7 4
+                status
+                exit
+                status
+                """);
+        assertTrue(output.contains("Event 2 created."), output);
+        assertTrue(output.contains("{eventId=2, requested=15, added=10}"), output);
+        assertTrue(output.contains("eventId=2, version="), output);
+        assertTrue(output.contains("availableTickets=6, ticketsSold=4"), output);
+        assertEquals(1, output.split("availableTickets").length - 1, "commands after exit must not run");
+    }
+
+    @Test
+    void scriptStopsAtTheFirstFailingCommand() throws IOException {
+        String rejected = run(CommandScript.REJECTED, """
+                max-pool-tickets -1
+                status
+                """);
+        assertTrue(rejected.startsWith("Line 1: 400 "), rejected);
+        assertFalse(rejected.contains("availableTickets"), rejected);
+
+        String malformed = run(CommandScript.MALFORMED, """
+                status
+                vendor 1
+                """);
+        assertTrue(malformed.contains("Line 2: vendor takes 2 arguments, got 1."), malformed);
+        assertEquals("Line 1: unknown command \"sell\".", run(CommandScript.MALFORMED, "sell 5\n").trim());
+
+        String duplicate = run(CommandScript.REJECTED, """
+                vendor 1 1000
+                vendor 1 1000
+                """);
+        assertTrue(duplicate.contains("Line 2: Vendor ID 1 is already in use."), duplicate);
+    }
+
+    @Test
+    void runtimeCreatesNothingUntilACommandNeedsIt() throws IOException {
+        Properties settings = new Properties();
+        settings.setProperty("ticket.ids.durable", "false");
+        try (HeadlessRuntime runtime = new HeadlessRuntime(settings)) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            int threads = Thread.activeCount();
+            new CommandScript(runtime, new PrintStream(output, true, StandardCharsets.UTF_8))
+                    .run(new BufferedReader(new StringReader("sleep 1\n")));
+            assertEquals(threads, Thread.activeCount());
+            assertSame(runtime.eventRegistry(), runtime.eventRegistry());
+            assertNotNull(runtime.eventRegistry().getEvent(1));
+        }
+    }
+
+    private static String run(int expectedExitCode, String script) throws IOException {
+        Properties settings = new Properties();
+        settings.setProperty("ticket.ids.durable", "false");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (HeadlessRuntime runtime = new HeadlessRuntime(settings)) {
+            int exitCode = new CommandScript(runtime, new PrintStream(output, true, StandardCharsets.UTF_8))
+                    .run(new BufferedReader(new StringReader(script)));
+            assertEquals(expectedExitCode, exitCode, output.toString(StandardCharsets.UTF_8));
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.ticket.services;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.TicketPool;
+import com.example.ticket.services.pool.TicketPools;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRegistryTests {
+    private final SaleEventBus events = new SaleEventBus(1024);
+    private final EventRegistry registry = new EventRegistry(
+            eventId -> new TicketPoolService(eventId, TicketPools.create("ring-buffer", 64), events));
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+        events.close();
+    }
+
+    @Test
+    void eventsHaveIndependentLimitsAndCounters() {
+        TicketPoolService concert = registry.createEvent(1);
+        TicketPoolService match = registry.createEvent(2);
+        concert.setMaxEventTickets(1);
+
+        assertEquals(TicketPool.AddResult.ADDED, concert.addTicket(1, new Ticket(1, 1)));
+        assertEquals(TicketPool.AddResult.EVENT_LIMIT_REACHED, concert.addTicket(1, new Ticket(1, 2)));
+        assertEquals(3, match.addTickets(1, 3, true));
+
+        List<Ticket> bought = match.purchase(7, 2, true);
+        assertEquals(2, bought.size());
+        assertTrue(bought.stream().allMatch(ticket -> ticket.getEventId() == 2));
+        assertEquals(1, concert.getAvailableTickets());
+        assertEquals(0, concert.getTicketsSold());
+        assertEquals(2, match.getTicketsSold());
+    }
+
+    @Test
+    void registrationsAreScopedToTheirEvent() {
+        TicketPoolService concert = registry.createEvent(1);
+        TicketPoolService match = registry.createEvent(2);
+
+        assertTrue(concert.registerCustomer(5));
+        assertTrue(match.registerCustomer(5));
+        assertFalse(match.registerCustomer(5));
+
+        assertEquals(2, concert.registerCustomers(new int[]{5, 6, 7}));
+        assertFalse(concert.registerCustomer(7));
+        assertTrue(concert.isCustomerRegistered(6));
+        assertFalse(match.isCustomerRegistered(6));
+        assertEquals(3, concert.getRegisteredCustomers());
+    }
+
+    @Test
+    void waitingCustomerIsNotServedTicketsOfAnotherEvent() throws InterruptedException {
+        registry.createEvent(1);
+        TicketPoolService match = registry.createEvent(2);
+        match.addTickets(1, 10, false);
+
+        assertNull(registry.getEvent(1).takeTicket(1, 20, TimeUnit.MILLISECONDS));
+        assertEquals(10, match.getAvailableTickets());
+    }
+
+    @Test
+    void rejectsDuplicateAndUnknownEvents() {
+        registry.createEvent(3);
+
+        assertThrows(IllegalArgumentException.class, () -> registry.createEvent(3));
+        assertThrows(IllegalArgumentException.class, () -> registry.createEvent(0));
+        assertNull(registry.getEvent(4));
+        assertEquals(List.of(3), registry.getEvents().stream().map(TicketPoolService::getEventId).toList());
+    }
+}
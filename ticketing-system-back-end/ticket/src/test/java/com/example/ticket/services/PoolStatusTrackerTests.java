@@ -0,0 +1,48 @@
+package com.example.ticket.services;
+
+import com.example.ticket.models.PoolStatusSnapshot;
+import com.example.ticket.services.pool.TicketPools;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolStatusTrackerTests {
+
+    @Test
+    void snapshotsReportCountsAndRatesSinceThePreviousSnapshotForTheBusiestCustomers() throws Exception {
+        TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 64));
+        service.setMaxPoolTickets(50);
+        service.setMaxEventTickets(100);
+        PoolStatusTracker tracker = new PoolStatusTracker(service, 2);
+
+        service.addTickets(7, 40, false);
+        Thread.sleep(20);
+        PoolStatusSnapshot first = tracker.next();
+        assertEquals(1, first.sequence());
+        assertEquals(40, first.availableTickets());
+        assertEquals(0, first.ticketsSold());
+        assertEquals(50, first.maxPoolTickets());
+        assertEquals(100, first.maxEventTickets());
+        assertEquals(Set.of(7), first.vendorRates().keySet());
+        assertTrue(first.releasesPerSecond() > 0);
+        assertEquals(0.0, first.salesPerSecond());
+
+        service.purchase(1, 1, false);
+        service.purchase(2, 5, false);
+        service.purchase(3, 3, false);
+        Thread.sleep(20);
+        PoolStatusSnapshot second = tracker.next();
+        assertEquals(2, second.sequence());
+        assertEquals(31, second.availableTickets());
+        assertEquals(9, second.ticketsSold());
+        // Only the two busiest of the three customers are listed.
+        assertEquals(Set.of(2, 3), second.customerRates().keySet());
+        assertTrue(second.customerRates().get(2) > second.customerRates().get(3));
+        assertTrue(second.salesPerSecond() > second.customerRates().get(2));
+        // The vendor released nothing since the first snapshot.
+        assertEquals(0.0, second.vendorRates().get(7));
+        assertEquals(0.0, second.releasesPerSecond());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ticket.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedIntSetTests {
+
+    @Test
+    void addsEachIdOnceIncludingZeroAndNegatives() {
+        StripedIntSet set = new StripedIntSet();
+        assertTrue(set.add(0));
+        assertTrue(set.add(-7));
+        assertTrue(set.add(Integer.MAX_VALUE));
+        assertFalse(set.add(0));
+        assertFalse(set.add(-7));
+
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(-7));
+        assertFalse(set.contains(7));
+        assertEquals(3, set.size());
+
+        set.clear();
+        assertFalse(set.contains(0));
+        assertEquals(0, set.size());
+    }
+
+    @Test
+    void bulkAddOfAMillionIdsStaysCompact() {
+        StripedIntSet set = new StripedIntSet();
+        int[] ids = new int[1_000_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+        assertEquals(ids.length, set.addAll(ids));
+        assertEquals(0, set.addAll(new int[]{1, 500_000, 1_000_000}));
+        assertEquals(2, set.addAll(new int[]{1_000_001, 1_000_001, 1_000_002}));
+
+        assertEquals(1_000_002, set.size());
+        for (int id = 1; id <= 1_000_002; id++) {
+            assertTrue(set.contains(id));
+        }
+        assertFalse(set.contains(1_000_003));
+        // At most three quarters full and at least three eighths, so 5.3 to 10.7 bytes per ID.
+        assertTrue(set.getMemoryBytes() < 11 * 1_000_000L, "bytes: " + set.getMemoryBytes());
+    }
+
+    @Test
+    void concurrentAddsAndLookupsAgree() throws Exception {
+        StripedIntSet set = new StripedIntSet();
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger missing = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(threads.submit(() -> {
+                // Every thread adds the same IDs, so each ID is won by exactly one of them.
+                for (int id = 1; id <= 100_000; id++) {
+                    if (set.add(id)) {
+                        added.incrementAndGet();
+                    }
+                    if (!set.contains(id)) {
+                        missing.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        threads.shutdown();
+
+        assertEquals(100_000, added.get());
+        assertEquals(0, missing.get());
+        assertEquals(100_000, set.size());
+    }
+}
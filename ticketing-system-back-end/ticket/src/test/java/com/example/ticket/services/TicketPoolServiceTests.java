@@ -0,0 +1,192 @@
+package com.example.ticket.services;
+
+import com.example.ticket.models.SeatTicket;
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.holds.Hold;
+import com.example.ticket.services.pool.CapacityChange;
+import com.example.ticket.services.pool.PoolCounts;
+import com.example.ticket.services.pool.TicketPool;
+import com.example.ticket.services.pool.TicketPools;
+import com.example.ticket.services.seating.SeatMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketPoolServiceTests {
+
+    @Test
+    void waitingCustomerReceivesTicketAsSoonAsItIsReleased() throws Exception {
+        TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 16));
+        CompletableFuture<Ticket> purchase = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.takeTicket(1, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(purchase.isDone());
+
+        service.addTicket(1, new Ticket(42));
+
+        assertEquals(42, purchase.get(2, TimeUnit.SECONDS).getTicketId());
+        assertEquals(1, service.getTicketsSold());
+    }
+
+    @Test
+    void waitingVendorAddsTicketOnceCapacityIsFreed() throws Exception {
+        TicketPoolService service = new TicketPoolService();
+        service.setMaxPoolTickets(1);
+        service.addTicket(1, new Ticket(1));
+        CompletableFuture<TicketPool.AddResult> release = CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.offerTicket(1, new Ticket(2), 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(50);
+        assertFalse(release.isDone());
+
+        assertNotNull(service.removeTicket());
+
+        assertEquals(TicketPool.AddResult.ADDED, release.get(2, TimeUnit.SECONDS));
+        assertEquals(1, service.getAvailableTickets());
+    }
+
+    @Test
+    void expiredHoldReturnsTicketsAndWakesWaitingCustomer() throws Exception {
+        TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 16));
+        service.addTickets(1, 2, true);
+        Hold hold = service.holdTickets(7, 2, 100, TimeUnit.MILLISECONDS);
+        assertNotNull(hold);
+        assertEquals(0, service.getAvailableTickets());
+
+        Ticket ticket = service.takeTicket(8, 5, TimeUnit.SECONDS);
+
+        assertNotNull(ticket);
+        assertEquals(Hold.State.EXPIRED, hold.getState());
+        assertNull(service.confirmHold(7, hold.getHoldId()));
+        assertEquals(0, service.getHeldTickets());
+        assertEquals(1, service.getAvailableTickets());
+    }
+
+    @Test
+    void confirmedHoldIsSoldAndReleasedHoldIsBack() {
+        TicketPoolService service = new TicketPoolService();
+        service.addTickets(1, 3, true);
+        Hold first = service.holdTickets(7, 2, 1, TimeUnit.MINUTES);
+        Hold second = service.holdTickets(8, 1, 1, TimeUnit.MINUTES);
+        assertNull(service.holdTickets(9, 1, 1, TimeUnit.MINUTES));
+
+        assertNull(service.confirmHold(8, first.getHoldId()));
+        List<Ticket> bought = service.confirmHold(7, first.getHoldId());
+        assertEquals(List.of(1L, 2L), bought.stream().map(Ticket::getTicketId).toList());
+        assertTrue(service.releaseHold(8, second.getHoldId()));
+        assertFalse(service.releaseHold(8, second.getHoldId()));
+
+        assertEquals(2, service.getTicketsSold());
+        assertEquals(1, service.getAvailableTickets());
+        assertEquals(0, service.getActiveHolds());
+    }
+
+    @Test
+    void countsVersionOnlyMovesWhenSomethingChanges() {
+        TicketPoolService service = new TicketPoolService();
+        service.addTickets(1, 3, false);
+
+        PoolCounts first = service.getCounts();
+        assertEquals(first, service.getCounts());
+        assertEquals(3, first.available());
+
+        service.removeTicket();
+        PoolCounts second = service.getCounts();
+        assertEquals(first.version() + 1, second.version());
+        assertEquals(2, second.available());
+        assertEquals(1, second.sold());
+
+        service.setMaxPoolTickets(150);
+        assertEquals(second.version() + 1, service.getCounts().version());
+        assertEquals(150, service.getCounts().maxPoolTickets());
+    }
+
+    @Test
+    void resizeWakesBlockedVendorsAndPublishesANewVersion() throws Exception {
+        TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 16));
+        service.resize(1, 3);
+        long version = service.getCapacityVersion();
+        service.addTicket(1, new Ticket(1));
+        CompletableFuture<TicketPool.AddResult> growing = offerAsync(service, new Ticket(2));
+        Thread.sleep(50);
+        assertFalse(growing.isDone());
+
+        CapacityChange grown = service.resize(2, 3);
+        assertEquals(version + 1, grown.version());
+        assertEquals(TicketPool.AddResult.ADDED, growing.get(2, TimeUnit.SECONDS));
+
+        CompletableFuture<TicketPool.AddResult> shrinking = offerAsync(service, new Ticket(3));
+        Thread.sleep(50);
+        assertFalse(shrinking.isDone());
+        CapacityChange shrunk = service.resize(2, 1);
+        assertEquals(List.of(1L), shrunk.withdrawn().stream().map(Ticket::getTicketId).toList());
+        assertEquals(TicketPool.AddResult.EVENT_LIMIT_REACHED, shrinking.get(2, TimeUnit.SECONDS));
+        assertEquals(version + 2, service.getCapacityVersion());
+        assertEquals(1, service.getAvailableTickets());
+        assertThrows(IllegalArgumentException.class, () -> service.resize(-1, 1));
+    }
+
+    @Test
+    void poolLimitsAboveTheRingSizeAreCappedAndReportedAsApplied() {
+        TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 16));
+        CapacityChange change = service.resize(100, 200);
+        assertEquals(16, change.maxPoolTickets());
+        assertEquals(200, change.maxEventTickets());
+        assertEquals(16, service.getMaxPoolTickets());
+        assertEquals(16, service.getCounts().maxPoolTickets());
+
+        service.setMaxPoolTickets(1_000);
+        assertEquals(16, service.getCounts().maxPoolTickets());
+        assertEquals(16, service.addTickets(1, 20, false));
+    }
+
+    @Test
+    void seatsAreSoldWithTicketIdsFromTheSharedAllocator() {
+        TicketPoolService service = new TicketPoolService();
+        service.setSeatMap(new SeatMap(List.of(new SeatMap.SectionLayout("A", 2, 10))));
+        service.addTickets(1, 5, false);
+
+        List<SeatTicket> seats = service.claimSeats(1, 3, null);
+        assertEquals(3, seats.size());
+        Set<Long> ticketIds = new HashSet<>();
+        for (Ticket ticket : service.purchase(2, 5, true)) {
+            ticketIds.add(ticket.getTicketId());
+        }
+        for (SeatTicket seat : seats) {
+            assertEquals(service.getEventId(), seat.ticket().getEventId());
+            assertTrue(ticketIds.add(seat.ticket().getTicketId()), "ticket ID reused for seat " + seat.seat());
+        }
+        assertEquals(List.of(4, 5, 6), seats.stream().map(seat -> seat.seat().seatId()).toList());
+    }
+
+    @Test
+    void timedTakeReturnsNullWhenNoStockArrives() throws Exception {
+        TicketPoolService service = new TicketPoolService();
+        assertNull(service.takeTicket(1, 20, TimeUnit.MILLISECONDS));
+    }
+
+    private static CompletableFuture<TicketPool.AddResult> offerAsync(TicketPoolService service, Ticket ticket) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return service.offerTicket(1, ticket, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
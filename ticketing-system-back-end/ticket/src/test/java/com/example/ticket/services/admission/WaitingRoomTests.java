@@ -0,0 +1,109 @@
+package com.example.ticket.services.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitingRoomTests {
+
+    @Test
+    void fifoRoomAdmitsInArrivalOrderAtTheConfiguredRate() {
+        WaitingRoom room = new WaitingRoom(WaitingRoom.Mode.FIFO, 10, 2, System.nanoTime(), 100, 100);
+        List<AdmissionToken> tokens = new ArrayList<>();
+        for (int customerId = 1; customerId <= 5; customerId++) {
+            tokens.add(room.enter(customerId));
+        }
+
+        assertSame(tokens.get(0), room.enter(1));
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(i, tokens.get(i).getPosition());
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100),
+                tokens.get(3).getAdmitAtNanos() - tokens.get(2).getAdmitAtNanos());
+        assertEquals(WaitingRoom.Access.ALLOWED, room.tryAccess(1));
+        assertEquals(WaitingRoom.Access.ALLOWED, room.tryAccess(2));
+        assertEquals(WaitingRoom.Access.WAITING, room.tryAccess(3));
+        assertEquals(WaitingRoom.Access.NOT_IN_ROOM, room.tryAccess(9));
+        assertEquals(3, room.getDepth());
+        assertTrue(room.getExpectedWaitNanos() > TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void admittedCustomersAreHeldToTheirOwnRequestRate() {
+        WaitingRoom room = new WaitingRoom(WaitingRoom.Mode.FIFO, 1_000, 100, System.nanoTime(), 1, 2);
+        room.enter(1);
+        room.enter(2);
+
+        assertEquals(WaitingRoom.Access.ALLOWED, room.tryAccess(1));
+        assertEquals(WaitingRoom.Access.ALLOWED, room.tryAccess(1));
+        assertEquals(WaitingRoom.Access.RATE_LIMITED, room.tryAccess(1));
+        assertEquals(WaitingRoom.Access.ALLOWED, room.tryAccess(2));
+        assertTrue(room.acquire(1) > TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    void randomizedRoomShufflesEarlyArrivalsWhenItOpens() throws Exception {
+        WaitingRoom room = new WaitingRoom(WaitingRoom.Mode.RANDOMIZED, 1_000, 10,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100), 100, 100);
+        List<AdmissionToken> early = new ArrayList<>();
+        for (int customerId = 1; customerId <= 200; customerId++) {
+            early.add(room.enter(customerId));
+        }
+        assertFalse(early.get(0).isAssigned());
+        assertEquals(WaitingRoom.Access.WAITING, room.tryAccess(1));
+        assertEquals(200, room.getDepth());
+
+        Thread.sleep(150);
+        AdmissionToken late = room.enter(201);
+
+        Set<Long> positions = new HashSet<>();
+        boolean shuffled = false;
+        for (int i = 0; i < early.size(); i++) {
+            assertTrue(early.get(i).isAssigned());
+            positions.add(early.get(i).getPosition());
+            shuffled |= early.get(i).getPosition() != i;
+        }
+        assertEquals(200, positions.size());
+        assertEquals(0, positions.stream().mapToLong(Long::longValue).min().orElseThrow());
+        assertTrue(shuffled);
+        assertEquals(200, late.getPosition());
+        assertTrue(late.getAdmitAtNanos() > early.stream().mapToLong(AdmissionToken::getAdmitAtNanos).max().orElseThrow());
+    }
+
+    @Test
+    void concurrentArrivalsGetDistinctPlaces() throws Exception {
+        WaitingRoom room = new WaitingRoom(WaitingRoom.Mode.FIFO, 100, 1, System.nanoTime(), 1, 1);
+        Set<Long> positions = ConcurrentHashMap.newKeySet();
+        Set<Long> admissions = ConcurrentHashMap.newKeySet();
+        ExecutorService arrivals = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int first = t * 1_000 + 1;
+            futures.add(arrivals.submit(() -> {
+                for (int customerId = first; customerId < first + 1_000; customerId++) {
+                    AdmissionToken token = room.enter(customerId);
+                    positions.add(token.getPosition());
+                    admissions.add(token.getAdmitAtNanos());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        arrivals.shutdown();
+
+        assertEquals(8_000, positions.size());
+        assertEquals(8_000, admissions.size());
+        assertEquals(8_000, room.getEntered());
+    }
+}
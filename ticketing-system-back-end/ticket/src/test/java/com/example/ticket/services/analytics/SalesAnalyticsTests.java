@@ -0,0 +1,140 @@
+package com.example.ticket.services.analytics;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.cluster.ClusterQuota;
+import com.example.ticket.services.cluster.FileQuotaCoordinator;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.events.SaleEventType;
+import com.example.ticket.services.pool.TicketPools;
+import com.example.ticket.services.seating.SeatMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesAnalyticsTests {
+    private static final long START = 1_700_000_000_000L;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void windowForgetsEverythingOlderThanItsSlots() {
+        RollingWindow window = new RollingWindow(60, 1000);
+        for (long second = 0; second < 100_000; second++) {
+            window.add(START + second * 1000, (int) (second % 3));
+        }
+        long now = START + 99_999 * 1000;
+        // The last minute holds 20 each of 0, 1 and 2.
+        assertEquals(60, window.sum(now, 60));
+        assertEquals(0, window.sum(now, 1));
+        assertEquals(2, window.sum(now, 2));
+        window.add(now - 60_000, 100);
+        assertEquals(60, window.sum(now, 60));
+
+        assertEquals(0, window.sum(now + 60_000, 60));
+        assertArrayEquals(new int[]{2, 0, 0}, window.counts(now + 1_000, 3));
+    }
+
+    @Test
+    void ratesPercentilesAndSellOutProjectionComeFromTheWindows() {
+        SalesAnalytics analytics = new SalesAnalytics(10);
+        TicketPoolService pool = new TicketPoolService(TicketPools.create("synchronized"),
+                new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY));
+        EventAnalytics event = analytics.attach(pool);
+        assertSame(event, pool.getAnalytics());
+
+        // Ten seconds of sales: 2 a second for eight seconds, then 10 and 20.
+        for (int second = 0; second < 10; second++) {
+            int sold = second < 8 ? 2 : second == 8 ? 10 : 20;
+            for (int i = 0; i < sold; i++) {
+                long time = START + second * 1000L + i;
+                analytics.onEvent(SaleEventType.TICKET_ADDED, 1, 1 + i % 2, 0, i, time);
+                analytics.onEvent(SaleEventType.TICKET_PURCHASED, 1, 0, 100 + second, i, time);
+            }
+        }
+        analytics.onEvent(SaleEventType.TICKET_PURCHASED, 2, 0, 1, 1, START);
+        long now = START + 9_500;
+
+        Map<String, Object> sales = event.getSales().toMap(now);
+        assertEquals(46L, sales.get("total"));
+        assertEquals(4.6, sales.get("perSecond"));
+        assertEquals(Map.of("p50", 2, "p90", 10, "p99", 20, "max", 20), sales.get("perSecondPercentiles"));
+
+        Map<String, Object> summary = event.toMap(now, new EventAnalytics.Stock(46, 46, false), 2);
+        Map<?, ?> sellOut = (Map<?, ?>) summary.get("sellOut");
+        assertEquals(46L, sellOut.get("remainingTickets"));
+        assertEquals(10L, sellOut.get("projectedSeconds"));
+        assertEquals(List.of(109, 108), ((List<?>) summary.get("topCustomers")).stream()
+                .map(customer -> ((Map<?, ?>) customer).get("customerId")).toList());
+        assertEquals(10, summary.get("trackedCustomers"));
+
+        sellOut = (Map<?, ?>) event.toMap(now, new EventAnalytics.Stock(46, 0, false), 0).get("sellOut");
+        assertEquals(true, sellOut.get("soldOut"));
+        assertEquals(9_019L, sellOut.get("sellOutMillis"));
+    }
+
+    @Test
+    void actorsBeyondTheLimitArePooledAndBusFedPoolsAreAnalysed() {
+        SaleEventBus events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        SalesAnalytics analytics = new SalesAnalytics(2);
+        events.addListener(analytics);
+        TicketPoolService pool = new TicketPoolService(TicketPools.create("ring-buffer"), events);
+        EventAnalytics event = analytics.attach(pool);
+
+        for (int vendorId = 1; vendorId <= 5; vendorId++) {
+            pool.addTickets(vendorId, 3, true);
+        }
+        pool.purchase(9, 4, true);
+        assertTrue(events.flush(5, TimeUnit.SECONDS));
+
+        assertEquals(15, event.getReleases().getTotal());
+        assertEquals(4, event.getSales().getTotal());
+        assertEquals(3, event.getVendor(1).getTotal());
+        assertNull(event.getVendor(3));
+        assertEquals(4, event.getCustomer(9).getTotal());
+        Map<String, Object> summary = event.toMap(System.currentTimeMillis(), EventAnalytics.Stock.of(pool), 5);
+        assertEquals(9L, ((Map<?, ?>) summary.get("otherVendors")).get("total"));
+        assertEquals(2, summary.get("trackedVendors"));
+
+        // A reset reaches the analytics behind the sales before it and clears them.
+        pool.resetTicketPool();
+        pool.addTickets(1, 2, true);
+        assertTrue(events.flush(5, TimeUnit.SECONDS));
+        assertEquals(0, event.getSales().getTotal());
+        assertEquals(2, event.getReleases().getTotal());
+        assertNull(event.getCustomer(9));
+        assertEquals(2, event.getVendor(1).getTotal());
+        events.close();
+    }
+
+    @Test
+    void stockCountsSeatsOnBothSidesAndIsNodeLocalInACluster() throws Exception {
+        TicketPoolService pool = new TicketPoolService(TicketPools.create("ring-buffer", 64));
+        pool.setMaxEventTickets(50);
+        pool.setSeatMap(new SeatMap(List.of(new SeatMap.SectionLayout("A", 2, 5))));
+        pool.addTickets(1, 20, true);
+        pool.purchase(2, 5, true);
+        pool.claimSeats(3, 4, null);
+        // 5 tickets and 4 seats sold; 45 tickets under the event limit and 6 seats left.
+        assertEquals(new EventAnalytics.Stock(9, 51, false), EventAnalytics.Stock.of(pool));
+
+        TicketPoolService node = new TicketPoolService(TicketPools.create("ring-buffer", 64));
+        node.setMaxEventTickets(50);
+        ClusterQuota quota = new ClusterQuota(Ticket.DEFAULT_EVENT_ID, "node-1",
+                new FileQuotaCoordinator(directory, 60_000), 10, 0, () -> 50, Runnable::run);
+        node.setClusterQuota(quota);
+        node.addTickets(1, 8, true);
+        node.purchase(2, 3, true);
+        // Only what this node has on sale or may still issue, not the rest of the event limit.
+        EventAnalytics.Stock stock = EventAnalytics.Stock.of(node);
+        assertEquals(new EventAnalytics.Stock(3, 5 + quota.getBudget(), true), stock);
+        assertTrue(stock.remaining() < 47);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.ticket.services.cluster;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.TicketPool;
+import com.example.ticket.services.pool.TicketPools;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterQuotaTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void nodesTogetherNeverIssueMoreThanTheEventLimit() throws Exception {
+        FileQuotaCoordinator coordinator = new FileQuotaCoordinator(directory, 60_000);
+        SaleEventBus events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        List<TicketPoolService> nodes = new ArrayList<>();
+        for (int node = 0; node < 4; node++) {
+            String engine = node % 2 == 0 ? "synchronized" : "ring-buffer";
+            TicketPoolService service = new TicketPoolService(TicketPools.create(engine), events);
+            service.setMaxEventTickets(1_000);
+            service.setClusterQuota(new ClusterQuota(Ticket.DEFAULT_EVENT_ID, "node-" + node, coordinator, 25, 0,
+                    service::getMaxEventTickets, Runnable::run));
+            nodes.add(service);
+        }
+
+        AtomicInteger nextTicketId = new AtomicInteger(1_000_000);
+        List<Thread> vendors = new ArrayList<>();
+        for (TicketPoolService service : nodes) {
+            for (int vendor = 0; vendor < 2; vendor++) {
+                boolean batches = vendor == 0;
+                vendors.add(Thread.ofPlatform().start(() -> {
+                    while (true) {
+                        boolean limited;
+                        if (batches) {
+                            limited = service.addTickets(1, 7, false) == 0 && service.getAvailableTickets() == 0;
+                        } else {
+                            limited = service.addTicket(2, new Ticket(Ticket.DEFAULT_EVENT_ID,
+                                    nextTicketId.getAndIncrement())) == TicketPool.AddResult.EVENT_LIMIT_REACHED;
+                        }
+                        service.purchase(1, 5, false);
+                        if (limited && service.getClusterQuota().getBudget() == 0) {
+                            return;
+                        }
+                    }
+                }));
+            }
+        }
+        for (Thread vendor : vendors) {
+            vendor.join();
+        }
+
+        int issued = 0;
+        for (TicketPoolService service : nodes) {
+            issued += service.getTicketsSold() + service.getAvailableTickets();
+        }
+        assertEquals(1_000, issued);
+        assertEquals(0, coordinator.describe(Ticket.DEFAULT_EVENT_ID).get("unallocated"));
+        events.close();
+    }
+
+    @Test
+    void starvingNodeReceivesQuotaDonatedByAnotherNode() throws IOException {
+        FileQuotaCoordinator coordinator = new FileQuotaCoordinator(directory, 60_000);
+        ClusterQuota first = new ClusterQuota(1, "first", coordinator, 100, 0, () -> 100, Runnable::run);
+        ClusterQuota second = new ClusterQuota(1, "second", coordinator, 100, 0, () -> 100, Runnable::run);
+
+        assertEquals(10, first.take(10, true));
+        assertEquals(90, first.getBudget());
+        assertEquals(0, second.take(1, true));
+
+        // The first renewal learns that a node is starving, the next one donates.
+        first.renew();
+        assertEquals(90, first.getBudget());
+        first.renew();
+        assertEquals(45, first.getBudget());
+        assertEquals(1, second.take(1, true));
+        assertEquals(44, second.getBudget());
+
+        first.leave();
+        second.leave();
+        Map<String, Object> ledger = coordinator.describe(1);
+        assertEquals(11, ledger.get("allocated"));
+        assertEquals(Map.of(), ledger.get("nodes"));
+    }
+
+    @Test
+    void quotaOfALapsedNodeIsWrittenOffNotReallocated() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        FileQuotaCoordinator coordinator = new FileQuotaCoordinator(directory, 1_000, clock::get);
+        ClusterQuota lapsed = new ClusterQuota(1, "lapsed", coordinator, 50, 0, () -> 100, Runnable::run);
+        ClusterQuota live = new ClusterQuota(1, "live", coordinator, 50, 0, () -> 100, Runnable::run);
+
+        assertEquals(10, lapsed.take(10, true));
+        clock.addAndGet(5_000);
+        assertEquals(50, live.take(50, true));
+        assertEquals(0, live.take(1, true));
+        assertEquals(50, coordinator.describe(1).get("writtenOff"));
+
+        lapsed.renew();
+        assertFalse((Boolean) lapsed.toMap().get("leaseKnown"));
+        assertEquals(40, lapsed.take(40, true));
+        assertEquals(0, lapsed.take(1, true));
+
+        assertEquals(100, coordinator.setMaxEventTickets(1, 0));
+    }
+
+    @Test
+    void anInterruptedLedgerWriteLeavesThePreviousLedgerInPlace() throws IOException {
+        FileQuotaCoordinator coordinator = new FileQuotaCoordinator(directory, 60_000);
+        assertEquals(30, coordinator.sync(1, "a", 100, 30, 0).granted());
+        // A crash while writing the next ledger leaves only a partial temporary file behind.
+        Files.writeString(directory.resolve("event-1.quota.tmp"), "max=100\nalloc");
+
+        QuotaGrant grant = coordinator.sync(1, "b", 100, 100, 0);
+
+        assertEquals(70, grant.granted());
+        assertEquals(100, coordinator.describe(1).get("allocated"));
+        assertFalse(Files.exists(directory.resolve("event-1.quota.tmp")));
+    }
+}
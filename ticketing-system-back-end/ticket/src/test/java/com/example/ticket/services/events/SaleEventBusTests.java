@@ -0,0 +1,59 @@
+package com.example.ticket.services.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaleEventBusTests {
+
+    @Test
+    void deliversEventsInOrderToListeners() {
+        try (SaleEventBus bus = new SaleEventBus(16)) {
+            AtomicLong ticketSum = new AtomicLong();
+            AtomicLong lastTicket = new AtomicLong();
+            AtomicLong outOfOrder = new AtomicLong();
+            bus.addListener((type, eventId, vendorId, customerId, ticketId, timestamp) -> {
+                if (type != SaleEventType.TICKET_ADDED || ticketId <= lastTicket.getAndSet(ticketId)) {
+                    outOfOrder.incrementAndGet();
+                }
+                ticketSum.addAndGet(ticketId);
+            });
+            for (int ticketId = 1; ticketId <= 10; ticketId++) {
+                assertTrue(bus.publish(SaleEventType.TICKET_ADDED, 1, 1, 0, ticketId));
+            }
+
+            assertTrue(bus.flush(2, TimeUnit.SECONDS));
+            assertEquals(55, ticketSum.get());
+            assertEquals(0, outOfOrder.get());
+            assertEquals(0, bus.getDroppedEvents());
+        }
+    }
+
+    @Test
+    void countsDroppedEventsWhenBufferIsFull() throws InterruptedException {
+        try (SaleEventBus bus = new SaleEventBus(4)) {
+            CountDownLatch release = new CountDownLatch(1);
+            bus.addListener((type, eventId, vendorId, customerId, ticketId, timestamp) -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            int accepted = 0;
+            for (int i = 0; i < 20; i++) {
+                if (bus.publish(SaleEventType.TICKET_PURCHASED, 1, 0, 1, i)) {
+                    accepted++;
+                }
+            }
+            release.countDown();
+
+            assertEquals(20, accepted + bus.getDroppedEvents());
+            assertTrue(bus.getDroppedEvents() >= 15);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.ticket.services.execution;
+
+import com.example.ticket.services.CustomerService;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.VendorService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.metrics.PoolMetrics;
+import com.example.ticket.services.pool.TicketPools;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActorExecutorTests {
+    private static final int EVENT = 1;
+
+    private SaleEventBus events;
+    private TicketPoolService service;
+    private ActorExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY);
+        service = new TicketPoolService(TicketPools.create("synchronized"), events);
+        executor = new ActorExecutor(ActorExecutor.Mode.VIRTUAL, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        events.close();
+    }
+
+    @Test
+    void fixedModeQueuesActorsBeyondThePoolWhileVirtualModeRunsThemAllAndStopsOneGroup() throws Exception {
+        ActorExecutor fixed = new ActorExecutor(ActorExecutor.Mode.FIXED, 2);
+        try {
+            assertEquals(2, startBlockedActors(fixed, 5, new AtomicInteger(), 0));
+            assertEquals(2, fixed.getRunningActors());
+        } finally {
+            fixed.shutdownNow();
+        }
+
+        AtomicInteger interrupted = new AtomicInteger();
+        assertEquals(5, startBlockedActors(executor, 5, interrupted, EVENT));
+        assertEquals(3, startBlockedActors(executor, 3, interrupted, EVENT + 1));
+        assertEquals(8, executor.getRunningActors());
+
+        assertEquals(5, executor.stop(EVENT, () -> { }));
+        awaitTrue(() -> interrupted.get() == 5 && executor.getRunningActors() == 3);
+        assertEquals(8L, ((Map<?, ?>) executor.getLagRecorder().summary().get("startLag")).get("samples"));
+    }
+
+    /**
+     * Submits actors that block until interrupted and returns how many of
+     * them started within a short wait.
+     */
+    private static int startBlockedActors(ActorExecutor target, int count, AtomicInteger interrupted, int group)
+            throws InterruptedException {
+        AtomicInteger started = new AtomicInteger();
+        CountDownLatch allStarted = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            target.submit(group, () -> {
+                started.incrementAndGet();
+                allStarted.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                }
+            });
+        }
+        allStarted.await(200, TimeUnit.MILLISECONDS);
+        return started.get();
+    }
+
+    @Test
+    void rateChangesAndPausesTakeEffectWithoutWaitingOutTheSleep() throws Exception {
+        service.addTickets(1, 100, false);
+        CustomerService customer = new CustomerService(service, 7, 60_000);
+        ActorHandle handle = customer.getHandle();
+        executor.submit(EVENT, customer, handle);
+        awaitTrue(() -> service.getTicketsSold() == 1);
+
+        handle.setRateMillis(1);
+        awaitTrue(() -> service.getTicketsSold() >= 10);
+
+        assertTrue(handle.pause());
+        assertEquals(List.of(handle), executor.getActors(EVENT, PoolMetrics.Role.CUSTOMER, 7));
+        Thread.sleep(20);
+        int soldWhilePaused = service.getTicketsSold();
+        Thread.sleep(100);
+        assertEquals(soldWhilePaused, service.getTicketsSold());
+
+        assertTrue(handle.resume());
+        awaitTrue(() -> service.getTicketsSold() > soldWhilePaused);
+    }
+
+    @Test
+    void stopReleasesActorsBlockedOnThePoolWithoutWaitingForTheirTimeout() throws Exception {
+        for (int customerId = 1; customerId <= 50; customerId++) {
+            CustomerService customer = new CustomerService(service, customerId, 1);
+            executor.submit(EVENT, customer, customer.getHandle());
+        }
+        awaitTrue(() -> service.getWaitingCustomers() == 50);
+        List<ActorHandle> handles = executor.getActors(EVENT, null, 0);
+
+        long start = System.nanoTime();
+        assertEquals(50, executor.stop(EVENT, service::wakeWaiters));
+        long stopMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Customers wait up to a second for stock; the stop must not wait that out.
+        assertTrue(stopMillis < 900, "stop took " + stopMillis + " ms");
+        for (ActorHandle handle : handles) {
+            assertTrue(handle.awaitExit(0, TimeUnit.MILLISECONDS));
+            assertEquals(ActorHandle.State.STOPPED, handle.getState());
+        }
+        awaitTrue(() -> executor.getRunningActors() == 0);
+        assertTrue(executor.getActors(EVENT, null, 0).isEmpty());
+    }
+
+    @Test
+    void stoppingSeveralGroupsWaitsOneSharedGracePeriod() throws Exception {
+        Map<Integer, Runnable> groups = new LinkedHashMap<>();
+        CountDownLatch started = new CountDownLatch(3);
+        for (int group = 1; group <= 3; group++) {
+            // Ignores its handle, so only the interrupt after the grace period ends it.
+            ActorHandle handle = new ActorHandle(PoolMetrics.Role.VENDOR, group, 1000);
+            executor.submit(group, () -> {
+                handle.bind();
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    handle.exited();
+                }
+            }, handle);
+            groups.put(group, () -> { });
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        assertEquals(3, executor.stop(groups));
+        long stopMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(stopMillis < 3_000, "stop took " + stopMillis + " ms");
+        awaitTrue(() -> executor.getRunningActors() == 0);
+    }
+
+    @Test
+    void drainingVendorPlacesTheTicketItIsHoldingBeforeExiting() throws Exception {
+        service.setMaxPoolTickets(1);
+        VendorService vendor = new VendorService(service, 3, 1);
+        ActorHandle handle = vendor.getHandle();
+        executor.submit(EVENT, vendor, handle);
+        awaitTrue(() -> service.getAvailableTickets() == 1 && service.getWaitingVendors() == 1);
+
+        assertTrue(handle.drain());
+        assertFalse(handle.awaitExit(100, TimeUnit.MILLISECONDS));
+        assertNotNull(service.removeTicket());
+
+        assertTrue(handle.awaitExit(2, TimeUnit.SECONDS));
+        assertEquals(1, service.getAvailableTickets());
+        assertEquals(2, service.getTicketsAddedByVendor().get(3));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not reached in time");
+            Thread.sleep(5);
+        }
+    }
+}
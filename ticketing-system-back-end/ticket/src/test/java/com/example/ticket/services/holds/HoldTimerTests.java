@@ -0,0 +1,70 @@
+package com.example.ticket.services.holds;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HoldTimerTests {
+
+    @Test
+    void expiresEveryHoldNoEarlierThanItsDeadline() throws Exception {
+        try (HoldTimer timer = new HoldTimer(1)) {
+            int count = 2_000;
+            CountDownLatch expired = new CountDownLatch(count);
+            AtomicInteger early = new AtomicInteger();
+            Random random = new Random(42);
+            long now = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                // Up to 300 ms, so holds start on levels 0 and 1 and cascade down.
+                long deadline = now + TimeUnit.MILLISECONDS.toNanos(random.nextInt(300));
+                timer.schedule(new Hold(i, 1, List.of(), deadline, hold -> {
+                    if (System.nanoTime() < hold.getExpiresAtNanos()) {
+                        early.incrementAndGet();
+                    }
+                    expired.countDown();
+                }));
+            }
+
+            assertTrue(expired.await(5, TimeUnit.SECONDS));
+            // The last callback may still be returning when the latch opens.
+            long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (timer.getPending() > 0 && System.nanoTime() < waitUntil) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, early.get());
+            assertEquals(0, timer.getPending());
+        }
+    }
+
+    @Test
+    void holdsThatEndedEarlyAreRemovedWithoutExpiring() throws Exception {
+        try (HoldTimer timer = new HoldTimer(1)) {
+            Set<Long> expiredIds = ConcurrentHashMap.newKeySet();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(20);
+            Hold confirmed = new Hold(1, 1, List.of(), deadline, hold -> expiredIds.add(hold.getHoldId()));
+            Hold abandoned = new Hold(2, 1, List.of(), deadline, hold -> expiredIds.add(hold.getHoldId()));
+            timer.schedule(confirmed);
+            timer.schedule(abandoned);
+            assertTrue(confirmed.finish(Hold.State.CONFIRMED));
+            timer.cancel(confirmed);
+
+            long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (timer.getPending() > 0 && System.nanoTime() < waitUntil) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(Set.of(2L), expiredIds);
+            assertEquals(Hold.State.CONFIRMED, confirmed.getState());
+            assertEquals(Hold.State.EXPIRED, abandoned.getState());
+            assertFalse(abandoned.finish(Hold.State.RELEASED));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.ticket.services.ids;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketIdAllocatorTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void nodesSharingALeaseFileNeverHandOutTheSameId() throws Exception {
+        Path leaseFile = directory.resolve("ticket-ids.lease");
+        List<TicketIdAllocator> nodes = List.of(
+                new TicketIdAllocator(new FileIdBlockSource(leaseFile), 64, 4_096),
+                new TicketIdAllocator(new FileIdBlockSource(leaseFile), 64, 4_096));
+        List<long[]> allocated = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            TicketIdAllocator allocator = nodes.get(i % 2);
+            long[] ids = new long[50_000 + 10 * 5 + 200];
+            allocated.add(ids);
+            threads.add(Thread.ofPlatform().start(() -> {
+                int n = 0;
+                for (int id = 0; id < 50_000; id++) {
+                    ids[n++] = allocator.next();
+                    if (id % 5_000 == 0) {
+                        // Batches that fit in a block and batches larger than one.
+                        long first = allocator.next(5);
+                        for (int j = 0; j < 5; j++) {
+                            ids[n++] = first + j;
+                        }
+                        if (id % 25_000 == 0) {
+                            first = allocator.next(100);
+                            for (int j = 0; j < 100; j++) {
+                                ids[n++] = first + j;
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Long> unique = new HashSet<>();
+        for (long[] ids : allocated) {
+            for (long id : ids) {
+                if (id != 0) {
+                    assertTrue(unique.add(id), "ID " + id + " was handed out twice");
+                }
+            }
+        }
+        assertEquals(8 * (50_000 + 10 * 5 + 2 * 100), unique.size());
+    }
+
+    @Test
+    void shortLivedThreadsShareBlocksInsteadOfWastingOneEach() throws Exception {
+        TicketIdAllocator allocator = new TicketIdAllocator(null, 64, 4_096);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.execute(() -> ids.add(allocator.next()));
+            }
+        }
+
+        assertEquals(10_000, ids.size());
+        // One block per 64 IDs, plus at most one partly used block per stripe.
+        long stripes = 4L * Runtime.getRuntime().availableProcessors();
+        assertTrue((long) allocator.toMap().get("blocksTaken") <= 10_000 / 64 + 1 + stripes);
+    }
+
+    @Test
+    void restartContinuesAfterTheLastLease() throws Exception {
+        Path leaseFile = directory.resolve("ticket-ids.lease");
+        TicketIdAllocator before = new TicketIdAllocator(new FileIdBlockSource(leaseFile), 16, 100);
+        long highest = 0;
+        for (int i = 0; i < 250; i++) {
+            highest = Math.max(highest, before.next());
+        }
+        before.close();
+
+        // A crash while writing the next lease leaves only a partial temporary file behind.
+        Files.writeString(directory.resolve("ticket-ids.lease.tmp"), "");
+
+        TicketIdAllocator after = new TicketIdAllocator(new FileIdBlockSource(leaseFile), 16, 100);
+        assertEquals(301, after.next());
+        assertTrue(after.next(50) > highest);
+        assertFalse(Files.exists(directory.resolve("ticket-ids.lease.tmp")));
+    }
+
+    @Test
+    void recoveredIdsAreSkippedEvenIfTheLeaseFileIsLost() throws Exception {
+        TicketIdAllocator memory = new TicketIdAllocator();
+        memory.advancePast(41);
+        assertEquals(42, memory.next());
+        assertEquals(43, memory.next(3));
+
+        Path leaseFile = directory.resolve("ticket-ids.lease");
+        TicketIdAllocator durable = new TicketIdAllocator(new FileIdBlockSource(leaseFile), 16, 100);
+        durable.advancePast(5_000);
+        assertEquals(5_001, durable.next());
+        assertEquals("5101", Files.readString(leaseFile).trim());
+    }
+}
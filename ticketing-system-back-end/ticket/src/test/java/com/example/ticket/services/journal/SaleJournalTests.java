@@ -0,0 +1,135 @@
+package com.example.ticket.services.journal;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.pool.TicketPools;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaleJournalTests {
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"always", "batch", "none"})
+    void restartRebuildsPoolFromJournal(String fsync) throws IOException {
+        Path path = directory.resolve("pool.journal");
+        try (SaleJournal journal = open(path, fsync)) {
+            TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 64));
+            service.attachJournal(journal);
+            service.setMaxPoolTickets(10);
+            for (int ticketId = 1; ticketId <= 6; ticketId++) {
+                service.addTicket(1, new Ticket(ticketId));
+            }
+            service.removeTicket();
+            service.purchase(2, 2, true);
+        }
+
+        try (SaleJournal journal = open(path, fsync)) {
+            TicketPoolService service = new TicketPoolService();
+            JournalRecovery recovery = service.attachJournal(journal);
+
+            assertEquals(10, recovery.records());
+            assertEquals(3, service.getTicketsSold());
+            assertEquals(3, service.getAvailableTickets());
+            assertEquals(10, service.getMaxPoolTickets());
+            assertEquals(List.of(4L, 5L, 6L), service.purchase(3, 3, true).stream().map(Ticket::getTicketId).toList());
+        }
+    }
+
+    @Test
+    void batchesLargerThanTheBufferAreDurableWhenTheCallReturns() throws IOException {
+        Path path = directory.resolve("pool.journal");
+        try (SaleJournal journal = open(path, "always")) {
+            TicketPoolService service = new TicketPoolService();
+            service.attachJournal(journal);
+            service.setMaxPoolTickets(1000);
+            assertEquals(500, service.addTickets(1, 500, true));
+            assertEquals(300, service.purchase(2, 300, true).size());
+
+            // Read back while the journal is still open: nothing may be left in its buffers.
+            try (SaleJournal reader = open(path, "none")) {
+                JournalRecovery recovery = reader.recover();
+                assertEquals(801, recovery.records());
+                assertEquals(200, recovery.availableTicketIds().length);
+                assertEquals(300, recovery.ticketsSold());
+            }
+        }
+    }
+
+    @Test
+    void recoveryFailsRatherThanDropTicketsThatDoNotFitTheRing() throws IOException {
+        Path path = directory.resolve("pool.journal");
+        try (SaleJournal journal = open(path, "always")) {
+            TicketPoolService service = new TicketPoolService();
+            service.attachJournal(journal);
+            service.addTickets(1, 40, true);
+        }
+
+        try (SaleJournal journal = open(path, "always")) {
+            TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 16));
+            assertThrows(IllegalStateException.class, () -> service.attachJournal(journal));
+        }
+    }
+
+    @Test
+    void ticketsWithdrawnByAResizeStayOffSaleAfterRestart() throws IOException {
+        Path path = directory.resolve("pool.journal");
+        try (SaleJournal journal = open(path, "always")) {
+            TicketPoolService service = new TicketPoolService();
+            service.attachJournal(journal);
+            service.addTickets(1, 5, false);
+            service.removeTicket();
+            assertEquals(2, service.resize(2, 10).withdrawn().size());
+        }
+
+        try (SaleJournal journal = open(path, "always")) {
+            JournalRecovery recovery = journal.recover();
+
+            assertArrayEquals(new long[]{4, 5}, recovery.availableTicketIds());
+            assertEquals(1, recovery.ticketsSold());
+            assertEquals(2, recovery.maxPoolTickets());
+        }
+    }
+
+    @Test
+    void resetAndTornTailAreHonouredOnRecovery() throws IOException {
+        Path path = directory.resolve("pool.journal");
+        try (SaleJournal journal = open(path, "always")) {
+            TicketPoolService service = new TicketPoolService();
+            service.attachJournal(journal);
+            service.addTicket(1, new Ticket(1));
+            service.resetTicketPool();
+            service.addTicket(1, new Ticket(2));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5}));
+        }
+
+        try (SaleJournal journal = open(path, "always")) {
+            JournalRecovery recovery = journal.recover();
+
+            assertArrayEquals(new long[]{2}, recovery.availableTicketIds());
+            assertEquals(0, recovery.ticketsSold());
+            assertEquals(5, recovery.truncatedBytes());
+        }
+        assertEquals(3L * SaleJournal.RECORD_SIZE, Files.size(path));
+    }
+
+    private static SaleJournal open(Path path, String fsync) throws IOException {
+        return new SaleJournal(path, SaleJournal.FsyncPolicy.from(fsync), 5, 4096);
+    }
+}
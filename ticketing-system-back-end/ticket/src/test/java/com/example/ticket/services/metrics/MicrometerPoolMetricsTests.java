@@ -0,0 +1,57 @@
+package com.example.ticket.services.metrics;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.pool.TicketPools;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrometerPoolMetricsTests {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 16));
+
+    @Test
+    void recordsThroughputLatencyAndOccupancy() throws InterruptedException {
+        service.setMetrics(new MicrometerPoolMetrics(registry, service, 10));
+        service.setMaxPoolTickets(4);
+
+        assertEquals(4, service.addTickets(1, 5, false));
+        service.addTicket(1, new Ticket(99));
+        service.purchase(2, 3, true);
+        assertNotNull(service.takeTicket(3, 5, TimeUnit.MILLISECONDS));
+        assertNull(service.takeTicket(3, 5, TimeUnit.MILLISECONDS));
+
+        assertEquals(4, registry.get("ticket.added").tag("event", "1").counter().count());
+        assertEquals(1, registry.get("ticket.add.rejected").tag("reason", "pool_full").counter().count());
+        assertEquals(4, registry.get("ticket.purchased").counter().count());
+        Timer latency = registry.get("ticket.purchase.latency").timer();
+        assertEquals(2, latency.count());
+        assertEquals(1, registry.get("ticket.wait").tag("role", "customer").timer().count());
+        assertEquals(0, registry.get("ticket.pool.occupancy").gauge().value());
+    }
+
+    @Test
+    void limitsPerActorMeters() {
+        service.setMetrics(new MicrometerPoolMetrics(registry, service, 2));
+        for (int customerId = 1; customerId <= 5; customerId++) {
+            service.getMetrics().actorStarted(PoolMetrics.Role.CUSTOMER, customerId);
+        }
+        service.getMetrics().actorStarted(PoolMetrics.Role.CUSTOMER, 1);
+        service.purchase(1, 1, true);
+
+        assertEquals(2, registry.find("ticket.actor.tickets").functionCounters().size());
+    }
+
+    @Test
+    void exposesEngineContention() {
+        service.setMetrics(new MicrometerPoolMetrics(registry, service, 10));
+
+        assertNotNull(registry.get("ticket.contention").tag("lock", "engine").tag("engine", "ring-buffer").functionCounter());
+        assertEquals(0, registry.get("ticket.contention").tag("lock", "waiters").functionCounter().count());
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.ticket.services.pool;
+
+import com.example.ticket.models.Ticket;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TicketPoolEngineTests {
+
+    @ParameterizedTest
+    @ValueSource(strings = {SynchronizedTicketPool.NAME, RingBufferTicketPool.NAME})
+    void enforcesPoolAndEventLimits(String engine) {
+        TicketPool pool = TicketPools.create(engine, 16);
+        pool.setMaxPoolTickets(2);
+        pool.setMaxEventTickets(3);
+
+        assertEquals(TicketPool.AddResult.ADDED, pool.add(new Ticket(1)));
+        assertEquals(TicketPool.AddResult.ADDED, pool.add(new Ticket(2)));
+        assertEquals(TicketPool.AddResult.POOL_FULL, pool.add(new Ticket(3)));
+
+        assertEquals(1, pool.poll().getTicketId());
+        assertEquals(TicketPool.AddResult.ADDED, pool.add(new Ticket(3)));
+        assertEquals(TicketPool.AddResult.EVENT_LIMIT_REACHED, pool.add(new Ticket(4)));
+
+        assertEquals(2, pool.available());
+        assertEquals(1, pool.sold());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SynchronizedTicketPool.NAME, RingBufferTicketPool.NAME})
+    void batchesAreAllOrNothingOrPartial(String engine) {
+        TicketPool pool = TicketPools.create(engine, 16);
+        pool.setMaxPoolTickets(5);
+        pool.setMaxEventTickets(8);
+
+        assertEquals(0, pool.addAll(tickets(1, 6), true));
+        assertEquals(5, pool.addAll(tickets(1, 6), false));
+        assertTrue(pool.pollBatch(6, true).isEmpty());
+        assertEquals(List.of(1L, 2L, 3L, 4L), pool.pollBatch(4, true).stream().map(Ticket::getTicketId).toList());
+        assertEquals(3, pool.addAll(tickets(10, 4), false));
+        assertEquals(4, pool.pollBatch(10, false).size());
+
+        assertEquals(0, pool.available());
+        assertEquals(8, pool.sold());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SynchronizedTicketPool.NAME, RingBufferTicketPool.NAME})
+    void neverOversellsUnderContention(String engine) throws InterruptedException {
+        TicketPool pool = TicketPools.create(engine, 64);
+        pool.setMaxPoolTickets(50);
+        pool.setMaxEventTickets(1_000);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger bought = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int vendorId = i;
+            workers.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (int n = 0; n < 5_000; n++) {
+                    pool.add(new Ticket(vendorId * 5_000 + n));
+                }
+            }));
+            workers.add(new Thread(() -> {
+                awaitQuietly(start);
+                for (int n = 0; n < 5_000; n++) {
+                    if (pool.poll() != null) {
+                        bought.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertTrue(pool.available() + pool.sold() <= 1_000);
+        while (pool.add(new Ticket(-1)) != TicketPool.AddResult.EVENT_LIMIT_REACHED) {
+            while (pool.poll() != null) {
+                bought.incrementAndGet();
+            }
+        }
+        while (pool.poll() != null) {
+            bought.incrementAndGet();
+        }
+
+        assertEquals(1_000, pool.sold());
+        assertEquals(bought.get(), pool.sold());
+        assertEquals(0, pool.available());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SynchronizedTicketPool.NAME, RingBufferTicketPool.NAME})
+    void heldTicketsKeepCapacityUntilConfirmedOrReturned(String engine) {
+        TicketPool pool = TicketPools.create(engine, 16);
+        pool.setMaxPoolTickets(4);
+        pool.setMaxEventTickets(10);
+        assertEquals(4, pool.addAll(tickets(1, 4), false));
+
+        List<Ticket> held = pool.hold(3, true);
+        assertEquals(List.of(1L, 2L, 3L), held.stream().map(Ticket::getTicketId).toList());
+        assertTrue(pool.hold(2, true).isEmpty());
+        assertEquals(1, pool.available());
+        assertEquals(3, pool.held());
+        assertEquals(TicketPool.AddResult.POOL_FULL, pool.add(new Ticket(5)));
+
+        pool.returnHeld(held.subList(0, 2));
+        pool.confirmHeld(1);
+        assertEquals(3, pool.available());
+        assertEquals(0, pool.held());
+        assertEquals(1, pool.sold());
+        assertEquals(List.of(4L, 1L, 2L), pool.pollBatch(3, true).stream().map(Ticket::getTicketId).toList());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SynchronizedTicketPool.NAME, RingBufferTicketPool.NAME})
+    void countsAreNeverTornWhileTicketsSell(String engine) throws InterruptedException {
+        TicketPool pool = TicketPools.create(engine, 4_096);
+        pool.setMaxPoolTickets(4_000);
+        pool.setMaxEventTickets(4_000);
+        assertEquals(4_000, pool.addAll(tickets(1, 4_000), false));
+        CountDownLatch firstRead = new CountDownLatch(1);
+        List<Thread> buyers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            buyers.add(new Thread(() -> {
+                try {
+                    firstRead.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (pool.poll() != null) {
+                    Thread.onSpinWait();
+                }
+            }));
+        }
+        buyers.forEach(Thread::start);
+
+        PoolCounts counts = pool.counts();
+        PoolCounts previous;
+        do {
+            previous = counts;
+            counts = pool.counts();
+            assertEquals(4_000, counts.available() + counts.sold());
+            assertEquals(4_000, counts.maxPoolTickets());
+            // Versions come from the engine, so a later view never has a lower version or fewer sales.
+            assertTrue(counts.version() >= previous.version());
+            assertTrue(counts.sold() >= previous.sold());
+            if (counts.sold() > previous.sold()) {
+                assertTrue(counts.version() > previous.version());
+            }
+            // Buyers start only after the first read, so reads overlap the sales however fast they are.
+            firstRead.countDown();
+        } while (counts.sold() < 4_000);
+        for (Thread buyer : buyers) {
+            buyer.join();
+        }
+
+        PoolCounts soldOut = pool.counts();
+        assertEquals(new PoolCounts(soldOut.version(), 0, 4_000, 4_000, 4_000), soldOut);
+        pool.setMaxEventTickets(5_000);
+        assertEquals(5_000, pool.counts().maxEventTickets());
+        assertEquals(soldOut.version() + 1, pool.counts().version());
+        assertEquals(4_000, pool.getMaxPoolTickets());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SynchronizedTicketPool.NAME, RingBufferTicketPool.NAME})
+    void resizeWithdrawsUnsoldTicketsThatNoLongerFit(String engine) {
+        TicketPool pool = TicketPools.create(engine, 16);
+        pool.setMaxPoolTickets(10);
+        pool.setMaxEventTickets(10);
+        assertEquals(8, pool.addAll(tickets(1, 8), false));
+        assertEquals(2, pool.pollBatch(2, true).size());
+        assertEquals(1, pool.hold(1, true).size());
+
+        assertEquals(List.of(4L, 5L), ids(pool.resize(4, 10)));
+        assertEquals(3, pool.available());
+        assertEquals(TicketPool.AddResult.POOL_FULL, pool.add(new Ticket(9)));
+
+        assertEquals(List.of(), pool.resize(10, 6));
+        assertEquals(List.of(6L, 7L), ids(pool.resize(10, 4)));
+        PoolCounts counts = pool.counts();
+        assertEquals(new PoolCounts(counts.version(), 1, 2, 10, 4), counts);
+        assertEquals(TicketPool.AddResult.EVENT_LIMIT_REACHED, pool.add(new Ticket(9)));
+
+        // Sold and held tickets stay; everything else goes.
+        assertEquals(List.of(8L), ids(pool.resize(10, 1)));
+        assertEquals(1, pool.held());
+        assertEquals(0, pool.available());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SynchronizedTicketPool.NAME, RingBufferTicketPool.NAME})
+    void shrinkingUnderLoadNeverLeavesMoreThanTheNewLimit(String engine) throws InterruptedException {
+        TicketPool pool = TicketPools.create(engine, 1_024);
+        pool.setMaxPoolTickets(1_000);
+        pool.setMaxEventTickets(100_000);
+        assertEquals(1_000, pool.addAll(tickets(1, 1_000), false));
+        AtomicInteger nextId = new AtomicInteger(1_000);
+        AtomicInteger added = new AtomicInteger(1_000);
+        AtomicInteger poolPeak = new AtomicInteger();
+        CountDownLatch resized = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(new Thread(() -> {
+                for (int n = 0; n < 20_000; n++) {
+                    if (pool.add(new Ticket(nextId.incrementAndGet())) == TicketPool.AddResult.ADDED) {
+                        added.incrementAndGet();
+                    }
+                    if (resized.getCount() == 0) {
+                        poolPeak.accumulateAndGet(pool.available() + pool.held(), Math::max);
+                    }
+                }
+            }));
+            workers.add(new Thread(() -> {
+                for (int n = 0; n < 20_000; n++) {
+                    pool.poll();
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        int withdrawn = pool.resize(50, 100_000).size();
+        resized.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertTrue(poolPeak.get() <= 50, "pool held " + poolPeak.get() + " tickets after shrinking to 50");
+        assertEquals(added.get(), pool.available() + pool.sold() + withdrawn);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {SynchronizedTicketPool.NAME, RingBufferTicketPool.NAME})
+    void resetsDuringSalesLeaveTheRingAndCountsInStep(String engine) throws InterruptedException {
+        TicketPool pool = TicketPools.create(engine, 64);
+        pool.setMaxPoolTickets(64);
+        pool.setMaxEventTickets(Integer.MAX_VALUE);
+        AtomicInteger nextId = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(new Thread(() -> {
+                for (int n = 0; n < 20_000; n++) {
+                    pool.add(new Ticket(nextId.incrementAndGet()));
+                    pool.addAll(tickets(nextId.addAndGet(3) - 2, 3), false);
+                }
+            }));
+            workers.add(new Thread(() -> {
+                for (int n = 0; n < 20_000; n++) {
+                    pool.poll();
+                    pool.pollBatch(2, false);
+                }
+            }));
+        }
+        workers.forEach(Thread::start);
+        while (workers.stream().anyMatch(Thread::isAlive)) {
+            pool.reset();
+        }
+
+        // Every ticket counted as available can be bought, and none beyond them.
+        int available = pool.available();
+        assertEquals(available, pool.pollBatch(available, true).size());
+        assertNull(pool.poll());
+        // Every slot counted as free can be filled again.
+        pool.reset();
+        assertEquals(64, pool.addAll(tickets(1, 64), false));
+        assertEquals(64, pool.pollBatch(64, true).size());
+    }
+
+    private static List<Long> ids(List<Ticket> tickets) {
+        return tickets.stream().map(Ticket::getTicketId).toList();
+    }
+
+    private static List<Ticket> tickets(int firstId, int count) {
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tickets.add(new Ticket(firstId + i));
+        }
+        return tickets;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.ticket.services.purchase;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.TicketPools;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurchaseQueueTests {
+
+    @Test
+    void waitingPurchasesAreServedInArrivalOrder() {
+        TicketPoolService service = new TicketPoolService();
+        PendingPurchase first = service.purchaseAsync(1, 2, true);
+        PendingPurchase second = service.purchaseAsync(2, 2, true);
+        PendingPurchase partial = service.purchaseAsync(3, 5, false);
+        assertFalse(first.isDone());
+        assertEquals(3, service.getPendingPurchases());
+
+        service.addTickets(1, 3, false);
+        assertEquals(2, first.join().size());
+        assertFalse(second.isDone());
+
+        service.addTickets(1, 2, false);
+        assertEquals(2, second.join().size());
+        assertEquals(1, partial.join().size());
+        assertEquals(5, service.getTicketsSold());
+        assertEquals(0, service.getHeldTickets());
+        assertEquals(0, service.getPendingPurchases());
+    }
+
+    @Test
+    void cancelledPurchasesBuyNothingAndFreeTheirPlace() {
+        TicketPoolService service = new TicketPoolService();
+        service.setMaxPendingPurchases(2);
+        PendingPurchase cancelled = service.purchaseAsync(1, 1, true);
+        PendingPurchase waiting = service.purchaseAsync(2, 1, true);
+        assertNull(service.purchaseAsync(3, 1, true));
+
+        assertTrue(cancelled.cancel(false));
+        PendingPurchase last = service.purchaseAsync(3, 1, true);
+        assertNotNull(last);
+        service.addTickets(1, 1, false);
+
+        assertTrue(cancelled.isCancelled());
+        assertEquals(0, service.getTicketsPurchasedByCustomer().get(1));
+        assertEquals(1, service.getPendingPurchases());
+        assertEquals(1, waiting.join().size());
+        assertFalse(last.isDone());
+        assertFalse(waiting.cancel(false));
+
+        service.resetTicketPool();
+        assertEquals(List.of(), last.join());
+    }
+
+    @Test
+    void tensOfThousandsOfBuyersWaitWithoutAThreadEach() {
+        try (SaleEventBus events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY)) {
+            TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer", 1_024), events);
+            service.setMaxEventTickets(20_000);
+            service.setMaxPoolTickets(1_000);
+            int threadsBefore = Thread.activeCount();
+            List<PendingPurchase> purchases = new ArrayList<>();
+            for (int customerId = 1; customerId <= 20_000; customerId++) {
+                purchases.add(service.purchaseAsync(customerId, 1, true));
+            }
+            assertEquals(20_000, service.getPendingPurchases());
+            assertTrue(Thread.activeCount() <= threadsBefore + 2);
+
+            while (service.getTicketsSold() < 20_000) {
+                assertTrue(service.addTickets(1, 1_000, false) > 0);
+            }
+
+            Set<Long> ticketIds = new HashSet<>();
+            for (PendingPurchase purchase : purchases) {
+                List<Ticket> tickets = purchase.join();
+                assertEquals(1, tickets.size());
+                ticketIds.add(tickets.get(0).getTicketId());
+            }
+            assertEquals(20_000, ticketIds.size());
+            assertEquals(0, service.getAvailableTickets());
+            assertEquals(0, service.getPendingPurchases());
+        }
+    }
+
+    @Test
+    void aSaleThatFailsFailsItsPurchaseAndTheQueueKeepsServing() {
+        AtomicInteger stock = new AtomicInteger();
+        List<Ticket> givenBack = new ArrayList<>();
+        PurchaseQueue queue = new PurchaseQueue(10, new PurchaseQueue.Seller() {
+            @Override
+            public List<Ticket> hold(int quantity, boolean allOrNothing) {
+                if (stock.get() < quantity) {
+                    return List.of();
+                }
+                stock.addAndGet(-quantity);
+                List<Ticket> tickets = new ArrayList<>();
+                for (int i = 0; i < quantity; i++) {
+                    tickets.add(new Ticket(stock.get() + i));
+                }
+                return tickets;
+            }
+
+            @Override
+            public void sell(PendingPurchase purchase, List<Ticket> tickets) {
+                if (purchase.getCustomerId() == 1) {
+                    throw new UncheckedIOException(new IOException("Journal is full."));
+                }
+            }
+
+            @Override
+            public void giveBack(List<Ticket> tickets) {
+                givenBack.addAll(tickets);
+            }
+        });
+        PendingPurchase failing = queue.submit(1, 1, true);
+        PendingPurchase next = queue.submit(2, 1, true);
+
+        stock.set(2);
+        queue.serve();
+
+        CompletionException failure = assertThrows(CompletionException.class, failing::join);
+        assertEquals("Journal is full.", failure.getCause().getCause().getMessage());
+        assertEquals(1, next.join().size());
+        assertEquals(0, queue.getWaiting());
+        assertTrue(givenBack.isEmpty());
+
+        // A failure on the fast path fails the purchase it was returned with.
+        stock.set(1);
+        assertTrue(queue.submit(1, 1, true).isCompletedExceptionally());
+        PendingPurchase later = queue.submit(3, 1, true);
+        stock.set(1);
+        queue.serve();
+        assertEquals(1, later.join().size());
+    }
+}
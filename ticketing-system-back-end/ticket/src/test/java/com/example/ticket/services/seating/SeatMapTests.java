@@ -0,0 +1,119 @@
+package com.example.ticket.services.seating;
+
+import com.example.ticket.models.Seat;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatMapTests {
+
+    @Test
+    void claimsFrontRowCentreFirst() {
+        SeatMap seatMap = new SeatMap(List.of(new SeatMap.SectionLayout("A", 3, 10)));
+
+        List<Seat> pair = seatMap.claimBestAvailable(2, null);
+        assertEquals(List.of(new Seat(4, "A", 1, 5), new Seat(5, "A", 1, 6)), pair);
+
+        List<Seat> four = seatMap.claimBestAvailable(4, null);
+        assertEquals(1, four.get(0).row());
+        assertAdjacent(four);
+
+        List<Seat> six = seatMap.claimBestAvailable(6, null);
+        assertEquals(2, six.get(0).row());
+        assertEquals(18, seatMap.getAvailable());
+    }
+
+    @Test
+    void runsSpanWordsButNeverRows() {
+        SeatMap seatMap = new SeatMap(List.of(new SeatMap.SectionLayout("Floor", 2, 100)));
+
+        List<Seat> block = seatMap.claimBestAvailable(70, null);
+        assertEquals(16, block.get(0).seat());
+        assertEquals(85, block.get(69).seat());
+        assertAdjacent(block);
+
+        List<Seat> next = seatMap.claimBestAvailable(40, null);
+        assertEquals(2, next.get(0).row());
+        assertTrue(seatMap.claimBestAvailable(61, null).isEmpty());
+        assertTrue(seatMap.claimBestAvailable(101, null).isEmpty());
+    }
+
+    @Test
+    void releasedSeatsCanBeClaimedAgain() {
+        SeatMap seatMap = new SeatMap(List.of(new SeatMap.SectionLayout("A", 1, 4)));
+        List<Seat> all = seatMap.claimBestAvailable(4, null);
+        assertTrue(seatMap.claimBestAvailable(1, null).isEmpty());
+
+        assertEquals(2, seatMap.release(all.get(1).seatId(), all.get(2).seatId(), all.get(2).seatId()));
+
+        assertEquals(all.subList(1, 3), seatMap.claimBestAvailable(2, null));
+        assertEquals(0, seatMap.getAvailable());
+    }
+
+    @Test
+    void searchesLargeMapsAcrossSectionsAndPrefersEarlierSectionsOnTies() {
+        List<SeatMap.SectionLayout> layouts = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            layouts.add(new SeatMap.SectionLayout("S" + i, 100, 50));
+        }
+        SeatMap seatMap = new SeatMap(layouts);
+        assertTrue(seatMap.getCapacity() >= SeatMap.PARALLEL_SEARCH_SEATS);
+
+        assertEquals("S1", seatMap.claimBestAvailable(4, null).get(0).section());
+        assertEquals("S2", seatMap.claimBestAvailable(50, null).get(0).section());
+        assertEquals("S3", seatMap.claimBestAvailable(2, "S3").get(0).section());
+        assertThrows(IllegalArgumentException.class, () -> seatMap.claimBestAvailable(2, "S9"));
+    }
+
+    @Test
+    void concurrentPickersNeverShareASeat() throws Exception {
+        SeatMap seatMap = new SeatMap(List.of(
+                new SeatMap.SectionLayout("Left", 40, 30),
+                new SeatMap.SectionLayout("Right", 40, 30)));
+        Set<Integer> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        ExecutorService pickers = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < 8; p++) {
+            futures.add(pickers.submit(() -> {
+                List<Seat> seats;
+                while (!(seats = seatMap.claimBestAvailable(3, null)).isEmpty()) {
+                    assertAdjacent(seats);
+                    for (Seat seat : seats) {
+                        if (!claimed.add(seat.seatId())) {
+                            duplicates.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pickers.shutdown();
+
+        assertEquals(0, duplicates.get());
+        assertEquals(seatMap.getCapacity() - claimed.size(), seatMap.getAvailable());
+        for (int seatId = 0; seatId < seatMap.getCapacity(); seatId++) {
+            assertEquals(claimed.contains(seatId), seatMap.isClaimed(seatId));
+        }
+    }
+
+    private static void assertAdjacent(List<Seat> seats) {
+        for (int i = 1; i < seats.size(); i++) {
+            assertEquals(seats.get(0).section(), seats.get(i).section());
+            assertEquals(seats.get(0).row(), seats.get(i).row());
+            assertEquals(seats.get(i - 1).seat() + 1, seats.get(i).seat());
+        }
+    }
+}
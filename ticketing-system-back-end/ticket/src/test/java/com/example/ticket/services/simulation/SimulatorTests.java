@@ -0,0 +1,124 @@
+package com.example.ticket.services.simulation;
+
+import com.example.ticket.models.Ticket;
+import com.example.ticket.services.TicketPoolService;
+import com.example.ticket.services.events.SaleEventBus;
+import com.example.ticket.services.pool.TicketPools;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTests {
+
+    @Test
+    void sameSeedReplaysTheSameRun() {
+        Map<String, String> settings = Map.of("seed", "7", "arrivalCurve", "0:50,10000:400,20000:50",
+                "durationMillis", "30000", "ticketsPerRelease", "40", "releaseEveryMillis", "500");
+        Simulator simulator = new Simulator();
+
+        SimulationReport first = simulator.runVirtual(WorkloadProfile.from(settings));
+        SimulationReport second = simulator.runVirtual(WorkloadProfile.from(settings));
+
+        assertTrue(first.getBuyers() > 1_000);
+        assertEquals(first.getBuyers(), second.getBuyers());
+        assertEquals(first.getTicketsSold(), second.getTicketsSold());
+        assertEquals(first.getBuyersServed(), second.getBuyersServed());
+        assertEquals(first.getBuyersGaveUp(), second.getBuyersGaveUp());
+        assertEquals(first.getSellOutMillis(), second.getSellOutMillis());
+        assertEquals(first.getSimulatedMillis(), second.getSimulatedMillis());
+        assertEquals(first.getFulfilmentMillis(0.99), second.getFulfilmentMillis(0.99));
+
+        SimulationReport other = simulator.runVirtual(WorkloadProfile.from(Map.of("seed", "8",
+                "arrivalCurve", "0:50,10000:400,20000:50", "durationMillis", "30000")));
+        assertNotEquals(first.getBuyers(), other.getBuyers());
+    }
+
+    @Test
+    void onSaleBurstSellsOutFasterThanRealTime() {
+        WorkloadProfile profile = WorkloadProfile.from(Map.of("arrivalCurve", "0:0", "onSaleAtMillis", "5000",
+                "onSaleBuyers", "5000", "onSaleWindowMillis", "2000", "maxTicketsPerBuyer", "2",
+                "initialTickets", "1000", "ticketsPerRelease", "0", "maxEventTickets", "1000",
+                "maxPoolTickets", "1000", "engine", "ring-buffer"));
+
+        SimulationReport report = new Simulator().runVirtual(profile);
+
+        assertEquals(5_000, report.getBuyers());
+        assertEquals(1_000, report.getTicketsReleased());
+        assertEquals(1_000, report.getTicketsSold());
+        assertEquals(report.getBuyers(), report.getBuyersServed() + report.getBuyersGaveUp());
+        assertTrue(report.getSellOutMillis() >= 5_000 && report.getSellOutMillis() < 7_000);
+        assertTrue(report.getWallMillis() < report.getSimulatedMillis());
+        assertTrue(report.getOperationNanos(0.99) > 0);
+    }
+
+    @Test
+    void arrivalsFollowTheCurve() {
+        WorkloadProfile profile = WorkloadProfile.from(Map.of("seed", "3", "durationMillis", "4000",
+                "arrivalCurve", "0:0,1999:0,2000:1000"));
+
+        Workload workload = Workload.generate(profile);
+
+        assertTrue(workload.arrivalNanos[0] >= TimeUnit.MILLISECONDS.toNanos(1999));
+        assertTrue(workload.buyers() > 1_800 && workload.buyers() < 2_200, "buyers: " + workload.buyers());
+        for (int quantity : workload.quantities) {
+            assertTrue(quantity >= 1 && quantity <= profile.getMaxTicketsPerBuyer());
+        }
+    }
+
+    @Test
+    void liveRunPlaysAgainstARunningPool() throws Exception {
+        try (SaleEventBus events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY)) {
+            TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer"), events);
+            service.setMaxEventTickets(200);
+            service.setMaxPoolTickets(200);
+            WorkloadProfile profile = WorkloadProfile.from(Map.of("durationMillis", "1000",
+                    "arrivalCurve", "0:300", "initialTickets", "100", "ticketsPerRelease", "0",
+                    "retryMillis", "100", "patienceMillis", "500"));
+
+            SimulationReport report = new Simulator().runLive(profile, service, 4);
+
+            assertEquals(Simulator.Mode.LIVE, report.getMode());
+            assertEquals(100, report.getTicketsReleased());
+            assertEquals(service.getTicketsSold(), report.getTicketsSold());
+            assertEquals(report.getBuyers(), report.getBuyersServed() + report.getBuyersGaveUp());
+            assertTrue(report.getWallMillis() < 1_000);
+        }
+    }
+
+    @Test
+    void liveRunFinishesAndReportsStepsThatThrow() throws Exception {
+        try (SaleEventBus events = new SaleEventBus(SaleEventBus.DEFAULT_CAPACITY)) {
+            TicketPoolService service = new TicketPoolService(TicketPools.create("ring-buffer"), events) {
+                @Override
+                public List<Ticket> purchase(int customerId, int quantity, boolean allOrNothing) {
+                    throw new UncheckedIOException(new IOException("journal unavailable"));
+                }
+            };
+            service.setMaxEventTickets(200);
+            service.setMaxPoolTickets(200);
+            WorkloadProfile profile = WorkloadProfile.from(Map.of("durationMillis", "500",
+                    "arrivalCurve", "0:100", "initialTickets", "100", "ticketsPerRelease", "0"));
+
+            SimulationReport report = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> new Simulator().runLive(profile, service, 4));
+
+            assertEquals(report.getBuyers(), report.getFailedSteps());
+            assertEquals(0, report.getBuyersServed());
+            assertTrue(report.getFailure().contains("journal unavailable"), report.getFailure());
+            assertEquals(100, report.getTicketsReleased());
+        }
+    }
+
+    @Test
+    void rejectsUnknownSettings() {
+        assertThrows(IllegalArgumentException.class, () -> WorkloadProfile.from(Map.of("buyers", "10")));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadProfile.from(Map.of("arrivalCurve", "0:5,0:6")));
+    }
+}
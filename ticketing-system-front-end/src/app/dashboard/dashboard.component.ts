@@ -1,6 +1,5 @@
 import { Component, OnInit, OnDestroy } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
-import { interval, Subscription } from 'rxjs';
 import { FormsModule } from '@angular/forms';
 import { CommonModule } from '@angular/common';
 
@@ -14,6 +13,8 @@ import { CommonModule } from '@angular/common';
 export class DashboardComponent implements OnInit, OnDestroy {
   availableTickets: number = 0;
   ticketsSold: number = 0;
+  waitingRoomDepth: number = 0;
+  expectedWaitMillis: number = 0;
   vendorId?: number;
   ticketReleaseRate?: number;
   customerId?: number;
@@ -21,24 +22,38 @@ export class DashboardComponent implements OnInit, OnDestroy {
   maxEventTickets?: number;
   maxPoolTickets?: number;
   message?: string;
-  private pollingSubscription?: Subscription;
+  private statusStream?: EventSource;
   private isStopped: boolean = false;
   logs: string[] = [];
 
   constructor(private http: HttpClient) {}
 
   ngOnInit(): void {
-    this.startPolling();
-    this.pollingSubscription = interval(10).subscribe(() => {
-      this.getTicketCount();
-    });
+    this.getTicketCount();
+    this.openStatusStream();
     this.addLog('Dashboard initialized.');
   }
 
-  startPolling() {
-    this.pollingSubscription = interval(500).subscribe(() => {
-      this.getTicketCount();
+  // The backend pushes one status snapshot per publish interval, so the
+  // dashboard no longer polls /status. EventSource reconnects on its own.
+  openStatusStream() {
+    this.statusStream = new EventSource(
+      'http://localhost:8080/api/ticketing/status/stream'
+    );
+    this.statusStream.addEventListener('status', (event) => {
+      const snapshot = JSON.parse((event as MessageEvent).data);
+      this.availableTickets = snapshot.availableTickets;
+      this.ticketsSold = snapshot.ticketsSold;
+      this.waitingRoomDepth = snapshot.waitingRoomDepth;
+      this.expectedWaitMillis = snapshot.expectedWaitMillis;
+      this.isStopped = false;
     });
+    this.statusStream.onerror = () => {
+      if (!this.isStopped) {
+        this.message = 'Application is stopped. Ticket count not available.';
+        this.isStopped = true;
+      }
+    };
   }
 
   getTicketCount() {
@@ -181,9 +196,6 @@ export class DashboardComponent implements OnInit, OnDestroy {
           this.customerRetrievalRate = 0;
           this.maxEventTickets = 1000;
           this.maxPoolTickets = 200;
-          if (this.pollingSubscription) {
-            this.pollingSubscription.unsubscribe();
-          }
           this.addLog('System stopped and reset.');
         },
         (error) => {
@@ -194,8 +206,6 @@ export class DashboardComponent implements OnInit, OnDestroy {
   }
 
   ngOnDestroy(): void {
-    if (this.pollingSubscription) {
-      this.pollingSubscription.unsubscribe();
-    }
+    this.statusStream?.close();
   }
 }